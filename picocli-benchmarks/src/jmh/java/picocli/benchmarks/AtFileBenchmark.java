@@ -0,0 +1,55 @@
+package picocli.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import picocli.CommandLine;
+import picocli.CommandLine.ParseResult;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures expanding and parsing multi-megabyte argument files, in the default and in the simplified format.
+ * Run with {@code -prof gc} to see the memory allocated per parse.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AtFileBenchmark {
+
+    /** About 40 bytes per path: 100,000 paths make a 4 MB file, 400,000 paths a 16 MB file. */
+    @Param({"100000", "400000"})
+    int paths;
+
+    @Param({"false", "true"})
+    boolean simplified;
+
+    CommandLine cmd;
+    String[] args;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        cmd = new CommandLine(new Fixtures.PathsCommand()).setUseSimplifiedAtFiles(simplified);
+        File argumentFile = Fixtures.argumentFile(paths);
+        args = new String[] {"@" + argumentFile.getAbsolutePath()};
+    }
+
+    @Benchmark
+    public ParseResult parseAtFile() {
+        return cmd.parseArgs(args);
+    }
+}
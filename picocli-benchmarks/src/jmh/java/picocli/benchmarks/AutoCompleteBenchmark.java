@@ -0,0 +1,94 @@
+package picocli.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import picocli.AutoComplete;
+import picocli.CommandLine;
+import picocli.CommandLine.Model.CommandSpec;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures generating the bash completion script, and the latency of interactive completion
+ * for a command with 1,000 options.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AutoCompleteBenchmark {
+
+    static final int WIDE_OPTION_COUNT = 1000;
+
+    CommandLine annotated;
+    CommandLine deepTree;
+    CommandSpec wide;
+    AutoComplete.IncrementalCompleter wideCompleter;
+    String[] completionArgs;
+    String[] typedPrefixes;
+    int keystroke;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        annotated = new CommandLine(new Fixtures.AnnotatedCommand());
+        deepTree = Fixtures.deepTree(3, 4);
+        wide = new CommandLine(Fixtures.wideSpec(WIDE_OPTION_COUNT)).getCommandSpec();
+        wideCompleter = new AutoComplete.IncrementalCompleter(wide);
+        completionArgs = new String[] {"--option-4=a", "--option-1", "1", "--option-99"};
+        typedPrefixes = new String[] {"-", "--", "--o", "--op", "--opt", "--opti", "--optio", "--option", "--option-", "--option-9"};
+    }
+
+    @Benchmark
+    public String annotatedBash() {
+        return AutoComplete.bash("app", annotated);
+    }
+
+    @Benchmark
+    public String deepTreeBash() {
+        return AutoComplete.bash("top", deepTree);
+    }
+
+    /** Completes the same command line repeatedly, as when the user presses TAB more than once. */
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<CharSequence> wideCompleteRepeated() {
+        List<CharSequence> candidates = new ArrayList<CharSequence>();
+        wideCompleter.complete(completionArgs, 3, 4, 40, candidates);
+        return candidates;
+    }
+
+    /** Completes the word being typed after every keystroke. */
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<CharSequence> wideCompleteTyping() {
+        String word = typedPrefixes[keystroke++ % typedPrefixes.length];
+        List<CharSequence> candidates = new ArrayList<CharSequence>();
+        wideCompleter.complete(new String[] {"--option-4=a", "--option-1", "1", word}, 3, word.length(), 40, candidates);
+        return candidates;
+    }
+
+    /** Baseline: {@code AutoComplete.complete} creates a new parser for every invocation. */
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<CharSequence> wideCompleteStateless() {
+        List<CharSequence> candidates = new ArrayList<CharSequence>();
+        AutoComplete.complete(wide, completionArgs, 3, 4, 40, candidates);
+        return candidates;
+    }
+}
@@ -0,0 +1,87 @@
+package picocli.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import picocli.CommandLine;
+import picocli.CommandLine.Model.OptionSpec;
+import picocli.CommandLine.ParseResult;
+import picocli.CommandLine.RunLast;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of assigning and reading option values through the field and setter method bindings,
+ * compared to plain reflection, and the cost of invoking a {@code Callable} command
+ * and a {@code @Command}-annotated method once the command line has been parsed.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BindingBenchmark {
+
+    Fixtures.BindingCommand command;
+    Field field;
+    OptionSpec fieldOption;
+    OptionSpec setterOption;
+    ParseResult callableParseResult;
+    ParseResult methodParseResult;
+    RunLast runLast;
+    int value;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        command = new Fixtures.BindingCommand();
+        field = Fixtures.BindingCommand.class.getDeclaredField("field");
+        field.setAccessible(true);
+        CommandLine cmd = new CommandLine(command);
+        fieldOption = cmd.getCommandSpec().findOption("--field");
+        setterOption = cmd.getCommandSpec().findOption("--setter");
+        callableParseResult = cmd.parseArgs("--field", "1", "--setter", "2");
+
+        CommandLine method = new CommandLine(CommandLine.getCommandMethods(Fixtures.MethodCommands.class, "invoke").get(0));
+        methodParseResult = method.parseArgs(Fixtures.METHOD_ARGS);
+        runLast = new RunLast();
+    }
+
+    /** Baseline: reflection without the binding. */
+    @Benchmark
+    public Object reflectiveFieldSetGet() throws Exception {
+        field.set(command, ++value);
+        return field.get(command);
+    }
+
+    @Benchmark
+    public Object fieldBindingSetGet() {
+        fieldOption.setValue(++value);
+        return fieldOption.getValue();
+    }
+
+    @Benchmark
+    public Object methodBindingSetGet() {
+        setterOption.setValue(++value);
+        return setterOption.getValue();
+    }
+
+    @Benchmark
+    public int invokeCallable() {
+        return runLast.execute(callableParseResult);
+    }
+
+    @Benchmark
+    public int invokeCommandMethod() {
+        return runLast.execute(methodParseResult);
+    }
+}
@@ -0,0 +1,61 @@
+package picocli.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import picocli.CommandLine;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of executing a repeatable, CPU-heavy subcommand multiple times,
+ * sequentially with {@code RunLast} and in parallel with {@code RunConcurrently}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ExecuteBenchmark {
+    private static final int SUBCOMMANDS = 8;
+
+    ExecutorService executor;
+    String[] args;
+    CommandLine runLast;
+    CommandLine runConcurrently;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        args = Fixtures.transformArgs(SUBCOMMANDS);
+        runLast = new CommandLine(new Fixtures.TransformTool()).setExecutionStrategy(new CommandLine.RunLast());
+        runConcurrently = new CommandLine(new Fixtures.TransformTool()).setExecutionStrategy(new CommandLine.RunConcurrently(executor));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public int runLast() {
+        return runLast.execute(args);
+    }
+
+    @Benchmark
+    public int runConcurrently() {
+        return runConcurrently.execute(args);
+    }
+}
@@ -0,0 +1,301 @@
+package picocli.benchmarks;
+
+import picocli.CommandLine;
+import picocli.CommandLine.ArgGroup;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Model.OptionSpec;
+import picocli.CommandLine.Model.PositionalParamSpec;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Parameters;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Command models and command lines shared by the benchmarks.
+ */
+final class Fixtures {
+    private Fixtures() {}
+
+    /** Returns a command with the specified number of options of various types, built with the programmatic API. */
+    static CommandSpec wideSpec(int optionCount) {
+        CommandSpec spec = CommandSpec.create().name("wide").mixinStandardHelpOptions(true);
+        for (int i = 0; i < optionCount; i++) {
+            OptionSpec.Builder option = OptionSpec.builder("--option-" + i)
+                    .description("Description of option " + i + ", which is long enough to be wrapped over multiple lines in the usage help message.");
+            switch (i % 4) {
+                case 0: option.type(String.class).paramLabel("<value>"); break;
+                case 1: option.type(int.class).paramLabel("<number>"); break;
+                case 2: option.type(List.class).auxiliaryTypes(String.class).splitRegex(","); break;
+                default: option.type(Map.class).auxiliaryTypes(String.class, Integer.class); break;
+            }
+            spec.addOption(option.build());
+        }
+        spec.addPositional(PositionalParamSpec.builder().type(List.class).auxiliaryTypes(File.class).paramLabel("FILE").build());
+        return spec;
+    }
+
+    /** Returns arguments that match every tenth option of a {@linkplain #wideSpec(int) wide} command. */
+    static String[] wideArgs(int optionCount) {
+        List<String> result = new ArrayList<String>();
+        for (int i = 0; i < optionCount; i += 10) {
+            switch (i % 4) {
+                case 0: result.add("--option-" + i + "=value" + i); break;
+                case 1: result.add("--option-" + i); result.add(String.valueOf(i)); break;
+                case 2: result.add("--option-" + i + "=a,b,c"); break;
+                default: result.add("--option-" + i); result.add("key" + i + "=" + i); break;
+            }
+        }
+        result.add("file1.txt");
+        result.add("file2.txt");
+        return result.toArray(new String[0]);
+    }
+
+    /** Returns one argument for each option of a {@linkplain #wideSpec(int) wide} command, with the option parameter attached. */
+    static String[] wideAttachedArgs(int optionCount) {
+        String[] result = new String[optionCount];
+        for (int i = 0; i < optionCount; i++) {
+            switch (i % 4) {
+                case 0: result[i] = "--option-" + i + "=value" + i; break;
+                case 1: result[i] = "--option-" + i + "=" + i; break;
+                case 2: result[i] = "--option-" + i + "=a,b,c"; break;
+                default: result[i] = "--option-" + i + "=key" + i + "=" + i; break;
+            }
+        }
+        return result;
+    }
+
+    /** Returns one argument for each option of a {@linkplain #wideSpec(int) wide} command, with the option name in upper case. */
+    static String[] wideUpperCaseArgs(int optionCount) {
+        String[] result = wideAttachedArgs(optionCount);
+        for (int i = 0; i < result.length; i++) {
+            int separator = result[i].indexOf('=');
+            result[i] = result[i].substring(0, separator).toUpperCase() + result[i].substring(separator);
+        }
+        return result;
+    }
+
+    /** Returns a tree of subcommands with the specified depth where each command has {@code fanOut} subcommands. */
+    static CommandLine deepTree(int depth, int fanOut) {
+        return new CommandLine(subtree("top", depth, fanOut));
+    }
+
+    private static CommandSpec subtree(String name, int depth, int fanOut) {
+        CommandSpec spec = CommandSpec.create().name(name).mixinStandardHelpOptions(true);
+        spec.addOption(OptionSpec.builder("-v", "--verbose").type(boolean[].class).arity("0").build());
+        spec.addOption(OptionSpec.builder("-o", "--output").type(File.class).build());
+        if (depth > 0) {
+            for (int i = 0; i < fanOut; i++) {
+                spec.addSubcommand(name + "-" + i, subtree(name + "-" + i, depth - 1, fanOut));
+            }
+        }
+        return spec;
+    }
+
+    /** Returns arguments that invoke the last leaf command of a {@linkplain #deepTree(int, int) deep tree}. */
+    static String[] deepTreeArgs(int depth, int fanOut) {
+        return deepTreeArgs(depth, fanOut, false);
+    }
+
+    /** Returns arguments that invoke the last leaf command of a {@linkplain #deepTree(int, int) deep tree},
+     * optionally with the subcommand names in upper case. */
+    static String[] deepTreeArgs(int depth, int fanOut, boolean upperCaseCommands) {
+        List<String> result = new ArrayList<String>();
+        String name = "top";
+        for (int level = 0; level < depth; level++) {
+            name = name + "-" + (fanOut - 1);
+            result.add(upperCaseCommands ? name.toUpperCase() : name);
+            result.add("-vv");
+            result.add("--output=out" + level);
+        }
+        return result.toArray(new String[0]);
+    }
+
+    /** Returns the specified option followed by a number, repeated the specified number of times. */
+    static String[] repeatedOptionArgs(String option, int repetitions) {
+        String[] result = new String[repetitions * 2];
+        for (int i = 0; i < repetitions; i++) {
+            result[2 * i] = option;
+            result[2 * i + 1] = String.valueOf(i);
+        }
+        return result;
+    }
+
+    /** Returns arguments that invoke the repeatable {@link Transform} subcommand the specified number of times. */
+    static String[] transformArgs(int count) {
+        String[] result = new String[count * 2];
+        for (int i = 0; i < count; i++) {
+            result[2 * i] = "transform";
+            result[2 * i + 1] = "input" + i;
+        }
+        return result;
+    }
+
+    /** Writes an argument file with the specified number of file names and returns it. */
+    static File argumentFile(int argumentCount) throws IOException {
+        File file = File.createTempFile("picocli-benchmark", ".args");
+        file.deleteOnExit();
+        PrintWriter writer = new PrintWriter(file, "UTF-8");
+        try {
+            writer.println("# generated by the picocli benchmarks");
+            writer.println("--debug");
+            for (int i = 0; i < argumentCount; i++) {
+                writer.println("\"/some/directory/with spaces/file" + i + ".txt\"");
+            }
+        } finally {
+            writer.close();
+        }
+        return file;
+    }
+
+    @Command(name = "app", mixinStandardHelpOptions = true, version = "1.0",
+            description = "An annotated command with options of many types.")
+    static class AnnotatedCommand {
+        @Option(names = {"-d", "--debug"}, description = "Debug mode. Multiple -d options increase the verbosity.")
+        boolean[] debug;
+
+        @Option(names = {"-c", "--count"}, defaultValue = "1", description = "The number of times to run. Default: ${DEFAULT-VALUE}")
+        int count;
+
+        @Option(names = {"-n", "--name"}, description = "The name of the thing.")
+        String name;
+
+        @Option(names = {"-P", "--define"}, description = "Define a key=value property.")
+        Map<String, String> properties;
+
+        @Option(names = {"-I", "--include"}, split = ",", description = "Directories to include.")
+        List<File> includes;
+
+        @Option(names = {"-t", "--timeout"}, description = "Timeout in milliseconds.")
+        long timeout;
+
+        @Option(names = "--ratio", description = "The ratio.")
+        double ratio;
+
+        @Option(names = {"-e", "--encoding"}, defaultValue = "UTF-8", description = "The encoding. Default: ${DEFAULT-VALUE}")
+        String encoding;
+
+        @Option(names = "--dry-run", negatable = true, description = "Do not make any changes.")
+        boolean dryRun;
+
+        @Option(names = "--level", description = "The level: ${COMPLETION-CANDIDATES}")
+        Level level;
+
+        @ArgGroup(exclusive = true, multiplicity = "0..1")
+        Mode mode;
+
+        @ArgGroup(exclusive = false, multiplicity = "0..*")
+        List<Credentials> credentials;
+
+        @Parameters(description = "The files to process.")
+        List<File> files;
+    }
+
+    enum Level { LOW, MEDIUM, HIGH }
+
+    static class Mode {
+        @Option(names = "--fast", description = "Fast mode.") boolean fast;
+        @Option(names = "--safe", description = "Safe mode.") boolean safe;
+        @Option(names = "--mode", description = "Custom mode.") String custom;
+    }
+
+    static class Credentials {
+        @Option(names = "--user", required = true, description = "The user name.") String user;
+        @Option(names = "--password", arity = "0..1", interactive = true, description = "The password.") char[] password;
+    }
+
+    static final String[] ANNOTATED_ARGS = {
+            "-ddd", "--count=3", "-n", "thing", "-Pkey1=value1", "-P", "key2=value2", "-Ia,b,c",
+            "--timeout", "1000", "--ratio=0.5", "--no-dry-run", "--level", "HIGH", "--fast",
+            "--user", "alice", "--user", "bob", "file1", "file2", "file3"
+    };
+
+    /** Arguments for the {@link AnnotatedCommand} with abbreviated and mixed-case option names. */
+    static final String[] ABBREVIATED_ARGS = {
+            "--deb", "--COUNT=3", "--Na", "thing", "--def", "key1=value1", "--incl", "a,b,c",
+            "--time", "1000", "--rat=0.5", "--LEV", "HIGH", "file1"
+    };
+
+    @Command(name = "paths", description = "A command that takes many paths, typically from an argument file.")
+    static class PathsCommand {
+        @Option(names = {"-d", "--debug"}, description = "Debug mode.") boolean debug;
+        @Parameters(description = "The paths to process.") List<String> paths;
+    }
+
+    @Command(name = "repeat", description = "A command with options that may be specified multiple times.")
+    static class RepeatedOptionsCommand {
+        @Option(names = "-i", description = "An int array option.") int[] ints;
+        @Option(names = "-l", description = "A long array option.") long[] longs;
+        @Option(names = "-s", description = "A String array option.") String[] strings;
+        @Option(names = "-L", description = "A List option.") List<String> list;
+    }
+
+    @Command(name = "tool", subcommandsRepeatable = true, subcommands = Transform.class,
+            description = "A command whose subcommand may be specified multiple times.")
+    static class TransformTool implements Runnable {
+        public void run() {}
+    }
+
+    @Command(name = "transform", description = "A CPU-heavy subcommand that does not share state with other invocations.")
+    static class Transform implements Callable<Integer> {
+        private static final int ROUNDS = 2000;
+
+        @Parameters(description = "The input to transform.")
+        String input;
+
+        public Integer call() throws Exception {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] value = input.getBytes("UTF-8");
+            for (int i = 0; i < ROUNDS; i++) {
+                value = digest.digest(value);
+            }
+            return value[0] == 42 ? 1 : 0; // the result depends on the input
+        }
+    }
+
+    @Command(name = "sub1", description = "The first subcommand.")
+    static class Sub1 {
+        @Option(names = "-x", description = "An option.") int x;
+    }
+
+    @Command(name = "sub2", description = "The second subcommand.", subcommands = Sub1.class)
+    static class Sub2 {
+        @Option(names = "-y", description = "An option.") int y;
+    }
+
+    @Command(name = "tree", description = "A command with nested annotated subcommands.",
+            subcommands = {Sub1.class, Sub2.class, CommandLine.HelpCommand.class})
+    static class TreeCommand {
+        @Option(names = "-z", description = "An option.") int z;
+    }
+
+    @Command(name = "bind", description = "A command with options bound to a field and to a setter method.")
+    static class BindingCommand implements Callable<Integer> {
+        @Option(names = "--field", description = "An option bound to a field.") int field;
+        int property;
+
+        @Option(names = "--setter", description = "An option bound to a setter method.")
+        void setProperty(int property) { this.property = property; }
+
+        public Integer call() { return field + property; }
+    }
+
+    static class MethodCommands {
+        @Command(name = "invoke", description = "A command method with several option and positional parameters.")
+        static int invoke(@Option(names = "-a") int a, @Option(names = "-b") long b, @Option(names = "-c") String c,
+                          @Option(names = "-d") boolean d, @Option(names = "-e") double e,
+                          @Parameters(index = "0") String first, @Parameters(index = "1") int second) {
+            return a + second;
+        }
+    }
+
+    /** Arguments for the {@code invoke} method of {@link MethodCommands}. */
+    static final String[] METHOD_ARGS = {"-a", "1", "-b", "2", "-c", "three", "-d", "-e", "5.0", "first", "6"};
+}
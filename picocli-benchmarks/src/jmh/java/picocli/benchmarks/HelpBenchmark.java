@@ -0,0 +1,67 @@
+package picocli.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import picocli.CommandLine;
+import picocli.CommandLine.Help;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures rendering the usage help message with and without ANSI styles.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HelpBenchmark {
+
+    @Param({"OFF", "ON"})
+    Help.Ansi ansi;
+
+    CommandLine annotated;
+    CommandLine wide;
+    CommandLine tree;
+    CommandLine deepTree;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        annotated = new CommandLine(new Fixtures.AnnotatedCommand());
+        wide = new CommandLine(Fixtures.wideSpec(500));
+        tree = new CommandLine(new Fixtures.TreeCommand());
+        deepTree = Fixtures.deepTree(4, 5);
+    }
+
+    @Benchmark
+    public String annotatedUsage() {
+        return annotated.getUsageMessage(ansi);
+    }
+
+    @Benchmark
+    public String wideUsage() {
+        return wide.getUsageMessage(ansi);
+    }
+
+    @Benchmark
+    public String subcommandUsage() {
+        return tree.getUsageMessage(ansi);
+    }
+
+    /** Usage help for the root of a tree with 5 direct subcommands and 780 subcommands in total. */
+    @Benchmark
+    public String deepTreeUsage() {
+        return deepTree.getUsageMessage(ansi);
+    }
+}
@@ -0,0 +1,79 @@
+package picocli.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import picocli.CommandLine.Help;
+import picocli.CommandLine.Help.Ansi;
+import picocli.CommandLine.Help.ColorScheme;
+import picocli.CommandLine.Help.TextTable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures converting {@code @|style text|@} markup to {@link Ansi.Text} and rendering it with and without ANSI styles.
+ * The {@code uncachedMarkupToString} benchmark uses a new color scheme for every invocation,
+ * so the markup is parsed every time, as it was before markup was compiled and cached per color scheme.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MarkupBenchmark {
+    static final String MARKUP = "@|bold,underline Usage|@: @|bold app|@ [@|yellow -v|@] [@|yellow -c|@=@|italic <count>|@] @|yellow FILE|@...";
+
+    @Param({"OFF", "ON"})
+    Ansi ansi;
+
+    ColorScheme colorScheme;
+    Map<String, Ansi.IStyle> markupMap;
+    TextTable table;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        colorScheme = Help.defaultColorScheme(ansi);
+        markupMap = new HashMap<String, Ansi.IStyle>();
+        for (Ansi.Style style : Ansi.Style.values()) {
+            markupMap.put(style.name(), style);
+        }
+        table = TextTable.forColumnWidths(colorScheme, 30, 50);
+        for (int i = 0; i < 200; i++) {
+            table.addRowValues("@|yellow -o" + i + "|@, @|yellow --option" + i + "|@=@|italic <value>|@",
+                    "Description of @|bold option " + i + "|@ that wraps to the next line when it is too long to fit.");
+        }
+    }
+
+    @Benchmark
+    public String markupToString() {
+        return ansi.new Text(MARKUP, colorScheme).toString();
+    }
+
+    @Benchmark
+    public String uncachedMarkupToString() {
+        ColorScheme uncached = new ColorScheme.Builder(ansi).customMarkupMap(markupMap).build();
+        return ansi.new Text(MARKUP, uncached).toString();
+    }
+
+    @Benchmark
+    public String plainToString() {
+        return ansi.new Text("Usage: app [-v] [-c=<count>] FILE...", colorScheme).toString();
+    }
+
+    @Benchmark
+    public String tableToString() {
+        return table.toString();
+    }
+}
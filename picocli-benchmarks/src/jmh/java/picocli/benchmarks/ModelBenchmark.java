@@ -0,0 +1,53 @@
+package picocli.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import picocli.CommandLine;
+import picocli.CommandLine.Model.CommandSpec;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building the command model: {@code CommandSpec.forAnnotatedObject} (reflection),
+ * the {@code CommandLine} constructor, and the programmatic API.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ModelBenchmark {
+
+    @Benchmark
+    public CommandSpec annotatedSpec() {
+        return CommandSpec.forAnnotatedObject(new Fixtures.AnnotatedCommand());
+    }
+
+    @Benchmark
+    public CommandLine annotatedCommandLine() {
+        return new CommandLine(new Fixtures.AnnotatedCommand());
+    }
+
+    @Benchmark
+    public CommandLine annotatedSubcommandTree() {
+        return new CommandLine(new Fixtures.TreeCommand());
+    }
+
+    @Benchmark
+    public CommandLine programmaticWideCommand() {
+        return new CommandLine(Fixtures.wideSpec(500));
+    }
+
+    @Benchmark
+    public CommandLine programmaticDeepTree() {
+        return Fixtures.deepTree(4, 4);
+    }
+}
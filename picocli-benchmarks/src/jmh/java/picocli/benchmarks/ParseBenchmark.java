@@ -0,0 +1,139 @@
+package picocli.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import picocli.CommandLine;
+import picocli.CommandLine.ParseResult;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing command line arguments with an existing {@code CommandLine} instance.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ParseBenchmark {
+    private static final int WIDE_OPTIONS = 500;
+    private static final int TREE_DEPTH = 5;
+    private static final int TREE_FAN_OUT = 4;
+    private static final int AT_FILE_ARGS = 10000;
+
+    CommandLine wide;
+    String[] wideArgs;
+    String[] wideAttachedArgs;
+    CommandLine wideCaseInsensitive;
+    String[] wideUpperCaseArgs;
+    CommandLine deepTree;
+    String[] deepTreeArgs;
+    CommandLine deepTreeCaseInsensitive;
+    String[] deepTreeUpperCaseArgs;
+    ParseResult wideParseResult;
+    String[] wideOptionNames;
+    CommandLine annotated;
+    CommandLine abbreviated;
+    CommandLine.ParseSession session;
+    String[] atFileArgs;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        wide = new CommandLine(Fixtures.wideSpec(WIDE_OPTIONS));
+        wideArgs = Fixtures.wideArgs(WIDE_OPTIONS);
+        wideAttachedArgs = Fixtures.wideAttachedArgs(WIDE_OPTIONS);
+        deepTree = Fixtures.deepTree(TREE_DEPTH, TREE_FAN_OUT);
+        deepTreeArgs = Fixtures.deepTreeArgs(TREE_DEPTH, TREE_FAN_OUT);
+        wideCaseInsensitive = new CommandLine(Fixtures.wideSpec(WIDE_OPTIONS)).setOptionsCaseInsensitive(true);
+        wideUpperCaseArgs = Fixtures.wideUpperCaseArgs(WIDE_OPTIONS);
+        deepTreeCaseInsensitive = Fixtures.deepTree(TREE_DEPTH, TREE_FAN_OUT).setSubcommandsCaseInsensitive(true);
+        deepTreeUpperCaseArgs = Fixtures.deepTreeArgs(TREE_DEPTH, TREE_FAN_OUT, true);
+        wideParseResult = new CommandLine(Fixtures.wideSpec(WIDE_OPTIONS)).parseArgs(wideAttachedArgs);
+        wideOptionNames = new String[WIDE_OPTIONS];
+        for (int i = 0; i < WIDE_OPTIONS; i++) {
+            wideOptionNames[i] = "option-" + i;
+        }
+        annotated = new CommandLine(new Fixtures.AnnotatedCommand());
+        abbreviated = new CommandLine(new Fixtures.AnnotatedCommand())
+                .setAbbreviatedOptionsAllowed(true)
+                .setOptionsCaseInsensitive(true)
+                .setCaseInsensitiveEnumValuesAllowed(true);
+        session = new CommandLine(new Fixtures.AnnotatedCommand()).newParseSession();
+        File argumentFile = Fixtures.argumentFile(AT_FILE_ARGS);
+        atFileArgs = new String[] {"@" + argumentFile.getAbsolutePath()};
+    }
+
+    @Benchmark
+    public ParseResult wideOptions() {
+        return wide.parseArgs(wideArgs);
+    }
+
+    /** Reports the average time per argument to recognize and apply an option with an attached parameter. */
+    @Benchmark
+    @OperationsPerInvocation(WIDE_OPTIONS)
+    public ParseResult wideOptionsPerToken() {
+        return wide.parseArgs(wideAttachedArgs);
+    }
+
+    /** Reports the average time per argument with {@code optionsCaseInsensitive} and upper case option names. */
+    @Benchmark
+    @OperationsPerInvocation(WIDE_OPTIONS)
+    public ParseResult wideOptionsCaseInsensitivePerToken() {
+        return wideCaseInsensitive.parseArgs(wideUpperCaseArgs);
+    }
+
+    /** Reports the average time to find a matched option by name in a parse result with 500 matched options. */
+    @Benchmark
+    @OperationsPerInvocation(WIDE_OPTIONS)
+    public int matchedOptionLookups() {
+        int result = 0;
+        for (String name : wideOptionNames) {
+            if (wideParseResult.hasMatchedOption(wideParseResult.matchedOption(name))) { result++; }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public ParseResult deepSubcommandTree() {
+        return deepTree.parseArgs(deepTreeArgs);
+    }
+
+    /** Parses a deep subcommand tree with {@code subcommandsCaseInsensitive} and upper case subcommand names. */
+    @Benchmark
+    public ParseResult deepSubcommandTreeCaseInsensitive() {
+        return deepTreeCaseInsensitive.parseArgs(deepTreeUpperCaseArgs);
+    }
+
+    @Benchmark
+    public ParseResult annotatedWithGroupsMapsAndCollections() {
+        return annotated.parseArgs(Fixtures.ANNOTATED_ARGS);
+    }
+
+    @Benchmark
+    public ParseResult annotatedWithParseSession() {
+        return session.parseArgs(Fixtures.ANNOTATED_ARGS);
+    }
+
+    @Benchmark
+    public ParseResult abbreviatedCaseInsensitive() {
+        return abbreviated.parseArgs(Fixtures.ABBREVIATED_ARGS);
+    }
+
+    @Benchmark
+    public ParseResult atFile() {
+        return annotated.parseArgs(atFileArgs);
+    }
+}
@@ -0,0 +1,57 @@
+package picocli.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import picocli.CommandLine;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of parsing on all available cores, with {@code CommandLine} instances from a shared
+ * {@link CommandLine.Pool}, compared to creating a new {@code CommandLine} instance for every parse.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(Threads.MAX)
+@State(Scope.Benchmark)
+public class PoolBenchmark {
+
+    CommandLine.Pool pool;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        pool = new CommandLine.Pool(new Callable<CommandLine>() {
+            public CommandLine call() { return new CommandLine(new Fixtures.AnnotatedCommand()); }
+        });
+    }
+
+    @Benchmark
+    public Object newInstancePerParse() {
+        CommandLine commandLine = new CommandLine(new Fixtures.AnnotatedCommand());
+        return commandLine.parseArgs(Fixtures.ANNOTATED_ARGS).matchedArgs().size();
+    }
+
+    @Benchmark
+    public Object pooledParse() {
+        CommandLine commandLine = pool.acquire();
+        try {
+            return commandLine.parseArgs(Fixtures.ANNOTATED_ARGS).matchedArgs().size();
+        } finally {
+            pool.release(commandLine);
+        }
+    }
+}
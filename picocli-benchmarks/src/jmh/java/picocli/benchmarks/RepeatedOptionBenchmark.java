@@ -0,0 +1,70 @@
+package picocli.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import picocli.CommandLine;
+import picocli.CommandLine.ParseResult;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing an option that is specified many times.
+ * The time should grow linearly with the number of repetitions.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RepeatedOptionBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    int repetitions;
+
+    CommandLine cmd;
+    String[] intArgs;
+    String[] longArgs;
+    String[] stringArgs;
+    String[] listArgs;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        cmd = new CommandLine(new Fixtures.RepeatedOptionsCommand());
+        intArgs = Fixtures.repeatedOptionArgs("-i", repetitions);
+        longArgs = Fixtures.repeatedOptionArgs("-l", repetitions);
+        stringArgs = Fixtures.repeatedOptionArgs("-s", repetitions);
+        listArgs = Fixtures.repeatedOptionArgs("-L", repetitions);
+    }
+
+    @Benchmark
+    public ParseResult intArray() {
+        return cmd.parseArgs(intArgs);
+    }
+
+    @Benchmark
+    public ParseResult longArray() {
+        return cmd.parseArgs(longArgs);
+    }
+
+    @Benchmark
+    public ParseResult stringArray() {
+        return cmd.parseArgs(stringArgs);
+    }
+
+    /** Baseline: values of a {@code List} option are added to the existing list. */
+    @Benchmark
+    public ParseResult list() {
+        return cmd.parseArgs(listArgs);
+    }
+}
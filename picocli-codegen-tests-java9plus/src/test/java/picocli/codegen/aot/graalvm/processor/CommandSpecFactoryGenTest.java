@@ -0,0 +1,190 @@
+package picocli.codegen.aot.graalvm.processor;
+
+import com.google.testing.compile.Compilation;
+import com.google.testing.compile.JavaFileObjects;
+import org.junit.Test;
+import picocli.CommandLine;
+import picocli.CommandLine.Model.ArgSpec;
+import picocli.CommandLine.ParseResult;
+
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.testing.compile.CompilationSubject.assertThat;
+import static com.google.testing.compile.Compiler.javac;
+import static org.junit.Assert.*;
+import static picocli.codegen.aot.graalvm.processor.CommandSpecFactoryGen.OPTION_ENABLE;
+
+public class CommandSpecFactoryGenTest {
+
+    private static final JavaFileObject APP = JavaFileObjects.forSourceLines("demo.App",
+            "package demo;",
+            "",
+            "import picocli.CommandLine.Command;",
+            "import picocli.CommandLine.Option;",
+            "import picocli.CommandLine.Parameters;",
+            "import java.io.File;",
+            "import java.util.List;",
+            "import java.util.Map;",
+            "",
+            "@Command(name = \"app\", subcommands = App.Sub.class)",
+            "public class App {",
+            "    @Option(names = {\"-c\", \"--count\"}, description = \"The \\\"count\\\".\", defaultValue = \"3\") int count;",
+            "    @Option(names = \"-m\") Map<String, Integer> map;",
+            "    @Option(names = \"-l\", split = \",\") List<File> files;",
+            "    @Option(names = \"-s\", split = \",\") List<Thread.State> states;",
+            "    @Option(names = \"--x\", negatable = true, mapFallbackValue = \"y\") boolean x = true;",
+            "    @Parameters(index = \"0\", paramLabel = \"FILE\") File first;",
+            "    @Parameters(index = \"1..*\") String[] rest;",
+            "",
+            "    @Command(name = \"sub\")",
+            "    static class Sub {",
+            "        @Option(names = \"-y\") private int y;",
+            "    }",
+            "}");
+
+    @Test
+    public void testFactoriesNotGeneratedByDefault() {
+        Compilation compilation = javac()
+                .withProcessors(new NativeImageConfigGeneratorProcessor())
+                .compile(APP);
+        assertThat(compilation).succeeded();
+        assertFalse(compilation.generatedSourceFile("demo.App_CommandSpecFactory").isPresent());
+    }
+
+    @Test
+    public void testFactoriesGeneratedForSupportedClasses() {
+        Compilation compilation = javac()
+                .withProcessors(new NativeImageConfigGeneratorProcessor())
+                .withOptions("-A" + OPTION_ENABLE, "-Averbose", "-Werror")
+                .compile(APP);
+        assertThat(compilation).succeeded();
+        assertThat(compilation).generatedSourceFile("demo.App_CommandSpecFactory")
+                .contentsAsUtf8String().contains(".description(new String[] {\"The \\\"count\\\".\"})");
+        assertThat(compilation).generatedFile(StandardLocation.CLASS_OUTPUT, "demo/App_CommandSpecFactory.class");
+        assertThat(compilation).hadNoteContaining("CommandSpecFactoryGen writing demo.App_CommandSpecFactory");
+
+        assertFalse(compilation.generatedSourceFile("demo.App$Sub_CommandSpecFactory").isPresent());
+        assertThat(compilation).hadNoteContaining("CommandSpecFactoryGen skipping demo.App.Sub: field y: private field");
+    }
+
+    @Test
+    public void testGeneratedFactoryBehavesLikeReflection() throws Exception {
+        Class<?> generatedApp = load(javac()
+                .withProcessors(new NativeImageConfigGeneratorProcessor())
+                .withOptions("-A" + OPTION_ENABLE)
+                .compile(APP));
+        Class<?> reflectiveApp = load(javac().compile(APP));
+        assertNotNull(Class.forName("demo.App_CommandSpecFactory", false, generatedApp.getClassLoader()));
+
+        CommandLine generated = new CommandLine(generatedApp.getConstructor().newInstance());
+        CommandLine reflective = new CommandLine(reflectiveApp.getConstructor().newInstance());
+        assertEquals(reflective.getUsageMessage(), generated.getUsageMessage());
+
+        String[][] parses = { // parsed in sequence on the same instances, to verify values are reset between parses
+                {"-c", "5", "-m", "a=1", "-m", "b=2", "-l", "x,y", "--no-x", "first", "r1", "r2"},
+                {"second"},
+                {"-m", "c=4", "-l", "z", "-s", "NEW,BLOCKED", "third", "r3"},
+        };
+        for (String[] args : parses) {
+            String msg = Arrays.toString(args);
+            assertEquals(msg, matched(reflective.parseArgs(args)), matched(generated.parseArgs(args)));
+            assertEquals(msg, fieldValues(reflective.getCommand()), fieldValues(generated.getCommand()));
+        }
+        Map<String, Object> expected = new LinkedHashMap<String, Object>();
+        expected.put("count", 3); // default value
+        expected.put("map", Collections.singletonMap("c", 4));
+        expected.put("files", Arrays.asList(new File("z")));
+        expected.put("states", Arrays.asList(Thread.State.NEW, Thread.State.BLOCKED));
+        expected.put("x", true); // initial value
+        expected.put("first", new File("third"));
+        expected.put("rest", Arrays.asList("r3"));
+        assertEquals(expected.toString(), fieldValues(generated.getCommand()).toString());
+    }
+
+    @Test
+    public void testGeneratedArgSpecsHaveNoUserObject() throws Exception {
+        Class<?> generatedApp = load(javac()
+                .withProcessors(new NativeImageConfigGeneratorProcessor())
+                .withOptions("-A" + OPTION_ENABLE)
+                .compile(APP));
+        Class<?> reflectiveApp = load(javac().compile(APP));
+        CommandLine generated = new CommandLine(generatedApp.getConstructor().newInstance());
+        CommandLine reflective = new CommandLine(reflectiveApp.getConstructor().newInstance());
+
+        List<ArgSpec> generatedArgs = generated.getCommandSpec().args();
+        List<ArgSpec> reflectiveArgs = reflective.getCommandSpec().args();
+        assertEquals(reflectiveArgs.size(), generatedArgs.size());
+        for (int i = 0; i < generatedArgs.size(); i++) {
+            // the only known difference: there is no Field to return when the ArgSpec is created without reflection
+            assertNull(generatedArgs.get(i).toString(), generatedArgs.get(i).userObject());
+            assertTrue(reflectiveArgs.get(i).toString(), reflectiveArgs.get(i).userObject() instanceof Field);
+            assertEquals(reflectiveArgs.get(i).toString(), generatedArgs.get(i).toString());
+        }
+    }
+
+    private static List<String> matched(ParseResult parseResult) {
+        List<String> result = new ArrayList<String>();
+        for (ArgSpec arg : parseResult.matchedArgs()) {
+            result.add(arg + "=" + arg.stringValues() + ", original=" + arg.originalStringValues());
+        }
+        return result;
+    }
+
+    private static Map<String, Object> fieldValues(Object command) throws IllegalAccessException {
+        Map<String, Object> result = new LinkedHashMap<String, Object>();
+        for (Field field : command.getClass().getDeclaredFields()) {
+            field.setAccessible(true);
+            Object value = field.get(command);
+            result.put(field.getName(), value instanceof Object[] ? Arrays.asList((Object[]) value) : value);
+        }
+        return result;
+    }
+
+    /** Loads {@code demo.App} from the class files of the specified compilation, in a new class loader. */
+    private static Class<?> load(Compilation compilation) throws Exception {
+        assertThat(compilation).succeeded();
+        final Map<String, byte[]> classes = new HashMap<String, byte[]>();
+        for (JavaFileObject file : compilation.generatedFiles()) {
+            if (file.getKind() != JavaFileObject.Kind.CLASS) { continue; }
+            String path = file.toUri().getPath();
+            String name = path.substring(path.indexOf("/demo/") + 1, path.length() - ".class".length()).replace('/', '.');
+            classes.put(name, bytes(file));
+        }
+        ClassLoader loader = new ClassLoader(CommandSpecFactoryGenTest.class.getClassLoader()) {
+            @Override
+            protected Class<?> findClass(String name) throws ClassNotFoundException {
+                byte[] bytes = classes.get(name);
+                if (bytes == null) { throw new ClassNotFoundException(name); }
+                return defineClass(name, bytes, 0, bytes.length);
+            }
+        };
+        return loader.loadClass("demo.App");
+    }
+
+    private static byte[] bytes(JavaFileObject file) throws IOException {
+        InputStream in = file.openInputStream();
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            for (int len = in.read(buffer); len != -1; len = in.read(buffer)) {
+                out.write(buffer, 0, len);
+            }
+            return out.toByteArray();
+        } finally {
+            in.close();
+        }
+    }
+}
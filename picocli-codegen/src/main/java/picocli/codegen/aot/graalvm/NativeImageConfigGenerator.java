@@ -0,0 +1,173 @@
+package picocli.codegen.aot.graalvm;
+
+import picocli.CommandLine;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Parameters;
+import picocli.codegen.util.Util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * {@code NativeImageConfigGenerator} generates the {@code reflect-config.json}, {@code resource-config.json} and
+ * {@code proxy-config.json} files for the specified commands in a single pass.
+ * <p>
+ * This is equivalent to invoking the {@link ReflectionConfigGenerator}, {@link ResourceConfigGenerator}
+ * and {@link DynamicProxyConfigGenerator} tools separately, but the {@code CommandSpec} model of the commands
+ * is built only once, and is shared by all generators.
+ * </p><p>
+ * Configuration files whose content did not change are not rewritten, so their timestamp is preserved.
+ * This allows incremental build tools like Gradle and Maven to skip the native image build
+ * when the configuration is unaffected by a code change.
+ * </p><p>
+ * Note that the <a href="https://picocli.info/#_annotation_processor">picocli annotation processor</a>
+ * generates the same files at compile time from the compile-time model, and is the recommended way to
+ * generate these files; this tool is of interest if the annotation processor cannot be used.
+ * </p>
+ *
+ * @since 4.7.8
+ */
+public class NativeImageConfigGenerator {
+
+    /** The name of the generated reflection configuration file. */
+    public static final String REFLECT_CONFIG = "reflect-config.json";
+    /** The name of the generated resource configuration file. */
+    public static final String RESOURCE_CONFIG = "resource-config.json";
+    /** The name of the generated dynamic proxy configuration file. */
+    public static final String PROXY_CONFIG = "proxy-config.json";
+
+    @Command(name = "gen-native-image-config", showAtFileInUsageHelp = true, sortOptions = false,
+            description = {"Generates the reflect-config.json, resource-config.json and proxy-config.json files " +
+                    "for the specified `@Command` classes in a single pass.",
+                    "Files whose content did not change are not rewritten."},
+            exitCodeListHeading = "%nExit Codes (if enabled with `--exit`)%n",
+            exitCodeList = {
+                    "0:Successful program execution.",
+                    "1:A runtime exception occurred while generating the configuration files.",
+                    "2:Usage error: user input for the command was incorrect, " +
+                            "e.g., the wrong number of arguments, a bad flag, " +
+                            "a bad syntax in a parameter, etc."
+            },
+            footerHeading = "%nExample%n",
+            footer = {
+                    "  java -cp \"myapp.jar;picocli-4.7.8-SNAPSHOT.jar;picocli-codegen-4.7.8-SNAPSHOT.jar\" " +
+                            "picocli.codegen.aot.graalvm.NativeImageConfigGenerator " +
+                            "--outdir=build/resources/main/META-INF/native-image/my.group/myapp my.pkg.MyClass"
+            },
+            mixinStandardHelpOptions = true, version = "picocli-codegen gen-native-image-config " + CommandLine.VERSION)
+    private static class App implements Callable<Integer> {
+
+        @Parameters(arity = "1..*", description = "One or more `@Command` classes to generate GraalVM configuration files for.")
+        Class<?>[] classes = new Class<?>[0];
+
+        @Option(names = {"-d", "--outdir"}, required = true, paramLabel = "<outdir>",
+                description = "Output directory to write the configuration files to.")
+        File directory;
+
+        @Option(names = {"-c", "--factory"}, description = "Optionally specify the fully qualified class name of the custom factory to use to instantiate the command class. " +
+                "When omitted, the default picocli factory is used.")
+        String factoryClass;
+
+        @Option(names = {"-b", "--bundle"}, paramLabel = "<bundle-base-name>",
+                description = "Additional resource bundle(s) to be included in the image. " +
+                        "This option may be specified multiple times with different bundle base names.")
+        String[] bundles = new String[0];
+
+        @Option(names = {"-p", "--pattern"}, description = "Java regexp that matches resource(s) to be included in the image. " +
+                "This option may be specified multiple times with different regular expression patterns.")
+        String[] resourceRegex = new String[0];
+
+        @Option(names = {"-i", "--interface"}, description = "Other fully qualified interface names to generate dynamic proxy classes for in the native image. " +
+                "This option may be specified multiple times with different interface names. " +
+                "Specify multiple comma-separated interface names for dynamic proxies that implement multiple interfaces.")
+        String[] interfaces = new String[0];
+
+        @Option(names = {"-v", "--verbose"},
+                description = "Show which configuration files were written and which were unchanged.")
+        boolean verbose;
+
+        @Option(names = "--exit", negatable = true,
+                description = "Specify `--exit` if you want the application to call `System.exit` when finished. " +
+                        "By default, `System.exit` is not called.")
+        boolean exit;
+
+        public Integer call() throws Exception {
+            List<CommandSpec> specs = Util.getCommandSpecs(factoryClass, classes);
+            Map<String, String> configs = generateConfigs(specs.toArray(new CommandSpec[0]), bundles, resourceRegex, interfaces);
+            List<File> written = writeConfigs(directory, configs);
+            if (verbose) {
+                for (String name : configs.keySet()) {
+                    File file = new File(directory, name);
+                    System.err.printf(written.contains(file) ? "Generated %s%n" : "%s is up to date%n", file);
+                }
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * Runs this class as a standalone application, writing the configuration files to the specified directory.
+     * @param args one or more fully qualified class names of {@code @Command}-annotated classes.
+     */
+    public static void main(String... args) {
+        App app = new App();
+        int exitCode = new CommandLine(app).execute(args);
+        if (app.exit) {
+            System.exit(exitCode);
+        }
+    }
+
+    /**
+     * Returns the content of the reflection, resource and dynamic proxy configuration files for the specified
+     * {@code CommandSpec} objects, keyed by file name.
+     *
+     * @param specs one or more {@code CommandSpec} objects to inspect
+     * @param bundles base names of additional resource bundles to be included in the image
+     * @param resourceRegex one or more Java regular expressions that match resource(s) to be included in the image
+     * @param interfaceClasses other (non-{@code @Command}) fully qualified interface names to generate dynamic proxy classes for
+     * @return a map with the {@link #REFLECT_CONFIG}, {@link #RESOURCE_CONFIG} and {@link #PROXY_CONFIG} file names
+     *      and the JSON String that each of these files should contain
+     * @throws Exception if a problem occurs while processing the specified specs
+     * @see ReflectionConfigGenerator#generateReflectionConfig(CommandSpec...)
+     * @see ResourceConfigGenerator#generateResourceConfig(CommandSpec[], String[], String[])
+     * @see DynamicProxyConfigGenerator#generateProxyConfig(CommandSpec[], String[])
+     */
+    public static Map<String, String> generateConfigs(CommandSpec[] specs, String[] bundles, String[] resourceRegex, String[] interfaceClasses) throws Exception {
+        Map<String, String> result = new LinkedHashMap<String, String>();
+        result.put(REFLECT_CONFIG, ReflectionConfigGenerator.generateReflectionConfig(specs));
+        result.put(RESOURCE_CONFIG, ResourceConfigGenerator.generateResourceConfig(specs, bundles, resourceRegex));
+        result.put(PROXY_CONFIG, DynamicProxyConfigGenerator.generateProxyConfig(specs, interfaceClasses));
+        return result;
+    }
+
+    /**
+     * Writes the specified configuration files to the specified directory,
+     * skipping the files whose content did not change.
+     *
+     * @param directory the directory to write the files to; created if it does not exist
+     * @param configs the file names and file contents to write
+     * @return the files that were written; files that already had the specified content are not included
+     * @throws IOException if the directory could not be created or a file could not be read or written
+     */
+    public static List<File> writeConfigs(File directory, Map<String, String> configs) throws IOException {
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Unable to mkdirs for " + directory.getAbsolutePath());
+        }
+        List<File> result = new ArrayList<File>();
+        for (Map.Entry<String, String> entry : configs.entrySet()) {
+            File file = new File(directory, entry.getKey());
+            if (Util.writeIfChanged(file, entry.getValue(), Charset.defaultCharset().name())) {
+                result.add(file);
+            }
+        }
+        return result;
+    }
+}
@@ -4,8 +4,8 @@ import picocli.CommandLine.Option;
 import picocli.codegen.util.Util;
 
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.charset.Charset;
 
 class OutputFileMixin {
 
@@ -24,16 +24,11 @@ class OutputFileMixin {
     }
 
     private void writeToFile(String result) throws IOException {
-        FileWriter writer = null;
-        try {
-            File parent = outputFile.getAbsoluteFile().getParentFile();
-            if (parent != null && !parent.exists() && !parent.mkdirs()) {
-                System.err.println("Unable to mkdirs for " + outputFile.getAbsolutePath());
-            }
-            writer = new FileWriter(outputFile);
-            writer.write(result);
-        } finally {
-            Util.closeSilently(writer);
+        File parent = outputFile.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            System.err.println("Unable to mkdirs for " + outputFile.getAbsolutePath());
         }
+        // do not touch the file if the configuration did not change, so incremental builds can skip the native image build
+        Util.writeIfChanged(outputFile, result, Charset.defaultCharset().name());
     }
 }
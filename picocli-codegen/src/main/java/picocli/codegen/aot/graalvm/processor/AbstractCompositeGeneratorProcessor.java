@@ -33,6 +33,11 @@ abstract class AbstractCompositeGeneratorProcessor extends AbstractCommandSpecPr
 
         if (!roundEnv.processingOver()) {
             allCommands.putAll(commands);
+            for (IGenerator generator : generators) {
+                if (generator instanceof IRoundGenerator) {
+                    ((IRoundGenerator) generator).generateRound(commands);
+                }
+            }
             return false;
         }
 
@@ -0,0 +1,475 @@
+package picocli.codegen.aot.graalvm.processor;
+
+import picocli.CommandLine;
+import picocli.CommandLine.Model.ArgSpec;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Model.PositionalParamSpec;
+import picocli.CommandLine.Range;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates a {@link CommandLine.Model.ICommandSpecFactory} source file for each class with
+ * {@code @Option} and {@code @Parameters}-annotated fields, so that picocli does not need to
+ * reflectively inspect these fields at runtime.
+ * <p>
+ * This generator is only enabled when the {@value #OPTION_ENABLE} processor option is specified.
+ * Classes with annotated members that cannot be expressed in generated code
+ * (private or final fields, annotated methods, mixins, argument groups, custom converters, etc.)
+ * are skipped: these classes continue to be inspected with reflection.
+ * </p>
+ * @since 4.7.8
+ */
+class CommandSpecFactoryGen implements IRoundGenerator {
+    /**
+     * Name of the processor option that can be used to enable generation of
+     * {@code <ClassName>_CommandSpecFactory} source files.
+     * The name of this constant is {@value}.
+     */
+    public static final String OPTION_ENABLE = "generate.spec.factories";
+
+    static final String SUFFIX = "_CommandSpecFactory";
+    private static final String UNSPECIFIED = "__unspecified__"; // same as ArgSpec.UNSPECIFIED
+
+    private static final Set<String> CLASS_ATTRIBUTES = new HashSet<String>(Arrays.asList(
+            "type", "converter", "completionCandidates", "parameterConsumer", "preprocessor"));
+
+    private final ProcessingEnvironment processingEnv;
+    private final Set<String> generated = new HashSet<String>();
+
+    CommandSpecFactoryGen(ProcessingEnvironment processingEnv) {
+        this.processingEnv = processingEnv;
+    }
+
+    public void generate(Map<Element, CommandSpec> allCommands) {
+        // source files are generated in the round that discovered the commands
+    }
+
+    public void generateRound(Map<Element, CommandSpec> roundCommands) {
+        if (!processingEnv.getOptions().containsKey(OPTION_ENABLE)) {
+            return;
+        }
+        Map<String, Map<String, ArgSpec>> argsByClass = new LinkedHashMap<String, Map<String, ArgSpec>>();
+        Set<CommandSpec> visited = new HashSet<CommandSpec>();
+        for (CommandSpec spec : roundCommands.values()) {
+            collectArgs(spec, argsByClass, visited);
+        }
+        for (Map.Entry<String, Map<String, ArgSpec>> entry : argsByClass.entrySet()) {
+            if (!generated.add(entry.getKey())) { continue; }
+            TypeElement type = processingEnv.getElementUtils().getTypeElement(entry.getKey());
+            if (type == null) { continue; }
+            Map<VariableElement, ArgSpec> fields = new LinkedHashMap<VariableElement, ArgSpec>();
+            for (Element member : type.getEnclosedElements()) {
+                if (member.getKind() == ElementKind.FIELD && entry.getValue().containsKey(member.getSimpleName().toString())) {
+                    fields.put((VariableElement) member, entry.getValue().get(member.getSimpleName().toString()));
+                }
+            }
+            try {
+                String reason = unsupportedReason(type, fields);
+                if (reason != null) {
+                    logInfo("skipping " + type.getQualifiedName() + ": " + reason);
+                    continue;
+                }
+                String name = factoryName(type);
+                logInfo("writing " + name);
+                JavaFileObject sourceFile = processingEnv.getFiler().createSourceFile(name, type);
+                ProcessorUtil.write(generateSource(type, fields), sourceFile);
+            } catch (Exception e) {
+                // We don't allow exceptions of any kind to propagate to the compiler
+                fatalError(ProcessorUtil.stacktrace(e));
+            }
+        }
+    }
+
+    private static void collectArgs(CommandSpec spec, Map<String, Map<String, ArgSpec>> argsByClass, Set<CommandSpec> visited) {
+        if (!visited.add(spec)) { return; }
+        List<ArgSpec> args = new ArrayList<ArgSpec>(spec.options());
+        args.addAll(spec.positionalParameters());
+        for (ArgSpec arg : args) {
+            if (arg.group() != null || arg.inherited() || !(arg.userObject() instanceof VariableElement)) { continue; }
+            VariableElement field = (VariableElement) arg.userObject();
+            if (field.getKind() != ElementKind.FIELD || !(field.getEnclosingElement() instanceof TypeElement)) { continue; }
+            String declaringType = ((TypeElement) field.getEnclosingElement()).getQualifiedName().toString();
+            Map<String, ArgSpec> fields = argsByClass.get(declaringType);
+            if (fields == null) {
+                fields = new LinkedHashMap<String, ArgSpec>();
+                argsByClass.put(declaringType, fields);
+            }
+            if (!fields.containsKey(field.getSimpleName().toString())) { fields.put(field.getSimpleName().toString(), arg); }
+        }
+        for (CommandSpec mixin : spec.mixins().values()) {
+            collectArgs(mixin, argsByClass, visited);
+        }
+        for (CommandLine sub : spec.subcommands().values()) {
+            collectArgs(sub.getCommandSpec(), argsByClass, visited);
+        }
+    }
+
+    /** Returns why no factory can be generated for the specified class, or {@code null} if a factory can be generated. */
+    private String unsupportedReason(TypeElement type, Map<VariableElement, ArgSpec> args) {
+        if (type.getKind() != ElementKind.CLASS) { return "not a class"; }
+        for (Element t = type; t instanceof TypeElement; t = t.getEnclosingElement()) {
+            NestingKind nesting = ((TypeElement) t).getNestingKind();
+            if (nesting != NestingKind.TOP_LEVEL && nesting != NestingKind.MEMBER) { return "local or anonymous class"; }
+            if (t.getModifiers().contains(Modifier.PRIVATE)) { return "private class"; }
+        }
+        for (Element member : type.getEnclosedElements()) {
+            List<String> annotations = picocliAnnotations(member);
+            if (annotations.isEmpty() || member.getKind().isClass() || member.getKind().isInterface()) { continue; }
+            if (member.getKind() != ElementKind.FIELD) {
+                if (member instanceof ExecutableElement && annotations.equals(Arrays.asList("Command"))) { continue; } // method subcommand
+                return "annotated method " + member;
+            }
+            if (!args.containsKey(member)) { return "field " + member + " is annotated with " + annotations; }
+            if (annotations.size() > 1) { return "field " + member + " has multiple picocli annotations"; }
+        }
+        for (Map.Entry<VariableElement, ArgSpec> entry : args.entrySet()) {
+            String reason = unsupportedReason(entry.getKey(), entry.getValue());
+            if (reason != null) { return "field " + entry.getKey() + ": " + reason; }
+        }
+        return null;
+    }
+
+    private String unsupportedReason(VariableElement field, ArgSpec arg) {
+        Set<Modifier> modifiers = field.getModifiers();
+        for (Modifier modifier : Arrays.asList(Modifier.PRIVATE, Modifier.FINAL, Modifier.STATIC)) {
+            if (modifiers.contains(modifier)) { return modifier.toString() + " field"; }
+        }
+        for (AnnotationMirror mirror : field.getAnnotationMirrors()) {
+            for (ExecutableElement attribute : mirror.getElementValues().keySet()) {
+                if (CLASS_ATTRIBUTES.contains(attribute.getSimpleName().toString())) {
+                    return "the " + attribute.getSimpleName() + " attribute is not supported";
+                }
+            }
+        }
+        CommandLine.Option option = field.getAnnotation(CommandLine.Option.class);
+        CommandLine.Parameters parameters = field.getAnnotation(CommandLine.Parameters.class);
+        String[] values = option != null
+                ? new String[] {option.defaultValue(), option.mapFallbackValue(), option.fallbackValue()}
+                : new String[] {parameters.defaultValue(), parameters.mapFallbackValue()};
+        for (String value : values) {
+            if (CommandLine.Option.NULL_VALUE.equals(value)) { return "null values are not supported"; }
+        }
+        if (arg.isPositional() && !arg.isMultiValue() && ((PositionalParamSpec) arg).index().max() > ((PositionalParamSpec) arg).index().min()) {
+            return "single-value positional parameter with index range";
+        }
+        return unsupportedType(field.asType(), true);
+    }
+
+    private String unsupportedType(TypeMirror type, boolean allowTypeArguments) {
+        if (type.getKind().isPrimitive()) { return null; }
+        if (type.getKind() == TypeKind.ARRAY) { return unsupportedType(((ArrayType) type).getComponentType(), false); }
+        if (type.getKind() != TypeKind.DECLARED) { return "unsupported type " + type; }
+        DeclaredType declared = (DeclaredType) type;
+        TypeElement element = (TypeElement) declared.asElement();
+        if ("java.util.Optional".equals(element.getQualifiedName().toString())) { return "unsupported type " + type; }
+        for (Element t = element; t instanceof TypeElement; t = t.getEnclosingElement()) {
+            if (t.getModifiers().contains(Modifier.PRIVATE)) { return "private type " + type; }
+        }
+        if (declared.getTypeArguments().size() != element.getTypeParameters().size()) { return "raw type " + type; }
+        if (!declared.getTypeArguments().isEmpty() && !allowTypeArguments) { return "unsupported type " + type; }
+        for (TypeMirror typeArgument : declared.getTypeArguments()) {
+            String reason = unsupportedType(typeArgument, false);
+            if (reason != null) { return reason; }
+        }
+        return null;
+    }
+
+    private static List<String> picocliAnnotations(Element element) {
+        List<String> result = new ArrayList<String>();
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            TypeElement annotationType = (TypeElement) mirror.getAnnotationType().asElement();
+            if (annotationType.getQualifiedName().toString().startsWith("picocli.CommandLine.")) {
+                result.add(annotationType.getSimpleName().toString());
+            }
+        }
+        return result;
+    }
+
+    private String factoryName(TypeElement type) {
+        PackageElement pkg = processingEnv.getElementUtils().getPackageOf(type);
+        return pkg.isUnnamed()
+                ? binarySimpleName(type) + SUFFIX
+                : pkg.getQualifiedName() + "." + binarySimpleName(type) + SUFFIX;
+    }
+
+    private static String binarySimpleName(TypeElement type) {
+        return type.getEnclosingElement() instanceof TypeElement
+                ? binarySimpleName((TypeElement) type.getEnclosingElement()) + "$" + type.getSimpleName()
+                : type.getSimpleName().toString();
+    }
+
+    String generateSource(TypeElement type, Map<VariableElement, ArgSpec> args) {
+        PackageElement pkg = processingEnv.getElementUtils().getPackageOf(type);
+        String declaringType = erasure(type.asType());
+        String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+
+        StringWriter result = new StringWriter();
+        PrintWriter pw = new PrintWriter(result);
+        pw.println("// Generated by picocli-codegen. Do not edit.");
+        if (!pkg.isUnnamed()) {
+            pw.printf("package %s;%n", pkg.getQualifiedName());
+        }
+        pw.println();
+        pw.println("import picocli.CommandLine.Model.ArgSpec;");
+        pw.println("import picocli.CommandLine.Model.ICommandSpecFactory;");
+        pw.println("import picocli.CommandLine.Model.IGetter;");
+        pw.println("import picocli.CommandLine.Model.IScope;");
+        pw.println("import picocli.CommandLine.Model.ISetter;");
+        pw.println("import picocli.CommandLine.Model.OptionSpec;");
+        pw.println("import picocli.CommandLine.Model.PositionalParamSpec;");
+        pw.println("import picocli.CommandLine.Range;");
+        pw.println();
+        pw.println("import java.util.ArrayList;");
+        pw.println("import java.util.List;");
+        pw.println();
+        pw.printf("/** Creates the options and positional parameters of {@code %s} without reflection. */%n", binaryName);
+        pw.printf("public final class %s%s implements ICommandSpecFactory {%n", binarySimpleName(type), SUFFIX);
+        pw.println("    public List<ArgSpec> createArgs(final IScope scope) {");
+        pw.println("        List<ArgSpec> result = new ArrayList<ArgSpec>();");
+        for (VariableElement field : args.keySet()) {
+            pw.printf("        result.add(%s(scope));%n", methodName(field));
+        }
+        pw.println("        return result;");
+        pw.println("    }");
+        for (Map.Entry<VariableElement, ArgSpec> entry : args.entrySet()) {
+            pw.println();
+            generateArg(pw, declaringType, binaryName, entry.getKey(), entry.getValue());
+        }
+        pw.println("}");
+        pw.flush();
+        return result.toString();
+    }
+
+    private void generateArg(PrintWriter pw, String declaringType, String binaryName, VariableElement field, ArgSpec arg) {
+        String indent = "                ";
+        pw.printf("    private static ArgSpec %s(final IScope scope) {%n", methodName(field));
+        String mapFallbackValue;
+        TypeMirror fieldType = field.asType();
+        String name = field.getSimpleName().toString();
+        if (arg.isOption()) {
+            CommandLine.Option annotation = field.getAnnotation(CommandLine.Option.class);
+            mapFallbackValue = annotation.mapFallbackValue();
+            pw.printf("        OptionSpec.Builder builder = OptionSpec.builder(%s)%n", join(annotation.names()));
+            pw.printf("%s.help(%s)%n", indent, annotation.help());
+            pw.printf("%s.usageHelp(%s)%n", indent, annotation.usageHelp());
+            pw.printf("%s.versionHelp(%s)%n", indent, annotation.versionHelp());
+            pw.printf("%s.negatable(%s)%n", indent, annotation.negatable());
+            pw.printf("%s.fallbackValue(%s)%n", indent, quote(annotation.fallbackValue()));
+            pw.printf("%s.order(%d)%n", indent, annotation.order());
+            pw.printf("%s.required(%s)%n", indent, annotation.required());
+            pw.printf("%s.paramLabel(%s)%n", indent, quote(inferLabel(annotation.paramLabel(), field)));
+            pw.printf("%s.hideParamSyntax(%s)%n", indent, annotation.hideParamSyntax());
+            pw.printf("%s.interactive(%s)%n", indent, annotation.interactive());
+            pw.printf("%s.echo(%s)%n", indent, annotation.echo());
+            pw.printf("%s.prompt(%s)%n", indent, quote(annotation.prompt()));
+            pw.printf("%s.description(%s)%n", indent, join(annotation.description()));
+            pw.printf("%s.descriptionKey(%s)%n", indent, quote(annotation.descriptionKey()));
+            pw.printf("%s.splitRegex(%s)%n", indent, quote(annotation.split()));
+            pw.printf("%s.splitRegexSynopsisLabel(%s)%n", indent, quote(annotation.splitSynopsisLabel()));
+            pw.printf("%s.hidden(%s)%n", indent, annotation.hidden());
+            pw.printf("%s.defaultValue(%s)%n", indent, quote(annotation.defaultValue()));
+            pw.printf("%s.showDefaultValue(picocli.CommandLine.Help.Visibility.%s)%n", indent, annotation.showDefaultValue());
+            pw.printf("%s.scopeType(picocli.CommandLine.ScopeType.%s)%n", indent, annotation.scope());
+        } else {
+            PositionalParamSpec positional = (PositionalParamSpec) arg;
+            CommandLine.Parameters annotation = field.getAnnotation(CommandLine.Parameters.class);
+            mapFallbackValue = annotation.mapFallbackValue();
+            pw.printf("        PositionalParamSpec.Builder builder = PositionalParamSpec.builder()%n");
+            pw.printf("%s.index(%s)%n", indent, range(positional.index()));
+            pw.printf("%s.required(%s)%n", indent, positional.required());
+            pw.printf("%s.paramLabel(%s)%n", indent, quote(inferLabel(annotation.paramLabel(), field)));
+            pw.printf("%s.hideParamSyntax(%s)%n", indent, annotation.hideParamSyntax());
+            pw.printf("%s.interactive(%s)%n", indent, annotation.interactive());
+            pw.printf("%s.echo(%s)%n", indent, annotation.echo());
+            pw.printf("%s.prompt(%s)%n", indent, quote(annotation.prompt()));
+            pw.printf("%s.description(%s)%n", indent, join(annotation.description()));
+            pw.printf("%s.descriptionKey(%s)%n", indent, quote(annotation.descriptionKey()));
+            pw.printf("%s.splitRegex(%s)%n", indent, quote(annotation.split()));
+            pw.printf("%s.splitRegexSynopsisLabel(%s)%n", indent, quote(annotation.splitSynopsisLabel()));
+            pw.printf("%s.hidden(%s)%n", indent, annotation.hidden());
+            pw.printf("%s.defaultValue(%s)%n", indent, quote(annotation.defaultValue()));
+            pw.printf("%s.showDefaultValue(picocli.CommandLine.Help.Visibility.%s)%n", indent, annotation.showDefaultValue());
+            pw.printf("%s.scopeType(picocli.CommandLine.ScopeType.%s)%n", indent, annotation.scope());
+        }
+        pw.printf("%s.arity(%s)%n", indent, range(arg.arity()));
+        pw.printf("%s.type(%s.class)%n", indent, erasure(fieldType));
+        pw.printf("%s.auxiliaryTypes(%s)%n", indent, auxiliaryTypes(fieldType));
+        pw.printf("%s.getter(new IGetter() {%n", indent);
+        pw.printf("%s    @SuppressWarnings(\"unchecked\")%n", indent);
+        pw.printf("%s    public <T> T get() throws Exception { return (T) (Object) scope.<%s>get().%s; }%n", indent, declaringType, name);
+        pw.printf("%s})%n", indent);
+        pw.printf("%s.setter(new ISetter() {%n", indent);
+        pw.printf("%s    @SuppressWarnings(\"unchecked\")%n", indent);
+        pw.printf("%s    public <T> T set(T value) throws Exception {%n", indent);
+        pw.printf("%s        %s obj = scope.<%s>get();%n", indent, declaringType, declaringType);
+        pw.printf("%s        T old = (T) (Object) obj.%s;%n", indent, name);
+        pw.printf("%s        obj.%s = (%s) (Object) value;%n", indent, name, castType(fieldType));
+        pw.printf("%s        return old;%n", indent);
+        pw.printf("%s    }%n", indent);
+        pw.printf("%s})%n", indent);
+        pw.printf("%s.scope(scope)%n", indent);
+        pw.printf("%s.withToString(%s);%n", indent, quote("field " + abbreviate(toGenericString(field, binaryName))));
+        if (!UNSPECIFIED.equals(mapFallbackValue)) {
+            pw.printf("        builder.mapFallbackValue(%s);%n", quote(mapFallbackValue)); // returns an inaccessible type: don't chain
+        }
+        pw.println("        return builder.build();");
+        pw.println("    }");
+    }
+
+    /** Same as the runtime label inference: {@code <fieldName>}, or {@code <K=V>} for maps. */
+    private String inferLabel(String label, VariableElement field) {
+        if (label.trim().length() > 0) { return label.trim(); }
+        String name = field.getSimpleName().toString();
+        TypeMirror mapType = processingEnv.getTypeUtils().erasure(processingEnv.getElementUtils().getTypeElement("java.util.Map").asType());
+        if (processingEnv.getTypeUtils().isAssignable(processingEnv.getTypeUtils().erasure(field.asType()), mapType)) {
+            List<? extends TypeMirror> typeArguments = ((DeclaredType) field.asType()).getTypeArguments();
+            name = typeArguments.size() < 2
+                    ? "String=String"
+                    : simpleName(typeArguments.get(0)) + "=" + simpleName(typeArguments.get(1));
+        }
+        return "<" + name + ">";
+    }
+
+    private String simpleName(TypeMirror type) {
+        String name = erasure(type);
+        return name.substring(name.lastIndexOf('.') + 1);
+    }
+
+    private static String methodName(VariableElement field) {
+        return "create_" + field.getSimpleName();
+    }
+
+    private String auxiliaryTypes(TypeMirror type) {
+        if (type.getKind() == TypeKind.ARRAY) {
+            TypeMirror component = ((ArrayType) type).getComponentType();
+            return (component.getKind() == TypeKind.CHAR ? "char[]" : erasure(component)) + ".class";
+        }
+        if (type.getKind() == TypeKind.DECLARED && !((DeclaredType) type).getTypeArguments().isEmpty()) {
+            StringBuilder sb = new StringBuilder();
+            for (TypeMirror typeArgument : ((DeclaredType) type).getTypeArguments()) {
+                if (sb.length() > 0) { sb.append(", "); }
+                sb.append(erasure(typeArgument)).append(".class");
+            }
+            return sb.toString();
+        }
+        return erasure(type) + ".class";
+    }
+
+    private String erasure(TypeMirror type) {
+        TypeMirror erased = processingEnv.getTypeUtils().erasure(type);
+        if (erased.getKind() == TypeKind.DECLARED) {
+            return ((TypeElement) ((DeclaredType) erased).asElement()).getQualifiedName().toString();
+        }
+        if (erased.getKind() == TypeKind.ARRAY) {
+            return erasure(((ArrayType) erased).getComponentType()) + "[]";
+        }
+        return erased.toString();
+    }
+
+    private String castType(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return processingEnv.getTypeUtils().boxedClass(processingEnv.getTypeUtils().getPrimitiveType(type.getKind())).getQualifiedName().toString();
+        }
+        return type.toString();
+    }
+
+    /** Mimics {@code java.lang.reflect.Field.toGenericString()} so that error messages look the same as for reflectively bound fields. */
+    private String toGenericString(VariableElement field, String binaryName) {
+        StringBuilder sb = new StringBuilder();
+        for (Modifier modifier : field.getModifiers()) {
+            sb.append(modifier.toString().toLowerCase(Locale.ENGLISH)).append(' ');
+        }
+        return sb.append(typeName(field.asType())).append(' ').append(binaryName).append('.').append(field.getSimpleName()).toString();
+    }
+
+    /** Mimics {@code java.lang.reflect.Type.getTypeName()}: binary class names, and type arguments separated by a comma and a space. */
+    private String typeName(TypeMirror type) {
+        if (type.getKind() == TypeKind.ARRAY) { return typeName(((ArrayType) type).getComponentType()) + "[]"; }
+        if (type.getKind() != TypeKind.DECLARED) { return type.toString(); }
+        StringBuilder sb = new StringBuilder(processingEnv.getElementUtils().getBinaryName((TypeElement) ((DeclaredType) type).asElement()));
+        List<? extends TypeMirror> typeArguments = ((DeclaredType) type).getTypeArguments();
+        for (int i = 0; i < typeArguments.size(); i++) {
+            sb.append(i == 0 ? "<" : ", ").append(typeName(typeArguments.get(i)));
+        }
+        return typeArguments.isEmpty() ? sb.toString() : sb.append('>').toString();
+    }
+
+    private static String abbreviate(String text) {
+        return text.replace("private ", "")
+                .replace("protected ", "")
+                .replace("public ", "")
+                .replace("java.lang.", "");
+    }
+
+    private static String range(Range range) {
+        return String.format("new Range(%d, %d, %s, %s, %s)", range.min(), range.max(),
+                range.isVariable(), range.isUnspecified(), quote(range.originalValue()));
+    }
+
+    private static String join(String[] values) {
+        StringBuilder sb = new StringBuilder("new String[] {");
+        int length = sb.length();
+        for (String value : values) {
+            if (sb.length() > length) { sb.append(", "); }
+            sb.append(quote(value));
+        }
+        return sb.append('}').toString();
+    }
+
+    static String quote(String value) {
+        if (value == null) { return "null"; }
+        StringBuilder sb = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"':  sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20 || c > 0x7e) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    private void logInfo(String msg) {
+        if (processingEnv.getOptions().containsKey(AbstractGenerator.OPTION_VERBOSE)) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, getClass().getSimpleName() + " " + msg);
+        }
+    }
+
+    private void fatalError(String msg) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "FATAL ERROR: " + msg);
+    }
+}
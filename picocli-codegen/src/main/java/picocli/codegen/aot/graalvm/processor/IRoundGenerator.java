@@ -0,0 +1,14 @@
+package picocli.codegen.aot.graalvm.processor;
+
+import picocli.CommandLine;
+
+import javax.lang.model.element.Element;
+import java.util.Map;
+
+/**
+ * Generator that produces its output in the same round in which the commands are discovered,
+ * so that the generated source files are compiled together with the other sources.
+ */
+interface IRoundGenerator extends IGenerator {
+    void generateRound(Map<Element, CommandLine.Model.CommandSpec> roundCommands);
+}
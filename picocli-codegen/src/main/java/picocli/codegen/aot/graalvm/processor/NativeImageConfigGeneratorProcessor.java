@@ -22,6 +22,7 @@ import javax.annotation.processing.SupportedOptions;
     ResourceConfigGen.OPTION_RESOURCE_REGEX,
     ProxyConfigGen.OPTION_DISABLE,
     ProxyConfigGen.OPTION_INTERFACE_CLASSES,
+    CommandSpecFactoryGen.OPTION_ENABLE,
 })
 public class NativeImageConfigGeneratorProcessor extends AbstractCompositeGeneratorProcessor {
     /**
@@ -44,5 +45,6 @@ public class NativeImageConfigGeneratorProcessor extends AbstractCompositeGenera
         generators.add(new ReflectConfigGen(processingEnv));
         generators.add(new ResourceConfigGen(processingEnv));
         generators.add(new ProxyConfigGen(processingEnv));
+        generators.add(new CommandSpecFactoryGen(processingEnv));
     }
 }
@@ -22,14 +22,18 @@ import picocli.codegen.util.Assert;
 import picocli.codegen.util.Util;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
+import java.io.InterruptedIOException;
 import java.io.PrintWriter;
+import java.io.StringWriter;
 import java.lang.reflect.Method;
 import java.util.*;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static java.lang.String.format;
 
@@ -150,6 +154,16 @@ public class ManPageGenerator implements Callable<Integer> {
                         "with status code 4 if a man page template file already exists."})
         boolean force;
 
+        @Option(names = "--threads", paramLabel = "<threads>",
+                description = {"Number of threads to use to generate man pages. " +
+                        "The default is the number of available processors."})
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        @Option(names = "--combined-file", paramLabel = "<file>",
+                description = {"Optional file to write a single AsciiDoc document to that contains all generated man pages, " +
+                        "in addition to the separate man page files in the `--outdir` directory."})
+        File combinedFile;
+
         private void verbose(String message, Object... params) {
             if (verbosity.length > 0) {
                 System.err.printf(message, params);
@@ -282,14 +296,29 @@ public class ManPageGenerator implements Callable<Integer> {
             return CommandLine.ExitCode.USAGE;
         }
 
-        traceAllSpecs(specs, config);
+        List<CommandSpec> pages = new ArrayList<CommandSpec>();
+        collectPages(config, specs, pages);
+        List<String> contents = renderPages(config, pages);
 
-        for (CommandSpec spec : specs) {
-            int result = generateSingleManPage(config, spec);
-            if (result != CommandLine.ExitCode.OK) {
+        int unchanged = 0;
+        for (int i = 0; i < pages.size(); i++) {
+            int result = generateSingleManPage(config, pages.get(i), contents.get(i));
+            if (result < 0) {
+                unchanged++;
+            } else if (result != CommandLine.ExitCode.OK) {
                 return result;
             }
+        }
+        config.verbose("Generated %d man pages, %d were unchanged%n", pages.size(), unchanged);
+        return generateCombinedFile(config, contents);
+    }
 
+    /** Adds the specified commands and their non-hidden subcommands to the list of man pages, in the order they are generated. */
+    private static void collectPages(Config config, CommandSpec[] specs, List<CommandSpec> pages) {
+        traceAllSpecs(specs, config);
+
+        for (CommandSpec spec : specs) {
+            pages.add(spec);
             Set<CommandSpec> done = new HashSet<CommandSpec>();
 
             // recursively create man pages for subcommands
@@ -297,12 +326,74 @@ public class ManPageGenerator implements Callable<Integer> {
                 CommandSpec subSpec = sub.getCommandSpec();
                 if (done.contains(subSpec) || subSpec.usageMessage().hidden()) {continue;}
                 done.add(subSpec);
-                result = generateManPage(config, subSpec);
-                if (result != CommandLine.ExitCode.OK) {
-                    return result;
-                }
+                collectPages(config, new CommandSpec[] {subSpec}, pages);
             }
         }
+    }
+
+    /** Renders the specified man pages with up to {@code config.threads} threads, and returns their content in the same order. */
+    private static List<String> renderPages(Config config, List<CommandSpec> pages) throws IOException {
+        for (CommandSpec spec : pages) { // set up the model before rendering it concurrently
+            spec.commandLine().setColorScheme(COLOR_SCHEME);
+        }
+        List<String> result = new ArrayList<String>(pages.size());
+        int threads = Math.min(config.threads, pages.size());
+        if (threads <= 1) {
+            for (CommandSpec spec : pages) {
+                result.add(renderManPage(spec));
+            }
+            return result;
+        }
+        config.verboseDetailed("Rendering %d man pages with %d threads%n", pages.size(), threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<String>> futures = new ArrayList<Future<String>>(pages.size());
+            for (final CommandSpec spec : pages) {
+                futures.add(executor.submit(new Callable<String>() {
+                    public String call() { return renderManPage(spec); }
+                }));
+            }
+            for (Future<String> future : futures) {
+                result.add(future.get());
+            }
+            return result;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while generating man pages");
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) { throw (RuntimeException) cause; }
+            if (cause instanceof Error) { throw (Error) cause; }
+            throw new IOException(cause);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static String renderManPage(CommandSpec spec) {
+        StringWriter sw = new StringWriter();
+        PrintWriter pw = new PrintWriter(sw);
+        writeManPage(pw, spec);
+        pw.flush();
+        return sw.toString();
+    }
+
+    private static int generateCombinedFile(Config config, List<String> contents) throws IOException {
+        if (config.combinedFile == null) {
+            return CommandLine.ExitCode.OK;
+        }
+        if (!mkdirs(config, config.combinedFile.getAbsoluteFile().getParentFile())) {
+            return CommandLine.ExitCode.SOFTWARE;
+        }
+        StringBuilder combined = new StringBuilder();
+        for (String content : contents) {
+            if (combined.length() > 0) {
+                combined.append(System.getProperty("line.separator"));
+            }
+            combined.append(content);
+        }
+        config.verbose("Generating combined man page file %s%n", config.combinedFile);
+        Util.writeIfChanged(config.combinedFile, combined.toString(), "UTF-8");
         return CommandLine.ExitCode.OK;
     }
 
@@ -321,16 +412,18 @@ public class ManPageGenerator implements Callable<Integer> {
         config.verbose("Generating man pages for %s and all subcommands%n", all);
     }
 
-    private static int generateSingleManPage(Config config, CommandSpec spec) throws IOException {
+    /** Writes the specified man page content if it differs from the existing file, and generates the template.
+     * Returns {@code -1} if the man page was unchanged, otherwise the exit code. */
+    private static int generateSingleManPage(Config config, CommandSpec spec, String content) throws IOException {
         if (!mkdirs(config, config.directory)) {
             return CommandLine.ExitCode.SOFTWARE;
         }
         File manpage = new File(config.directory, makeFileName(spec));
-        config.verbose("Generating man page %s%n", manpage);
-
-        generateSingleManPage(spec, manpage);
+        boolean changed = Util.writeIfChanged(manpage, content, "UTF-8");
+        config.verbose(changed ? "Generating man page %s%n" : "Man page %s is up to date%n", manpage);
 
-        return generateCustomizableTemplate(config, spec);
+        int result = generateCustomizableTemplate(config, spec);
+        return result == CommandLine.ExitCode.OK && !changed ? -1 : result;
     }
 
     private static boolean mkdirs(Config config, File directory) {
@@ -351,19 +444,6 @@ public class ManPageGenerator implements Callable<Integer> {
                 .replace("<main_class>", "main_class");
     }
 
-    private static void generateSingleManPage(CommandSpec spec, File manpage) throws IOException {
-        OutputStreamWriter writer = null;
-        PrintWriter pw = null;
-        try {
-            writer = new OutputStreamWriter(new FileOutputStream(manpage), "UTF-8");
-            pw = new PrintWriter(writer);
-            writeSingleManPage(pw, spec);
-        } finally {
-            Util.closeSilently(pw);
-            Util.closeSilently(writer);
-        }
-    }
-
     private static int generateCustomizableTemplate(Config config, CommandSpec spec) throws IOException {
         if (config.templatesDirectory == null) {
             return CommandLine.ExitCode.OK;
@@ -414,7 +494,10 @@ public class ManPageGenerator implements Callable<Integer> {
 
     public static void writeSingleManPage(PrintWriter pw, CommandSpec spec) {
         spec.commandLine().setColorScheme(COLOR_SCHEME);
+        writeManPage(pw, spec);
+    }
 
+    private static void writeManPage(PrintWriter pw, CommandSpec spec) {
         pw.printf("// tag::picocli-generated-full-manpage[]%n");
         genHeader(pw, spec);
         genOptions(pw, spec);
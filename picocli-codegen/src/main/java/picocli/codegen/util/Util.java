@@ -5,7 +5,13 @@ import picocli.CommandLine.IFactory;
 import picocli.CommandLine.Model.CommandSpec;
 
 import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -24,6 +30,47 @@ public final class Util {
         return specs;
     }
 
+    /**
+     * Writes the specified text to the specified file in the specified encoding, unless the file already has exactly
+     * this content, so that unchanged files keep their timestamp and are not reprocessed by incremental builds.
+     * @param file the file to write
+     * @param text the content of the file
+     * @param charsetName the name of the encoding to use
+     * @return {@code true} if the file was written, {@code false} if the file was unchanged
+     * @throws IOException if the file could not be read or written
+     * @since 4.7.8
+     */
+    public static boolean writeIfChanged(File file, String text, String charsetName) throws IOException {
+        byte[] bytes = text.getBytes(charsetName);
+        if (file.isFile() && file.length() == bytes.length && Arrays.equals(bytes, readBytes(file))) {
+            return false;
+        }
+        OutputStream out = null;
+        try {
+            out = new FileOutputStream(file);
+            out.write(bytes);
+        } finally {
+            closeSilently(out);
+        }
+        return true;
+    }
+
+    private static byte[] readBytes(File file) throws IOException {
+        byte[] result = new byte[(int) file.length()];
+        InputStream in = null;
+        try {
+            in = new FileInputStream(file);
+            int offset = 0;
+            int count;
+            while (offset < result.length && (count = in.read(result, offset, result.length - offset)) != -1) {
+                offset += count;
+            }
+            return offset == result.length ? result : null;
+        } finally {
+            closeSilently(in);
+        }
+    }
+
     public static void closeSilently(Closeable closeable) {
         if (closeable != null) {
             try {
@@ -0,0 +1,93 @@
+package picocli.codegen.aot.graalvm;
+
+import org.junit.Test;
+import picocli.CommandLine;
+import picocli.CommandLine.Model.CommandSpec;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class NativeImageConfigGeneratorTest {
+
+    @Test
+    public void testMainOutputDirectory() throws IOException {
+        File dir = new File(System.getProperty("java.io.tmpdir"), "picocli-codegen-native" + System.currentTimeMillis());
+        try {
+            NativeImageConfigGenerator.main("--outdir", dir.getAbsolutePath(), ExampleInterface.class.getName());
+
+            assertEquals(normalize(read("/example-interface-reflect.json")),
+                    readAndClose(new FileInputStream(new File(dir, "reflect-config.json"))));
+            assertEquals(normalize(read("/example-interface-proxy.json")),
+                    readAndClose(new FileInputStream(new File(dir, "proxy-config.json"))));
+            CommandSpec spec = new CommandLine(ExampleInterface.class).getCommandSpec();
+            assertEquals(ResourceConfigGenerator.generateResourceConfig(new CommandSpec[] {spec}, new String[0], new String[0]),
+                    readAndClose(new FileInputStream(new File(dir, "resource-config.json"))));
+        } finally {
+            delete(dir);
+        }
+    }
+
+    @Test
+    public void testUnchangedFilesNotRewritten() throws Exception {
+        File dir = new File(System.getProperty("java.io.tmpdir"), "picocli-codegen-native" + System.currentTimeMillis());
+        try {
+            CommandSpec[] specs = {new CommandLine(new Example()).getCommandSpec()};
+            Map<String, String> configs = NativeImageConfigGenerator.generateConfigs(specs, new String[0], new String[0], new String[0]);
+            assertEquals(Arrays.asList("reflect-config.json", "resource-config.json", "proxy-config.json"),
+                    Arrays.asList(configs.keySet().toArray()));
+
+            List<File> written = NativeImageConfigGenerator.writeConfigs(dir, configs);
+            assertEquals(3, written.size());
+            for (File file : written) {
+                assertTrue(file.setLastModified(1000000L));
+            }
+
+            configs = NativeImageConfigGenerator.generateConfigs(specs, new String[] {"some.extra.bundle"}, new String[0], new String[0]);
+            written = NativeImageConfigGenerator.writeConfigs(dir, configs);
+            assertEquals(Collections.singletonList(new File(dir, "resource-config.json")), written);
+            assertEquals(1000000L, new File(dir, "reflect-config.json").lastModified());
+            assertEquals(1000000L, new File(dir, "proxy-config.json").lastModified());
+
+            assertTrue(NativeImageConfigGenerator.writeConfigs(dir, configs).isEmpty());
+        } finally {
+            delete(dir);
+        }
+    }
+
+    private static void delete(File dir) {
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        dir.delete();
+    }
+
+    private String normalize(String expected) {
+        expected = expected.replace("\r\n", "\n");
+        return expected.replace("\n", System.getProperty("line.separator"));
+    }
+
+    private String read(String resource) throws IOException {
+        return readAndClose(getClass().getResourceAsStream(resource));
+    }
+
+    private String readAndClose(InputStream in) throws IOException {
+        try {
+            byte[] buff = new byte[15000];
+            int size = in.read(buff);
+            return new String(buff, 0, size);
+        } finally {
+            in.close();
+        }
+    }
+}
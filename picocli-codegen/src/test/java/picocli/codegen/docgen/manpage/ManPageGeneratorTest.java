@@ -9,10 +9,13 @@ import org.junit.rules.TestRule;
 import picocli.CommandLine;
 import picocli.CommandLine.ArgGroup;
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Model.OptionSpec;
 import picocli.CommandLine.Option;
 import picocli.CommandLine.Parameters;
 import picocli.codegen.util.Assert;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
@@ -335,30 +338,37 @@ public class ManPageGeneratorTest {
         new CommandLine(new Top()).setOut(new PrintWriter(sw, true))
                 .execute("subcommand", "gen-manpage", "--help");
         String expected = String.format("" +
-                "Usage: top-level-command subcommand gen-manpage [-fhVv] [-d=<outdir>] [-t=<template-dir>]%n" +
+                "Usage: top-level-command subcommand gen-manpage [-fhVv] [--combined-file=<file>] [-d=<outdir>]%n" +
+                "                                                [-t=<template-dir>] [--threads=<threads>]%n" +
                 "                                                [@<filename>...]%n" +
                 "Generates man pages for all commands in the specified directory.%n" +
-                "      [@<filename>...]    One or more argument files containing options.%n" +
-                "  -d, --outdir=<outdir>   Output directory to write the generated AsciiDoc files to. If not%n" +
-                "                            specified, files are written to the current directory.%n" +
+                "      [@<filename>...]      One or more argument files containing options.%n" +
+                "  -d, --outdir=<outdir>     Output directory to write the generated AsciiDoc files to. If not%n" +
+                "                              specified, files are written to the current directory.%n" +
                 "  -t, --template-dir=<template-dir>%n" +
-                "                          Optional directory to write customizable man page template files. If%n" +
-                "                            specified, an additional \"template\" file is created here for each%n" +
-                "                            generated manpage AsciiDoc file.%n" +
-                "                          Each template file contains `include` directives that import content from%n" +
-                "                            the corresponding generated manpage AsciiDoc file in the `--outdir`%n" +
-                "                            directory. Text can be added after each include to customize the%n" +
-                "                            resulting man page. The resulting man page will be a mixture of%n" +
-                "                            generated and manually edited text.%n" +
-                "                          These customizable templates are intended to be generated once, and%n" +
-                "                            afterwards be manually updated and maintained.%n" +
-                "  -v, --verbose           Specify multiple -v options to increase verbosity.%n" +
-                "                          For example, `-v -v -v` or `-vvv`%n" +
-                "  -f, --[no-]force        Overwrite existing man page templates. The default is `--no-force`,%n" +
-                "                            meaning processing is aborted and the process exits with status code 4%n" +
-                "                            if a man page template file already exists.%n" +
-                "  -h, --help              Show this help message and exit.%n" +
-                "  -V, --version           Print version information and exit.%n" +
+                "                            Optional directory to write customizable man page template files. If%n" +
+                "                              specified, an additional \"template\" file is created here for each%n" +
+                "                              generated manpage AsciiDoc file.%n" +
+                "                            Each template file contains `include` directives that import content%n" +
+                "                              from the corresponding generated manpage AsciiDoc file in the%n" +
+                "                              `--outdir` directory. Text can be added after each include to%n" +
+                "                              customize the resulting man page. The resulting man page will be a%n" +
+                "                              mixture of generated and manually edited text.%n" +
+                "                            These customizable templates are intended to be generated once, and%n" +
+                "                              afterwards be manually updated and maintained.%n" +
+                "  -v, --verbose             Specify multiple -v options to increase verbosity.%n" +
+                "                            For example, `-v -v -v` or `-vvv`%n" +
+                "  -f, --[no-]force          Overwrite existing man page templates. The default is `--no-force`,%n" +
+                "                              meaning processing is aborted and the process exits with status code%n" +
+                "                              4 if a man page template file already exists.%n" +
+                "      --threads=<threads>   Number of threads to use to generate man pages. The default is the%n" +
+                "                              number of available processors.%n" +
+                "      --combined-file=<file>%n" +
+                "                            Optional file to write a single AsciiDoc document to that contains all%n" +
+                "                              generated man pages, in addition to the separate man page files in%n" +
+                "                              the `--outdir` directory.%n" +
+                "  -h, --help                Show this help message and exit.%n" +
+                "  -V, --version             Print version information and exit.%n" +
                 "%n" +
                 "Converting to Man Page Format%n" +
                 "%n" +
@@ -505,4 +515,90 @@ public class ManPageGeneratorTest {
         }
     }
 
+
+    static CommandSpec commandTree(String name, int depth, int width) {
+        CommandSpec spec = CommandSpec.create().name(name);
+        spec.usageMessage().description("Description of " + name + ".");
+        spec.addOption(OptionSpec.builder("-x", "--" + name + "-option").paramLabel("VALUE").description("An option of " + name + ".").build());
+        new CommandLine(spec);
+        for (int i = 0; depth > 0 && i < width; i++) {
+            spec.addSubcommand("s" + i, new CommandLine(commandTree("s" + i, depth - 1, width)));
+        }
+        return spec;
+    }
+
+    @Test
+    public void testParallelGenerationSkipsUnchangedPages() throws IOException {
+        File root = new File(System.getProperty("java.io.tmpdir"), "manpage-parallel" + System.currentTimeMillis());
+        File sequentialDir = new File(root, "sequential");
+        File parallelDir = new File(root, "parallel");
+        File combinedFile = new File(root, "combined/reference.adoc");
+        try {
+            ManPageGenerator.Config config = new ManPageGenerator.Config();
+            config.verbosity = new boolean[0];
+            config.directory = sequentialDir;
+            config.threads = 1;
+            assertEquals(0, ManPageGenerator.generateManPage(config, commandTree("app", 2, 5)));
+
+            config.directory = parallelDir;
+            config.threads = 4;
+            config.combinedFile = combinedFile;
+            assertEquals(0, ManPageGenerator.generateManPage(config, commandTree("app", 2, 5)));
+
+            String[] names = sequentialDir.list();
+            assertEquals(1 + 5 + 25, names.length);
+            StringBuilder combined = new StringBuilder();
+            for (String name : new String[] {"app.adoc", "app-s0.adoc", "app-s0-s0.adoc", "app-s4-s4.adoc"}) {
+                assertTrue(name, new File(parallelDir, name).exists());
+            }
+            for (String name : names) {
+                String expected = readFile(new File(sequentialDir, name));
+                assertEquals(name, expected, readFile(new File(parallelDir, name)));
+                combined.append(expected);
+                assertTrue(new File(parallelDir, name).setLastModified(1000000L));
+            }
+            String actualCombined = readFile(combinedFile);
+            assertEquals(combined.length() + names.length - 1, actualCombined.length());
+            assertTrue(actualCombined.startsWith(readFile(new File(parallelDir, "app.adoc"))));
+
+            CommandSpec modified = commandTree("app", 2, 5);
+            modified.subcommands().get("s1").getCommandSpec().usageMessage().description("Changed.");
+            assertEquals(0, ManPageGenerator.generateManPage(config, modified));
+            for (String name : names) {
+                long lastModified = new File(parallelDir, name).lastModified();
+                if (name.equals("app.adoc") || name.equals("app-s1.adoc")) { // app lists the description of s1
+                    assertTrue(name, lastModified > 1000000L);
+                } else {
+                    assertEquals(name, 1000000L, lastModified);
+                }
+            }
+        } finally {
+            deleteRecursively(root);
+        }
+    }
+
+    private static String readFile(File file) throws IOException {
+        FileInputStream in = new FileInputStream(file);
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buff = new byte[8192];
+            int size;
+            while ((size = in.read(buff)) != -1) {
+                out.write(buff, 0, size);
+            }
+            return out.toString("UTF-8");
+        } finally {
+            in.close();
+        }
+    }
+
+    private static void deleteRecursively(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        file.delete();
+    }
 }
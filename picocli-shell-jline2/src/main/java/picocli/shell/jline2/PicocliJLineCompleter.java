@@ -15,7 +15,7 @@ import java.util.List;
  * @since 3.7
  */
 public class PicocliJLineCompleter implements Completer {
-    private final CommandSpec spec;
+    private final AutoComplete.IncrementalCompleter completer;
 
     /**
      * Constructs a new {@code PicocliJLineCompleter} for the given command spec.
@@ -23,7 +23,7 @@ public class PicocliJLineCompleter implements Completer {
      */
     public PicocliJLineCompleter(CommandSpec spec) {
         if (spec == null) { throw new NullPointerException("spec"); }
-        this.spec = spec;
+        this.completer = new AutoComplete.IncrementalCompleter(spec);
     }
 
     /**
@@ -45,7 +45,7 @@ public class PicocliJLineCompleter implements Completer {
                 new ArgumentCompleter.WhitespaceArgumentDelimiter().delimit(buffer, cursor);
 
         // let picocli generate completion candidates for the token where the cursor is at
-        return AutoComplete.complete(spec,
+        return completer.complete(
                 list.getArguments(),
                 list.getCursorArgumentIndex(),
                 list.getArgumentPosition(),
@@ -19,7 +19,7 @@ import java.lang.CharSequence;
  * @since 3.9
  */
 public class PicocliJLineCompleter implements Completer {
-    private final CommandSpec spec;
+    private final AutoComplete.IncrementalCompleter completer;
 
     /**
      * Constructs a new {@code PicocliJLineCompleter} for the given command spec.
@@ -27,7 +27,7 @@ public class PicocliJLineCompleter implements Completer {
      */
     public PicocliJLineCompleter(CommandSpec spec) {
         if (spec == null) { throw new NullPointerException("spec"); }
-        this.spec = spec;
+        this.completer = new AutoComplete.IncrementalCompleter(spec);
     }
 
     /**
@@ -50,7 +50,7 @@ public class PicocliJLineCompleter implements Completer {
         String[] words = new String[line.words().size()];
         words = line.words().toArray(words);
         List<CharSequence> cs = new ArrayList<CharSequence>();
-        AutoComplete.complete(spec,
+        completer.complete(
                 words,
                 line.wordIndex(),
                 0,
@@ -1,10 +1,15 @@
 package picocli.spring;
 
 import java.util.logging.Logger;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactoryUtils;
 import org.springframework.context.ApplicationContext;
 import picocli.CommandLine;
 
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * PicocliSpringFactory is a {@link picocli.CommandLine.IFactory} implementation that
@@ -12,6 +17,13 @@ import java.util.Objects;
  * This allows picocli subcommands (and other objects that are instantiated as needed)
  * to have {@code javax.inject} annotations that will be populated
  * by Spring's dependency injection framework.
+ * <p>
+ * From picocli 4.7.8, this factory remembers for each class whether it is a singleton bean, a prototype bean,
+ * or not a bean in the application context, so the application context is searched only once per class.
+ * Classes that cannot be obtained from the application context are instantiated with the fallback factory
+ * without consulting the application context again.
+ * The number of lookups of each kind is available from {@link #getMetrics()}.
+ * </p>
  *
  * @author Thibaud Leprêtre
  * @since 4.0.0
@@ -19,8 +31,35 @@ import java.util.Objects;
 public class PicocliSpringFactory implements CommandLine.IFactory {
     private static final Logger logger = Logger.getLogger(PicocliSpringFactory.class.getName());
 
+    /** How instances of a class are obtained. */
+    private enum Kind { SINGLETON, PROTOTYPE, AMBIGUOUS, NOT_A_BEAN, FALLBACK }
+
+    /** The cached result of looking up a class in the application context. */
+    private static final class Resolution {
+        static final Resolution AMBIGUOUS = new Resolution(Kind.AMBIGUOUS, null);
+        static final Resolution NOT_A_BEAN = new Resolution(Kind.NOT_A_BEAN, null);
+        static final Resolution FALLBACK = new Resolution(Kind.FALLBACK, null);
+
+        final Kind kind;
+        final String beanName;
+
+        Resolution(Kind kind, String beanName) {
+            this.kind = kind;
+            this.beanName = beanName;
+        }
+    }
+
     private final ApplicationContext applicationContext;
     private final CommandLine.IFactory fallbackFactory;
+    private final ConcurrentMap<Class<?>, Resolution> resolutions = new ConcurrentHashMap<Class<?>, Resolution>();
+
+    private final AtomicLong singletons = new AtomicLong();
+    private final AtomicLong prototypes = new AtomicLong();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong fallbacks = new AtomicLong();
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong cacheMisses = new AtomicLong();
+    private final AtomicLong nanos = new AtomicLong();
 
     /**
      * Constructs a PicocliSpringFactory with the specified Application context,
@@ -48,21 +87,132 @@ public class PicocliSpringFactory implements CommandLine.IFactory {
 
     @Override
     public <K> K create(Class<K> clazz) throws Exception {
+        long start = System.nanoTime();
         try {
-            return getBeanOrCreate(clazz);
-        } catch (Exception e) {
-            logger.info(String.format(
-                "Unable to get bean of class %s from ApplicationContext, using fallback factory %s (%s)",
-                clazz, fallbackFactory.getClass().getName(), e.toString()));
-            return fallbackFactory.create(clazz);
+            Resolution resolution = resolve(clazz);
+            if (resolution.kind == Kind.FALLBACK) {
+                fallbacks.incrementAndGet();
+                return fallbackFactory.create(clazz);
+            }
+            try {
+                return getBeanOrCreate(clazz, resolution);
+            } catch (Exception e) {
+                logger.info(String.format(
+                    "Unable to get bean of class %s from ApplicationContext, using fallback factory %s (%s)",
+                    clazz, fallbackFactory.getClass().getName(), e.toString()));
+                resolutions.put(clazz, Resolution.FALLBACK);
+                fallbacks.incrementAndGet();
+                return fallbackFactory.create(clazz);
+            }
+        } finally {
+            nanos.addAndGet(System.nanoTime() - start);
         }
     }
 
-    private <K> K getBeanOrCreate(Class<K> clazz) {
-        try {
-            return applicationContext.getBean(clazz);
-        } catch (Exception e) {
-            return applicationContext.getAutowireCapableBeanFactory().createBean(clazz);
+    private Resolution resolve(Class<?> clazz) {
+        Resolution result = resolutions.get(clazz);
+        if (result != null) {
+            cacheHits.incrementAndGet();
+            return result;
+        }
+        cacheMisses.incrementAndGet();
+        String[] names = BeanFactoryUtils.beanNamesForTypeIncludingAncestors(applicationContext, clazz);
+        if (names.length == 0) {
+            result = Resolution.NOT_A_BEAN;
+        } else if (names.length > 1) {
+            result = Resolution.AMBIGUOUS; // let Spring select the primary bean, if any
+        } else {
+            result = new Resolution(applicationContext.isPrototype(names[0]) ? Kind.PROTOTYPE : Kind.SINGLETON, names[0]);
+        }
+        Resolution existing = resolutions.putIfAbsent(clazz, result);
+        return existing == null ? result : existing;
+    }
+
+    private <K> K getBeanOrCreate(Class<K> clazz, Resolution resolution) {
+        switch (resolution.kind) {
+            case SINGLETON:
+            case PROTOTYPE:
+                try {
+                    K bean = applicationContext.getBean(resolution.beanName, clazz);
+                    (resolution.kind == Kind.SINGLETON ? singletons : prototypes).incrementAndGet();
+                    return bean;
+                } catch (BeansException e) {
+                    break; // the bean could not be created: try to create and autowire a new instance instead
+                }
+            case AMBIGUOUS:
+                K primary = applicationContext.getBeanProvider(clazz).getIfUnique();
+                if (primary != null) {
+                    singletons.incrementAndGet();
+                    return primary;
+                }
+                break;
+            default:
+                break;
+        }
+        K result = applicationContext.getAutowireCapableBeanFactory().createBean(clazz);
+        created.incrementAndGet();
+        return result;
+    }
+
+    /**
+     * Returns a snapshot of the number of instances this factory created, by how they were obtained,
+     * and the time spent creating them.
+     * @return a snapshot of the metrics of this factory
+     * @since 4.7.8
+     */
+    public Metrics getMetrics() {
+        return new Metrics(singletons.get(), prototypes.get(), created.get(), fallbacks.get(),
+                cacheHits.get(), cacheMisses.get(), nanos.get());
+    }
+
+    /**
+     * Immutable snapshot of the number of instances created by a {@link PicocliSpringFactory}.
+     * @since 4.7.8
+     */
+    public static final class Metrics {
+        private final long singletons;
+        private final long prototypes;
+        private final long created;
+        private final long fallbacks;
+        private final long cacheHits;
+        private final long cacheMisses;
+        private final long nanos;
+
+        Metrics(long singletons, long prototypes, long created, long fallbacks, long cacheHits, long cacheMisses, long nanos) {
+            this.singletons = singletons;
+            this.prototypes = prototypes;
+            this.created = created;
+            this.fallbacks = fallbacks;
+            this.cacheHits = cacheHits;
+            this.cacheMisses = cacheMisses;
+            this.nanos = nanos;
+        }
+
+        /** Returns the number of singleton beans obtained from the application context. */
+        public long getSingletonBeans() { return singletons; }
+
+        /** Returns the number of prototype beans obtained from the application context. */
+        public long getPrototypeBeans() { return prototypes; }
+
+        /** Returns the number of instances of classes that are not beans, which were created and autowired by the application context. */
+        public long getCreatedBeans() { return created; }
+
+        /** Returns the number of instances created by the fallback factory. */
+        public long getFallbacks() { return fallbacks; }
+
+        /** Returns the number of times a class was found in the resolution cache. */
+        public long getCacheHits() { return cacheHits; }
+
+        /** Returns the number of times a class was looked up in the application context. */
+        public long getCacheMisses() { return cacheMisses; }
+
+        /** Returns the total time spent creating instances, in nanoseconds. */
+        public long getNanos() { return nanos; }
+
+        @Override
+        public String toString() {
+            return String.format("singletonBeans=%d, prototypeBeans=%d, createdBeans=%d, fallbacks=%d, cacheHits=%d, cacheMisses=%d, time=%.3f ms",
+                    singletons, prototypes, created, fallbacks, cacheHits, cacheMisses, nanos / 1000000.0);
         }
     }
 }
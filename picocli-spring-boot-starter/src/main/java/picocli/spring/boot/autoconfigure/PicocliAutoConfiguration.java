@@ -2,7 +2,10 @@ package picocli.spring.boot.autoconfigure;
 
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationListener;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
@@ -10,12 +13,16 @@ import picocli.CommandLine;
 import picocli.CommandLine.IFactory;
 import picocli.spring.PicocliSpringFactory;
 
+import java.util.Map;
+import java.util.logging.Logger;
+
 /**
  * @author Thibaud Leprêtre
  */
 @Configuration(proxyBeanMethods = false)
 @ConditionalOnClass(CommandLine.class)
 public class PicocliAutoConfiguration {
+    private static final Logger logger = Logger.getLogger(PicocliAutoConfiguration.class.getName());
 
     @Primary
     @Bean
@@ -29,4 +36,23 @@ public class PicocliAutoConfiguration {
     public PicocliSpringFactory picocliSpringFactoryImpl(ApplicationContext applicationContext) {
         return new PicocliSpringFactory(applicationContext);
     }
+
+    /**
+     * Logs the {@linkplain PicocliSpringFactory#getMetrics() metrics} of the {@code PicocliSpringFactory} beans
+     * when the application is ready, after all {@code CommandLineRunner} beans have been called.
+     * This is enabled with the {@code picocli.spring.startup-metrics=true} property.
+     * @since 4.7.8
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "picocli.spring", name = "startup-metrics", havingValue = "true")
+    public ApplicationListener<ApplicationReadyEvent> picocliStartupMetricsLogger(final ApplicationContext applicationContext) {
+        return new ApplicationListener<ApplicationReadyEvent>() {
+            @Override
+            public void onApplicationEvent(ApplicationReadyEvent event) {
+                for (Map.Entry<String, PicocliSpringFactory> entry : applicationContext.getBeansOfType(PicocliSpringFactory.class).entrySet()) {
+                    logger.info(String.format("PicocliSpringFactory '%s' startup metrics: %s", entry.getKey(), entry.getValue().getMetrics()));
+                }
+            }
+        };
+    }
 }
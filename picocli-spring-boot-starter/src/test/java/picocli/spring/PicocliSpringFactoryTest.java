@@ -2,7 +2,11 @@ package picocli.spring;
 
 import org.junit.After;
 import org.junit.Test;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Scope;
 import picocli.CommandLine;
 import picocli.CommandLine.IFactory;
 import picocli.CommandLine.ParseResult;
@@ -10,7 +14,9 @@ import picocli.spring.boot.autoconfigure.sample.MyCommand;
 import picocli.spring.boot.autoconfigure.sample.MySpringApp;
 
 import java.lang.reflect.Field;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 import static org.junit.Assert.*;
 
@@ -77,6 +83,88 @@ public class PicocliSpringFactoryTest {
         assertEquals("something", subsub.service.service());
     }
 
+    @Test
+    public void testBeanLookupsCached() throws Exception {
+        load(MySpringApp.class);
+        PicocliSpringFactory factory = new PicocliSpringFactory(context);
+        MyCommand userObject = this.context.getBean(MyCommand.class);
+        // subcommand user objects are created when the parser assigns their options
+        new CommandLine(userObject, factory).parseArgs("sub", "-y", "abc", "subsub", "-z", "xyz");
+        PicocliSpringFactory.Metrics first = factory.getMetrics();
+        assertEquals(first.toString(), 2, first.getSingletonBeans()); // Sub and SubSub
+        assertEquals(first.toString(), 2, first.getCacheMisses());
+        assertEquals(first.toString(), 0, first.getFallbacks());
+
+        new CommandLine(userObject, factory).parseArgs("sub", "-y", "abc", "subsub", "-z", "xyz");
+        PicocliSpringFactory.Metrics second = factory.getMetrics();
+        assertEquals(second.toString(), 2, second.getCacheMisses());
+        assertEquals(second.toString(), 2, second.getCacheHits());
+        assertEquals(second.toString(), 4, second.getSingletonBeans());
+    }
+
+    @Test
+    public void testSingletonBeansReturnSameInstance() throws Exception {
+        load(MySpringApp.class);
+        PicocliSpringFactory factory = new PicocliSpringFactory(context);
+        MyCommand.Sub first = factory.create(MyCommand.Sub.class);
+        assertSame(first, factory.create(MyCommand.Sub.class));
+        assertSame(this.context.getBean(MyCommand.Sub.class), first);
+    }
+
+    public static class PrototypeCommand {}
+
+    @Configuration
+    static class PrototypeConfig {
+        @Bean
+        @Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
+        PrototypeCommand prototypeCommand() {
+            return new PrototypeCommand();
+        }
+    }
+
+    @Test
+    public void testPrototypeBeansReturnNewInstances() throws Exception {
+        load(PrototypeConfig.class);
+        PicocliSpringFactory factory = new PicocliSpringFactory(context);
+        PrototypeCommand first = factory.create(PrototypeCommand.class);
+        PrototypeCommand second = factory.create(PrototypeCommand.class);
+        assertNotNull(first);
+        assertNotNull(second);
+        assertNotSame("cached lookups must not turn prototype beans into singletons", first, second);
+        PicocliSpringFactory.Metrics metrics = factory.getMetrics();
+        assertEquals(metrics.toString(), 2, metrics.getPrototypeBeans());
+        assertEquals(metrics.toString(), 0, metrics.getCreatedBeans());
+        assertEquals(metrics.toString(), 1, metrics.getCacheMisses());
+        assertEquals(metrics.toString(), 1, metrics.getCacheHits());
+    }
+
+    public static class NotABean {}
+
+    @Test
+    public void testNonBeansCreatedAndAutowired() throws Exception {
+        load(MySpringApp.class);
+        PicocliSpringFactory factory = new PicocliSpringFactory(context);
+        assertNotNull(factory.create(NotABean.class));
+        assertNotSame(factory.create(NotABean.class), factory.create(NotABean.class));
+        PicocliSpringFactory.Metrics metrics = factory.getMetrics();
+        assertEquals(metrics.toString(), 3, metrics.getCreatedBeans());
+        assertEquals(metrics.toString(), 1, metrics.getCacheMisses());
+        assertEquals(metrics.toString(), 2, metrics.getCacheHits());
+    }
+
+    @Test
+    public void testFallbackFactoryRemembered() throws Exception {
+        load(MySpringApp.class);
+        PicocliSpringFactory factory = new PicocliSpringFactory(context);
+        List<?> first = factory.create(List.class); // interfaces cannot be created by Spring
+        assertTrue(first instanceof ArrayList);
+        assertTrue(factory.create(List.class) instanceof ArrayList);
+        PicocliSpringFactory.Metrics metrics = factory.getMetrics();
+        assertEquals(metrics.toString(), 2, metrics.getFallbacks());
+        assertEquals(metrics.toString(), 0, metrics.getCreatedBeans());
+        assertEquals(metrics.toString(), 1, metrics.getCacheMisses());
+    }
+
     private void load(Class<?> config, String... environment) {
         AnnotationConfigApplicationContext applicationContext = new AnnotationConfigApplicationContext();
         //EnvironmentTestUtils.addEnvironment(applicationContext, environment);
@@ -5,6 +5,7 @@ import org.junit.Test;
 import org.springframework.beans.factory.NoSuchBeanDefinitionException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.test.util.TestPropertyValues;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.stereotype.Component;
@@ -82,6 +83,18 @@ public class PicocliAutoConfigurationTest {
         assertTrue(factory instanceof PicocliSpringFactory);
     }
 
+    @Test
+    public void startupMetricsLoggerDisabledByDefault() {
+        load(EmptyConfiguration.class);
+        assertFalse(this.context.containsBean("picocliStartupMetricsLogger"));
+    }
+
+    @Test
+    public void startupMetricsLoggerEnabledWithProperty() {
+        load(EmptyConfiguration.class, "picocli.spring.startup-metrics=true");
+        assertTrue(this.context.containsBean("picocliStartupMetricsLogger"));
+    }
+
     @Configuration
     @EnableAutoConfiguration
     static class EmptyConfiguration {}
@@ -111,7 +124,7 @@ public class PicocliAutoConfigurationTest {
 
     private void load(Class<?> config, String... environment) {
         AnnotationConfigApplicationContext applicationContext = new AnnotationConfigApplicationContext();
-        //EnvironmentTestUtils.addEnvironment(applicationContext, environment);
+        TestPropertyValues.of(environment).applyTo(applicationContext);
         applicationContext.register(config);
         applicationContext.refresh();
         this.context = applicationContext;
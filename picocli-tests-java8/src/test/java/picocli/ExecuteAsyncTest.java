@@ -0,0 +1,123 @@
+package picocli;
+
+import org.junit.Test;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.IExecutionExceptionHandler;
+import picocli.CommandLine.IExitCodeExceptionMapper;
+import picocli.CommandLine.ParseResult;
+import picocli.CommandLine.Pool;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.*;
+
+/**
+ * This test is located in the `picocli-tests-java8` module because it uses the Java 8
+ * `java.util.concurrent.CompletionStage` API. (The main module requires only Java 5.)
+ */
+public class ExecuteAsyncTest {
+
+    @Command(name = "async")
+    static class AsyncCommand implements Callable<CompletionStage<Integer>> {
+        final CompletableFuture<Integer> result = new CompletableFuture<Integer>();
+        public CompletionStage<Integer> call() { return result; }
+    }
+
+    @Command(name = "async")
+    static class AsyncMethods {
+        @Command
+        CompletionStage<Integer> failing() {
+            CompletableFuture<Integer> result = new CompletableFuture<Integer>();
+            result.completeExceptionally(new IOException("failed asynchronously"));
+            return result;
+        }
+    }
+
+    @Test
+    public void testExecuteAsyncCompletesWhenCompletionStageCompletes() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            AsyncCommand command = new AsyncCommand();
+            CommandLine cmd = new CommandLine(command);
+            CompletableFuture<Integer> exitCode = cmd.executeAsync(executor);
+            Thread.sleep(50);
+            assertFalse(exitCode.isDone());
+
+            command.result.complete(5);
+            assertEquals(5, (int) exitCode.get(5, TimeUnit.SECONDS));
+            assertEquals(Integer.valueOf(5), cmd.getExecutionResult());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testExecuteAsyncHandlesExceptionalCompletionLikeExecute() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final List<Exception> handled = new ArrayList<Exception>();
+            CommandLine cmd = new CommandLine(new AsyncMethods());
+            cmd.setExecutionExceptionHandler(new IExecutionExceptionHandler() {
+                public int handleExecutionException(Exception ex, CommandLine commandLine, ParseResult parseResult) {
+                    handled.add(ex);
+                    assertEquals("failing", commandLine.getCommandName());
+                    return 42;
+                }
+            });
+            Future<Integer> exitCode = cmd.executeAsync(executor, "failing");
+            assertEquals(42, (int) exitCode.get(5, TimeUnit.SECONDS));
+            assertEquals(1, handled.size());
+            assertEquals("failed asynchronously", handled.get(0).getMessage());
+
+            StringWriter err = new StringWriter();
+            cmd = new CommandLine(new AsyncMethods()).setErr(new PrintWriter(err));
+            cmd.setExitCodeExceptionMapper(new IExitCodeExceptionMapper() {
+                public int getExitCode(Throwable exception) { return exception instanceof IOException ? 3 : 4; }
+            });
+            assertEquals(3, (int) cmd.<Future<Integer>>executeAsync(executor, "failing").get(5, TimeUnit.SECONDS));
+            assertThat(err.toString(), containsString("failed asynchronously"));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testPoolExecuteAsyncReleasesInstanceWhenDone() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final List<AsyncCommand> commands = Collections.synchronizedList(new ArrayList<AsyncCommand>());
+            Pool pool = new Pool(new Callable<CommandLine>() {
+                public CommandLine call() {
+                    AsyncCommand command = new AsyncCommand();
+                    commands.add(command);
+                    return new CommandLine(command);
+                }
+            });
+            CompletableFuture<Integer> first = pool.executeAsync(executor);
+            CompletableFuture<Integer> second = pool.executeAsync(executor);
+            assertEquals(2, pool.createdCount());
+
+            commands.get(0).result.complete(1);
+            assertEquals(1, (int) first.get(5, TimeUnit.SECONDS));
+            assertSame(commands.get(0), pool.acquire().getCommand());
+            commands.get(1).result.complete(2);
+            assertEquals(2, (int) second.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -28,6 +28,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -889,8 +890,94 @@ public class AutoComplete {
         return concat(" ", result, null, new SingleQuoteFunction()).trim();
     }
 
+    /**
+     * Generates completion candidates like {@link AutoComplete#complete(CommandSpec, String[], int, int, int, List)},
+     * but keeps state between invocations so that completing on an interactive command line is fast, also for large
+     * command hierarchies:
+     * <ul>
+     *   <li>the same parser is reused for every invocation, and only the options and positional parameters that
+     *   were matched by the previous invocation are reset before parsing (see {@link CommandLine.ParseSession})</li>
+     *   <li>only the arguments up to and including the argument being completed are parsed, and the parse result
+     *   is reused as long as these arguments do not change, for example when the user presses TAB repeatedly</li>
+     *   <li>the subcommand names, aliases and option names that are candidates after a command are computed once per command</li>
+     * </ul>
+     * <p>Completion candidates of options and positional parameters are obtained from their
+     * {@linkplain ArgSpec#completionCandidates() completionCandidates} on every invocation, since these may be dynamic.
+     * The command model must not be modified after the first invocation; create a new instance if the model changes.
+     * Instances of this class are not thread-safe.</p>
+     * @since 4.7.8
+     */
+    public static final class IncrementalCompleter {
+        private final CommandSpec spec;
+        private final CompletionCache cache = new CompletionCache();
+        private CommandLine.ParseSession session;
+        private String[] lastArgs;
+        private ParseResult lastParseResult;
+
+        /**
+         * Constructs a new {@code IncrementalCompleter} for the specified command.
+         * @param spec the command specification to generate completions for. Must be non-{@code null}.
+         */
+        public IncrementalCompleter(CommandSpec spec) {
+            if (spec == null) { throw new NullPointerException("spec is null"); }
+            this.spec = spec;
+        }
+
+        /**
+         * Populates the specified list with completion candidates for the argument at the specified index.
+         * The parameters have the same meaning as for {@link AutoComplete#complete(CommandSpec, String[], int, int, int, List)},
+         * except that arguments following the argument at {@code argIndex} are ignored.
+         * @param args the command line arguments
+         * @param argIndex the index of the argument to complete; may be equal to {@code args.length} to complete a new argument
+         * @param positionInArg the position of the cursor in the argument to complete
+         * @param cursor the cursor position in the command line, returned if candidates were found
+         * @param candidates the list to add the completion candidates to
+         * @return the specified cursor position if one or more candidates were found, {@code -1} otherwise
+         */
+        public int complete(String[] args, int argIndex, int positionInArg, int cursor, List<CharSequence> candidates) {
+            args = validateCompletionArgs(args, argIndex, positionInArg, candidates);
+            String[] relevant = new String[argIndex + 1];
+            System.arraycopy(args, 0, relevant, 0, relevant.length);
+            if (lastParseResult == null || !Arrays.equals(relevant, lastArgs)) {
+                lastParseResult = parse(relevant);
+                lastArgs = relevant;
+            }
+            return AutoComplete.complete(spec, lastParseResult, args[argIndex], argIndex, positionInArg, cursor, candidates, cache);
+        }
+
+        private ParseResult parse(String[] args) {
+            boolean reset = spec.parser().collectErrors();
+            try {
+                spec.parser().collectErrors(true);
+                if (session == null) { session = new CommandLine(spec).newParseSession(); }
+                return session.parseArgs(args);
+            } finally {
+                spec.parser().collectErrors(reset);
+            }
+        }
+    }
+
+    /** Completion state that does not change as long as the command model does not change. */
+    private static final class CompletionCache {
+        final Map<CommandSpec, List<String>> keywords = new IdentityHashMap<CommandSpec, List<String>>();
+        final Map<ArgSpec, CommandSpec> owners = new IdentityHashMap<ArgSpec, CommandSpec>();
+    }
+
     public static int complete(CommandSpec spec, String[] args, int argIndex, int positionInArg, int cursor, List<CharSequence> candidates) {
         if (spec == null)       { throw new NullPointerException("spec is null"); }
+        args = validateCompletionArgs(args, argIndex, positionInArg, candidates);
+
+        boolean reset = spec.parser().collectErrors();
+        try {
+            spec.parser().collectErrors(true);
+            CommandLine parser = new CommandLine(spec);
+            ParseResult parseResult = parser.parseArgs(args);
+            return complete(spec, parseResult, args[argIndex], argIndex, positionInArg, cursor, candidates, null);
+        } finally {
+            spec.parser().collectErrors(reset);
+        }
+    }
+    private static String[] validateCompletionArgs(String[] args, int argIndex, int positionInArg, List<CharSequence> candidates) {
         if (args == null)       { throw new NullPointerException("args is null"); }
         if (candidates == null) { throw new NullPointerException("candidates list is null"); }
         if (argIndex == args.length) {
@@ -901,61 +988,54 @@ public class AutoComplete {
         }
         if (argIndex < 0      || argIndex >= args.length)                 { throw new IllegalArgumentException("Invalid argIndex " + argIndex + ": args array only has " + args.length + " elements."); }
         if (positionInArg < 0 || positionInArg > args[argIndex].length()) { throw new IllegalArgumentException("Invalid positionInArg " + positionInArg + ": args[" + argIndex + "] (" + args[argIndex] + ") only has " + args[argIndex].length() + " characters."); }
-
-        String currentArg = args[argIndex];
-        boolean reset = spec.parser().collectErrors();
-        try {
-            String committedPrefix = currentArg.substring(0, positionInArg);
-
-            spec.parser().collectErrors(true);
-            CommandLine parser = new CommandLine(spec);
-            ParseResult parseResult = parser.parseArgs(args);
-            if (argIndex >= parseResult.tentativeMatch.size()) {
-                Object startPoint = findCompletionStartPoint(parseResult);
-                addCandidatesForArgsFollowing(startPoint, candidates);
-            } else {
-                Object obj = parseResult.tentativeMatch.get(argIndex);
-                if (obj instanceof CommandSpec) { // subcommand
-                    addCandidatesForArgsFollowing(((CommandSpec) obj).parent(), candidates);
-
-                } else if (obj instanceof OptionSpec) { // option
-                    int sep = currentArg.indexOf(spec.parser().separator());
-                    if (sep < 0 || positionInArg < sep) { // no '=' or cursor before '='
-                        addCandidatesForArgsFollowing(findCommandFor((OptionSpec) obj, spec), candidates);
-                    } else {
-                        addCandidatesForArgsFollowing((OptionSpec) obj, candidates);
-
-                        int sepLength = spec.parser().separator().length();
-                        if (positionInArg < sep + sepLength) {
-                            int posInSeparator = positionInArg - sep;
-                            String prefix = spec.parser().separator().substring(posInSeparator);
-                            for (int i = 0; i < candidates.size(); i++) {
-                                candidates.set(i, prefix + candidates.get(i));
-                            }
-                            committedPrefix = currentArg.substring(sep, positionInArg);
-                        } else {
-                            committedPrefix = currentArg.substring(sep + sepLength, positionInArg);
+        return args;
+    }
+    private static int complete(CommandSpec spec, ParseResult parseResult, String currentArg, int argIndex, int positionInArg, int cursor,
+                                List<CharSequence> candidates, CompletionCache cache) {
+        String committedPrefix = currentArg.substring(0, positionInArg);
+        if (argIndex >= parseResult.tentativeMatch.size()) {
+            Object startPoint = findCompletionStartPoint(parseResult, cache);
+            addCandidatesForArgsFollowing(startPoint, candidates, cache);
+        } else {
+            Object obj = parseResult.tentativeMatch.get(argIndex);
+            if (obj instanceof CommandSpec) { // subcommand
+                addCandidatesForArgsFollowing(((CommandSpec) obj).parent(), candidates, cache);
+
+            } else if (obj instanceof OptionSpec) { // option
+                int sep = currentArg.indexOf(spec.parser().separator());
+                if (sep < 0 || positionInArg < sep) { // no '=' or cursor before '='
+                    addCandidatesForArgsFollowing(findCommandFor((OptionSpec) obj, spec, cache), candidates, cache);
+                } else {
+                    addCandidatesForArgsFollowing((OptionSpec) obj, candidates);
+
+                    int sepLength = spec.parser().separator().length();
+                    if (positionInArg < sep + sepLength) {
+                        int posInSeparator = positionInArg - sep;
+                        String prefix = spec.parser().separator().substring(posInSeparator);
+                        for (int i = 0; i < candidates.size(); i++) {
+                            candidates.set(i, prefix + candidates.get(i));
                         }
+                        committedPrefix = currentArg.substring(sep, positionInArg);
+                    } else {
+                        committedPrefix = currentArg.substring(sep + sepLength, positionInArg);
                     }
+                }
 
-                } else if (obj instanceof PositionalParamSpec) { // positional
-                    //addCandidatesForArgsFollowing(obj, candidates);
-                    addCandidatesForArgsFollowing(findCommandFor((PositionalParamSpec) obj, spec), candidates);
+            } else if (obj instanceof PositionalParamSpec) { // positional
+                //addCandidatesForArgsFollowing(obj, candidates);
+                addCandidatesForArgsFollowing(findCommandFor((PositionalParamSpec) obj, spec, cache), candidates, cache);
 
-                } else {
-                    int i = argIndex - 1;
-                    while (i > 0 && !isPicocliModelObject(parseResult.tentativeMatch.get(i))) {i--;}
-                    if (i < 0) { return -1; }
-                    addCandidatesForArgsFollowing(parseResult.tentativeMatch.get(i), candidates);
-                }
+            } else {
+                int i = argIndex - 1;
+                while (i > 0 && !isPicocliModelObject(parseResult.tentativeMatch.get(i))) {i--;}
+                if (i < 0) { return -1; }
+                addCandidatesForArgsFollowing(parseResult.tentativeMatch.get(i), candidates, cache);
             }
-            filterAndTrimMatchingPrefix(committedPrefix, candidates);
-            return candidates.isEmpty() ? -1 : cursor;
-        } finally {
-            spec.parser().collectErrors(reset);
         }
+        filterAndTrimMatchingPrefix(committedPrefix, candidates);
+        return candidates.isEmpty() ? -1 : cursor;
     }
-    private static Object findCompletionStartPoint(ParseResult parseResult) {
+    private static Object findCompletionStartPoint(ParseResult parseResult, CompletionCache cache) {
         List<Object> tentativeMatches = parseResult.tentativeMatch;
         for (int i = 1; i <= tentativeMatches.size(); i++) {
             Object found = tentativeMatches.get(tentativeMatches.size() - i);
@@ -967,13 +1047,22 @@ public class AutoComplete {
                 if (i < arity.min()) {
                     return found; // not all parameters have been supplied yet
                 } else {
-                    return findCommandFor((ArgSpec) found, parseResult.commandSpec());
+                    return findCommandFor((ArgSpec) found, parseResult.commandSpec(), cache);
                 }
             }
         }
         return parseResult.commandSpec();
     }
 
+    private static CommandSpec findCommandFor(ArgSpec arg, CommandSpec cmd, CompletionCache cache) {
+        if (cache == null) { return findCommandFor(arg, cmd); }
+        CommandSpec result = cache.owners.get(arg);
+        if (result == null) {
+            result = findCommandFor(arg, cmd);
+            cache.owners.put(arg, result);
+        }
+        return result;
+    }
     private static CommandSpec findCommandFor(ArgSpec arg, CommandSpec cmd) {
         return (arg instanceof OptionSpec) ? findCommandFor((OptionSpec) arg, cmd) : findCommandFor((PositionalParamSpec) arg, cmd);
     }
@@ -1011,29 +1100,40 @@ public class AutoComplete {
         candidates.clear();
         candidates.addAll(replace);
     }
-    private static void addCandidatesForArgsFollowing(Object obj, List<CharSequence> candidates) {
+    private static void addCandidatesForArgsFollowing(Object obj, List<CharSequence> candidates, CompletionCache cache) {
         if (obj == null) { return; }
         if (obj instanceof CommandSpec) {
-            addCandidatesForArgsFollowing((CommandSpec) obj, candidates);
+            addCandidatesForArgsFollowing((CommandSpec) obj, candidates, cache);
         } else if (obj instanceof OptionSpec) {
             addCandidatesForArgsFollowing((OptionSpec) obj, candidates);
         } else if (obj instanceof PositionalParamSpec) {
             addCandidatesForArgsFollowing((PositionalParamSpec) obj, candidates);
         }
     }
-    private static void addCandidatesForArgsFollowing(CommandSpec commandSpec, List<CharSequence> candidates) {
+    private static void addCandidatesForArgsFollowing(CommandSpec commandSpec, List<CharSequence> candidates, CompletionCache cache) {
         if (commandSpec == null) { return; }
-        for (Map.Entry<String, CommandLine> entry : commandSpec.subcommands().entrySet()) {
-            if (entry.getValue().getCommandSpec().usageMessage().hidden()) { continue; } // #887 skip hidden subcommands
-            candidates.add(entry.getKey());
-            candidates.addAll(Arrays.asList(entry.getValue().getCommandSpec().aliases()));
+        List<String> keywords = cache == null ? null : cache.keywords.get(commandSpec);
+        if (keywords == null) {
+            keywords = keywords(commandSpec);
+            if (cache != null) { cache.keywords.put(commandSpec, keywords); }
         }
-        candidates.addAll(commandSpec.optionsMap().keySet());
+        candidates.addAll(keywords);
         for (PositionalParamSpec positional : commandSpec.positionalParameters()) {
             if (positional.hidden()) { continue; } // #887 skip hidden subcommands
             addCandidatesForArgsFollowing(positional, candidates);
         }
     }
+    /** Returns the subcommand names, aliases and option names that can follow the specified command. */
+    private static List<String> keywords(CommandSpec commandSpec) {
+        List<String> result = new ArrayList<String>();
+        for (Map.Entry<String, CommandLine> entry : commandSpec.subcommands().entrySet()) {
+            if (entry.getValue().getCommandSpec().usageMessage().hidden()) { continue; } // #887 skip hidden subcommands
+            result.add(entry.getKey());
+            result.addAll(Arrays.asList(entry.getValue().getCommandSpec().aliases()));
+        }
+        result.addAll(commandSpec.optionsMap().keySet());
+        return result;
+    }
     private static void addCandidatesForArgsFollowing(OptionSpec optionSpec, List<CharSequence> candidates) {
         if (optionSpec != null && !optionSpec.hidden()) {
             addCompletionCandidates(optionSpec.completionCandidates(), candidates);
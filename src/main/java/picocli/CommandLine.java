@@ -37,6 +37,15 @@ import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.*;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -152,6 +161,7 @@ public class CommandLine {
     private static final Tracer TRACER = new Tracer();
 
     private CommandSpec commandSpec;
+    private LazySubcommand lazySubcommand;
     private final Interpreter interpreter;
     private final IFactory factory;
 
@@ -159,6 +169,7 @@ public class CommandLine {
     private PrintWriter out;
     private PrintWriter err;
     private Help.ColorScheme colorScheme = Help.defaultColorScheme(Help.Ansi.AUTO);
+    private UsageHelpCache usageHelpCache;
     private IExitCodeExceptionMapper exitCodeExceptionMapper;
     private IExecutionStrategy executionStrategy = new RunLast();
     private IParameterExceptionHandler parameterExceptionHandler = new IParameterExceptionHandler() {
@@ -226,16 +237,54 @@ public class CommandLine {
 
     private CommandLine(Object command, IFactory factory, boolean userCalled) {
         this.factory = Assert.notNull(factory, "factory");
-        interpreter = new Interpreter();
+        interpreter = new Interpreter(true);
         commandSpec = CommandSpec.forAnnotatedObject(command, factory);
         commandSpec.commandLine(this);
         if (userCalled) { this.applyModelTransformations(); }
         commandSpec.validate();
         if (commandSpec.unmatchedArgsBindings().size() > 0) { setUnmatchedArgumentsAllowed(true); }
+        commandSpec.usageMessage().startTerminalWidthDetection();
+    }
+
+    /** Creates a placeholder for a {@linkplain Command#lazySubcommands() lazily initialized} subcommand.
+     * The {@code CommandSpec} is built the first time it is {@linkplain #getCommandSpec() requested}. */
+    private CommandLine(Class<?> subcommand, IFactory factory, CommandSpec parent, String name) {
+        this.factory = Assert.notNull(factory, "factory");
+        interpreter = new Interpreter(false);
+        lazySubcommand = new LazySubcommand(subcommand, parent, name);
+    }
+
+    /** Builds the {@code CommandSpec} of a lazily initialized subcommand, attaches it to its parent command,
+     * and applies the settings that were registered with this subcommand while it was still a placeholder. */
+    private void initLazySubcommand() {
+        LazySubcommand lazy = lazySubcommand;
+        Tracer t = CommandLine.tracer();
+        t.debug("Initializing lazy subcommand '%s' (%s)", lazy.name, lazy.type.getName());
+        CommandSpec spec;
+        try {
+            spec = CommandSpec.forAnnotatedObject(lazy.type, factory);
+        } catch (InitializationException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new InitializationException("Could not instantiate and add subcommand " + lazy.type.getName() + ": " + ex, ex);
+        }
+        commandSpec = spec;
+        lazySubcommand = null;
+        interpreter.registerBuiltInConverters();
+        commandSpec.commandLine(this);
+        commandSpec.validate();
+        if (commandSpec.unmatchedArgsBindings().size() > 0) { setUnmatchedArgumentsAllowed(true); }
+        lazy.parent.initLazySubcommand(lazy.name, commandSpec);
+        if (lazy.applyModelTransformations) { applyModelTransformations(); }
+        for (LazySetting setting : lazy.settings) { setting.applyTo(this); }
     }
 
     /** Apply transformers to command spec recursively. */
     private void applyModelTransformations() {
+        if (lazySubcommand != null) { // transform when initialized
+            lazySubcommand.applyModelTransformations = true;
+            return;
+        }
         if (commandSpec.modelTransformer != null) {
             commandSpec = commandSpec.modelTransformer.transform(commandSpec);
         }
@@ -253,17 +302,45 @@ public class CommandLine {
         result.exitCodeExceptionMapper = exitCodeExceptionMapper;
         result.executionExceptionHandler = executionExceptionHandler;
         result.parameterExceptionHandler = parameterExceptionHandler;
+        result.usageHelpCache = usageHelpCache == null ? null : new UsageHelpCache();
 
-        result.interpreter.converterRegistry.clear();
-        result.interpreter.converterRegistry.putAll(interpreter.converterRegistry);
+        result.interpreter.copyConverters(interpreter);
         return result;
     }
 
+    /** What is known about a {@linkplain Command#lazySubcommands() lazily initialized} subcommand before its {@code CommandSpec} is built. */
+    private static class LazySubcommand {
+        private final Class<?> type;
+        private final CommandSpec parent;
+        private final String name;
+        private final List<LazySetting> settings = new ArrayList<LazySetting>();
+        private boolean applyModelTransformations;
+        LazySubcommand(Class<?> type, CommandSpec parent, String name) {
+            this.type = type;
+            this.parent = parent;
+            this.name = name;
+        }
+    }
+    /** A setting that was registered with a lazily initialized subcommand before it was initialized.
+     * Settings are applied in the order they were registered, after the subcommand's {@code CommandSpec} is built,
+     * so that they also reach the subcommands of the subcommand. */
+    private static abstract class LazySetting {
+        abstract void applyTo(CommandLine commandLine);
+    }
+    private CommandLine defer(LazySetting setting) {
+        lazySubcommand.settings.add(setting);
+        return this;
+    }
+
     /**
      * Returns the {@code CommandSpec} model that this {@code CommandLine} was constructed with.
+     * For {@linkplain Command#lazySubcommands() lazily initialized} subcommands, the model is built when this method is first called.
      * @return the {@code CommandSpec} model
      * @since 3.0 */
-    public CommandSpec getCommandSpec() { return commandSpec; }
+    public CommandSpec getCommandSpec() {
+        if (lazySubcommand != null) { initLazySubcommand(); }
+        return commandSpec;
+    }
 
     /**
      * Adds the options and positional parameters in the specified mixin to this command.
@@ -448,7 +525,8 @@ public class CommandLine {
      * @return this {@code CommandLine} object, to allow method chaining
      * @since 3.9
      */
-    public CommandLine setHelpFactory(IHelpFactory helpFactory) {
+    public CommandLine setHelpFactory(final IHelpFactory helpFactory) {
+        if (lazySubcommand != null) { return defer(new LazySetting() { void applyTo(CommandLine cmd) { cmd.setHelpFactory(helpFactory); } }); }
         getCommandSpec().usageMessage().helpFactory(helpFactory);
         for (CommandLine command : getCommandSpec().subcommands().values()) {
             command.setHelpFactory(helpFactory);
@@ -492,7 +570,8 @@ public class CommandLine {
      * @see #getHelpSectionKeys
      * @since 3.9
      */
-    public CommandLine setHelpSectionKeys(List<String> keys) {
+    public CommandLine setHelpSectionKeys(final List<String> keys) {
+        if (lazySubcommand != null) { return defer(new LazySetting() { void applyTo(CommandLine cmd) { cmd.setHelpSectionKeys(keys); } }); }
         getCommandSpec().usageMessage().sectionKeys(keys);
         for (CommandLine command : getCommandSpec().subcommands().values()) {
             command.setHelpSectionKeys(keys);
@@ -523,7 +602,8 @@ public class CommandLine {
      * @see #getHelpSectionMap
      * @since 3.9
      */
-    public CommandLine setHelpSectionMap(Map<String, IHelpSectionRenderer> map) {
+    public CommandLine setHelpSectionMap(final Map<String, IHelpSectionRenderer> map) {
+        if (lazySubcommand != null) { return defer(new LazySetting() { void applyTo(CommandLine cmd) { cmd.setHelpSectionMap(map); } }); }
         getCommandSpec().usageMessage().sectionMap(map);
         for (CommandLine command : getCommandSpec().subcommands().values()) {
             command.setHelpSectionMap(map);
@@ -542,7 +622,8 @@ public class CommandLine {
      * subcommands, call the setter last, after adding subcommands.</p>
      * @param adjustForWideChars if true, wide Chinese, Japanese and Korean characters are counted as double the size of other characters for line-breaking purposes
      * @since 4.0 */
-    public CommandLine setAdjustLineBreaksForWideCJKCharacters(boolean adjustForWideChars) {
+    public CommandLine setAdjustLineBreaksForWideCJKCharacters(final boolean adjustForWideChars) {
+        if (lazySubcommand != null) { return defer(new LazySetting() { void applyTo(CommandLine cmd) { cmd.setAdjustLineBreaksForWideCJKCharacters(adjustForWideChars); } }); }
         getCommandSpec().usageMessage().adjustLineBreaksForWideCJKCharacters(adjustForWideChars);
         for (CommandLine command : getCommandSpec().subcommands().values()) {
             command.setAdjustLineBreaksForWideCJKCharacters(adjustForWideChars);
@@ -573,7 +654,8 @@ public class CommandLine {
      * @return this {@code CommandLine} object, to allow method chaining
      * @since 3.0
      */
-    public CommandLine setToggleBooleanFlags(boolean newValue) {
+    public CommandLine setToggleBooleanFlags(final boolean newValue) {
+        if (lazySubcommand != null) { return defer(new LazySetting() { void applyTo(CommandLine cmd) { cmd.setToggleBooleanFlags(newValue); } }); }
         getCommandSpec().parser().toggleBooleanFlags(newValue);
         for (CommandLine command : getCommandSpec().subcommands().values()) {
             command.setToggleBooleanFlags(newValue);
@@ -590,7 +672,8 @@ public class CommandLine {
      * later will have the default setting. To ensure a setting is applied to all
      * subcommands, call the setter last, after adding subcommands.</p>
      * @since 4.0 */
-    public CommandLine setInterpolateVariables(boolean interpolate) {
+    public CommandLine setInterpolateVariables(final boolean interpolate) {
+        if (lazySubcommand != null) { return defer(new LazySetting() { void applyTo(CommandLine cmd) { cmd.setInterpolateVariables(interpolate); } }); }
         getCommandSpec().interpolateVariables(interpolate);
         for (CommandLine command : getCommandSpec().subcommands().values()) {
             command.setInterpolateVariables(interpolate);
@@ -618,7 +701,8 @@ public class CommandLine {
      * @return this {@code CommandLine} object, to allow method chaining
      * @since 0.9.7
      */
-    public CommandLine setOverwrittenOptionsAllowed(boolean newValue) {
+    public CommandLine setOverwrittenOptionsAllowed(final boolean newValue) {
+        if (lazySubcommand != null) { return defer(new LazySetting() { void applyTo(CommandLine cmd) { cmd.setOverwrittenOptionsAllowed(newValue); } }); }
         getCommandSpec().parser().overwrittenOptionsAllowed(newValue);
         for (CommandLine command : getCommandSpec().subcommands().values()) {
             command.setOverwrittenOptionsAllowed(newValue);
@@ -640,7 +724,8 @@ public class CommandLine {
      * @return this {@code CommandLine} object, to allow method chaining
      * @since 3.0
      */
-    public CommandLine setPosixClusteredShortOptionsAllowed(boolean newValue) {
+    public CommandLine setPosixClusteredShortOptionsAllowed(final boolean newValue) {
+        if (lazySubcommand != null) { return defer(new LazySetting() { void applyTo(CommandLine cmd) { cmd.setPosixClusteredShortOptionsAllowed(newValue); } }); }
         getCommandSpec().parser().posixClusteredShortOptionsAllowed(newValue);
         for (CommandLine command : getCommandSpec().subcommands().values()) {
             command.setPosixClusteredShortOptionsAllowed(newValue);
@@ -666,7 +751,8 @@ public class CommandLine {
      * @return this {@code CommandLine} object, to allow method chaining
      * @since 3.4
      */
-    public CommandLine setCaseInsensitiveEnumValuesAllowed(boolean newValue) {
+    public CommandLine setCaseInsensitiveEnumValuesAllowed(final boolean newValue) {
+        if (lazySubcommand != null) { return defer(new LazySetting() { void applyTo(CommandLine cmd) { cmd.setCaseInsensitiveEnumValuesAllowed(newValue); } }); }
         getCommandSpec().parser().caseInsensitiveEnumValuesAllowed(newValue);
         for (CommandLine command : getCommandSpec().subcommands().values()) {
             command.setCaseInsensitiveEnumValuesAllowed(newValue);
@@ -711,7 +797,8 @@ public class CommandLine {
      * @see ParserSpec#trimQuotes(boolean)
      * @since 3.7
      */
-    public CommandLine setTrimQuotes(boolean newValue) {
+    public CommandLine setTrimQuotes(final boolean newValue) {
+        if (lazySubcommand != null) { return defer(new LazySetting() { void applyTo(CommandLine cmd) { cmd.setTrimQuotes(newValue); } }); }
         getCommandSpec().parser().trimQuotes(newValue);
         for (CommandLine command : getCommandSpec().subcommands().values()) {
             command.setTrimQuotes(newValue);
@@ -757,7 +844,8 @@ public class CommandLine {
      * @see ParserSpec#splitQuotedStrings(boolean)
      * @since 3.7
      */
-    @Deprecated public CommandLine setSplitQuotedStrings(boolean newValue) {
+    @Deprecated public CommandLine setSplitQuotedStrings(final boolean newValue) {
+        if (lazySubcommand != null) { return defer(new LazySetting() { void applyTo(CommandLine cmd) { cmd.setSplitQuotedStrings(newValue); } }); }
         getCommandSpec().parser().splitQuotedStrings(newValue);
         for (CommandLine command : getCommandSpec().subcommands().values()) {
             command.setSplitQuotedStrings(newValue);
@@ -774,7 +862,8 @@ public class CommandLine {
      * @param delimiter the end-of-options delimiter; must not be {@code null}. The default is {@code "--"}.
      * @return this {@code CommandLine} object, to allow method chaining
      * @since 3.5 */
-    public CommandLine setEndOfOptionsDelimiter(String delimiter) {
+    public CommandLine setEndOfOptionsDelimiter(final String delimiter) {
+        if (lazySubcommand != null) { return defer(new LazySetting() { void applyTo(CommandLine cmd) { cmd.setEndOfOptionsDelimiter(delimiter); } }); }
         getCommandSpec().parser().endOfOptionsDelimiter(delimiter);
         for (CommandLine command : getCommandSpec().subcommands().values()) {
             command.setEndOfOptionsDelimiter(delimiter);
@@ -798,7 +887,8 @@ public class CommandLine {
      * @return this {@code CommandLine} object, to allow method chaining
      * @since 4.3
      */
-    public CommandLine setSubcommandsCaseInsensitive(boolean newValue) {
+    public CommandLine setSubcommandsCaseInsensitive(final boolean newValue) {
+        if (lazySubcommand != null) { return defer(new LazySetting() { void applyTo(CommandLine cmd) { cmd.setSubcommandsCaseInsensitive(newValue); } }); }
         getCommandSpec().subcommandsCaseInsensitive(newValue);
         for (CommandLine command : getCommandSpec().subcommands().values()) {
             command.setSubcommandsCaseInsensitive(newValue);
@@ -825,7 +915,8 @@ public class CommandLine {
      * @return this {@code CommandLine} object, to allow method chaining
      * @since 4.3
      */
-    public CommandLine setOptionsCaseInsensitive(boolean newValue) {
+    public CommandLine setOptionsCaseInsensitive(final boolean newValue) {
+        if (lazySubcommand != null) { return defer(new LazySetting() { void applyTo(CommandLine cmd) { cmd.setOptionsCaseInsensitive(newValue); } }); }
         getCommandSpec().optionsCaseInsensitive(newValue);
         for (CommandLine command : getCommandSpec().subcommands().values()) {
             command.setOptionsCaseInsensitive(newValue);
@@ -851,7 +942,8 @@ public class CommandLine {
      * @return this {@code CommandLine} object, to allow method chaining
      * @since 4.4
      */
-    public CommandLine setAbbreviatedSubcommandsAllowed(boolean newValue) {
+    public CommandLine setAbbreviatedSubcommandsAllowed(final boolean newValue) {
+        if (lazySubcommand != null) { return defer(new LazySetting() { void applyTo(CommandLine cmd) { cmd.setAbbreviatedSubcommandsAllowed(newValue); } }); }
         getCommandSpec().parser().abbreviatedSubcommandsAllowed(newValue);
         for (CommandLine command : getCommandSpec().subcommands().values()) {
             command.setAbbreviatedSubcommandsAllowed(newValue);
@@ -877,7 +969,8 @@ public class CommandLine {
      * @return this {@code CommandLine} object, to allow method chaining
      * @since 4.4
      */
-    public CommandLine setAbbreviatedOptionsAllowed(boolean newValue) {
+    public CommandLine setAbbreviatedOptionsAllowed(final boolean newValue) {
+        if (lazySubcommand != null) { return defer(new LazySetting() { void applyTo(CommandLine cmd) { cmd.setAbbreviatedOptionsAllowed(newValue); } }); }
         getCommandSpec().parser().abbreviatedOptionsAllowed(newValue);
         for (CommandLine command : getCommandSpec().subcommands().values()) {
             command.setAbbreviatedOptionsAllowed(newValue);
@@ -905,7 +998,8 @@ public class CommandLine {
      * @return this {@code CommandLine} object, to allow method chaining
      * @since 3.6
      */
-    public CommandLine setDefaultValueProvider(IDefaultValueProvider newValue) {
+    public CommandLine setDefaultValueProvider(final IDefaultValueProvider newValue) {
+        if (lazySubcommand != null) { return defer(new LazySetting() { void applyTo(CommandLine cmd) { cmd.setDefaultValueProvider(newValue); } }); }
         getCommandSpec().defaultValueProvider(newValue);
         for (CommandLine command : getCommandSpec().subcommands().values()) {
             command.setDefaultValueProvider(newValue);
@@ -932,7 +1026,8 @@ public class CommandLine {
      * @return this {@code CommandLine} object, to allow method chaining
      * @since 2.3
      */
-    public CommandLine setStopAtPositional(boolean newValue) {
+    public CommandLine setStopAtPositional(final boolean newValue) {
+        if (lazySubcommand != null) { return defer(new LazySetting() { void applyTo(CommandLine cmd) { cmd.setStopAtPositional(newValue); } }); }
         getCommandSpec().parser().stopAtPositional(newValue);
         for (CommandLine command : getCommandSpec().subcommands().values()) {
             command.setStopAtPositional(newValue);
@@ -967,7 +1062,8 @@ public class CommandLine {
      * @return this {@code CommandLine} object, to allow method chaining
      * @since 2.3
      */
-    public CommandLine setStopAtUnmatched(boolean newValue) {
+    public CommandLine setStopAtUnmatched(final boolean newValue) {
+        if (lazySubcommand != null) { return defer(new LazySetting() { void applyTo(CommandLine cmd) { cmd.setStopAtUnmatched(newValue); } }); }
         getCommandSpec().parser().stopAtUnmatched(newValue);
         for (CommandLine command : getCommandSpec().subcommands().values()) {
             command.setStopAtUnmatched(newValue);
@@ -997,7 +1093,8 @@ public class CommandLine {
      * @since 4.7.8-SNAPSHOT
      * @see ParserSpec#allowSubcommandsAsOptionParameters(boolean)
      */
-    public CommandLine setAllowSubcommandsAsOptionParameters(boolean newValue) {
+    public CommandLine setAllowSubcommandsAsOptionParameters(final boolean newValue) {
+        if (lazySubcommand != null) { return defer(new LazySetting() { void applyTo(CommandLine cmd) { cmd.setAllowSubcommandsAsOptionParameters(newValue); } }); }
         getCommandSpec().parser().allowSubcommandsAsOptionParameters(newValue);
         for (CommandLine command : getCommandSpec().subcommands().values()) {
             command.setAllowSubcommandsAsOptionParameters(newValue);
@@ -1033,7 +1130,8 @@ public class CommandLine {
      * @see #setUnmatchedOptionsAllowedAsOptionParameters(boolean)
      * @see ParserSpec#allowOptionsAsOptionParameters(boolean)
      */
-    public CommandLine setAllowOptionsAsOptionParameters(boolean newValue) {
+    public CommandLine setAllowOptionsAsOptionParameters(final boolean newValue) {
+        if (lazySubcommand != null) { return defer(new LazySetting() { void applyTo(CommandLine cmd) { cmd.setAllowOptionsAsOptionParameters(newValue); } }); }
         getCommandSpec().parser().allowOptionsAsOptionParameters(newValue);
         for (CommandLine command : getCommandSpec().subcommands().values()) {
             command.setAllowOptionsAsOptionParameters(newValue);
@@ -1067,7 +1165,8 @@ public class CommandLine {
      * @see #setAllowOptionsAsOptionParameters(boolean)
      * @see ParserSpec#unmatchedOptionsAllowedAsOptionParameters(boolean)
      */
-    public CommandLine setUnmatchedOptionsAllowedAsOptionParameters(boolean newValue) {
+    public CommandLine setUnmatchedOptionsAllowedAsOptionParameters(final boolean newValue) {
+        if (lazySubcommand != null) { return defer(new LazySetting() { void applyTo(CommandLine cmd) { cmd.setUnmatchedOptionsAllowedAsOptionParameters(newValue); } }); }
         getCommandSpec().parser().unmatchedOptionsAllowedAsOptionParameters(newValue);
         for (CommandLine command : getCommandSpec().subcommands().values()) {
             command.setUnmatchedOptionsAllowedAsOptionParameters(newValue);
@@ -1096,7 +1195,8 @@ public class CommandLine {
      * @see #getUnmatchedArguments()
      * @see #isUnmatchedArgumentsAllowed
      */
-    public CommandLine setUnmatchedOptionsArePositionalParams(boolean newValue) {
+    public CommandLine setUnmatchedOptionsArePositionalParams(final boolean newValue) {
+        if (lazySubcommand != null) { return defer(new LazySetting() { void applyTo(CommandLine cmd) { cmd.setUnmatchedOptionsArePositionalParams(newValue); } }); }
         getCommandSpec().parser().unmatchedOptionsArePositionalParams(newValue);
         for (CommandLine command : getCommandSpec().subcommands().values()) {
             command.setUnmatchedOptionsArePositionalParams(newValue);
@@ -1126,7 +1226,8 @@ public class CommandLine {
      * @since 0.9.7
      * @see #getUnmatchedArguments()
      */
-    public CommandLine setUnmatchedArgumentsAllowed(boolean newValue) {
+    public CommandLine setUnmatchedArgumentsAllowed(final boolean newValue) {
+        if (lazySubcommand != null) { return defer(new LazySetting() { void applyTo(CommandLine cmd) { cmd.setUnmatchedArgumentsAllowed(newValue); } }); }
         getCommandSpec().parser().unmatchedArgumentsAllowed(newValue);
         for (CommandLine command : getCommandSpec().subcommands().values()) {
             command.setUnmatchedArgumentsAllowed(newValue);
@@ -1266,8 +1367,9 @@ public class CommandLine {
      * @see #getUsageMessage()
      * @since 4.0
      */
-    public CommandLine setColorScheme(Help.ColorScheme colorScheme) {
+    public CommandLine setColorScheme(final Help.ColorScheme colorScheme) {
         this.colorScheme = Assert.notNull(colorScheme, "colorScheme");
+        if (lazySubcommand != null) { return defer(new LazySetting() { void applyTo(CommandLine cmd) { cmd.setColorScheme(colorScheme); } }); }
         for (CommandLine sub : getSubcommands().values()) { sub.setColorScheme(colorScheme); }
         return this;
     }
@@ -1294,8 +1396,9 @@ public class CommandLine {
      * @return this CommandLine for method chaining
      * @since 4.0
      */
-    public CommandLine setOut(PrintWriter out) {
+    public CommandLine setOut(final PrintWriter out) {
         this.out = Assert.notNull(out, "out");
+        if (lazySubcommand != null) { return defer(new LazySetting() { void applyTo(CommandLine cmd) { cmd.setOut(out); } }); }
         for (CommandLine sub : getSubcommands().values()) { sub.setOut(out); }
         return this;
     }
@@ -1322,8 +1425,9 @@ public class CommandLine {
      * @param err the new PrintWriter to use
      * @return this CommandLine for method chaining
      * @since 4.0 */
-    public CommandLine setErr(PrintWriter err) {
+    public CommandLine setErr(final PrintWriter err) {
         this.err = Assert.notNull(err, "err");
+        if (lazySubcommand != null) { return defer(new LazySetting() { void applyTo(CommandLine cmd) { cmd.setErr(err); } }); }
         for (CommandLine sub : getSubcommands().values()) { sub.setErr(err); }
         return this;
     }
@@ -1342,8 +1446,9 @@ public class CommandLine {
      * @param exitCodeExceptionMapper the new value
      * @return this CommandLine for method chaining
      * @since 4.0 */
-    public CommandLine setExitCodeExceptionMapper(IExitCodeExceptionMapper exitCodeExceptionMapper) {
+    public CommandLine setExitCodeExceptionMapper(final IExitCodeExceptionMapper exitCodeExceptionMapper) {
         this.exitCodeExceptionMapper = Assert.notNull(exitCodeExceptionMapper, "exitCodeExceptionMapper");
+        if (lazySubcommand != null) { return defer(new LazySetting() { void applyTo(CommandLine cmd) { cmd.setExitCodeExceptionMapper(exitCodeExceptionMapper); } }); }
         for (CommandLine sub : getSubcommands().values()) { sub.setExitCodeExceptionMapper(exitCodeExceptionMapper); }
         return this;
     }
@@ -1364,8 +1469,9 @@ public class CommandLine {
      * @param executionStrategy the new execution strategy to run the user-specified command
      * @return this CommandLine for method chaining
      * @since 4.0 */
-    public CommandLine setExecutionStrategy(IExecutionStrategy executionStrategy) {
+    public CommandLine setExecutionStrategy(final IExecutionStrategy executionStrategy) {
         this.executionStrategy = Assert.notNull(executionStrategy, "executionStrategy");
+        if (lazySubcommand != null) { return defer(new LazySetting() { void applyTo(CommandLine cmd) { cmd.setExecutionStrategy(executionStrategy); } }); }
         for (CommandLine sub : getSubcommands().values()) { sub.setExecutionStrategy(executionStrategy); }
         return this;
     }
@@ -1418,8 +1524,9 @@ public class CommandLine {
      * @return this CommandLine for method chaining
      * @see #getParameterExceptionHandler()  an example short exception handler
      * @since 4.0 */
-    public CommandLine setParameterExceptionHandler(IParameterExceptionHandler parameterExceptionHandler) {
+    public CommandLine setParameterExceptionHandler(final IParameterExceptionHandler parameterExceptionHandler) {
         this.parameterExceptionHandler = Assert.notNull(parameterExceptionHandler, "parameterExceptionHandler");
+        if (lazySubcommand != null) { return defer(new LazySetting() { void applyTo(CommandLine cmd) { cmd.setParameterExceptionHandler(parameterExceptionHandler); } }); }
         for (CommandLine sub : getSubcommands().values()) { sub.setParameterExceptionHandler(parameterExceptionHandler); }
         return this;
     }
@@ -1441,8 +1548,9 @@ public class CommandLine {
      * @param executionExceptionHandler the handler for dealing with exceptions that occurred in the business logic when the {@link #execute(String...) execute} method was invoked.
      * @return this CommandLine for method chaining
      * @since 4.0 */
-    public CommandLine setExecutionExceptionHandler(IExecutionExceptionHandler executionExceptionHandler) {
+    public CommandLine setExecutionExceptionHandler(final IExecutionExceptionHandler executionExceptionHandler) {
         this.executionExceptionHandler = Assert.notNull(executionExceptionHandler, "executionExceptionHandler");
+        if (lazySubcommand != null) { return defer(new LazySetting() { void applyTo(CommandLine cmd) { cmd.setExecutionExceptionHandler(executionExceptionHandler); } }); }
         for (CommandLine sub : getSubcommands().values()) { sub.setExecutionExceptionHandler(executionExceptionHandler); }
         return this;
     }
@@ -1554,6 +1662,12 @@ public class CommandLine {
     }
     public ParseResult getParseResult() { return interpreter.parseResultBuilder == null ? null : interpreter.parseResultBuilder.build(); }
 
+    /** Returns a new {@code ParseSession} for parsing many command lines in succession with this {@code CommandLine}.
+     * @return a new parse session for this {@code CommandLine}
+     * @see ParseSession
+     * @since 4.7.8 */
+    public ParseSession newParseSession() { return new ParseSession(this); }
+
     /** Returns the result of calling the user object {@code Callable} or invoking the user object {@code Method}
      * after parsing the user input, or {@code null} if this command has not been {@linkplain #execute(String...) executed}
      * or if this {@code CommandLine} is for a subcommand that was not specified by the end user on the command line.
@@ -1577,6 +1691,7 @@ public class CommandLine {
      * @since 4.0 */
     public void clearExecutionResults() {
         executionResult = null;
+        if (lazySubcommand != null) { return; } // not executed yet
         for (CommandLine sub : getSubcommands().values()) { sub.clearExecutionResults(); }
     }
     /**
@@ -2026,7 +2141,7 @@ public class CommandLine {
         Object command = parsed.getCommand();
         if (command instanceof Callable) {
             try {
-                tracer.debug("Invoking Callable::call on user object %s@%s...", command.getClass().getName(), Integer.toHexString(command.hashCode()));
+                if (tracer.isDebug()) { tracer.debug("Invoking Callable::call on user object %s@%s...", command.getClass().getName(), Integer.toHexString(command.hashCode())); }
                 @SuppressWarnings("unchecked") Callable<Object> callable = (Callable<Object>) command;
                 Object executionResult = callable.call();
                 parsed.setExecutionResult(executionResult);
@@ -2041,7 +2156,7 @@ public class CommandLine {
             }
         } else if (command instanceof Runnable) {
             try {
-                tracer.debug("Invoking Runnable::run on user object %s@%s...", command.getClass().getName(), Integer.toHexString(command.hashCode()));
+                if (tracer.isDebug()) { tracer.debug("Invoking Runnable::run on user object %s@%s...", command.getClass().getName(), Integer.toHexString(command.hashCode())); }
                 ((Runnable) command).run();
                 parsed.setExecutionResult(null); // 4.0
                 executionResultList.add(null); // for compatibility with picocli 2.x
@@ -2059,14 +2174,16 @@ public class CommandLine {
                 Object[] parsedArgs = parsed.getCommandSpec().commandMethodParamValues();
                 Object executionResult;
                 if (Modifier.isStatic(method.getModifiers())) {
-                    tracer.debug("Invoking static method %s with parameters %s", method, Arrays.toString(parsedArgs));
+                    if (tracer.isDebug()) { tracer.debug("Invoking static method %s with parameters %s", method, Arrays.toString(parsedArgs)); }
                     executionResult = method.invoke(null, parsedArgs); // invoke static method
                 } else {
                     Object instance = (parsed.getCommandSpec().parent() != null)
                         ? parsed.getCommandSpec().parent().userObject()
                         : parsed.factory.create(method.getDeclaringClass());
-                    tracer.debug("Invoking method %s on %s@%s with parameters %s",
-                        method, instance.getClass().getName(), Integer.toHexString(instance.hashCode()), Arrays.toString(parsedArgs));
+                    if (tracer.isDebug()) {
+                        tracer.debug("Invoking method %s on %s@%s with parameters %s",
+                            method, instance.getClass().getName(), Integer.toHexString(instance.hashCode()), Arrays.toString(parsedArgs));
+                    }
                     executionResult = method.invoke(instance, parsedArgs);
                 }
                 parsed.setExecutionResult(executionResult);
@@ -2172,21 +2289,149 @@ public class CommandLine {
         try {
             parseResult[0] = parseArgs(args);
             return enrichForBackwardsCompatibility(getExecutionStrategy()).execute(parseResult[0]);
-        } catch (ParameterException ex) {
+        } catch (Exception ex) {
+            return handleExecuteException(ex, args, parseResult[0]);
+        }
+    }
+    private int handleExecuteException(Exception exception, String[] args, ParseResult parseResult) {
+        if (exception instanceof ParameterException) {
+            ParameterException ex = (ParameterException) exception;
             try {
                 return getParameterExceptionHandler().handleParseException(ex, args);
             } catch (Exception ex2) {
                 return handleUnhandled(ex2, ex.getCommandLine(), ex.getCommandLine().getCommandSpec().exitCodeOnInvalidInput());
             }
-        } catch (ExecutionException ex) {
+        } else if (exception instanceof ExecutionException) {
+            ExecutionException ex = (ExecutionException) exception;
             try {
                 Exception cause = ex.getCause() instanceof Exception ? (Exception) ex.getCause() : ex;
-                return getExecutionExceptionHandler().handleExecutionException(cause, ex.getCommandLine(), parseResult[0]);
+                return getExecutionExceptionHandler().handleExecutionException(cause, ex.getCommandLine(), parseResult);
             } catch (Exception ex2) {
                 return handleUnhandled(ex2, ex.getCommandLine(), ex.getCommandLine().getCommandSpec().exitCodeOnExecutionException());
             }
+        }
+        return handleUnhandled(exception, this, getCommandSpec().exitCodeOnExecutionException());
+    }
+
+    /**
+     * Asynchronously parses the specified command line arguments and executes the most specific command,
+     * and returns a future that completes with the exit code when the command has finished.
+     * <p>
+     * Parsing and executing are done on a thread of the specified executor. If a command's {@code Callable} or
+     * {@code @Command}-annotated method returns a {@code java.util.concurrent.CompletionStage} or a {@code Future},
+     * the returned future completes when that result completes: the result of a {@code CompletionStage} is awaited
+     * without blocking a thread, while a plain {@code Future} is awaited on the executor thread.
+     * The value of the completed result becomes the command's {@linkplain #getExecutionResult() execution result}, and
+     * an {@code Integer} value or an {@link IExitCodeGenerator} user object contributes to the exit code, like with {@link #execute(String...)}.
+     * </p><p>
+     * Exceptions are handled like with {@link #execute(String...)}: invalid user input is handled by the
+     * {@linkplain #getParameterExceptionHandler() parameter exception handler}, and exceptions thrown by the command,
+     * or the exception that a command's result completed with, are handled by the
+     * {@linkplain #getExecutionExceptionHandler() execution exception handler}; the returned future completes with the
+     * exit code returned by these handlers, or with the exit code from the {@linkplain #getExitCodeExceptionMapper() exit code exception mapper}.
+     * </p><p>
+     * On Java 8 and later, the returned future is a {@code java.util.concurrent.CompletableFuture<Integer>},
+     * which can be used as a {@code CompletionStage<Integer>}:
+     * </p>
+     * <pre>{@code
+     * CompletableFuture<Integer> exitCode = new CommandLine(new MyCommand()).executeAsync(executor, args);
+     * exitCode.thenAccept(code -> log.info("finished with exit code {}", code));
+     * }</pre>
+     * <p>
+     * Like with {@code execute}, a {@code CommandLine} instance can only execute one invocation at a time:
+     * do not use this instance again until the returned future is done. Use a {@link Pool} to execute command lines concurrently.
+     * </p>
+     * @param executor the executor to parse and execute the command line arguments on
+     * @param args the command line arguments to parse
+     * @param <T> the type of the returned future: {@code CompletableFuture<Integer>} on Java 8 and later, {@code Future<Integer>} otherwise
+     * @return a future that completes with the exit code
+     * @see #execute(String...)
+     * @see Pool#executeAsync(Executor, String...)
+     * @since 4.7.8
+     */
+    public <T extends Future<Integer>> T executeAsync(Executor executor, String... args) {
+        return executeAsync(Assert.notNull(executor, "executor"), args, null);
+    }
+    @SuppressWarnings("unchecked")
+    <T extends Future<Integer>> T executeAsync(Executor executor, final String[] args, final Runnable whenDone) {
+        final AsyncExitCode result = new AsyncExitCode(whenDone);
+        try {
+            executor.execute(new Runnable() {
+                public void run() { executeAsync(args, result); }
+            });
+        } catch (RejectedExecutionException ex) {
+            result.complete(handleUnhandled(ex, this, getCommandSpec().exitCodeOnExecutionException()));
+        }
+        return (T) result.future;
+    }
+    private void executeAsync(final String[] args, final AsyncExitCode result) {
+        ParseResult parseResult = null;
+        clearExecutionResults();
+        try {
+            parseResult = parseArgs(args);
+            int exitCode = enrichForBackwardsCompatibility(getExecutionStrategy()).execute(parseResult);
+            List<CommandLine> pending = new ArrayList<CommandLine>();
+            for (CommandLine parsed : RunConcurrently.addDepthFirst(parseResult, new ArrayList<CommandLine>())) {
+                if (AsyncExitCode.isAsync(parsed.getExecutionResult())) { pending.add(parsed); }
+            }
+            if (pending.isEmpty()) {
+                result.complete(exitCode);
+            } else {
+                awaitAsyncResults(args, parseResult, exitCode, pending, result);
+            }
+        } catch (Exception ex) {
+            result.complete(handleExecuteException(ex, args, parseResult));
+        } catch (Error error) {
+            result.fail(error);
+        }
+    }
+    private void awaitAsyncResults(final String[] args, final ParseResult parseResult, final int exitCode,
+                                   final List<CommandLine> pending, final AsyncExitCode result) throws Exception {
+        CommandLine.tracer().debug("Awaiting the asynchronous results of %d command(s)...", pending.size());
+        final Throwable[] failures = new Throwable[pending.size()];
+        final AtomicInteger remaining = new AtomicInteger(pending.size());
+        for (int i = 0; i < pending.size(); i++) {
+            final int index = i;
+            final CommandLine parsed = pending.get(i);
+            AsyncExitCode.whenDone(parsed.getExecutionResult(), new AsyncExitCode.Callback() {
+                public void done(Object value, Throwable failure) {
+                    parsed.setExecutionResult(value);
+                    failures[index] = failure;
+                    if (remaining.decrementAndGet() == 0) { completeAsync(args, parseResult, exitCode, pending, failures, result); }
+                }
+            });
+        }
+    }
+    private void completeAsync(String[] args, ParseResult parseResult, int exitCode,
+                               List<CommandLine> pending, Throwable[] failures, AsyncExitCode result) {
+        try {
+            for (int i = 0; i < failures.length; i++) { // the first command on the command line that failed
+                if (failures[i] instanceof Error) { throw (Error) failures[i]; }
+                if (failures[i] instanceof ParameterException || failures[i] instanceof ExecutionException) {
+                    result.complete(handleExecuteException((Exception) failures[i], args, parseResult));
+                    return;
+                }
+                if (failures[i] != null) {
+                    CommandLine parsed = pending.get(i);
+                    String msg = "Error while calling command (" + parsed.getCommandSpec().userObject() + "): " + failures[i];
+                    result.complete(handleExecuteException(new ExecutionException(parsed, msg, failures[i]), args, parseResult));
+                    return;
+                }
+            }
+            int exitCodeOnSuccess = parseResult.commandSpec().exitCodeOnSuccess();
+            List<Object> executionResults = new ArrayList<Object>();
+            executionResults.add(exitCode == exitCodeOnSuccess ? 0 : exitCode);
+            List<IExitCodeGenerator> exitCodeGenerators = new ArrayList<IExitCodeGenerator>();
+            for (CommandLine parsed : pending) {
+                executionResults.add(parsed.getExecutionResult());
+                Object userObject = parsed.getCommandSpec().userObject();
+                if (userObject instanceof IExitCodeGenerator) { exitCodeGenerators.add((IExitCodeGenerator) userObject); }
+            }
+            result.complete(AbstractParseResultHandler.resolveExitCode(exitCodeOnSuccess, executionResults, exitCodeGenerators));
         } catch (Exception ex) {
-            return handleUnhandled(ex, this, getCommandSpec().exitCodeOnExecutionException());
+            result.complete(handleExecuteException(ex, args, parseResult));
+        } catch (Error error) {
+            result.fail(error);
         }
     }
     private static int handleUnhandled(Exception ex, CommandLine cmd, int defaultExitCode) {
@@ -2281,7 +2526,7 @@ public class CommandLine {
         }
 
         // Use the highest value (or if all values are negative, use the lowest value).
-        private int resolveExitCode(int exitCodeOnSuccess, R executionResult, List<IExitCodeGenerator> exitCodeGenerators) {
+        static int resolveExitCode(int exitCodeOnSuccess, Object executionResult, List<IExitCodeGenerator> exitCodeGenerators) {
             int result = 0;
             for (IExitCodeGenerator generator : exitCodeGenerators) {
                 try {
@@ -2559,6 +2804,174 @@ public class CommandLine {
         }
         @Override protected RunAll self() { return this; }
     }
+    /**
+     * Command line {@linkplain IExecutionStrategy execution strategy} that prints help if requested, and otherwise executes
+     * the same commands as {@link RunLast} (or as {@link RunAll}, if {@linkplain #runAll(boolean) configured}),
+     * but executes sibling subcommands concurrently.
+     * <p>
+     * Sibling subcommands are subcommands of the same parent command. For example, when the {@code tool} command has
+     * {@linkplain Command#subcommandsRepeatable() repeatable subcommands}, the command line {@code tool fetch a fetch b fetch c}
+     * has three sibling {@code fetch} invocations. Each invocation of a subcommand class has its own user object,
+     * so these invocations can run in parallel as long as they do not share mutable state.
+     * Note that subcommand methods are invoked on the user object of their parent command.
+     * </p><p>
+     * When all commands are executed, a parent command is executed before its subcommands, and the subcommands of
+     * a sibling are executed in order by the thread that executes the sibling.
+     * </p><p>
+     * The commands are executed on the {@code Executor} passed to the constructor. If no executor is specified, the commands
+     * are executed on virtual threads on Java 21 and later, and on a temporary thread pool with a thread per processor otherwise.
+     * A single command is executed in the calling thread.
+     * </p><p>
+     * This strategy waits for all commands to complete. The execution results are returned in the order of the commands on the
+     * command line, and the exit code is determined as with {@code RunLast} and {@code RunAll}: from the {@link IExitCodeGenerator}
+     * user objects and from the {@code int} or {@code Integer} values returned by the commands.
+     * If more than one command failed, the exception thrown by the command that was specified first on the command line is
+     * rethrown, regardless of which command failed first.
+     * </p>
+     * @since 4.7.8 */
+    public static class RunConcurrently implements IExecutionStrategy {
+        private final Executor executor;
+        private boolean runAll;
+
+        /** Constructs a {@code RunConcurrently} strategy that executes sibling subcommands on virtual threads if available,
+         * and on a temporary thread pool otherwise. */
+        public RunConcurrently() { this(null); }
+
+        /** Constructs a {@code RunConcurrently} strategy that executes sibling subcommands on the specified executor.
+         * The executor is not shut down by this strategy.
+         * @param executor the executor to execute sibling subcommands on, or {@code null} to use the default executor */
+        public RunConcurrently(Executor executor) { this.executor = executor; }
+
+        /** Returns whether all commands are executed, like {@link RunAll}, instead of only the most specific subcommands,
+         * like {@link RunLast}. The default is {@code false}. */
+        public boolean runAll() { return runAll; }
+
+        /** Sets whether all commands are executed, like {@link RunAll}, instead of only the most specific subcommands,
+         * like {@link RunLast}.
+         * @return this {@code RunConcurrently} object for method chaining */
+        public RunConcurrently runAll(boolean runAll) { this.runAll = runAll; return this; }
+
+        /** Prints help if requested, and otherwise executes the selected commands, executing sibling subcommands concurrently.
+         * @param parseResult the {@code ParseResult} that resulted from successfully parsing the command line arguments
+         * @return an exit code
+         * @throws ParameterException if a command threw a {@code ParameterException}
+         * @throws ExecutionException if a problem occurred while executing the commands */
+        public int execute(ParseResult parseResult) throws ExecutionException, ParameterException {
+            Integer helpExitCode = executeHelpRequest(parseResult);
+            if (helpExitCode != null) { return helpExitCode; }
+
+            List<CommandLine> sequential = new ArrayList<CommandLine>(); // executed in order, before the siblings
+            List<List<CommandLine>> siblings = new ArrayList<List<CommandLine>>(); // executed concurrently with each other
+            if (runAll) {
+                ParseResult current = parseResult;
+                sequential.add(current.commandSpec().commandLine());
+                while (current.subcommands().size() == 1) {
+                    current = current.subcommands().get(0);
+                    sequential.add(current.commandSpec().commandLine());
+                }
+                for (ParseResult sub : current.subcommands()) {
+                    siblings.add(addDepthFirst(sub, new ArrayList<CommandLine>()));
+                }
+            } else {
+                List<CommandLine> parsedCommands = parseResult.asCommandLineList();
+                for (int i = RunLast.indexOfLastSubcommandWithSameParent(parsedCommands); i < parsedCommands.size(); i++) {
+                    siblings.add(Collections.singletonList(parsedCommands.get(i)));
+                }
+            }
+            Tracer t = CommandLine.tracer();
+            t.debug("RunConcurrently: executing %d command(s), then %d sibling(s) concurrently...", sequential.size(), siblings.size());
+            List<Object> executionResult = new ArrayList<Object>();
+            executeInOrder(sequential, executionResult);
+            executionResult.addAll(executeConcurrently(parseResult.commandSpec().commandLine(), siblings));
+
+            List<IExitCodeGenerator> exitCodeGenerators = new ArrayList<IExitCodeGenerator>();
+            addExitCodeGenerators(sequential, exitCodeGenerators);
+            for (List<CommandLine> sibling : siblings) { addExitCodeGenerators(sibling, exitCodeGenerators); }
+            return AbstractParseResultHandler.resolveExitCode(parseResult.commandSpec().exitCodeOnSuccess(), executionResult, exitCodeGenerators);
+        }
+
+        private List<Object> executeConcurrently(CommandLine top, List<List<CommandLine>> siblings) {
+            if (siblings.size() <= 1) {
+                List<Object> result = new ArrayList<Object>();
+                for (List<CommandLine> sibling : siblings) { executeInOrder(sibling, result); }
+                return result;
+            }
+            ExecutorService temporary = executor == null ? newDefaultExecutor(siblings.size()) : null;
+            try {
+                List<FutureTask<List<Object>>> tasks = new ArrayList<FutureTask<List<Object>>>(siblings.size());
+                for (final List<CommandLine> sibling : siblings) {
+                    FutureTask<List<Object>> task = new FutureTask<List<Object>>(new Callable<List<Object>>() {
+                        public List<Object> call() { return executeInOrder(sibling, new ArrayList<Object>()); }
+                    });
+                    tasks.add(task);
+                    try {
+                        (temporary == null ? executor : temporary).execute(task);
+                    } catch (RejectedExecutionException ex) {
+                        tracer().debug("RunConcurrently: executor rejected task, executing '%s' in the calling thread", sibling.get(0).commandSpec.qualifiedName());
+                        task.run();
+                    }
+                }
+                return awaitAll(top, tasks);
+            } finally {
+                if (temporary != null) { temporary.shutdown(); }
+            }
+        }
+
+        private static List<Object> awaitAll(CommandLine top, List<FutureTask<List<Object>>> tasks) {
+            List<Object> result = new ArrayList<Object>();
+            Throwable failure = null;
+            for (int i = 0; i < tasks.size(); i++) {
+                try {
+                    result.addAll(tasks.get(i).get());
+                } catch (java.util.concurrent.ExecutionException ex) {
+                    if (failure == null) {
+                        failure = ex.getCause(); // the first command on the command line that failed
+                    } else {
+                        tracer().debug("RunConcurrently: ignoring exception from a later command: %s", ex.getCause());
+                    }
+                } catch (InterruptedException ex) {
+                    for (int j = i; j < tasks.size(); j++) { tasks.get(j).cancel(true); }
+                    Thread.currentThread().interrupt();
+                    throw new ExecutionException(top, "Interrupted while waiting for subcommands to complete", ex);
+                }
+            }
+            if (failure instanceof RuntimeException) { throw (RuntimeException) failure; } // ParameterException or ExecutionException
+            if (failure instanceof Error) { throw (Error) failure; }
+            if (failure != null) { throw new ExecutionException(top, "Error while executing subcommands: " + failure, failure); }
+            return result;
+        }
+
+        private static List<Object> executeInOrder(List<CommandLine> commands, List<Object> result) {
+            for (CommandLine parsed : commands) {
+                tracer().debug("RunConcurrently: executing user object for '%s'...", parsed.commandSpec.qualifiedName());
+                executeUserObject(parsed, result);
+            }
+            return result;
+        }
+
+        private static List<CommandLine> addDepthFirst(ParseResult parseResult, List<CommandLine> result) {
+            result.add(parseResult.commandSpec().commandLine());
+            for (ParseResult sub : parseResult.subcommands()) { addDepthFirst(sub, result); }
+            return result;
+        }
+
+        private static void addExitCodeGenerators(List<CommandLine> commands, List<IExitCodeGenerator> result) {
+            for (CommandLine parsed : commands) {
+                Object userObject = parsed.getCommandSpec().userObject();
+                if (userObject instanceof IExitCodeGenerator) { result.add((IExitCodeGenerator) userObject); }
+            }
+        }
+
+        /** Returns an executor that starts a virtual thread for each task on Java 21 and later, or a thread pool otherwise. */
+        private static ExecutorService newDefaultExecutor(int taskCount) {
+            try {
+                Method newVirtualThreadPerTaskExecutor = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                return (ExecutorService) newVirtualThreadPerTaskExecutor.invoke(null);
+            } catch (Exception ex) { // Java 20 and earlier
+                return Executors.newFixedThreadPool(Math.min(taskCount, Runtime.getRuntime().availableProcessors()));
+            }
+        }
+    }
 
     /**
      * @deprecated use {@link #execute(String...)} and {@link #getExecutionResult()} instead
@@ -2764,37 +3177,110 @@ public class CommandLine {
      * @see UsageMessageSpec
      */
     public void usage(PrintStream out, Help.ColorScheme colorScheme) {
-        out.print(usage(new StringBuilder(), getHelpFactory().create(getCommandSpec(), colorScheme)));
+        out.print(usageMessage(colorScheme));
         out.flush();
     }
     /** Similar to {@link #usage(PrintStream, Help.ColorScheme)}, but with the specified {@code PrintWriter} instead of a {@code PrintStream}.
      * @since 3.0 */
     public void usage(PrintWriter writer, Help.ColorScheme colorScheme) {
-        writer.print(usage(new StringBuilder(), getHelpFactory().create(getCommandSpec(), colorScheme)));
+        try {
+            usage((Appendable) writer, colorScheme);
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex); // PrintWriter does not throw IOException
+        }
         writer.flush();
     }
+    /** Similar to {@link #usage(PrintStream, Help.ColorScheme)}, but writes the usage help message to the specified {@code Appendable},
+     * for example a {@code Writer} or a {@code StringBuilder}.
+     * Sections whose {@linkplain #getHelpSectionMap() renderer} is an {@link IHelpSectionWriter} are written directly
+     * into the specified {@code Appendable}, so the complete usage help message is not assembled in memory first.
+     * The default renderers for the option list, the positional parameter list and the command list write their
+     * sections one row at a time.
+     * If the {@linkplain #setUsageHelpCacheEnabled(boolean) usage help cache} is enabled, the cached message is written instead.
+     * <p>This method does not flush or close the specified {@code Appendable}.</p>
+     * @param out the {@code Appendable} to write the usage help message to
+     * @param colorScheme the {@code ColorScheme} defining the styles for options, parameters and commands when ANSI is enabled
+     * @throws IOException if an I/O error occurs while writing
+     * @since 4.7.8 */
+    public void usage(Appendable out, Help.ColorScheme colorScheme) throws IOException {
+        if (usageHelpCache != null) {
+            out.append(usageMessage(colorScheme));
+        } else {
+            usage(out, getHelpFactory().create(getCommandSpec(), colorScheme));
+        }
+    }
     /** Similar to {@link #usage(PrintStream)}, but returns the usage help message as a String instead of printing it to the {@code PrintStream}.
      * @since 3.2 */
     public String getUsageMessage() {
-        return usage(new StringBuilder(), getHelp()).toString();
+        String cached = usageHelpCache == null ? null : usageHelpCache.get(this, getColorScheme());
+        if (cached != null) { return cached; }
+        return cacheUsageMessage(getColorScheme(), usage(new StringBuilder(), getHelp()));
     }
     /** Similar to {@link #usage(PrintStream, Help.Ansi)}, but returns the usage help message as a String instead of printing it to the {@code PrintStream}.
      * @since 3.2 */
     public String getUsageMessage(Help.Ansi ansi) {
-        return usage(new StringBuilder(), getHelpFactory().create(getCommandSpec(), Help.defaultColorScheme(ansi))).toString();
+        return usageMessage(Help.defaultColorScheme(ansi));
     }
     /** Similar to {@link #usage(PrintStream, Help.ColorScheme)}, but returns the usage help message as a String instead of printing it to the {@code PrintStream}.
      * @since 3.2 */
     public String getUsageMessage(Help.ColorScheme colorScheme) {
-        return usage(new StringBuilder(), getHelpFactory().create(getCommandSpec(), colorScheme)).toString();
+        return usageMessage(colorScheme);
+    }
+    private String usageMessage(Help.ColorScheme colorScheme) {
+        String cached = usageHelpCache == null ? null : usageHelpCache.get(this, colorScheme);
+        if (cached != null) { return cached; }
+        return cacheUsageMessage(colorScheme, usage(new StringBuilder(), getHelpFactory().create(getCommandSpec(), colorScheme)));
+    }
+    private String cacheUsageMessage(Help.ColorScheme colorScheme, String usageMessage) {
+        if (usageHelpCache != null) { usageHelpCache.put(this, colorScheme, usageMessage); }
+        return usageMessage;
     }
 
-    private StringBuilder usage(StringBuilder sb, Help help) {
+    private String usage(StringBuilder sb, Help help) {
         for (String key : getHelpSectionKeys()) {
             IHelpSectionRenderer renderer = getHelpSectionMap().get(key);
             if (renderer != null) { sb.append(renderer.render(help)); }
         }
-        return sb;
+        return sb.toString();
+    }
+    private void usage(Appendable out, Help help) throws IOException {
+        for (String key : getHelpSectionKeys()) {
+            IHelpSectionRenderer renderer = getHelpSectionMap().get(key);
+            if (renderer instanceof IHelpSectionWriter) {
+                ((IHelpSectionWriter) renderer).write(help, out);
+            } else if (renderer != null) {
+                out.append(renderer.render(help));
+            }
+        }
+    }
+
+    /** Caches rendered usage help messages per color scheme and width, until the command model is modified. */
+    private static final class UsageHelpCache {
+        private final Map<List<Object>, String> messages = new HashMap<List<Object>, String>();
+        private int[] stamp;
+        private long hits;
+        private long misses;
+
+        synchronized String get(CommandLine commandLine, Help.ColorScheme colorScheme) {
+            int[] current = commandLine.getCommandSpec().usageHelpStamp();
+            if (!Arrays.equals(stamp, current)) {
+                messages.clear();
+                stamp = current;
+            }
+            String result = messages.get(key(commandLine, colorScheme));
+            if (result == null) { misses++; } else { hits++; }
+            return result;
+        }
+        synchronized void put(CommandLine commandLine, Help.ColorScheme colorScheme, String usageMessage) {
+            messages.put(key(commandLine, colorScheme), usageMessage);
+        }
+        private static List<Object> key(CommandLine commandLine, Help.ColorScheme colorScheme) {
+            CommandSpec spec = commandLine.getCommandSpec();
+            return Arrays.<Object>asList(colorScheme, colorScheme.ansi().enabled(), spec.usageMessage().width(),
+                    spec.parser().separator(), spec.parser().endOfOptionsDelimiter());
+        }
+        synchronized long hits() { return hits; }
+        synchronized long misses() { return misses; }
     }
 
     /**
@@ -3391,8 +3877,9 @@ public class CommandLine {
      * @return this CommandLine object, to allow method chaining
      * @see #addSubcommand(String, Object)
      */
-    public <K> CommandLine registerConverter(Class<K> cls, ITypeConverter<K> converter) {
-        interpreter.converterRegistry.put(Assert.notNull(cls, "class"), Assert.notNull(converter, "converter"));
+    public <K> CommandLine registerConverter(final Class<K> cls, final ITypeConverter<K> converter) {
+        if (lazySubcommand != null) { return defer(new LazySetting() { void applyTo(CommandLine cmd) { cmd.registerConverter(cls, converter); } }); }
+        interpreter.registerConverter(Assert.notNull(cls, "class"), Assert.notNull(converter, "converter"));
         for (CommandLine command : getCommandSpec().commands.values()) {
             command.registerConverter(cls, converter);
         }
@@ -3413,7 +3900,8 @@ public class CommandLine {
      * @param separator the String that separates option names from option values
      * @see ParserSpec#separator(String)
      * @return this {@code CommandLine} object, to allow method chaining */
-    public CommandLine setSeparator(String separator) {
+    public CommandLine setSeparator(final String separator) {
+        if (lazySubcommand != null) { return defer(new LazySetting() { void applyTo(CommandLine cmd) { cmd.setSeparator(separator); } }); }
         getCommandSpec().parser().separator(Assert.notNull(separator, "separator"));
         for (CommandLine command : getCommandSpec().subcommands().values()) {
             command.setSeparator(separator);
@@ -3437,7 +3925,8 @@ public class CommandLine {
      * @see Command#resourceBundle()
      * @see CommandSpec#resourceBundle(ResourceBundle)
      * @since 3.6 */
-    public CommandLine setResourceBundle(ResourceBundle bundle) {
+    public CommandLine setResourceBundle(final ResourceBundle bundle) {
+        if (lazySubcommand != null) { return defer(new LazySetting() { void applyTo(CommandLine cmd) { cmd.setResourceBundle(bundle); } }); }
         getCommandSpec().resourceBundle(bundle);
         for (CommandLine command : getCommandSpec().subcommands().values()) {
             command.setResourceBundle(bundle);
@@ -3457,7 +3946,8 @@ public class CommandLine {
      * @param width the maximum width of the usage help message
      * @see UsageMessageSpec#width(int)
      * @return this {@code CommandLine} object, to allow method chaining */
-    public CommandLine setUsageHelpWidth(int width) {
+    public CommandLine setUsageHelpWidth(final int width) {
+        if (lazySubcommand != null) { return defer(new LazySetting() { void applyTo(CommandLine cmd) { cmd.setUsageHelpWidth(width); } }); }
         getCommandSpec().usageMessage().width(width);
         for (CommandLine command : getCommandSpec().subcommands().values()) {
             command.setUsageHelpWidth(width);
@@ -3485,7 +3975,8 @@ public class CommandLine {
      * @see UsageMessageSpec#longOptionsMaxWidth(int)
      * @return this {@code CommandLine} object, to allow method chaining
      * @since 4.2 */
-    public CommandLine setUsageHelpLongOptionsMaxWidth(int columnWidth) {
+    public CommandLine setUsageHelpLongOptionsMaxWidth(final int columnWidth) {
+        if (lazySubcommand != null) { return defer(new LazySetting() { void applyTo(CommandLine cmd) { cmd.setUsageHelpLongOptionsMaxWidth(columnWidth); } }); }
         getCommandSpec().usageMessage().longOptionsMaxWidth(columnWidth);
         for (CommandLine command : getCommandSpec().subcommands().values()) {
             command.setUsageHelpLongOptionsMaxWidth(columnWidth);
@@ -3511,7 +4002,8 @@ public class CommandLine {
      * @see UsageMessageSpec#autoWidth(boolean)
      * @return this {@code CommandLine} object, to allow method chaining
      * @since 4.0 */
-    public CommandLine setUsageHelpAutoWidth(boolean detectTerminalSize) {
+    public CommandLine setUsageHelpAutoWidth(final boolean detectTerminalSize) {
+        if (lazySubcommand != null) { return defer(new LazySetting() { void applyTo(CommandLine cmd) { cmd.setUsageHelpAutoWidth(detectTerminalSize); } }); }
         getCommandSpec().usageMessage().autoWidth(detectTerminalSize);
         for (CommandLine command : getCommandSpec().subcommands().values()) {
             command.setUsageHelpAutoWidth(detectTerminalSize);
@@ -3519,6 +4011,49 @@ public class CommandLine {
         return this;
     }
 
+    /** Returns whether usage help messages rendered by this {@code CommandLine} are cached. The default is {@code false}.
+     * @return whether usage help messages are cached
+     * @see #setUsageHelpCacheEnabled(boolean)
+     * @since 4.7.8 */
+    public boolean isUsageHelpCacheEnabled() { return usageHelpCache != null; }
+
+    /** Sets whether the usage help messages rendered by {@link #usage(PrintStream)}, {@link #getUsageMessage()} and related
+     * methods should be cached. Applications that print usage help often, like interactive shells or servers,
+     * can enable this to avoid rendering the same usage help message repeatedly. The default is {@code false}.
+     * <p>Cached messages are kept per {@linkplain Help.ColorScheme color scheme} and usage help width, and are discarded when
+     * this command, its {@linkplain UsageMessageSpec usage message specification} or its direct subcommands are modified.
+     * Usage help that contains dynamic content, like default values obtained from a {@link IDefaultValueProvider} or
+     * variables that are resolved from system properties, shows the values that were current when the message was first rendered.</p>
+     * <p>The specified setting will be registered with this {@code CommandLine} and the full hierarchy of its
+     * subcommands and nested sub-subcommands <em>at the moment this method is called</em>. Subcommands added
+     * later will have the default setting. To ensure a setting is applied to all
+     * subcommands, call the setter last, after adding subcommands.</p>
+     * @param enabled whether usage help messages should be cached
+     * @return this {@code CommandLine} object, to allow method chaining
+     * @see #getUsageHelpCacheHits()
+     * @see #getUsageHelpCacheMisses()
+     * @since 4.7.8 */
+    public CommandLine setUsageHelpCacheEnabled(final boolean enabled) {
+        if (enabled != (usageHelpCache != null)) { usageHelpCache = enabled ? new UsageHelpCache() : null; }
+        if (lazySubcommand != null) { return defer(new LazySetting() { void applyTo(CommandLine cmd) { cmd.setUsageHelpCacheEnabled(enabled); } }); }
+        for (CommandLine command : getCommandSpec().subcommands().values()) {
+            command.setUsageHelpCacheEnabled(enabled);
+        }
+        return this;
+    }
+
+    /** Returns the number of times a usage help message of this command was found in the cache.
+     * Returns zero if the usage help cache is not enabled.
+     * @see #setUsageHelpCacheEnabled(boolean)
+     * @since 4.7.8 */
+    public long getUsageHelpCacheHits() { return usageHelpCache == null ? 0 : usageHelpCache.hits(); }
+
+    /** Returns the number of times a usage help message of this command had to be rendered because it was not found in the cache.
+     * Returns zero if the usage help cache is not enabled.
+     * @see #setUsageHelpCacheEnabled(boolean)
+     * @since 4.7.8 */
+    public long getUsageHelpCacheMisses() { return usageHelpCache == null ? 0 : usageHelpCache.misses(); }
+
     /** Returns the command name (also called program name) displayed in the usage help synopsis.
      * @return the command name (also called program name) displayed in the usage
      * @see CommandSpec#name()
@@ -3571,7 +4106,8 @@ public class CommandLine {
      * @return this {@code CommandLine} object, to allow method chaining
      * @see ParserSpec#atFileCommentChar(Character)
      * @since 3.5 */
-    public CommandLine setAtFileCommentChar(Character atFileCommentChar) {
+    public CommandLine setAtFileCommentChar(final Character atFileCommentChar) {
+        if (lazySubcommand != null) { return defer(new LazySetting() { void applyTo(CommandLine cmd) { cmd.setAtFileCommentChar(atFileCommentChar); } }); }
         getCommandSpec().parser().atFileCommentChar(atFileCommentChar);
         for (CommandLine command : getCommandSpec().subcommands().values()) {
             command.setAtFileCommentChar(atFileCommentChar);
@@ -3579,6 +4115,32 @@ public class CommandLine {
         return this;
     }
 
+    /** Returns the character encoding used to read argument files, or {@code null} if argument files are read
+     * with the platform default charset.
+     * @return the charset for reading argument files or {@code null}. The default is {@code null}.
+     * @see ParserSpec#atFileCharset()
+     * @since 4.7.8 */
+    public Charset getAtFileCharset() { return getCommandSpec().parser().atFileCharset(); }
+
+    /** Sets the character encoding used to read argument files, or {@code null} to read argument files
+     * with the platform default charset.
+     * <p>The specified setting will be registered with this {@code CommandLine} and the full hierarchy of its
+     * subcommands and nested sub-subcommands <em>at the moment this method is called</em>. Subcommands added
+     * later will have the default setting. To ensure a setting is applied to all
+     * subcommands, call the setter last, after adding subcommands.</p>
+     * @param atFileCharset the charset for reading argument files or {@code null}. The default is {@code null}.
+     * @return this {@code CommandLine} object, to allow method chaining
+     * @see ParserSpec#atFileCharset(Charset)
+     * @since 4.7.8 */
+    public CommandLine setAtFileCharset(final Charset atFileCharset) {
+        if (lazySubcommand != null) { return defer(new LazySetting() { void applyTo(CommandLine cmd) { cmd.setAtFileCharset(atFileCharset); } }); }
+        getCommandSpec().parser().atFileCharset(atFileCharset);
+        for (CommandLine command : getCommandSpec().subcommands().values()) {
+            command.setAtFileCharset(atFileCharset);
+        }
+        return this;
+    }
+
     /** Returns whether to use a simplified argument file format that is compatible with JCommander.
      * In this format, every line (except empty lines and comment lines)
      * is interpreted as a single argument. Arguments containing whitespace do not need to be quoted.
@@ -3596,7 +4158,8 @@ public class CommandLine {
      * @return this {@code CommandLine} object, to allow method chaining
      * @see ParserSpec#useSimplifiedAtFiles(boolean)
      * @since 3.9 */
-    public CommandLine setUseSimplifiedAtFiles(boolean simplifiedAtFiles) {
+    public CommandLine setUseSimplifiedAtFiles(final boolean simplifiedAtFiles) {
+        if (lazySubcommand != null) { return defer(new LazySetting() { void applyTo(CommandLine cmd) { cmd.setUseSimplifiedAtFiles(simplifiedAtFiles); } }); }
         getCommandSpec().parser().useSimplifiedAtFiles(simplifiedAtFiles);
         for (CommandLine command : getCommandSpec().subcommands().values()) {
             command.setUseSimplifiedAtFiles(simplifiedAtFiles);
@@ -3624,7 +4187,8 @@ public class CommandLine {
      * @see Option#negatable()
      * @see CommandSpec#negatableOptionTransformer(CommandLine.INegatableOptionTransformer)
      * @since 4.0 */
-    public CommandLine setNegatableOptionTransformer(INegatableOptionTransformer transformer) {
+    public CommandLine setNegatableOptionTransformer(final INegatableOptionTransformer transformer) {
+        if (lazySubcommand != null) { return defer(new LazySetting() { void applyTo(CommandLine cmd) { cmd.setNegatableOptionTransformer(transformer); } }); }
         getCommandSpec().negatableOptionTransformer(transformer);
         for (CommandLine command : getCommandSpec().subcommands().values()) {
             command.setNegatableOptionTransformer(transformer);
@@ -4597,6 +5161,19 @@ public class CommandLine {
          * @since 4.2 */
         boolean subcommandsRepeatable() default false;
 
+        /** Returns whether the {@linkplain #subcommands() subcommand classes} of this command should be instantiated lazily.
+         * By default, picocli instantiates all subcommands and builds their model when the parent command is constructed.
+         * When this attribute is {@code true}, only the name and aliases of each subcommand are registered up front;
+         * the subcommand is instantiated and its {@link CommandSpec} is built the first time it is needed,
+         * for example when it is matched on the command line or when the usage help message is rendered.
+         * This can significantly reduce the startup time of applications with many subcommands.
+         * <p>Errors in the definition of a lazy subcommand are only detected when the subcommand is initialized.
+         * Model transformers of lazy subcommands are applied when the subcommand is initialized,
+         * and cannot change the name or aliases of the subcommand.</p>
+         * @return whether the subcommands of this command are instantiated on demand
+         * @since 4.7.8 */
+        boolean lazySubcommands() default false;
+
         /** Specify whether methods annotated with {@code @Command} should be registered as subcommands of their
          * enclosing {@code @Command} class.
          * The default is {@code true}. For example:
@@ -5544,6 +6121,19 @@ public class CommandLine {
         Help create(CommandSpec commandSpec, Help.ColorScheme colorScheme);
     }
 
+    /**
+     * Provides the width of the terminal, so that picocli can adjust the usage help message width when
+     * {@linkplain Model.UsageMessageSpec#autoWidth() auto-width} is enabled without starting an external process.
+     * @see Model.UsageMessageSpec#setTerminalWidthProvider(ITerminalWidthProvider)
+     * @since 4.7.8
+     */
+    public interface ITerminalWidthProvider {
+        /** Returns the current width of the terminal in columns.
+         * @return the terminal width, or a negative value if the width is unknown
+         */
+        int terminalWidth();
+    }
+
     private static class DefaultHelpFactory implements IHelpFactory {
         public Help create(CommandSpec commandSpec, Help.ColorScheme colorScheme) {
             return new Help(commandSpec, colorScheme);
@@ -5976,6 +6566,11 @@ public class CommandLine {
         }
     }
     @SuppressWarnings("unchecked") private static Stack<String> copy(Stack<String> stack) { return (Stack<String>) stack.clone(); }
+    private static Stack<String> copyTop(Stack<String> stack, int count) {
+        Stack<String> result = new Stack<String>();
+        result.addAll(stack.subList(Math.max(0, stack.size() - count), stack.size()));
+        return result;
+    }
     private static <T> Stack<T> reverse(Stack<T> stack) {
         Collections.reverse(stack);
         return stack;
@@ -6016,6 +6611,25 @@ public class CommandLine {
             IScope getScope();
         }
 
+        /** Creates the options and positional parameters declared on the fields of a single class, without using reflection.
+         * <p>Implementations are generated at compile time by the {@code picocli-codegen} annotation processor
+         * (when the {@code generate.spec.factories} processor option is set), and are named after the class they describe:
+         * for a class {@code com.example.MyCommand}, the generated factory is {@code com.example.MyCommand_CommandSpecFactory}.
+         * When building the {@code CommandSpec} of a class, picocli looks for such a factory for each class in the hierarchy,
+         * and uses it instead of reflectively inspecting the annotated fields of that class.</p>
+         * <p>The annotations on the class itself (like {@code @Command}) are still read at runtime.</p>
+         * <p>The options and positional parameters created by a generated factory behave the same as the ones created
+         * with reflection, with one exception: their {@link ArgSpec#userObject() userObject()} is {@code null},
+         * instead of the {@code java.lang.reflect.Field} they are bound to.</p>
+         * @since 4.7.8 */
+        public interface ICommandSpecFactory {
+            /** Returns the options and positional parameters declared in the class, in declaration order,
+             * bound to the fields of the object provided by the specified scope.
+             * @param scope provides the instance whose fields the returned options and positional parameters are bound to
+             * @return the options and positional parameters declared in the class; never {@code null} */
+            List<ArgSpec> createArgs(IScope scope);
+        }
+
         /** Customizable getter for obtaining the current value of an option or positional parameter.
          * When an option or positional parameter is matched on the command line, its getter or setter is invoked to capture the value.
          * For example, an option can be bound to a field or a method, and when the option is matched on the command line, the
@@ -6071,6 +6685,7 @@ public class CommandLine {
             private final Set<K> keySet = new CaseAwareKeySet();
             private boolean caseInsensitive = false;
             private final Locale locale;
+            private FoldedKeys foldedKeys; // built on demand in case-insensitive mode, reset when keys change
 
             /**
              * Constructs an empty {@code CaseAwareLinkedMap} instance with {@link java.util.Locale#ENGLISH}.
@@ -6114,6 +6729,23 @@ public class CommandLine {
                 }
             }
 
+            /** Returns the case-sensitive key for the specified non-{@code null} case-convertible key in case-insensitive mode,
+             * or {@code null} if the map does not contain the key. String keys are looked up without creating a lower case copy. */
+            @SuppressWarnings("unchecked")
+            private K findCaseSensitiveKey(Object key) {
+                if (key.getClass() == String.class) {
+                    FoldedKeys folded = foldedKeys;
+                    if (folded == null) {
+                        folded = foldedKeys = new FoldedKeys(keyMap.values(), locale);
+                    }
+                    Object result = folded.find((String) key);
+                    if (result != FoldedKeys.UNKNOWN) {
+                        return (K) result;
+                    }
+                }
+                return keyMap.get(toLowerCase(key));
+            }
+
             /** Returns the case-insensitivity of the map. */
             public boolean isCaseInsensitive() {
                 return caseInsensitive;
@@ -6132,6 +6764,7 @@ public class CommandLine {
                     keyMap.clear();
                 }
                 this.caseInsensitive = caseInsensitive;
+                foldedKeys = null;
             }
 
             /** Returns the locale of the map. */
@@ -6145,7 +6778,7 @@ public class CommandLine {
              */
             public K getCaseSensitiveKey(K caseInsensitiveKey) {
                 if (caseInsensitiveKey != null && caseInsensitive) {
-                    return keyMap.get(toLowerCase(caseInsensitiveKey));
+                    return findCaseSensitiveKey(caseInsensitiveKey);
                 } else {
                     return caseInsensitiveKey;
                 }
@@ -6162,7 +6795,7 @@ public class CommandLine {
                     if (!isCaseConvertible(key.getClass())) {
                         return false;
                     }
-                    return keyMap.containsKey(toLowerCase(key));
+                    return findCaseSensitiveKey(key) != null;
                 } else {
                     return targetMap.containsKey(key);
                 }
@@ -6176,7 +6809,7 @@ public class CommandLine {
             @Override
             public V get(Object key) {
                 if (key != null && isCaseConvertible(key.getClass()) && caseInsensitive) {
-                    K caseSensitiveKey = keyMap.get(toLowerCase(key));
+                    K caseSensitiveKey = findCaseSensitiveKey(key);
                     if (caseSensitiveKey == null) {
                         return null;
                     }
@@ -6189,6 +6822,7 @@ public class CommandLine {
             @Override
             public V put(K key, V value) {
                 if (key != null && caseInsensitive) {
+                    foldedKeys = null;
                     K caseSensitiveKey = keyMap.put(toLowerCase(key), key);
                     if (caseSensitiveKey != null) {
                         V removedValue = targetMap.remove(caseSensitiveKey);
@@ -6202,6 +6836,7 @@ public class CommandLine {
             @Override
             public V remove(Object key) {
                 if (key != null && caseInsensitive) {
+                    foldedKeys = null;
                     K caseSensitiveKey = keyMap.remove(toLowerCase(key));
                     if (caseSensitiveKey == null) {
                         return null;
@@ -6216,6 +6851,7 @@ public class CommandLine {
             public void clear() {
                 targetMap.clear();
                 keyMap.clear();
+                foldedKeys = null;
             }
 
             @Override
@@ -6232,6 +6868,72 @@ public class CommandLine {
             public Set<Entry<K, V>> entrySet() {
                 return targetMap.entrySet();
             }
+
+            /** Open addressing hash table of the String keys of a case-insensitive map. Keys are hashed and compared
+             * by their lower case code points, which gives the same result as comparing {@code toLowerCase(locale)} copies,
+             * except for locales and characters with special lower case rules: lookups then return {@link #UNKNOWN}. */
+            static final class FoldedKeys {
+                static final Object UNKNOWN = new Object();
+                private final String[] table;
+                private final int[] hashes;
+                private final boolean usable;
+
+                FoldedKeys(Collection<?> keys, Locale locale) {
+                    String language = locale.getLanguage();
+                    boolean usable = !"tr".equals(language) && !"az".equals(language) && !"lt".equals(language);
+                    int capacity = 4;
+                    while (capacity < keys.size() * 2) { capacity <<= 1; }
+                    table = new String[capacity];
+                    hashes = new int[capacity];
+                    for (Object key : keys) {
+                        if (!(key instanceof String)) { continue; }
+                        int hash = hash((String) key);
+                        if (hash == SPECIAL) { usable = false; break; }
+                        int i = hash & (table.length - 1);
+                        while (table[i] != null) { i = (i + 1) & (table.length - 1); }
+                        table[i] = (String) key;
+                        hashes[i] = hash;
+                    }
+                    this.usable = usable;
+                }
+
+                /** Returns the key that is equal to the specified key ignoring case, {@code null} if there is no such key,
+                 * or {@link #UNKNOWN} if the key must be compared with a locale-sensitive lower case copy. */
+                Object find(String key) {
+                    int hash = usable ? hash(key) : SPECIAL;
+                    if (hash == SPECIAL) { return UNKNOWN; }
+                    for (int i = hash & (table.length - 1); table[i] != null; i = (i + 1) & (table.length - 1)) {
+                        if (hashes[i] == hash && equalsIgnoreCase(table[i], key)) { return table[i]; }
+                    }
+                    return null;
+                }
+
+                private static final int SPECIAL = Integer.MIN_VALUE;
+
+                private static int hash(String key) {
+                    int result = 0;
+                    for (int i = 0, codePoint; i < key.length(); i += Character.charCount(codePoint)) {
+                        codePoint = key.codePointAt(i);
+                        if (codePoint == '\u0130' || codePoint == '\u03A3') { return SPECIAL; } // lower case depends on context
+                        result = 31 * result + Character.toLowerCase(codePoint);
+                    }
+                    result *= 0x9E3779B9; // spread similar keys like "--option-1" and "--option-2" over the table
+                    result ^= result >>> 16;
+                    return result == SPECIAL ? 0 : result;
+                }
+
+                private static boolean equalsIgnoreCase(String key, String other) {
+                    int i = 0, j = 0;
+                    while (i < key.length() && j < other.length()) {
+                        int cp1 = key.codePointAt(i);
+                        int cp2 = other.codePointAt(j);
+                        if (cp1 != cp2 && Character.toLowerCase(cp1) != Character.toLowerCase(cp2)) { return false; }
+                        i += Character.charCount(cp1);
+                        j += Character.charCount(cp2);
+                    }
+                    return i == key.length() && j == other.length();
+                }
+            }
         }
 
         /** The {@code CommandSpec} class models a command specification, including the options, positional parameters and subcommands
@@ -6268,6 +6970,9 @@ public class CommandLine {
             private final CaseAwareLinkedMap<String, OptionSpec> optionsByNameMap = new CaseAwareLinkedMap<String, OptionSpec>();
             private final CaseAwareLinkedMap<String, OptionSpec> negatedOptionsByNameMap = new CaseAwareLinkedMap<String, OptionSpec>();
             private final CaseAwareLinkedMap<Character, OptionSpec> posixOptionsByKeyMap = new CaseAwareLinkedMap<Character, OptionSpec>();
+            private AbbreviationMatcher.Index<CommandLine> subcommandAbbreviations; // built on demand, reset when subcommands change
+            private AbbreviationMatcher.Index<OptionSpec> optionAbbreviations; // built on demand, reset when options change
+            private OptionTrie optionTrie; // built on demand, reset when options change
             private final Map<String, CommandSpec> mixins = new LinkedHashMap<String, CommandSpec>();
             private final Map<String, IAnnotatedElement> mixinAnnotatedElements = new LinkedHashMap<String, IAnnotatedElement>();
             private final List<ArgSpec> requiredArgs = new ArrayList<ArgSpec>();
@@ -6282,6 +6987,8 @@ public class CommandLine {
             private final Interpolator interpolator = new Interpolator(this);
             private final UsageMessageSpec usageMessage = new UsageMessageSpec(interpolator);
             private TypedMember[] methodParams;
+            private Object[] methodParamSources; // see methodParamSources()
+            private int methodParamSourcesModCount;
 
             private final CommandUserObject userObject;
             private CommandLine commandLine;
@@ -6309,6 +7016,7 @@ public class CommandLine {
 
             private IModelTransformer modelTransformer = null;
             private IParameterPreprocessor preprocessor = new NoOpParameterPreprocessor();
+            private int modCount; // incremented when this command is modified in a way that may affect its usage help message
 
             private CommandSpec(CommandUserObject userObject) {
                 this.userObject = userObject;
@@ -6456,6 +7164,7 @@ public class CommandLine {
                     mixedInSpec.commandLine(commandLine);
                 }
                 for (CommandLine sub : commands.values()) {
+                    if (sub.lazySubcommand != null) { continue; } // parent is set when initialized
                     sub.getCommandSpec().parent(this);
                 }
                 return this;
@@ -6464,7 +7173,7 @@ public class CommandLine {
             /** Returns the parser specification for this command. */
             public ParserSpec parser() { return parser; }
             /** Initializes the parser specification for this command from the specified settings and returns this commandSpec.*/
-            public CommandSpec parser(ParserSpec settings) { parser.initFrom(settings); return this; }
+            public CommandSpec parser(ParserSpec settings) { parser.initFrom(settings); return modified(); }
 
             /** Returns the usage help message specification for this command. */
             public UsageMessageSpec usageMessage() { return usageMessage; }
@@ -6480,6 +7189,7 @@ public class CommandLine {
                 if (subcommandsCaseInsensitive() == caseInsensitiveSubcommands) { return this; } // no change, no action
                 CommandLine.tracer().debug("Changing subcommandsCaseInsensitive to %s", caseInsensitiveSubcommands);
                 commands.setCaseInsensitive(caseInsensitiveSubcommands);
+                subcommandAbbreviations = null;
                 return this;
             }
 
@@ -6497,6 +7207,7 @@ public class CommandLine {
                 optionsByNameMap.setCaseInsensitive(caseInsensitiveOptions);
                 negatedOptionsByNameMap.setCaseInsensitive(caseInsensitiveOptions);
                 posixOptionsByKeyMap.setCaseInsensitive(caseInsensitiveOptions);
+                resetOptionIndexes();
                 RegexTransformer transformer = caseInsensitiveOptions
                         ? RegexTransformer.createCaseInsensitive()
                         : RegexTransformer.createDefault();
@@ -6539,6 +7250,7 @@ public class CommandLine {
                 return this;
             }
             private void setBundle(String bundleBaseName, ResourceBundle bundle) {
+                modCount++;
                 usageMessage().messages(new Messages(this, bundleBaseName, bundle));
                 updateArgSpecMessages();
             }
@@ -6551,6 +7263,30 @@ public class CommandLine {
             /** Returns a read-only view of the subcommand map. */
             public Map<String, CommandLine> subcommands() { return Collections.unmodifiableMap(commands); }
 
+            private CommandSpec modified() { modCount++; return this; }
+
+            /** Returns the modification counts of this command, its usage message spec and those of its direct
+             * subcommands, which are listed in the usage help message of this command. */
+            int[] usageHelpStamp() {
+                int[] result = new int[2 + 2 * commands.size()];
+                result[0] = modCount;
+                result[1] = usageMessage.modCount;
+                int i = 2;
+                for (CommandLine sub : commands.values()) {
+                    result[i++] = sub.getCommandSpec().modCount;
+                    result[i++] = sub.getCommandSpec().usageMessage.modCount;
+                }
+                return result;
+            }
+
+            /** Returns the index for matching abbreviated subcommand names and aliases. */
+            AbbreviationMatcher.Index<CommandLine> subcommandAbbreviations() {
+                if (subcommandAbbreviations == null) {
+                    subcommandAbbreviations = new AbbreviationMatcher.Index<CommandLine>(commands, subcommandsCaseInsensitive());
+                }
+                return subcommandAbbreviations;
+            }
+
             /** Adds the specified subcommand with the specified name.
              * If the specified subcommand does not have a ResourceBundle set, it is initialized to the ResourceBundle of this command spec.
              * @param name subcommand name - the preferred subcommand name to register the subcommand under.
@@ -6580,11 +7316,13 @@ public class CommandLine {
              *          of the specified subcommand was already used by another subcommand.
              */
             public CommandSpec addSubcommand(String name, CommandLine subCommandLine) {
+                modCount++;
                 CommandSpec subSpec = subCommandLine.getCommandSpec();
                 String actualName = validateSubcommandName(interpolator.interpolateCommandName(name), subSpec);
                 Tracer t = CommandLine.tracer();
                 if (t.isDebug()) {t.debug("Adding subcommand '%s' to '%s'", actualName, this.qualifiedName());}
                 String previousName = commands.getCaseSensitiveKey(actualName);
+                subcommandAbbreviations = null;
                 CommandLine previous = commands.put(actualName, subCommandLine);
                 if (previous != null && previous != subCommandLine) { throw new DuplicateNameException("Another subcommand named '" + previousName + "' already exists for command '" + this.name() + "'"); }
                 if (subSpec.name == null) { subSpec.name(actualName); }
@@ -6592,6 +7330,40 @@ public class CommandLine {
                 for (String alias : subSpec.aliases()) {
                     addAlias(alias, actualName, subCommandLine, t);
                 }
+                initSubcommand(subSpec);
+                return this;
+            }
+            /** Registers a {@linkplain Command#lazySubcommands() lazily initialized} subcommand under the specified name and aliases,
+             * without building its model. The remainder of the work done by {@link #addSubcommand(String, CommandLine)}
+             * is done by {@link #initLazySubcommand(String, CommandSpec)} when the subcommand is initialized. */
+            CommandSpec addLazySubcommand(String name, String[] aliases, CommandLine subCommandLine) {
+                String actualName = interpolator.interpolateCommandName(name);
+                Tracer t = CommandLine.tracer();
+                if (t.isDebug()) {t.debug("Adding lazy subcommand '%s' to '%s'", actualName, this.qualifiedName());}
+                String previousName = commands.getCaseSensitiveKey(actualName);
+                subcommandAbbreviations = null;
+                CommandLine previous = commands.put(actualName, subCommandLine);
+                if (previous != null && previous != subCommandLine) { throw new DuplicateNameException("Another subcommand named '" + previousName + "' already exists for command '" + this.name() + "'"); }
+                for (String alias : aliases) {
+                    previous = commands.put(interpolator.interpolate(alias), subCommandLine);
+                    if (previous != null && previous != subCommandLine) {
+                        throw new DuplicateNameException("Alias '" + alias + "' for subcommand '" + actualName + "' is already used by another subcommand of '" + name() + "'");
+                    }
+                }
+                return this;
+            }
+            /** Attaches the model of a lazily initialized subcommand that was registered with {@link #addLazySubcommand(String, String[], CommandLine)}. */
+            void initLazySubcommand(String name, CommandSpec subSpec) {
+                String actualName = interpolator.interpolateCommandName(name);
+                if (subSpec.name == null) { subSpec.name(actualName); }
+                subSpec.parent(this);
+                initSubcommand(subSpec);
+                subSpec.injectParentCommand(userObject);
+                for (CommandSpec mixin : subSpec.mixins().values()) {
+                    mixin.injectParentCommand(userObject);
+                }
+            }
+            private void initSubcommand(CommandSpec subSpec) {
                 subSpec.initCommandHierarchyWithResourceBundle(resourceBundleBaseName(), resourceBundle());
                 if (scopeType() == ScopeType.INHERIT) {
                     subSpec.inheritAttributesFrom(this);
@@ -6609,11 +7381,11 @@ public class CommandLine {
                                 : PositionalParamSpec.builder((PositionalParamSpec) arg).inherited(true).build());
                     }
                 }
-                return this;
             }
             private void addAlias(String alias, String name, CommandLine subCommandLine, Tracer t) {
                 CommandSpec subSpec = subCommandLine.getCommandSpec();
                 if (t.isDebug()) {t.debug("Adding alias '%s' for '%s'", (subSpec.parent() == null ? "" : subSpec.parent().qualifiedName() + " ") + alias, subSpec.qualifiedName());}
+                subcommandAbbreviations = null;
                 CommandLine previous = commands.put(interpolator.interpolate(alias), subCommandLine);
                 if (previous != null && previous != subCommandLine) {
                     throw new DuplicateNameException("Alias '" + alias + "' for subcommand '" + name + "' is already used by another subcommand of '" + name() + "'");
@@ -6622,6 +7394,7 @@ public class CommandLine {
             private void removeAlias(String alias, CommandLine subCommandLine, Tracer t) {
                 CommandSpec subSpec = subCommandLine.getCommandSpec();
                 if (t.isDebug()) {t.debug("Removing alias '%s' for '%s'", (subSpec.parent() == null ? "" : subSpec.parent().qualifiedName() + " ") + alias, subSpec.qualifiedName());}
+                subcommandAbbreviations = null;
                 commands.remove(interpolator.interpolate(alias));
             }
             private void inheritAttributesFrom(CommandSpec root) {
@@ -6634,6 +7407,7 @@ public class CommandLine {
             private void setInheritedDeep() {
                 inherited = true;
                 for (CommandLine sub : subcommands().values()) {
+                    if (sub.lazySubcommand != null) { continue; } // inherits when initialized
                     sub.getCommandSpec().setInheritedDeep();
                 }
             }
@@ -6643,6 +7417,7 @@ public class CommandLine {
                 }
                 Set<CommandLine> subcommands = new HashSet<CommandLine>(subcommands().values());
                 for (CommandLine sub : subcommands) {
+                    if (sub.lazySubcommand != null) { continue; } // inherits when initialized
                     sub.getCommandSpec().inheritAttributesFrom(root);
                 }
             }
@@ -6657,12 +7432,14 @@ public class CommandLine {
              * @since 4.6
              */
             public CommandLine removeSubcommand(String name) {
+                modCount++;
                 String actualName = name;
                 if (parser().abbreviatedSubcommandsAllowed()) {
-                    actualName = AbbreviationMatcher.match(commands, name, subcommandsCaseInsensitive(), commandLine).getFullName();
+                    actualName = subcommandAbbreviations().match(name, commandLine).getFullName();
                 }
 
                 Set<String> removedNames = new TreeSet<String>();
+                subcommandAbbreviations = null;
                 CommandLine result = commands.remove(actualName);
                 if (result != null) {
                     removedNames.add(actualName);
@@ -6702,6 +7479,7 @@ public class CommandLine {
                     setBundle(bundleBaseName, rb);
                 }
                 for (CommandLine sub : commands.values()) { // percolate down the hierarchy
+                    if (sub.lazySubcommand != null) { continue; } // picks up the bundle of its parent when initialized
                     sub.getCommandSpec().initCommandHierarchyWithResourceBundle(bundleBaseName, rb);
                 }
             }
@@ -6718,7 +7496,7 @@ public class CommandLine {
             public boolean interpolateVariables() { return (interpolateVariables == null) ? DEFAULT_INTERPOLATE_VARIABLES : interpolateVariables; }
             /** Sets whether variables should be interpolated in String values. True by default.
              * @since 4.0 */
-            public CommandSpec interpolateVariables(Boolean interpolate) { interpolateVariables = interpolate; return this; }
+            public CommandSpec interpolateVariables(Boolean interpolate) { interpolateVariables = interpolate; return modified(); }
 
             /** Reflects on the class of the {@linkplain #userObject() user object} and registers any command methods
              * (class methods annotated with {@code @Command}) as subcommands.
@@ -6784,7 +7562,9 @@ public class CommandLine {
              * @return this CommandSpec for method chaining
              * @throws DuplicateOptionAnnotationsException if any of the names of the specified option is the same as the name of another option */
             public CommandSpec addOption(OptionSpec option) {
+                modCount++;
                 Tracer tracer = CommandLine.tracer();
+                resetOptionIndexes();
                 for (String name : interpolator.interpolate(option.names())) { // cannot be null or empty
                     String existingName = optionsByNameMap.getCaseSensitiveKey(name);
                     OptionSpec existing = optionsByNameMap.put(name, option);
@@ -6804,7 +7584,7 @@ public class CommandLine {
                 if (option.scopeType() == ScopeType.INHERIT) {
                     Set<CommandLine> done = new HashSet<CommandLine>();
                     for (CommandLine sub : subcommands().values()) {
-                        if (!done.contains(sub)) {
+                        if (!done.contains(sub) && sub.lazySubcommand == null) { // lazy subcommands inherit when initialized
                             sub.getCommandSpec().addOption(OptionSpec.builder(option).inherited(true).build());
                             done.add(sub);
                         }
@@ -6842,6 +7622,7 @@ public class CommandLine {
                 Tracer tracer = CommandLine.tracer();
                 tracer.debug("Clearing negatedOptionsByNameMap...");
                 negatedOptionsByNameMap.clear();
+                resetOptionIndexes();
                 for (OptionSpec option : options) {
                     addOptionNegative(option, tracer);
                 }
@@ -6855,6 +7636,7 @@ public class CommandLine {
              * @param positional the positional parameter spec to add
              * @return this CommandSpec for method chaining */
             public CommandSpec addPositional(PositionalParamSpec positional) {
+                modCount++;
                 positionalParameters.add(positional);
                 addArg(positional);
                 if (positional.index().isUnresolved()) {
@@ -6865,6 +7647,7 @@ public class CommandLine {
                 if (positional.scopeType() == ScopeType.INHERIT) {
                     Set<CommandLine> subCmds = new HashSet<CommandLine>(subcommands().values());// subcommands may be registered multiple times with different aliases
                     for (CommandLine sub : subCmds) {
+                        if (sub.lazySubcommand != null) { continue; } // inherits when initialized
                         sub.getCommandSpec().addPositional(PositionalParamSpec.builder(positional).inherited(true).build());
                     }
                 }
@@ -6913,9 +7696,11 @@ public class CommandLine {
              * @throws NoSuchElementException if the specified ArgSpec is not part of this {@code CommandSpec}
              * @since 4.0 */
             public CommandSpec remove(ArgSpec arg) {
+                modCount++;
                 if (arg.group() != null) {
                     throw new UnsupportedOperationException("Cannot remove ArgSpec that is part of an ArgGroup");
                 }
+                resetOptionIndexes();
                 int removed = remove(arg, optionsByNameMap);
                 removed +=    remove(arg, posixOptionsByKeyMap);
                 removed +=    remove(arg, negatedOptionsByNameMap);
@@ -6957,6 +7742,7 @@ public class CommandLine {
             }
 
             private CommandSpec addArgGroup(ArgGroupSpec group, List<OptionSpec> groupOptions, List<PositionalParamSpec> groupPositionals) {
+                modCount++;
                 Assert.notNull(group, "group");
                 if (group.parentGroup() != null) {
                     throw new InitializationException("Groups that are part of another group should not be added to a command. Add only the top-level group.");
@@ -7027,6 +7813,7 @@ public class CommandLine {
              * @param mixin the mixin whose options and positional parameters and other attributes to add to this command
              * @return this CommandSpec for method chaining */
             public CommandSpec addMixin(String name, CommandSpec mixin) {
+                modCount++;
                 mixins.put(interpolator.interpolate(name), mixin);
 
                 initName(interpolator.interpolateCommandName(mixin.name()));
@@ -7126,6 +7913,29 @@ public class CommandLine {
              * @since 4.0 */
             public Map<String, OptionSpec> negatedOptionsMap() { return Collections.unmodifiableMap(negatedOptionsByNameMap); }
 
+            /** Returns the index for matching abbreviated option names and negated option names. */
+            AbbreviationMatcher.Index<OptionSpec> optionAbbreviations() {
+                if (optionAbbreviations == null) {
+                    Map<String, OptionSpec> aggregatedOptions = new LinkedHashMap<String, OptionSpec>(optionsByNameMap);
+                    aggregatedOptions.putAll(negatedOptionsByNameMap);
+                    optionAbbreviations = new AbbreviationMatcher.Index<OptionSpec>(aggregatedOptions, optionsCaseInsensitive());
+                }
+                return optionAbbreviations;
+            }
+
+            /** Returns the prefix tree of the option names and negated option names. */
+            OptionTrie optionTrie() {
+                if (optionTrie == null) {
+                    optionTrie = new OptionTrie(optionsByNameMap, negatedOptionsByNameMap);
+                }
+                return optionTrie;
+            }
+
+            private void resetOptionIndexes() {
+                optionAbbreviations = null;
+                optionTrie = null;
+            }
+
             /** Returns a map of the short (single character) option names to option spec objects configured for this command.
              * @return an immutable map of options that this command recognizes. */
             public Map<Character, OptionSpec> posixOptionsMap() { return Collections.unmodifiableMap(posixOptionsByKeyMap); }
@@ -7168,29 +7978,49 @@ public class CommandLine {
              * @return an immutable list of all options and positional parameters for this command. */
             public List<ArgSpec> args() { return Collections.unmodifiableList(args); }
             Object[] commandMethodParamValues() {
-                Object[] values = new Object[methodParams.length];
+                Object[] sources = methodParamSources();
+                Object[] values = new Object[sources.length];
+                for (int i = 0; i < sources.length; i++) {
+                    Object source = sources[i];
+                    if (source instanceof ArgSpec) {
+                        values[i] = ((ArgSpec) source).getValue();
+                    } else if (source instanceof CommandSpec) {
+                        values[i] = ((CommandSpec) source).userObject.getInstance();
+                    } else if (source instanceof ArgGroupSpec) {
+                        values[i] = ((ArgGroupSpec) source).userObjectOr(null);
+                    }
+                }
+                return values;
+            }
+            /** Returns the mixin, arg group or arg that supplies the value of each method parameter, or {@code null} for
+             * arg groups that are not part of this command. The method parameter annotations are only inspected again
+             * when this command was modified since the last invocation. */
+            private Object[] methodParamSources() {
+                if (methodParamSources != null && methodParamSourcesModCount == modCount) { return methodParamSources; }
+                Object[] result = new Object[methodParams.length];
                 CommandSpec autoHelpMixin = mixins.get(AutoHelpMixin.KEY);
                 int argIndex = autoHelpMixin == null || autoHelpMixin.inherited() ? 0 : 2;
                 for (int i = 0; i < methodParams.length; i++) {
                     if (methodParams[i].isAnnotationPresent(Mixin.class)) {
                         String name = methodParams[i].getAnnotation(Mixin.class).name();
                         CommandSpec mixin = mixins.get(empty(name) ? methodParams[i].name : name);
-                        values[i] = mixin.userObject.getInstance();
+                        result[i] = mixin;
                         argIndex += mixin.args.size();
                     } else if (methodParams[i].isAnnotationPresent(ArgGroup.class)) {
-                        values[i] = null;
                         for (ArgGroupSpec group : groups) {
                             if (group.typeInfo.equals(methodParams[i].typeInfo)) {
-                                values[i] = group.userObjectOr(null);
+                                result[i] = group;
                                 argIndex += group.argCount();
                                 break;
                             }
                         }
                     } else {
-                        values[i] = args.get(argIndex++).getValue();
+                        result[i] = args.get(argIndex++);
                     }
                 }
-                return values;
+                methodParamSources = result;
+                methodParamSourcesModCount = modCount;
+                return result;
             }
 
             /** Returns the String to use as the program name in the synopsis line of the help message:
@@ -7274,12 +8104,13 @@ public class CommandLine {
 
             /** Sets the String to use as the program name in the synopsis line of the help message.
              * @return this CommandSpec for method chaining */
-            public CommandSpec name(String name) { this.name = name; return this; }
+            public CommandSpec name(String name) { this.name = name; return modified(); }
 
             /** Sets the alternative names by which this subcommand is recognized on the command line.
              * @return this CommandSpec for method chaining
              * @since 3.1 */
             public CommandSpec aliases(String... aliases) {
+                modCount++;
                 Set<String> previousAliasSet = this.aliases;
                 this.aliases = new LinkedHashSet<String>(Arrays.asList(aliases == null ? new String[0] : aliases));
                 if (parent != null) {
@@ -7307,7 +8138,7 @@ public class CommandLine {
              * @param defaultValueProvider the default value provider to use, or {@code null}.
              * @return this CommandSpec for method chaining
              * @since 3.6 */
-            public CommandSpec defaultValueProvider(IDefaultValueProvider  defaultValueProvider) { this.defaultValueProvider = defaultValueProvider; return this; }
+            public CommandSpec defaultValueProvider(IDefaultValueProvider  defaultValueProvider) { this.defaultValueProvider = defaultValueProvider; return modified(); }
 
             /** Sets version information literals for this command, to print to the console when the user specifies an
              * {@linkplain OptionSpec#versionHelp() option} to request version help. Only used if no {@link #versionProvider() versionProvider} is set.
@@ -7390,6 +8221,7 @@ public class CommandLine {
              * @see Option#negatable()
              * @since 4.0 */
             public CommandSpec negatableOptionTransformer(INegatableOptionTransformer newValue) {
+                modCount++;
                 Tracer tracer = CommandLine.tracer();
                 tracer.debug("Replacing negatableOptionTransformer %s with %s", negatableOptionTransformer, newValue);
                 negatableOptionTransformer = newValue;
@@ -7401,6 +8233,7 @@ public class CommandLine {
              * @return this CommandSpec for method chaining
              * @see Command#mixinStandardHelpOptions() */
             public CommandSpec mixinStandardHelpOptions(boolean newValue) {
+                modCount++;
                 if (newValue) {
                     CommandSpec mixin = CommandSpec.forAnnotatedObject(new AutoHelpMixin(), new DefaultFactory());
                     boolean overlap = false;
@@ -7420,6 +8253,7 @@ public class CommandLine {
                 } else {
                     CommandSpec helpMixin = mixins.remove(AutoHelpMixin.KEY);
                     if (helpMixin != null) {
+                        resetOptionIndexes();
                         options.removeAll(helpMixin.options);
                         for (OptionSpec option : helpMixin.options()) {
                             for (String name : interpolator.interpolate(option.names())) {
@@ -7436,7 +8270,7 @@ public class CommandLine {
              * occur multiple times and may be followed by sibling commands instead of just child commands.
              * @see Command#subcommandsRepeatable()
              * @since 4.2 */
-            public CommandSpec subcommandsRepeatable(boolean subcommandsRepeatable) { this.subcommandsRepeatable = subcommandsRepeatable; return this; }
+            public CommandSpec subcommandsRepeatable(boolean subcommandsRepeatable) { this.subcommandsRepeatable = subcommandsRepeatable; return modified(); }
 
             /** Sets the string representation of this command, used in error messages and trace messages.
              * @param newValue the string representation
@@ -7562,24 +8396,31 @@ public class CommandLine {
                     if (tracer != null && tracer.isDebug()) {tracer.debug("Single-character arguments that don't match known options are considered positional parameters: %s", arg);}
                     return false;
                 }
-                try { Long.decode(arg);        return false; } catch (NumberFormatException nan) {} // negative numbers are not unknown options
-                try { Double.parseDouble(arg); return false; } catch (NumberFormatException nan) {} // negative numbers are not unknown options
+                if (mayBeNumber(arg)) {
+                    try { Long.decode(arg);        return false; } catch (NumberFormatException nan) {} // negative numbers are not unknown options
+                    try { Double.parseDouble(arg); return false; } catch (NumberFormatException nan) {} // negative numbers are not unknown options
+                }
 
                 if (options().isEmpty()) {
                     boolean result = arg.startsWith("-");
                     if (tracer != null && tracer.isDebug()) {tracer.debug("'%s' %s an option", arg, (result ? "resembles" : "doesn't resemble"));}
                     return result;
                 }
-                int count = 0;
-                for (String optionName : optionsMap().keySet()) {
-                    for (int i = 0; i < arg.length(); i++) {
-                        if (optionName.length() > i && arg.charAt(i) == optionName.charAt(i)) { count++; } else { break; }
-                    }
-                }
-                boolean result = count > 0 && count * 10 >= optionsMap().size() * 9; // at least one prefix char in common with 9 out of 10 options
-                if (tracer != null && tracer.isDebug()) {tracer.debug("'%s' %s an option: %d matching prefix chars out of %d option names", arg, (result ? "resembles" : "doesn't resemble"), count, optionsMap().size());}
+                int count = optionTrie().commonPrefixLength(arg);
+                boolean result = count > 0 && count * 10 >= optionsByNameMap.size() * 9; // at least one prefix char in common with 9 out of 10 options
+                if (tracer != null && tracer.isDebug()) {tracer.debug("'%s' %s an option: %d matching prefix chars out of %d option names", arg, (result ? "resembles" : "doesn't resemble"), count, optionsByNameMap.size());}
                 return result;
             }
+
+            /** Returns {@code false} if the specified argument cannot be parsed by {@code Long.decode} or
+             * {@code Double.parseDouble}, to avoid the cost of the exception for arguments that are obviously not numbers. */
+            private static boolean mayBeNumber(String arg) {
+                int i = 0;
+                while (i < arg.length() && arg.charAt(i) <= ' ') { i++; } // Double.parseDouble ignores leading whitespace
+                if (i == arg.length()) { return false; }
+                char c = arg.charAt(i);
+                return (c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.' || c == '#' || c == 'N' || c == 'I'; // NaN, Infinity
+            }
         }
 
         private static boolean initializable(Object current, Object candidate, Object defaultValue) {
@@ -7751,6 +8592,9 @@ public class CommandLine {
 
             /** Constant Boolean holding the default setting for whether to attempt to adjust the width to the terminal width: <code>{@value}</code>. */
             static final Boolean DEFAULT_USAGE_AUTO_WIDTH = Boolean.FALSE;
+            /** Default number of milliseconds to wait for the terminal width to be detected: <code>{@value}</code>. */
+            static final long DEFAULT_TERMINAL_WIDTH_TIMEOUT = 2000;
+            private static volatile ITerminalWidthProvider terminalWidthProvider;
 
             /** Constant String holding the default synopsis heading: <code>{@value}</code>. */
             static final String DEFAULT_SYNOPSIS_HEADING = "Usage: ";
@@ -7843,15 +8687,17 @@ public class CommandLine {
             private Map<String, String> exitCodeList;
             private Integer width;
             private Integer longOptionsMaxWidth;
-            private Integer cachedTerminalWidth;
 
             private final Interpolator interpolator;
             private Messages messages;
             private Boolean adjustLineBreaksForWideCJKCharacters;
+            private int modCount; // incremented by every setter
 
             public UsageMessageSpec() { this(null); }
             UsageMessageSpec(Interpolator interpolator) { this.interpolator = interpolator; }
 
+            private UsageMessageSpec modified() { modCount++; return this; }
+
             /**
              * Sets the maximum usage help message width to the specified value. Longer values are wrapped.
              * @param newValue the new maximum usage help message width. Must be 55 or greater.
@@ -7862,7 +8708,7 @@ public class CommandLine {
                 if (newValue < MINIMUM_USAGE_WIDTH) {
                     throw new InitializationException("Invalid usage message width " + newValue + ". Minimum value is " + MINIMUM_USAGE_WIDTH);
                 }
-                width = newValue; return this;
+                width = newValue; return modified();
             }
             /**
              * Sets the maximum usage help long options column max width to the specified value.
@@ -7878,15 +8724,13 @@ public class CommandLine {
                 } else {
                     longOptionsMaxWidth = newValue;
                 }
-                return this;
+                return modified();
             }
 
             private int getSysPropertyWidthOrDefault(int defaultWidth, boolean detectTerminalSize) {
                 if (detectTerminalSize) {
-                    if (cachedTerminalWidth == null) {
-                        cachedTerminalWidth = getTerminalWidth();
-                    }
-                    return cachedTerminalWidth < 0 ? defaultWidth : Math.max(cachedTerminalWidth, MINIMUM_USAGE_WIDTH);
+                    int terminalWidth = getTerminalWidth();
+                    return terminalWidth < 0 ? defaultWidth : Math.max(terminalWidth, MINIMUM_USAGE_WIDTH);
                 }
                 String userValue = System.getProperty("picocli.usage.width");
                 if (userValue == null) { return defaultWidth; }
@@ -7912,64 +8756,147 @@ public class CommandLine {
                 catch (Exception any) { return false; }
             }
 
+            /** Sets the provider that picocli consults first when it needs to {@linkplain #autoWidth() detect the terminal width}.
+             * Applications that already have a handle to the terminal (for example a JLine {@code Terminal}, or a native
+             * {@code ioctl(TIOCGWINSZ)} helper) can register a provider to avoid starting an external process.
+             * The provider is invoked every time the usage help width is calculated and should be cheap.
+             * If the provider is {@code null} or returns a negative value, picocli falls back to the {@code COLUMNS}
+             * environment variable, and then to running {@code stty}, {@code tput} or {@code mode con} in a background thread.
+             * The provider applies to all commands in this JVM.
+             * @param provider the terminal width provider, may be {@code null}
+             * @see #autoWidth()
+             * @since 4.7.8 */
+            public static void setTerminalWidthProvider(ITerminalWidthProvider provider) { terminalWidthProvider = provider; }
+
+            /** Returns the provider that picocli consults first when it needs to {@linkplain #autoWidth() detect the terminal width},
+             * or {@code null} if no provider was {@linkplain #setTerminalWidthProvider(ITerminalWidthProvider) set}.
+             * @since 4.7.8 */
+            public static ITerminalWidthProvider getTerminalWidthProvider() { return terminalWidthProvider; }
+
             private static int getTerminalWidth() {
-                return (Help.Ansi.isTTY() || Help.Ansi.isPseudoTTY()) ? detectTerminalWidth() : -1;
+                ITerminalWidthProvider provider = terminalWidthProvider;
+                if (provider != null) {
+                    int width = provider.terminalWidth();
+                    if (width >= 0) { return width; }
+                }
+                if (!Help.Ansi.isTTY() && !Help.Ansi.isPseudoTTY()) { return -1; }
+                int columns = getColumnsEnvironmentVariable();
+                return columns >= 0 ? columns : TerminalWidthDetector.start().awaitWidth();
+            }
+            private static int getColumnsEnvironmentVariable() {
+                String columns = System.getenv("COLUMNS");
+                if (columns == null) { return -1; }
+                try {
+                    return Integer.parseInt(columns.trim());
+                } catch (NumberFormatException ex) {
+                    CommandLine.tracer().debug("Ignoring invalid COLUMNS value '%s'", columns);
+                    return -1;
+                }
             }
-            private static int detectTerminalWidth() {
-                long start = System.nanoTime();
-                final Tracer tracer = CommandLine.tracer();
-                final AtomicInteger size = new AtomicInteger(-1);
-                final String[] cmd = (Help.Ansi.isWindows() && !Help.Ansi.isPseudoTTY())
-                        ? new String[] {"cmd.exe", "/c", "mode con"}
-                        : (Help.Ansi.isMac()
-                                ? new String[] {"tput", "cols"}
-                                : new String[] {"stty", "-a", "-F", "/dev/tty"});
-                Thread t = new Thread(new Runnable() {
-                    public void run() {
-                        Process proc = null;
-                        BufferedReader reader = null;
-                        try {
-                            ProcessBuilder pb = new ProcessBuilder(cmd);
-                            tracer.debug("getTerminalWidth() executing command %s", pb.command());
-                            //proc = Runtime.getRuntime().exec(new String[] { "sh", "-c", "tput cols 2> /dev/tty" });
-                            Class<?> redirectClass = Class.forName("java.lang.ProcessBuilder$Redirect");
-                            Object INHERIT = redirectClass.getField("INHERIT").get(null);
-                            Method redirectError = ProcessBuilder.class.getDeclaredMethod("redirectError", redirectClass);
-                            redirectError.invoke(pb, INHERIT);
-                            proc = pb.start();
-                            reader = new BufferedReader(new InputStreamReader(proc.getInputStream()));
-                            String txt = "";
-                            String line;
-                            while ((line = reader.readLine()) != null) {
-                                txt += " " + line;
-                            }
-                            tracer.debug("getTerminalWidth() parsing output: %s", txt);
-                            Pattern pattern = (Help.Ansi.isWindows() && !Help.Ansi.isPseudoTTY())
-                                    ? Pattern.compile(".*?:\\s*(\\d+)\\D.*?:\\s*(\\d+)\\D.*", Pattern.DOTALL)
-                                    : (Help.Ansi.isMac()
-                                            ? Pattern.compile("(\\s*)(\\d+)\\s*")
-                                            : Pattern.compile(".*olumns(:)?\\s+(\\d+)\\D.*", Pattern.DOTALL));
-                            Matcher matcher = pattern.matcher(txt);
-                            if (matcher.matches()) {
-                                size.set(Integer.parseInt(matcher.group(2)));
-                            }
-                        } catch (Exception ignored) { // nothing to do...
-                            tracer.debug("getTerminalWidth() ERROR: %s", ignored);
-                        } finally {
-                            if (proc != null) { proc.destroy(); }
-                            close(reader);
+
+            /** Starts detecting the terminal width in a background thread if auto-width is enabled and the width
+             * cannot be obtained from a cheaper source, so that the result is likely available by the time usage help is rendered. */
+            void startTerminalWidthDetection() {
+                if (autoWidth() && terminalWidthProvider == null
+                        && (Help.Ansi.isTTY() || Help.Ansi.isPseudoTTY()) && getColumnsEnvironmentVariable() < 0) {
+                    TerminalWidthDetector.start();
+                }
+            }
+
+            /** Detects the terminal width at most once per JVM by running {@link #detectTerminalWidth()} in a daemon thread.
+             * Callers wait for the result until {@code picocli.usage.width.timeout} milliseconds after detection started. */
+            static final class TerminalWidthDetector implements Runnable {
+                private static TerminalWidthDetector instance;
+                private final CountDownLatch done = new CountDownLatch(1);
+                private final long deadline;
+                private volatile int width = -1;
+
+                private TerminalWidthDetector(long timeoutMillis) {
+                    deadline = System.currentTimeMillis() + timeoutMillis;
+                }
+                static synchronized TerminalWidthDetector start() {
+                    if (instance == null) {
+                        instance = new TerminalWidthDetector(getTimeoutMillis());
+                        Thread thread = new Thread(instance, "picocli-terminal-width");
+                        thread.setDaemon(true);
+                        thread.start();
+                    }
+                    return instance;
+                }
+                static long getTimeoutMillis() {
+                    String userValue = System.getProperty("picocli.usage.width.timeout");
+                    if (userValue == null) { return DEFAULT_TERMINAL_WIDTH_TIMEOUT; }
+                    try {
+                        return Math.max(0, Long.parseLong(userValue));
+                    } catch (NumberFormatException ex) {
+                        CommandLine.tracer().warn("Invalid picocli.usage.width.timeout value '%s'. Using timeout %d.", userValue, DEFAULT_TERMINAL_WIDTH_TIMEOUT);
+                        return DEFAULT_TERMINAL_WIDTH_TIMEOUT;
+                    }
+                }
+                public void run() {
+                    try {
+                        width = detectTerminalWidth();
+                    } finally {
+                        done.countDown();
+                    }
+                }
+                int awaitWidth() {
+                    long remaining = deadline - System.currentTimeMillis();
+                    if (remaining > 0) {
+                        try {
+                            done.await(remaining, TimeUnit.MILLISECONDS);
+                        } catch (InterruptedException ex) {
+                            Thread.currentThread().interrupt();
                         }
                     }
-                });
-                t.start();
-                long now = System.currentTimeMillis();
-                do {
-                    if (size.intValue() >= 0) { break; }
-                    try { Thread.sleep(25); } catch (InterruptedException ignored) {}
-                } while (System.currentTimeMillis() < now + 2000 && t.isAlive());
+                    return width;
+                }
+            }
+            private static int detectTerminalWidth() {
+                long start = System.nanoTime();
+                Tracer tracer = CommandLine.tracer();
+                int size = -1;
+                String[] cmd = (Help.Ansi.isWindows() && !Help.Ansi.isPseudoTTY())
+                        ? new String[] {"cmd.exe", "/c", "mode con"}
+                        : (Help.Ansi.isMac()
+                                ? new String[] {"tput", "cols"}
+                                : new String[] {"stty", "-a", "-F", "/dev/tty"});
+                Process proc = null;
+                BufferedReader reader = null;
+                try {
+                    ProcessBuilder pb = new ProcessBuilder(cmd);
+                    tracer.debug("getTerminalWidth() executing command %s", pb.command());
+                    //proc = Runtime.getRuntime().exec(new String[] { "sh", "-c", "tput cols 2> /dev/tty" });
+                    Class<?> redirectClass = Class.forName("java.lang.ProcessBuilder$Redirect");
+                    Object INHERIT = redirectClass.getField("INHERIT").get(null);
+                    Method redirectError = ProcessBuilder.class.getDeclaredMethod("redirectError", redirectClass);
+                    redirectError.invoke(pb, INHERIT);
+                    proc = pb.start();
+                    reader = new BufferedReader(new InputStreamReader(proc.getInputStream()));
+                    String txt = "";
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        txt += " " + line;
+                    }
+                    tracer.debug("getTerminalWidth() parsing output: %s", txt);
+                    Pattern pattern = (Help.Ansi.isWindows() && !Help.Ansi.isPseudoTTY())
+                            ? Pattern.compile(".*?:\\s*(\\d+)\\D.*?:\\s*(\\d+)\\D.*", Pattern.DOTALL)
+                            : (Help.Ansi.isMac()
+                                    ? Pattern.compile("(\\s*)(\\d+)\\s*")
+                                    : Pattern.compile(".*olumns(:)?\\s+(\\d+)\\D.*", Pattern.DOTALL));
+                    Matcher matcher = pattern.matcher(txt);
+                    if (matcher.matches()) {
+                        size = Integer.parseInt(matcher.group(2));
+                    }
+                } catch (Exception ignored) { // nothing to do...
+                    tracer.debug("getTerminalWidth() ERROR: %s", ignored);
+                } finally {
+                    if (proc != null) { proc.destroy(); }
+                    close(reader);
+                }
                 double duration = (System.nanoTime() - start) / 1000000.0;
                 tracer.debug("getTerminalWidth() returning: %s in %,.1fms", size, duration);
-                return size.intValue();
+                return size;
             }
 
             /** Returns the maximum usage help message width. Derived from system property {@code "picocli.usage.width"}
@@ -7987,6 +8914,11 @@ public class CommandLine {
              * to take the full terminal width. End users may enable this by setting system property {@code "picocli.usage.width"} to {@code AUTO},
              * and may disable this by setting this system property to a {@linkplain #width() numeric value}.
              * This feature requires Java 7 or greater. The default is {@code false}.
+             * <p>The terminal width is obtained from the {@linkplain #setTerminalWidthProvider(ITerminalWidthProvider) terminal width provider}
+             * if one is set, otherwise from the {@code COLUMNS} environment variable, otherwise by running an external process
+             * in a background thread. The result of the external process is shared by all commands in the JVM;
+             * system property {@code "picocli.usage.width.timeout"} controls how many milliseconds picocli waits for this
+             * result (the default is 2000).</p>
              * @see Command#usageHelpAutoWidth()
              * @since 4.0 */
             public boolean autoWidth() { return shouldDetectTerminalSize((autoWidth == null) ? DEFAULT_USAGE_AUTO_WIDTH : autoWidth); }
@@ -7996,7 +8928,7 @@ public class CommandLine {
              * @param detectTerminalSize whether picocli should attempt to detect the terminal size
              * @see Command#usageHelpAutoWidth()
              * @since 4.0 */
-            public UsageMessageSpec autoWidth(boolean detectTerminalSize) { autoWidth = detectTerminalSize; return this; }
+            public UsageMessageSpec autoWidth(boolean detectTerminalSize) { autoWidth = detectTerminalSize; return modified(); }
             /**
              * Given a codePoint, is this codePoint considered to be a CJK character?
              * Shamelessly stolen from
@@ -8045,17 +8977,20 @@ public class CommandLine {
                 //e.g. [@<filename>...] One or more argument files containing options.
                 result.put(SECTION_KEY_AT_FILE_PARAMETER,      new IHelpSectionRenderer() { public String render(Help help) { return help.atFileParameterList(); } });
                 //e.g. [FILE...] the files to convert
-                result.put(SECTION_KEY_PARAMETER_LIST,         new IHelpSectionRenderer() { public String render(Help help) { return help.parameterList(); } });
+                result.put(SECTION_KEY_PARAMETER_LIST,         new IHelpSectionWriter() { public String render(Help help) { return help.parameterList(); }
+                                                                                          public void write(Help help, Appendable out) throws IOException { help.writeParameterList(out); } });
                 //e.g. %nOptions:%n%n
                 result.put(SECTION_KEY_OPTION_LIST_HEADING,    new IHelpSectionRenderer() { public String render(Help help) { return help.optionListHeading(); } });
                 //e.g. -h, --help   displays this help and exits
-                result.put(SECTION_KEY_OPTION_LIST,            new IHelpSectionRenderer() { public String render(Help help) { return help.optionList(); } });
+                result.put(SECTION_KEY_OPTION_LIST,            new IHelpSectionWriter() { public String render(Help help) { return help.optionList(); }
+                                                                                          public void write(Help help, Appendable out) throws IOException { help.writeOptionList(out); } });
                 //e.g. [--] This option can be used to separate command-line options from the list of positional parameters.
                 result.put(SECTION_KEY_END_OF_OPTIONS,      new IHelpSectionRenderer() { public String render(Help help) { return help.endOfOptionsList(); } });
                 //e.g. %nCommands:%n%n
                 result.put(SECTION_KEY_COMMAND_LIST_HEADING,   new IHelpSectionRenderer() { public String render(Help help) { return help.commandListHeading(); } });
                 //e.g.    add       adds the frup to the frooble
-                result.put(SECTION_KEY_COMMAND_LIST,           new IHelpSectionRenderer() { public String render(Help help) { return help.commandList(); } });
+                result.put(SECTION_KEY_COMMAND_LIST,           new IHelpSectionWriter() { public String render(Help help) { return help.commandList(); }
+                                                                                          public void write(Help help, Appendable out) throws IOException { help.writeCommandList(out); } });
                 result.put(SECTION_KEY_EXIT_CODE_LIST_HEADING, new IHelpSectionRenderer() { public String render(Help help) { return help.exitCodeListHeading(); } });
                 result.put(SECTION_KEY_EXIT_CODE_LIST,         new IHelpSectionRenderer() { public String render(Help help) { return help.exitCodeList(); } });
                 result.put(SECTION_KEY_FOOTER_HEADING,         new IHelpSectionRenderer() { public String render(Help help) { return help.footerHeading(); } });
@@ -8095,7 +9030,7 @@ public class CommandLine {
              * @see #sectionKeys
              * @since 3.9
              */
-            public UsageMessageSpec sectionKeys(List<String> keys) { sectionKeys = Collections.unmodifiableList(new ArrayList<String>(keys)); return this; }
+            public UsageMessageSpec sectionKeys(List<String> keys) { sectionKeys = Collections.unmodifiableList(new ArrayList<String>(keys)); return modified(); }
 
             /**
              * Returns the map of section keys and renderers used to construct the usage help message.
@@ -8115,7 +9050,7 @@ public class CommandLine {
              * @see #setHelpSectionMap(Map)
              * @since 3.9
              */
-            public UsageMessageSpec sectionMap(Map<String, IHelpSectionRenderer> map) { this.helpSectionRendererMap = new LinkedHashMap<String, IHelpSectionRenderer>(map); return this; }
+            public UsageMessageSpec sectionMap(Map<String, IHelpSectionRenderer> map) { this.helpSectionRendererMap = new LinkedHashMap<String, IHelpSectionRenderer>(map); return modified(); }
 
             /** Returns the {@code IHelpFactory} that is used to construct the usage help message.
              * @see #setHelpFactory(IHelpFactory)
@@ -8134,7 +9069,7 @@ public class CommandLine {
              */
             public UsageMessageSpec helpFactory(IHelpFactory helpFactory) {
                 this.helpFactory = Assert.notNull(helpFactory, "helpFactory");
-                return this;
+                return modified();
             }
 
             private String   interpolate(String value)    { return interpolator == null ? value  : interpolator.interpolate(value); }
@@ -8284,21 +9219,21 @@ public class CommandLine {
 
             /** Sets the heading preceding the header section. Initialized from {@link Command#headerHeading()}, or null.
              * @return this UsageMessageSpec for method chaining */
-            public UsageMessageSpec headerHeading(String headerHeading) { this.headerHeading = headerHeading; return this; }
+            public UsageMessageSpec headerHeading(String headerHeading) { this.headerHeading = headerHeading; return modified(); }
 
             /** Sets the optional header lines displayed at the top of the help message. For subcommands, the first header line is
              * displayed in the list of commands.
              * @return this UsageMessageSpec for method chaining */
-            public UsageMessageSpec header(String... header) { this.header = header; return this; }
+            public UsageMessageSpec header(String... header) { this.header = header; return modified(); }
 
             /** Sets the optional heading preceding the synopsis.
              * @return this UsageMessageSpec for method chaining */
-            public UsageMessageSpec synopsisHeading(String newValue) {synopsisHeading = newValue; return this;}
+            public UsageMessageSpec synopsisHeading(String newValue) {synopsisHeading = newValue; return modified();}
 
             /** Sets the String representing the subcommands in the synopsis.
              * @return this UsageMessageSpec for method chaining
              * @since 4.0 */
-            public UsageMessageSpec synopsisSubcommandLabel(String newValue) {synopsisSubcommandLabel = newValue; return this;}
+            public UsageMessageSpec synopsisSubcommandLabel(String newValue) {synopsisSubcommandLabel = newValue; return modified();}
 
             /** Sets the fraction of the usage help {@link #width()} that is the threshold up to which
              * the 2nd line and subsequent lines of a multi-line synopsis should be aligned to the end of the command name.
@@ -8314,7 +9249,7 @@ public class CommandLine {
                     throw new IllegalArgumentException("synopsisAutoIndentThreshold must be between 0.0 and 0.9 (inclusive), but was " + newValue);
                 }
                 synopsisAutoIndentThreshold = newValue;
-                return this;
+                return modified();
             }
 
             /** Sets the indentation to use on the 2nd line and subsequent lines of a multi-line synopsis
@@ -8323,77 +9258,77 @@ public class CommandLine {
              * A positive value means the exact number of spaces to indent for the 2nd line and subsequent lines of the synopsis.
              * @return this UsageMessageSpec for method chaining
              * @since 4.0 */
-            public UsageMessageSpec synopsisIndent(int newValue) {synopsisIndent = newValue; return this;}
+            public UsageMessageSpec synopsisIndent(int newValue) {synopsisIndent = newValue; return modified();}
 
             /** Sets whether the synopsis line(s) should show an abbreviated synopsis without detailed option names.
              * @return this UsageMessageSpec for method chaining */
-            public UsageMessageSpec abbreviateSynopsis(boolean newValue) {abbreviateSynopsis = newValue; return this;}
+            public UsageMessageSpec abbreviateSynopsis(boolean newValue) {abbreviateSynopsis = newValue; return modified();}
 
             /** Sets the optional custom synopsis lines to use instead of the auto-generated synopsis.
              * @return this UsageMessageSpec for method chaining */
-            public UsageMessageSpec customSynopsis(String... customSynopsis) { this.customSynopsis = customSynopsis; return this; }
+            public UsageMessageSpec customSynopsis(String... customSynopsis) { this.customSynopsis = customSynopsis; return modified(); }
 
             /** Sets the heading preceding the description section.
              * @return this UsageMessageSpec for method chaining */
-            public UsageMessageSpec descriptionHeading(String newValue) {descriptionHeading = newValue; return this;}
+            public UsageMessageSpec descriptionHeading(String newValue) {descriptionHeading = newValue; return modified();}
 
             /** Sets the optional text lines to use as the description of the help message, displayed between the synopsis and the
              * options list.
              * @return this UsageMessageSpec for method chaining */
-            public UsageMessageSpec description(String... description) { this.description = description; return this; }
+            public UsageMessageSpec description(String... description) { this.description = description; return modified(); }
 
             /** Sets the optional heading preceding the parameter list.
              * @return this UsageMessageSpec for method chaining */
-            public UsageMessageSpec parameterListHeading(String newValue) {parameterListHeading = newValue; return this;}
+            public UsageMessageSpec parameterListHeading(String newValue) {parameterListHeading = newValue; return modified();}
 
             /** Sets the heading preceding the options list.
              * @return this UsageMessageSpec for method chaining */
-            public UsageMessageSpec optionListHeading(String newValue) {optionListHeading = newValue; return this;}
+            public UsageMessageSpec optionListHeading(String newValue) {optionListHeading = newValue; return modified();}
 
             /** Sets whether the options list in the usage help message should be sorted alphabetically.
              * @return this UsageMessageSpec for method chaining */
-            public UsageMessageSpec sortOptions(boolean newValue) {sortOptions = newValue; return this;}
+            public UsageMessageSpec sortOptions(boolean newValue) {sortOptions = newValue; return modified();}
 
             /** Sets whether the options in the synopsis should be sorted alphabetically.
              * @return this UsageMessageSpec for method chaining
              * @since 4.7.8-SNAPSHOT */
-            public UsageMessageSpec sortSynopsis(boolean newValue) {sortSynopsis = newValue; return this;}
+            public UsageMessageSpec sortSynopsis(boolean newValue) {sortSynopsis = newValue; return modified();}
 
             /** Sets the character used to prefix required options in the options list.
              * @return this UsageMessageSpec for method chaining */
-            public UsageMessageSpec requiredOptionMarker(char newValue) {requiredOptionMarker = newValue; return this;}
+            public UsageMessageSpec requiredOptionMarker(char newValue) {requiredOptionMarker = newValue; return modified();}
 
             /** Sets whether the options list in the usage help message should show default values for all non-boolean options.
              * @return this UsageMessageSpec for method chaining */
-            public UsageMessageSpec showDefaultValues(boolean newValue) {showDefaultValues = newValue; return this;}
+            public UsageMessageSpec showDefaultValues(boolean newValue) {showDefaultValues = newValue; return modified();}
 
             /** Sets whether to show a {@code [@<filename>...]} entry in the synopsis and parameter list of the usage help message.
              * (The entry is not shown if {@linkplain CommandLine#isExpandAtFiles() expanding parameter files} is disabled.)
              * @see Command#showAtFileInUsageHelp()
              * @return this UsageMessageSpec for method chaining
              * @since 4.2*/
-            public UsageMessageSpec showAtFileInUsageHelp(boolean newValue) {showAtFileInUsageHelp = newValue; return this;}
+            public UsageMessageSpec showAtFileInUsageHelp(boolean newValue) {showAtFileInUsageHelp = newValue; return modified();}
 
             /** Sets whether to show a {@code [--]} (End of Options) entry in the synopsis and options list of the usage help message.
              * @see Command#showEndOfOptionsDelimiterInUsageHelp()
              * @return this UsageMessageSpec for method chaining
              * @since 4.3*/
-            public UsageMessageSpec showEndOfOptionsDelimiterInUsageHelp(boolean newValue) {showEndOfOptionsDelimiterInUsageHelp = newValue; return this;}
+            public UsageMessageSpec showEndOfOptionsDelimiterInUsageHelp(boolean newValue) {showEndOfOptionsDelimiterInUsageHelp = newValue; return modified();}
 
             /**
              * Set the hidden flag on this command to control whether to show or hide it in the help usage text of the parent command.
              * @param value enable or disable the hidden flag
              * @return this UsageMessageSpec for method chaining
              * @see Command#hidden() */
-            public UsageMessageSpec hidden(boolean value) { hidden = value; return this; }
+            public UsageMessageSpec hidden(boolean value) { hidden = value; return modified(); }
 
             /** Sets the optional heading preceding the subcommand list.
              * @return this UsageMessageSpec for method chaining */
-            public UsageMessageSpec commandListHeading(String newValue) {commandListHeading = newValue; return this;}
+            public UsageMessageSpec commandListHeading(String newValue) {commandListHeading = newValue; return modified();}
 
             /** Sets the optional heading preceding the exit codes section, may contain {@code "%n"} line separators. {@code ""} (empty string) by default.
              * @since 4.0 */
-            public UsageMessageSpec exitCodeListHeading(String newValue) { exitCodeListHeading = newValue; return this;}
+            public UsageMessageSpec exitCodeListHeading(String newValue) { exitCodeListHeading = newValue; return modified();}
 
             /** Sets the values to be displayed in the exit codes section: keys are exit codes, values are descriptions.
              * Descriptions may contain {@code "%n"} line separators.
@@ -8406,15 +9341,15 @@ public class CommandLine {
              * @param newValue a map with values to be displayed in the exit codes section
              * @see #keyValuesMap(String...)
              * @since 4.0 */
-            public UsageMessageSpec exitCodeList(Map<String, String> newValue) { exitCodeList = newValue == null ? null : Collections.unmodifiableMap(new LinkedHashMap<String, String>(newValue)); return this;}
+            public UsageMessageSpec exitCodeList(Map<String, String> newValue) { exitCodeList = newValue == null ? null : Collections.unmodifiableMap(new LinkedHashMap<String, String>(newValue)); return modified();}
 
             /** Sets the optional heading preceding the footer section.
              * @return this UsageMessageSpec for method chaining */
-            public UsageMessageSpec footerHeading(String newValue) {footerHeading = newValue; return this;}
+            public UsageMessageSpec footerHeading(String newValue) {footerHeading = newValue; return modified();}
 
             /** Sets the optional footer text lines displayed at the bottom of the help message.
              * @return this UsageMessageSpec for method chaining */
-            public UsageMessageSpec footer(String... footer) { this.footer = footer; return this; }
+            public UsageMessageSpec footer(String... footer) { this.footer = footer; return modified(); }
             /** Returns the Messages for this usage help message specification, or {@code null}.
              * @return the Messages object that encapsulates this {@linkplain CommandSpec#resourceBundle() command's resource bundle}
              * @since 3.6 */
@@ -8422,7 +9357,7 @@ public class CommandLine {
             /** Sets the Messages for this usageMessage specification, and returns this UsageMessageSpec.
              * @param msgs the new Messages value that encapsulates this {@linkplain CommandSpec#resourceBundle() command's resource bundle}, may be {@code null}
              * @since 3.6 */
-            public UsageMessageSpec messages(Messages msgs) { messages = msgs; return this; }
+            public UsageMessageSpec messages(Messages msgs) { messages = msgs; return modified(); }
             /**
              * Returns whether line breaks should take wide Chinese, Japanese and Korean characters into account for line-breaking purposes.
              * @return true if wide Chinese, Japanese and Korean characters are counted as double the size of other characters for line-breaking purposes
@@ -8431,7 +9366,7 @@ public class CommandLine {
             /** Sets whether line breaks should take wide Chinese, Japanese and Korean characters into account, and returns this UsageMessageSpec.
              * @param adjustForWideChars if true, wide Chinese, Japanese and Korean characters are counted as double the size of other characters for line-breaking purposes
              * @since 4.0 */
-            public UsageMessageSpec adjustLineBreaksForWideCJKCharacters(boolean adjustForWideChars) { adjustLineBreaksForWideCJKCharacters = adjustForWideChars; return this; }
+            public UsageMessageSpec adjustLineBreaksForWideCJKCharacters(boolean adjustForWideChars) { adjustLineBreaksForWideCJKCharacters = adjustForWideChars; return modified(); }
 
             void updateFromCommand(Command cmd, CommandSpec commandSpec, boolean loadResourceBundle) {
                 if (!empty(cmd.resourceBundle())) { // else preserve superclass bundle
@@ -8501,10 +9436,10 @@ public class CommandLine {
                 if (initializable(width, mixin.width(), DEFAULT_USAGE_WIDTH))                                          {width = mixin.width();}
             }
             void initFrom(UsageMessageSpec settings, CommandSpec commandSpec) {
+                modCount++;
                 abbreviateSynopsis = settings.abbreviateSynopsis;
                 adjustLineBreaksForWideCJKCharacters = settings.adjustLineBreaksForWideCJKCharacters;
                 autoWidth = settings.autoWidth;
-                // cachedTerminalWidth not copied
                 commandListHeading = settings.commandListHeading;
                 customSynopsis = settings.customSynopsis;
                 description = settings.description;
@@ -8549,6 +9484,7 @@ public class CommandLine {
             private boolean allowOptionsAsOptionParameters = false;
             private boolean allowSubcommandsAsOptionParameters = false;
             private boolean aritySatisfiedByAttachedOptionParam = false;
+            private Charset atFileCharset;
             private Character atFileCommentChar = '#';
             private boolean caseInsensitiveEnumValuesAllowed = false;
             private boolean collectErrors = false;
@@ -8591,6 +9527,9 @@ public class CommandLine {
             public boolean abbreviatedOptionsAllowed()         { return abbreviatedOptionsAllowed; }
             /** @see CommandLine#isExpandAtFiles() */
             public boolean expandAtFiles()                     { return expandAtFiles; }
+            /** @see CommandLine#getAtFileCharset()
+             * @since 4.7.8 */
+            public Charset atFileCharset()                     { return atFileCharset; }
             /** @see CommandLine#getAtFileCommentChar()
              * @since 3.5 */
             public Character atFileCommentChar()               { return atFileCommentChar; }
@@ -8661,6 +9600,9 @@ public class CommandLine {
             public ParserSpec abbreviatedOptionsAllowed(boolean abbreviatedOptionsAllowed) { this.abbreviatedOptionsAllowed = abbreviatedOptionsAllowed; return this; }
             /** @see CommandLine#setExpandAtFiles(boolean) */
             public ParserSpec expandAtFiles(boolean expandAtFiles)                         { this.expandAtFiles = expandAtFiles; return this; }
+            /** @see CommandLine#setAtFileCharset(Charset)
+             * @since 4.7.8 */
+            public ParserSpec atFileCharset(Charset atFileCharset)                         { this.atFileCharset = atFileCharset; return this; }
             /** @see CommandLine#setAtFileCommentChar(Character)
              * @since 3.5 */
             public ParserSpec atFileCommentChar(Character atFileCommentChar)               { this.atFileCommentChar = atFileCommentChar; return this; }
@@ -8714,14 +9656,14 @@ public class CommandLine {
             void updateSeparator(String value) { if (isNonDefault(value, DEFAULT_SEPARATOR))             {separator = value;} }
             public String toString() {
                 return String.format("abbreviatedOptionsAllowed=%s, abbreviatedSubcommandsAllowed=%s, allowOptionsAsOptionParameters=%s, " +
-                                "allowSubcommandsAsOptionParameters=%s, aritySatisfiedByAttachedOptionParam=%s, atFileCommentChar=%s, " +
+                                "allowSubcommandsAsOptionParameters=%s, aritySatisfiedByAttachedOptionParam=%s, atFileCharset=%s, atFileCommentChar=%s, " +
                                 "caseInsensitiveEnumValuesAllowed=%s, collectErrors=%s, endOfOptionsDelimiter=%s, expandAtFiles=%s, " +
                                 "limitSplit=%s, overwrittenOptionsAllowed=%s, posixClusteredShortOptionsAllowed=%s, " +
                                 "separator=%s, splitQuotedStrings=%s, stopAtPositional=%s, stopAtUnmatched=%s, " +
                                 "toggleBooleanFlags=%s, trimQuotes=%s, " +
                                 "unmatchedArgumentsAllowed=%s, unmatchedOptionsAllowedAsOptionParameters=%s, unmatchedOptionsArePositionalParams=%s, useSimplifiedAtFiles=%s",
                         abbreviatedOptionsAllowed, abbreviatedSubcommandsAllowed, allowOptionsAsOptionParameters,
-                        allowSubcommandsAsOptionParameters, aritySatisfiedByAttachedOptionParam, atFileCommentChar,
+                        allowSubcommandsAsOptionParameters, aritySatisfiedByAttachedOptionParam, atFileCharset, atFileCommentChar,
                         caseInsensitiveEnumValuesAllowed, collectErrors, endOfOptionsDelimiter, expandAtFiles,
                         limitSplit, overwrittenOptionsAllowed, posixClusteredShortOptionsAllowed,
                         separator, splitQuotedStrings, stopAtPositional, stopAtUnmatched,
@@ -8735,6 +9677,7 @@ public class CommandLine {
                 allowOptionsAsOptionParameters = settings.allowOptionsAsOptionParameters;
                 allowSubcommandsAsOptionParameters = settings.allowSubcommandsAsOptionParameters;
                 aritySatisfiedByAttachedOptionParam = settings.aritySatisfiedByAttachedOptionParam;
+                atFileCharset = settings.atFileCharset;
                 atFileCommentChar = settings.atFileCommentChar;
                 caseInsensitiveEnumValuesAllowed = settings.caseInsensitiveEnumValuesAllowed;
                 collectErrors = settings.collectErrors;
@@ -8799,6 +9742,8 @@ public class CommandLine {
             private final String splitRegexSynopsisLabel;
             protected final ITypeInfo typeInfo;
             private final ITypeConverter<?>[] converters;
+            ITypeConverter<?>[] resolvedConverters; // converters resolved by the Interpreter, per type index
+            Object resolvedConvertersKey;           // the converter registry the resolved converters were obtained from
             private final Iterable<String> completionCandidates;
             private final IParameterConsumer parameterConsumer;
             private final IParameterPreprocessor preprocessor;
@@ -8898,7 +9843,7 @@ public class CommandLine {
                 if (hasInitialValue()) {
                     try {
                         setter().set(initialValue());
-                        tracer.debug("Set initial value for %s of type %s to %s.", this, type(), String.valueOf(initialValue()));
+                        if (tracer.isDebug()) { tracer.debug("Set initial value for %s of type %s to %s.", this, type(), String.valueOf(initialValue())); }
                     } catch (Exception ex) {
                         tracer.warn("Could not set initial value for %s of type %s to %s: %s", this, type(), String.valueOf(initialValue()), ex);
                     }
@@ -9111,10 +10056,10 @@ public class CommandLine {
              * the option will be reset to before parsing (regardless of whether a default value exists),
              * to clear values that would otherwise remain from parsing previous input. */
             public Object initialValue()   {
-                // Do not initialize if already CACHED, or UNAVAILABLE, or if annotatedElement==null
-                if (initialValueState == InitialValueState.POSTPONED && annotatedElement != null) {
+                // Do not initialize if already CACHED, or UNAVAILABLE
+                if (initialValueState == InitialValueState.POSTPONED) {
                     try {
-                        initialValue = annotatedElement.getter().get();
+                        initialValue = annotatedElement == null ? getter.get() : annotatedElement.getter().get();
                         initialValueState = InitialValueState.CACHED; // only if successfully initialized
                     } catch (Exception ex) { } // #1300 if error: keep initialValueState == POSTPONED
                 }
@@ -10804,12 +11749,12 @@ public class CommandLine {
             void tryInitUserObject(CommandLine commandLine) throws Exception {
                 Tracer tracer = tracer();
                 if (typeInfo() != null) {
-                    tracer.debug("Creating new user object of type %s for group %s", typeInfo().getAuxiliaryTypes()[0], synopsis());
+                    if (tracer.isDebug()) { tracer.debug("Creating new user object of type %s for group %s", typeInfo().getAuxiliaryTypes()[0], synopsis()); }
                     Object userObject = DefaultFactory.create(commandLine.factory, typeInfo().getAuxiliaryTypes()[0]);
-                    tracer.debug("Created %s, invoking setter %s with scope %s", userObject, setter(), scope());
+                    if (tracer.isDebug()) { tracer.debug("Created %s, invoking setter %s with scope %s", userObject, setter(), scope()); }
                     setUserObject(userObject, commandLine.factory);
                     for (ArgSpec arg : args()) {
-                        tracer.debug("Initializing %s in group %s: setting scope to user object %s and initializing initial and default values", ArgSpec.describe(arg, "="), synopsis(), userObject);
+                        if (tracer.isDebug()) { tracer.debug("Initializing %s in group %s: setting scope to user object %s and initializing initial and default values", ArgSpec.describe(arg, "="), synopsis(), userObject); }
                         arg.scope().set(userObject); // flip the actual user object for the arg (and all other args in this group; they share the same IScope instance)
                         commandLine.interpreter.parseResultBuilder.isInitializingDefaultValues = true;
                         arg.applyInitialValue();
@@ -10817,18 +11762,18 @@ public class CommandLine {
                         commandLine.interpreter.parseResultBuilder.isInitializingDefaultValues = false;
                     }
                     for (ArgGroupSpec subgroup : subgroups()) {
-                        tracer.debug("Setting scope for subgroup %s with setter=%s in group %s to user object %s", subgroup.synopsis(), subgroup.setter(), synopsis(), userObject);
+                        if (tracer.isDebug()) { tracer.debug("Setting scope for subgroup %s with setter=%s in group %s to user object %s", subgroup.synopsis(), subgroup.setter(), synopsis(), userObject); }
                         subgroup.scope().set(userObject); // flip the actual user object for the arg (and all other args in this group; they share the same IScope instance)
                     }
                     for (IAnnotatedElement specElement : specElements()) {
-                        tracer.debug("Setting @Spec with setter=%s in user object %s to %s", specElement.setter(), userObject, commandLine.getCommandSpec());
+                        if (tracer.isDebug()) { tracer.debug("Setting @Spec with setter=%s in user object %s to %s", specElement.setter(), userObject, commandLine.getCommandSpec()); }
                         specElement.scope().set(userObject);
                         specElement.setter().set(commandLine.getCommandSpec());
                     }
                 } else {
-                    tracer.debug("No type information available for group %s: cannot create new user object. Scope for arg setters is not changed.", synopsis());
+                    if (tracer.isDebug()) { tracer.debug("No type information available for group %s: cannot create new user object. Scope for arg setters is not changed.", synopsis()); }
                 }
-                tracer.debug("Initialization complete for group %s", synopsis());
+                if (tracer.isDebug()) { tracer.debug("Initialization complete for group %s", synopsis()); }
             }
 
             void setUserObject(Object userObject, IFactory factory) throws Exception {
@@ -11818,6 +12763,8 @@ public class CommandLine {
             boolean test(T t);
         }
         private static class CommandReflection {
+            private static final String GENERATED_FACTORY_SUFFIX = "_CommandSpecFactory";
+            private static final Map<Class<?>, Boolean> HAS_GENERATED_FACTORY = Collections.synchronizedMap(new WeakHashMap<Class<?>, Boolean>());
             static ArgGroupSpec extractArgGroupSpec(IAnnotatedElement member, IFactory factory, CommandSpec commandSpec, boolean annotationsAreMandatory) throws Exception {
                 Object instance = null;
                 try { instance = member.getter().get(); } catch (Exception ignored) {}
@@ -11892,7 +12839,12 @@ public class CommandLine {
                         }
                         initSubcommands(cmd, cls, result, factory, fullHierarchySet); // after adding options
                         initMethodSubcommands(cls, result, factory); // regardless of @Command annotation. NOTE: after adding options
-                        hasCommandAnnotation |= initFromAnnotatedMembers(userObject, cls, result, null, factory, null);
+                        ICommandSpecFactory generated = generatedFactory(cls);
+                        if (generated != null) {
+                            hasCommandAnnotation |= initFromGeneratedFactory(generated, userObject, result);
+                        } else {
+                            hasCommandAnnotation |= initFromAnnotatedMembers(userObject, cls, result, null, factory, null);
+                        }
                     }
                     result.mixinStandardHelpOptions(mixinStandardHelpOptions); //#377 Standard help options should be added last
                 }
@@ -11924,6 +12876,11 @@ public class CommandLine {
                     }
                     try {
                         if (Help.class == sub) { throw new InitializationException(Help.class.getName() + " is not a valid subcommand. Did you mean " + HelpCommand.class.getName() + "?"); }
+                        if (cmd.lazySubcommands()) {
+                            String name = subcommandName(sub);
+                            parent.addLazySubcommand(name, sub.getAnnotation(Command.class).aliases(), new CommandLine(sub, factory, parent, name));
+                            continue;
+                        }
                         CommandLine subcommandLine = toCommandLine(sub, factory);
                         parent.addSubcommand(subcommandName(sub), subcommandLine);
                         subcommandLine.getCommandSpec().injectParentCommand(parent.userObject);
@@ -11956,6 +12913,38 @@ public class CommandLine {
                 }
                 return subCommand.name();
             }
+            /** Returns the {@link ICommandSpecFactory} generated at compile time for the specified class, or {@code null} if there is none. */
+            private static ICommandSpecFactory generatedFactory(Class<?> cls) {
+                Boolean known = HAS_GENERATED_FACTORY.get(cls);
+                if (Boolean.FALSE.equals(known) || cls.getClassLoader() == null) { return null; }
+                String name = cls.getName() + GENERATED_FACTORY_SUFFIX;
+                try {
+                    Class<?> generated = Class.forName(name, true, cls.getClassLoader());
+                    ICommandSpecFactory result = (ICommandSpecFactory) generated.getConstructor().newInstance();
+                    if (known == null) {
+                        CommandLine.tracer().debug("Using generated %s for %s", name, cls.getName());
+                        HAS_GENERATED_FACTORY.put(cls, Boolean.TRUE);
+                    }
+                    return result;
+                } catch (ClassNotFoundException ex) {
+                    HAS_GENERATED_FACTORY.put(cls, Boolean.FALSE);
+                    return null;
+                } catch (InvocationTargetException ex) {
+                    Throwable cause = ex.getTargetException();
+                    if (cause instanceof Error) { throw (Error) cause; }
+                    throw new InitializationException("Could not instantiate " + name + ": " + cause, (Exception) cause);
+                } catch (Exception ex) {
+                    throw new InitializationException("Could not instantiate " + name + ": " + ex, ex);
+                }
+            }
+            private static boolean initFromGeneratedFactory(ICommandSpecFactory generated, IScope scope, CommandSpec receiver) {
+                List<ArgSpec> args = generated.createArgs(scope);
+                for (ArgSpec arg : args) {
+                    arg.initialValueState = InitialValueState.POSTPONED; // like fields bound by reflection
+                    receiver.add(arg);
+                }
+                return !args.isEmpty();
+            }
             private static boolean initFromAnnotatedMembers(IScope scope, Class<?> cls, CommandSpec receiver, ArgGroupSpec.Builder groupBuilder, IFactory factory, Predicate<TypedMember> predicate) {
                 boolean result = false;
                 for (Field field : cls.getDeclaredFields()) {
@@ -12389,11 +13378,11 @@ public class CommandLine {
                 return result;
             }
             public String interpolate(String original) {
-                if (original == null || !commandSpec.interpolateVariables()) { return original; }
+                if (original == null || original.indexOf('$') < 0 || !commandSpec.interpolateVariables()) { return original; } // no variables to resolve
                 return resolveLookups(original, new HashSet<String>(), new HashMap<String, String>());
             }
             public String interpolateCommandName(String original) {
-                if (original == null || !commandSpec.interpolateVariables()) { return original; }
+                if (original == null || original.indexOf('$') < 0 || !commandSpec.interpolateVariables()) { return original; }
                 return resolveLookups(original, new HashSet<String>(), new HashMap<String, String>());
             }
 
@@ -12504,6 +13493,7 @@ public class CommandLine {
         private final List<Exception> errors;
         private final GroupMatchContainer groupMatchContainer;
         private final List<ParseResult> subcommands;
+        private volatile MatchedArgsIndex matchedArgsIndex; // created when first needed
         final List<Object> tentativeMatch;
 
         private final boolean usageHelpRequested;
@@ -12527,6 +13517,39 @@ public class CommandLine {
             tentativeMatch = builder.nowProcessing;
             groupMatchContainer = builder.groupMatchContainer.trim();
         }
+        private MatchedArgsIndex index() {
+            MatchedArgsIndex result = matchedArgsIndex;
+            if (result == null) { // benign race: concurrent callers may each build an equivalent index
+                matchedArgsIndex = result = new MatchedArgsIndex(matchedUniqueOptions, matchedUniquePositionals);
+            }
+            return result;
+        }
+        /** Finds matched options by name, and matched options and positional parameters by identity, in constant time.
+         * Options are found as {@code CommandSpec.findOption} would find them in the list of matched options. */
+        private static final class MatchedArgsIndex {
+            private final Map<String, OptionSpec> optionsByName = new HashMap<String, OptionSpec>();
+            private final Map<Character, OptionSpec> optionsByShortName = new HashMap<Character, OptionSpec>();
+            private final Map<ArgSpec, Boolean> args = new IdentityHashMap<ArgSpec, Boolean>();
+
+            MatchedArgsIndex(Set<OptionSpec> options, Set<PositionalParamSpec> positionals) {
+                for (OptionSpec option : options) { // in the order the options were first matched
+                    args.put(option, Boolean.TRUE);
+                    for (String name : option.names()) {
+                        putIfAbsent(optionsByName, name, option);
+                        putIfAbsent(optionsByName, CommandSpec.stripPrefix(name), option);
+                        if (name.length() == 2 && name.charAt(0) == '-') {
+                            putIfAbsent(optionsByShortName, name.charAt(1), option);
+                        } else if (name.length() == 1) {
+                            putIfAbsent(optionsByShortName, name.charAt(0), option);
+                        }
+                    }
+                }
+                for (PositionalParamSpec positional : positionals) { args.put(positional, Boolean.TRUE); }
+            }
+            private static <K> void putIfAbsent(Map<K, OptionSpec> map, K key, OptionSpec option) {
+                if (!map.containsKey(key)) { map.put(key, option); }
+            }
+        }
         /** Creates and returns a new {@code ParseResult.Builder} for the specified command spec. */
         public static Builder builder(CommandSpec commandSpec) { return new Builder(commandSpec); }
 
@@ -12565,7 +13588,7 @@ public class CommandLine {
          * {@linkplain #hasMatchedOption(char) <em>not</em> matched} on the command line, use
          * {@code parseResult.commandSpec().findOption(shortName).getValue()}. </p>
          * @see CommandSpec#findOption(char)  */
-        public OptionSpec matchedOption(char shortName) { return CommandSpec.findOption(shortName, matchedOptions); }
+        public OptionSpec matchedOption(char shortName) { return index().optionsByShortName.get(shortName); }
 
         /** Returns the option with the specified name, or {@code null} if no option with that name was matched on the command line.
          * <p>Use {@link OptionSpec#getValue() getValue} on the returned {@code OptionSpec} to get the matched value (or values),
@@ -12579,7 +13602,7 @@ public class CommandLine {
          * @see CommandSpec#findOption(String)
          * @param name used to search the matched options. May be an alias of the option name that was actually specified on the command line.
          *      The specified name may include option name prefix characters or not. */
-        public OptionSpec matchedOption(String name) { return CommandSpec.findOption(name, matchedOptions); }
+        public OptionSpec matchedOption(String name) { return index().optionsByName.get(name); }
 
         /** Returns the first {@code PositionalParamSpec} that matched an argument at the specified position, or {@code null} if no positional parameters were matched at that position. */
         public PositionalParamSpec matchedPositional(int position) {
@@ -12603,12 +13626,12 @@ public class CommandLine {
          *      The specified name may include option name prefix characters or not. */
         public boolean hasMatchedOption(String name)        { return matchedOption(name) != null; }
         /** Returns whether the specified option was matched on the command line. */
-        public boolean hasMatchedOption(OptionSpec option)  { return matchedOptions.contains(option); }
+        public boolean hasMatchedOption(OptionSpec option)  { return index().args.containsKey(option) || matchedUniqueOptions.contains(option); }
 
         /** Returns whether a positional parameter was matched at the specified position. */
         public boolean hasMatchedPositional(int position)   { return matchedPositional(position) != null; }
         /** Returns whether the specified positional parameter was matched on the command line. */
-        public boolean hasMatchedPositional(PositionalParamSpec positional) { return matchedUniquePositionals.contains(positional); }
+        public boolean hasMatchedPositional(PositionalParamSpec positional) { return index().args.containsKey(positional) || matchedUniquePositionals.contains(positional); }
 
         /** Returns a set of matched options.
          * @since 4.0 */
@@ -12846,11 +13869,11 @@ public class CommandLine {
                         (argSpec.required() || match.matchCount(argSpec) > 0) && !allowMultipleMatchesInGroup) {
                     // we need to create a new match; if maxMultiplicity has been reached, we need to add a new GroupMatchContainer.
                     String previousMatch = argSpec.required() ? "is required" : "has already been matched";
-                    tracer.info("GroupMatch %s is complete: its mandatory elements are all matched. (User object: %s.) %s %s in the group, so it starts a new GroupMatch.", foundGroupMatchContainer.lastMatch(), foundGroupMatchContainer.group.userObject(), elementDescription, previousMatch);
+                    if (tracer.isInfo()) { tracer.info("GroupMatch %s is complete: its mandatory elements are all matched. (User object: %s.) %s %s in the group, so it starts a new GroupMatch.", foundGroupMatchContainer.lastMatch(), foundGroupMatchContainer.group.userObject(), elementDescription, previousMatch); }
                     foundGroupMatchContainer.addMatch(commandSpec.commandLine);
                     this.groupMatchContainer.findOrCreateMatchingGroup(argSpec, commandSpec.commandLine);
                 } else if (match.matchCount(argSpec) > 0 && !allowMultipleMatchesInGroup) {
-                    tracer.info("GroupMatch %s is incomplete: its mandatory elements are not all matched. (User object: %s.) However, %s has already been matched in the group, so it starts a new GroupMatch.", foundGroupMatchContainer.lastMatch(), foundGroupMatchContainer.group.userObject(), elementDescription);
+                    if (tracer.isInfo()) { tracer.info("GroupMatch %s is incomplete: its mandatory elements are not all matched. (User object: %s.) However, %s has already been matched in the group, so it starts a new GroupMatch.", foundGroupMatchContainer.lastMatch(), foundGroupMatchContainer.group.userObject(), elementDescription); }
                     foundGroupMatchContainer.addMatch(commandSpec.commandLine);
                     this.groupMatchContainer.findOrCreateMatchingGroup(argSpec, commandSpec.commandLine);
                 }
@@ -12918,7 +13941,7 @@ public class CommandLine {
                     complete(commandLine);
                 } else {
                     if (group != null) {
-                        tracer.info("Adding match to GroupMatchContainer %s (group=%s %s).", this, group.id(), group.synopsisUnit());
+                        if (tracer.isInfo()) { tracer.info("Adding match to GroupMatchContainer %s (group=%s %s).", this, group.id(), group.synopsisUnit()); }
                     }
                     matches.add(new GroupMatch(this));
                     if (group == null) { return; }
@@ -13391,20 +14414,191 @@ public class CommandLine {
 
         public boolean isAttached() { return this != LookBehind.SEPARATE; }
     }
+    /**
+     * Parses many command lines in succession with the same {@code CommandLine} instance, for example in a server
+     * that receives commands over a socket.
+     * <p>Like {@link CommandLine#parseArgs(String...)}, every call resets the options and positional parameters
+     * of the matched commands before parsing. The first call resets all of them; subsequent calls only reset
+     * the options and positional parameters that were matched or assigned a default value by the previous call,
+     * which is much cheaper for commands with many options.
+     * This assumes that the application does not modify the annotated fields or methods between calls;
+     * call {@link CommandLine#parseArgs(String...)} instead after such modifications to reset everything.</p>
+     * <p>A {@code ParseSession} is not thread-safe. Threads that need to parse concurrently should each use their
+     * own {@code CommandLine} instance, for example by keeping it in a {@code ThreadLocal}.</p>
+     * @see CommandLine#newParseSession()
+     * @since 4.7.8
+     */
+    public static final class ParseSession {
+        private final CommandLine commandLine;
+
+        private ParseSession(CommandLine commandLine) { this.commandLine = Assert.notNull(commandLine, "commandLine"); }
+
+        /** Returns the {@code CommandLine} that this session parses with. */
+        public CommandLine commandLine() { return commandLine; }
+
+        /** Expands any {@linkplain CommandLine#isExpandAtFiles() @-files} in the specified command line arguments, then
+         * parses the arguments and returns a {@code ParseResult} with the options, positional
+         * parameters, and subcommands (if any) that were recognized and initialized during the parsing process.
+         * @param args the command line arguments to parse
+         * @return the parse result
+         * @throws ParameterException if the specified command line arguments are invalid
+         * @see CommandLine#parseArgs(String...) */
+        public ParseResult parseArgs(String... args) {
+            Interpreter interpreter = commandLine.interpreter;
+            interpreter.resetTouchedArgsOnly = true;
+            try {
+                return commandLine.parseArgs(args);
+            } finally {
+                interpreter.resetTouchedArgsOnly = false;
+            }
+        }
+    }
+
+    /**
+     * A thread-safe pool of {@code CommandLine} instances, for applications that parse or execute command lines
+     * concurrently, for example on the threads of an {@code ExecutorService}.
+     * <p>A {@code CommandLine} and its {@link CommandSpec} hold the state of the last parse, so a single instance
+     * cannot be used by several threads at the same time. A {@code Pool} hands out a separate instance to each
+     * concurrent invocation, and lets later invocations reuse it, so the command model is only built as many times
+     * as there are concurrent invocations, instead of once per invocation.</p>
+     * <p>The pool keeps at most {@link #maxIdle()} idle instances. Instances released while that many
+     * instances are already idle are discarded, so that a burst of concurrent invocations does not keep all the
+     * instances it created for the lifetime of the pool.</p>
+     * <p>For example:</p>
+     * <pre>{@code
+     * final CommandLine.Pool pool = new CommandLine.Pool(new Callable<CommandLine>() {
+     *     public CommandLine call() {
+     *         return new CommandLine(new MyCommand()).setCaseInsensitiveEnumValuesAllowed(true);
+     *     }
+     * });
+     * // on any thread:
+     * int exitCode = pool.execute(args);
+     * }</pre>
+     * @see #execute(String...)
+     * @since 4.7.8
+     */
+    public static final class Pool {
+        private final Callable<CommandLine> factory;
+        private final int maxIdle;
+        private final Queue<CommandLine> idle = new ConcurrentLinkedQueue<CommandLine>();
+        private final AtomicInteger idleCount = new AtomicInteger();
+        private final AtomicInteger created = new AtomicInteger();
+
+        /** Constructs a {@code Pool} that uses the specified factory to create and configure a new
+         * {@code CommandLine} instance whenever all existing instances are in use, and that keeps at most as many
+         * idle instances as there are {@linkplain Runtime#availableProcessors() available processors}.
+         * @param factory creates fully configured {@code CommandLine} instances; each call must return a new instance
+         *                with its own user object */
+        public Pool(Callable<CommandLine> factory) { this(factory, Runtime.getRuntime().availableProcessors()); }
+
+        /** Constructs a {@code Pool} that uses the specified factory to create and configure a new
+         * {@code CommandLine} instance whenever all existing instances are in use, and that keeps at most the
+         * specified number of idle instances.
+         * @param factory creates fully configured {@code CommandLine} instances; each call must return a new instance
+         *                with its own user object
+         * @param maxIdle the maximum number of idle instances to keep for reuse; instances released when this
+         *                many instances are idle are discarded
+         * @throws IllegalArgumentException if {@code maxIdle} is negative */
+        public Pool(Callable<CommandLine> factory, int maxIdle) {
+            if (maxIdle < 0) { throw new IllegalArgumentException("maxIdle must not be negative, but was " + maxIdle); }
+            this.factory = Assert.notNull(factory, "factory");
+            this.maxIdle = maxIdle;
+        }
+
+        /** Returns an idle {@code CommandLine} instance, or a new instance if all instances are in use.
+         * The caller has exclusive use of the returned instance until it is {@linkplain #release(CommandLine) released}.
+         * @return a {@code CommandLine} instance that is not used by any other thread
+         * @throws InitializationException if the factory failed to create a new instance */
+        public CommandLine acquire() {
+            CommandLine result = idle.poll();
+            if (result != null) {
+                idleCount.decrementAndGet();
+                return result;
+            }
+            try {
+                result = Assert.notNull(factory.call(), "CommandLine created by factory");
+            } catch (InitializationException ex) {
+                throw ex;
+            } catch (Exception ex) {
+                throw new InitializationException("Could not create CommandLine: " + ex, ex);
+            }
+            created.incrementAndGet();
+            return result;
+        }
+
+        /** Returns the specified instance to the pool, so that it can be {@linkplain #acquire() acquired} again,
+         * or discards it if the pool already holds {@link #maxIdle()} idle instances.
+         * The caller must not use the instance or any {@code ParseResult} obtained from it after releasing it.
+         * @param commandLine an instance previously obtained from {@link #acquire()} */
+        public void release(CommandLine commandLine) {
+            Assert.notNull(commandLine, "commandLine");
+            if (idleCount.incrementAndGet() > maxIdle) {
+                idleCount.decrementAndGet(); // discard: enough idle instances already
+                return;
+            }
+            idle.offer(commandLine);
+        }
+
+        /** Executes the specified command line arguments with a {@code CommandLine} instance that is not used by
+         * any other thread, and returns the exit code.
+         * @param args the command line arguments to parse
+         * @return the exit code
+         * @see CommandLine#execute(String...) */
+        public int execute(String... args) {
+            CommandLine commandLine = acquire();
+            try {
+                return commandLine.execute(args);
+            } finally {
+                release(commandLine);
+            }
+        }
+
+        /** Asynchronously executes the specified command line arguments on the specified executor, with a
+         * {@code CommandLine} instance that is not used by any other thread until the returned future is done.
+         * @param executor the executor to parse and execute the command line arguments on
+         * @param args the command line arguments to parse
+         * @param <T> the type of the returned future: {@code CompletableFuture<Integer>} on Java 8 and later, {@code Future<Integer>} otherwise
+         * @return a future that completes with the exit code
+         * @see CommandLine#executeAsync(Executor, String...) */
+        public <T extends Future<Integer>> T executeAsync(Executor executor, String... args) {
+            Assert.notNull(executor, "executor");
+            final CommandLine commandLine = acquire();
+            return commandLine.executeAsync(executor, args, new Runnable() {
+                public void run() { release(commandLine); }
+            });
+        }
+
+        /** Returns the number of {@code CommandLine} instances this pool has created so far. */
+        public int createdCount() { return created.get(); }
+
+        /** Returns the number of idle {@code CommandLine} instances that this pool currently holds for reuse. */
+        public int idleCount() { return idleCount.get(); }
+
+        /** Returns the maximum number of idle {@code CommandLine} instances that this pool keeps for reuse. */
+        public int maxIdle() { return maxIdle; }
+    }
+
     /**
      * Helper class responsible for processing command line arguments.
      */
     private class Interpreter {
+        private static final int AT_FILE_BUFFER_SIZE = 64 * 1024;
         /** Value displayed in trace logs for options with echo=false. */
         private static final String MASKED_VALUE = "*****(masked)"; // see #2087
         private final Map<Class<?>, ITypeConverter<?>> converterRegistry = new HashMap<Class<?>, ITypeConverter<?>>();
+        private Object converterRegistryKey = new Object(); // replaced when the registry changes, invalidating converters cached on ArgSpecs
         private boolean isHelpRequested;
         private int position;
         private int interactiveCount;
         private boolean endOfOptions;
         private ParseResult.Builder parseResultBuilder;
+        private boolean resetTouchedArgsOnly;
+        private Map<ArgSpec, Boolean> touchedArgs; // args assigned a value since the last reset, or null if not tracked
+        private int argCountAtLastReset;
+        private final Map<ArgSpec, ArrayBuffer> arrayBuffers = new IdentityHashMap<ArgSpec, ArrayBuffer>(); // array values not yet assigned, see applyArrayBuffers
+        private final List<ArgSpec> arrayBufferOrder = new ArrayList<ArgSpec>(); // keys of arrayBuffers in the order they were first matched
 
-        Interpreter() { registerBuiltInConverters(); }
+        Interpreter(boolean registerBuiltInConverters) { if (registerBuiltInConverters) { registerBuiltInConverters(); } }
 
         private void registerBuiltInConverters() {
             converterRegistry.put(Object.class,        new BuiltIn.StringConverter());
@@ -13469,6 +14663,15 @@ public class CommandLine {
 
             if (!excl("java.nio.file.Path")) {     try { reg(Class.forName("java.nio.file.Path"),  Class.forName("java.nio.file.Paths").getDeclaredMethod("get", String.class, String[].class), String.class, String[].class); } catch (Exception e) {BuiltIn.handle(e, "java.nio.file.Path");} }
         }
+        private void registerConverter(Class<?> cls, ITypeConverter<?> converter) {
+            converterRegistry.put(cls, converter);
+            converterRegistryKey = new Object();
+        }
+        private void copyConverters(Interpreter other) {
+            converterRegistry.clear();
+            converterRegistry.putAll(other.converterRegistry);
+            converterRegistryKey = new Object();
+        }
         private boolean excl(String fqcn) { return BuiltIn.excluded(fqcn); }
         private void reg(Class<?> cls, Method method, Class<?>... paramTypes) {
             converterRegistry.put(cls, new BuiltIn.ReflectionConverter(method, paramTypes));
@@ -13485,6 +14688,7 @@ public class CommandLine {
          */
         List<CommandLine> parse(String... args) {
             Assert.notNull(args, "argument array");
+            getCommandSpec(); // a lazy subcommand may be parsed directly
             Tracer tracer = tracer();
             if (tracer.isInfo()) {
                 tracer.info("Picocli version: %s", versionString());}
@@ -13495,10 +14699,11 @@ public class CommandLine {
             if (tracer.isDebug()){
                 tracer.debug("(ANSI is %s by default: systemproperty[picocli.ansi]=%s, isatty=%s, TERM=%s, OSTYPE=%s, isWindows=%s, JansiConsoleInstalled=%s, ANSICON=%s, ConEmuANSI=%s, NO_COLOR=%s, CLICOLOR=%s, CLICOLOR_FORCE=%s)",
                     Help.Ansi.AUTO.enabled() ? "enabled" : "disabled", System.getProperty("picocli.ansi"), Help.Ansi.isTTY(), System.getenv("TERM"), System.getenv("OSTYPE"), Help.Ansi.isWindows(), Help.Ansi.isJansiConsoleInstalled(), System.getenv("ANSICON"), System.getenv("ConEmuANSI"), System.getenv("NO_COLOR"), System.getenv("CLICOLOR"), System.getenv("CLICOLOR_FORCE"));}
-            List<String> expanded = new ArrayList<String>();
+            List<String> expanded = new ArrayList<String>(args.length);
             for (String arg : args) { addOrExpand(arg, expanded, new LinkedHashSet<String>()); }
             Stack<String> arguments = new Stack<String>();
-            arguments.addAll(reverseList(expanded));
+            arguments.ensureCapacity(expanded.size());
+            for (int i = expanded.size() - 1; i >= 0; i--) { arguments.push(expanded.get(i)); }
             List<CommandLine> result = new ArrayList<CommandLine>();
             parse(result, arguments, args, new ArrayList<Object>(), new HashSet<ArgSpec>());
             return result;
@@ -13533,16 +14738,20 @@ public class CommandLine {
             }
         }
         private void expandValidArgumentFile(String fileName, File file, List<String> arguments, Set<String> visited) {
-            List<String> result = new ArrayList<String>();
-            LineNumberReader reader = null;
+            int start = arguments.size();
+            Reader reader = null;
             try {
                 visited.add(file.getAbsolutePath());
-                reader = new LineNumberReader(new FileReader(file));
+                Charset charset = commandSpec.parser().atFileCharset();
+                reader = new BufferedReader(new InputStreamReader(new FileInputStream(file),
+                        charset == null ? Charset.defaultCharset() : charset), AT_FILE_BUFFER_SIZE);
+                Character commentChar = commandSpec.parser().atFileCommentChar();
                 if (commandSpec.parser().useSimplifiedAtFiles()) {
+                    BufferedReader lines = (BufferedReader) reader;
                     String token;
-                    while ((token = reader.readLine()) != null) {
-                        if (token.length() > 0 && !token.trim().startsWith(String.valueOf(commandSpec.parser().atFileCommentChar()))) {
-                            addOrExpand(token, result, visited);
+                    while ((token = lines.readLine()) != null) {
+                        if (token.length() > 0 && !isCommentLine(token, commentChar)) {
+                            addOrExpand(token, arguments, visited);
                         }
                     }
                 } else {
@@ -13552,11 +14761,11 @@ public class CommandLine {
                     tok.whitespaceChars(0, ' ');
                     tok.quoteChar('"');
                     tok.quoteChar('\'');
-                    if (commandSpec.parser().atFileCommentChar() != null) {
-                        tok.commentChar(commandSpec.parser().atFileCommentChar());
+                    if (commentChar != null) {
+                        tok.commentChar(commentChar);
                     }
                     while (tok.nextToken() != StreamTokenizer.TT_EOF) {
-                        addOrExpand(tok.sval, result, visited);
+                        addOrExpand(tok.sval, arguments, visited);
                     }
                 }
             } catch (Exception ex) {
@@ -13566,17 +14775,33 @@ public class CommandLine {
             }
             Tracer tracer = tracer();
             if (tracer.isInfo()) {
-                tracer.info("Expanded file @%s to arguments %s", fileName, result);}
-            arguments.addAll(result);
+                tracer.info("Expanded file @%s to arguments %s", fileName, arguments.subList(start, arguments.size()));}
+        }
+        /** Returns {@code true} if the first non-whitespace character of the specified line is the comment character. */
+        private boolean isCommentLine(String line, Character commentChar) {
+            if (commentChar == null) { return false; }
+            int i = 0;
+            while (i < line.length() && line.charAt(i) <= ' ') { i++; }
+            return i < line.length() && line.charAt(i) == commentChar.charValue();
         }
         private void clear() {
             getCommandSpec().userObject(); // #690 instantiate user object when cmd matched on the command line
             position = 0;
             endOfOptions = false;
             isHelpRequested = false;
+            arrayBuffers.clear();
+            arrayBufferOrder.clear();
             parseResultBuilder = ParseResult.builder(getCommandSpec());
-            for (OptionSpec option : getCommandSpec().options())                            { clear(option); }
-            for (PositionalParamSpec positional : getCommandSpec().positionalParameters())  { clear(positional); }
+            int argCount = getCommandSpec().args().size();
+            if (resetTouchedArgsOnly && touchedArgs != null && argCountAtLastReset == argCount) {
+                for (ArgSpec touched : touchedArgs.keySet())                                { clear(touched); }
+                touchedArgs.clear();
+            } else {
+                for (OptionSpec option : getCommandSpec().options())                        { clear(option); }
+                for (PositionalParamSpec positional : getCommandSpec().positionalParameters()) { clear(positional); }
+                touchedArgs = resetTouchedArgsOnly ? new IdentityHashMap<ArgSpec, Boolean>() : null;
+                argCountAtLastReset = argCount;
+            }
             for (ArgGroupSpec group : getCommandSpec().argGroups())                         { clear(group); }
             for (UnmatchedArgsBinding unmatched : getCommandSpec().unmatchedArgsBindings()) { unmatched.clear(); }
         }
@@ -13586,7 +14811,7 @@ public class CommandLine {
             argSpec.typedValues.clear();
             argSpec.typedValueAtPosition.clear();
             if (argSpec.inherited()) { //inherited args are cleared only at their origin
-                tracer().debug("Not applying initial value for inherited %s", optionDescription("", argSpec, -1));
+                if (tracer().isDebug()) { tracer().debug("Not applying initial value for inherited %s", optionDescription("", argSpec, -1)); }
             } else { // groups do their own initialization;
                 if (argSpec.group() == null) { argSpec.applyInitialValue(); }
             }
@@ -13638,6 +14863,7 @@ public class CommandLine {
                 int stackSize = argumentStack.size();
                 try {
                     processArguments(parsedCommands, argumentStack, required, initialized, originalArgs, nowProcessing);
+                    applyArrayBuffers();
                     applyDefaultValues(required, initialized);
                 } catch (InitializationException ex) {
                     maybeThrow(ex);
@@ -13647,6 +14873,8 @@ public class CommandLine {
                     int offendingArgIndex = originalArgs.length - argumentStack.size() - 1;
                     String arg = offendingArgIndex >= 0 && offendingArgIndex < originalArgs.length ? originalArgs[offendingArgIndex] : "?";
                     maybeThrow(ParameterException.create(CommandLine.this, ex, arg, offendingArgIndex, originalArgs));
+                } finally {
+                    applyArrayBuffers(); // assign the values matched before the error
                 }
                 if (continueOnError && stackSize == argumentStack.size() && stackSize > 0) {
                     parseResultBuilder.addUnmatched(parseResultBuilder.totalArgCount() - argumentStack.size(), argumentStack.pop());
@@ -13719,11 +14947,11 @@ public class CommandLine {
         private void applyDefaultValues(List<ArgSpec> required, Set<ArgSpec> initialized) throws Exception {
             parseResultBuilder.isInitializingDefaultValues = true;
             Tracer tracer = CommandLine.tracer();
-            tracer.debug("Applying default values for command '%s'", CommandLine.this.commandSpec.qualifiedName());
+            if (tracer.isDebug()) { tracer.debug("Applying default values for command '%s'", CommandLine.this.commandSpec.qualifiedName()); }
             for (ArgSpec arg : commandSpec.args()) {
                 if (arg.group() == null && !initialized.contains(arg)) {
                     if (arg.inherited()) {
-                        tracer.debug("Not applying default value for inherited %s", optionDescription("", arg, -1));
+                        if (tracer.isDebug()) { tracer.debug("Not applying default value for inherited %s", optionDescription("", arg, -1)); }
                     } else {
                         if (applyDefault(commandSpec.defaultValueProvider(), arg)) { required.remove(arg); }
                     }
@@ -13736,11 +14964,11 @@ public class CommandLine {
         }
         private void applyGroupDefaults(IDefaultValueProvider defaultValueProvider, ArgGroupSpec group, List<ArgSpec> required, Set<ArgSpec> initialized) throws Exception {
             Tracer tracer = CommandLine.tracer();
-            tracer.debug("Applying default values for group '%s'", group.synopsis());
+            if (tracer.isDebug()) { tracer.debug("Applying default values for group '%s'", group.synopsis()); }
             for (ArgSpec arg : group.args()) {
                 if (arg.scope().get() != null && !initialized.contains(arg)) {
                     if (arg.inherited()) {
-                        tracer.debug("Not applying default value for inherited %s", optionDescription("", arg, -1));
+                        if (tracer.isDebug()) { tracer.debug("Not applying default value for inherited %s", optionDescription("", arg, -1)); }
                     } else {
                         if (applyDefault(defaultValueProvider, arg)) { required.remove(arg); }
                     }
@@ -13774,6 +15002,7 @@ public class CommandLine {
                     } else {
                         if (tracer.isDebug()) {
                             tracer.debug("Applying Optional.empty() to %s on %s", arg, arg.scopeString());}
+                        touch(arg);
                         arg.setValue(getOptionalEmpty());
                     }
                     arg.valueIsDefaultValue = true;
@@ -13785,6 +15014,7 @@ public class CommandLine {
                         defaultValue = null;
                         if (tracer.isDebug()) {
                             tracer.debug("Applying defaultValue (%s)%s to %s on %s", displayDefaultVal, provider, arg, arg.scopeString());}
+                        touch(arg);
                         arg.setValue(defaultValue);
                         arg.valueIsDefaultValue = true;
                         return true;
@@ -13846,9 +15076,9 @@ public class CommandLine {
                 }
 
                 // if we find another command, we are done with the current command
-                CommandLine subcommand = commandSpec.subcommands().get(arg);
+                CommandLine subcommand = commandSpec.commands.get(arg);
                 if (subcommand == null && commandSpec.parser().abbreviatedSubcommandsAllowed()) {
-                    subcommand = AbbreviationMatcher.match(commandSpec.subcommands(), arg, commandSpec.subcommandsCaseInsensitive(), CommandLine.this).getValue();
+                    subcommand = commandSpec.subcommandAbbreviations().match(arg, CommandLine.this).getValue();
                 }
                 if (subcommand != null) {
                     processSubcommand(subcommand, parseResultBuilder, parsedCommands, args, required, initialized, originalArgs, nowProcessing, separator, arg);
@@ -13856,9 +15086,9 @@ public class CommandLine {
                 }
                 CommandSpec parent = commandSpec.parent();
                 if (parent != null && parent.subcommandsRepeatable()) {
-                    subcommand = parent.subcommands().get(arg);
+                    subcommand = parent.commands.get(arg);
                     if (subcommand == null && parent.parser().abbreviatedSubcommandsAllowed()) {
-                        subcommand = AbbreviationMatcher.match(parent.subcommands(), arg, parent.subcommandsCaseInsensitive(), CommandLine.this).getValue();
+                        subcommand = parent.subcommandAbbreviations().match(arg, CommandLine.this).getValue();
                     }
                     if (subcommand != null) {
                         tracer.debug("'%s' is a repeatable subcommand of %s", arg,
@@ -13881,21 +15111,18 @@ public class CommandLine {
                 // A single option may be without option parameters, like "-v" or "--verbose" (a boolean value),
                 // or an option may have one or more option parameters.
                 // A parameter may be attached to the option.
-                LinkedHashMap<String, OptionSpec> aggregatedOptions = new LinkedHashMap<String, OptionSpec>();
-                if (commandSpec.parser().abbreviatedOptionsAllowed()) {
-                    aggregatedOptions.putAll(commandSpec.optionsMap());
-                    aggregatedOptions.putAll(commandSpec.negatedOptionsMap());
-                    arg = AbbreviationMatcher.match(aggregatedOptions, arg, commandSpec.optionsCaseInsensitive(), CommandLine.this).getFullName();
+                boolean abbreviatedOptionsAllowed = commandSpec.parser().abbreviatedOptionsAllowed();
+                if (abbreviatedOptionsAllowed) {
+                    arg = commandSpec.optionAbbreviations().match(arg, CommandLine.this).getFullName();
                 }
                 LookBehind lookBehind = LookBehind.SEPARATE;
                 int separatorIndex = arg.indexOf(separator);
                 if (separatorIndex > 0) {
-                    String key = arg.substring(0, separatorIndex);
-                    key = AbbreviationMatcher.match(aggregatedOptions, key, commandSpec.optionsCaseInsensitive(), CommandLine.this).getFullName(); //#1159, #1162
+                    String key = standaloneOptionName(arg, separatorIndex, abbreviatedOptionsAllowed);
                     // be greedy. Consume the whole arg as an option if possible.
-                    if (isStandaloneOption(key) && isStandaloneOption(arg)) {
+                    if (key != null && isStandaloneOption(arg)) {
                         tracer.warn("Both '%s' and '%s' are valid option names in %s. Using '%s'...", arg, key, getCommandName(), arg);
-                    } else if (isStandaloneOption(key)) {
+                    } else if (key != null) {
                         lookBehind = LookBehind.ATTACHED_WITH_SEPARATOR;
                         String optionParam = arg.substring(separatorIndex + separator.length());
                         args.push(optionParam);
@@ -13904,7 +15131,7 @@ public class CommandLine {
                             tracer.debug("Separated '%s' option from '%s' option parameter", key, optionParam);}
                     } else {
                         if (tracer.isDebug()) {
-                            tracer.debug("'%s' contains separator '%s' but '%s' is not a known option", arg, separator, key);}
+                            tracer.debug("'%s' contains separator '%s' but '%s' is not a known option", arg, separator, arg.substring(0, separatorIndex));}
                     }
                 } else {
                     if (tracer.isDebug()) {
@@ -13934,13 +15161,14 @@ public class CommandLine {
 
         private void processSubcommand(CommandLine subcommand, ParseResult.Builder builder, List<CommandLine> parsedCommands, Stack<String> args, Collection<ArgSpec> required, Set<ArgSpec> initialized, String[] originalArgs, List<Object> nowProcessing, String separator, String arg) {
             Tracer tracer = CommandLine.tracer();
+            CommandSpec subSpec = subcommand.getCommandSpec(); // initializes lazy subcommands
             if (tracer.isDebug()) {
-                tracer.debug("Found subcommand '%s' (%s)", arg, subcommand.commandSpec.toString());}
-            nowProcessing.add(subcommand.commandSpec);
-            updateHelpRequested(subcommand.commandSpec);
+                tracer.debug("Found subcommand '%s' (%s)", arg, subSpec.toString());}
+            nowProcessing.add(subSpec);
+            updateHelpRequested(subSpec);
             List<ArgSpec> inheritedRequired = new ArrayList<ArgSpec>();
             if (tracer.isDebug()) {
-                tracer.debug("Checking required args for parent %s...", subcommand.commandSpec.parent());}
+                tracer.debug("Checking required args for parent %s...", subSpec.parent());}
             Iterator<ArgSpec> requiredIter = required.iterator();
             while (requiredIter.hasNext()) {
                 ArgSpec requiredArg = requiredIter.next();
@@ -13954,14 +15182,41 @@ public class CommandLine {
             if (!isAnyHelpRequested() && !required.isEmpty()) { // ensure current command portion is valid
                 throw MissingParameterException.create(CommandLine.this, required, separator);
             }
+            applyArrayBuffers(); // inherited options of the subcommand may append to these values
             Set<ArgSpec> inheritedInitialized = new LinkedHashSet<ArgSpec>();
-            subcommand.interpreter.parse(parsedCommands, args, originalArgs, nowProcessing, inheritedRequired, inheritedInitialized);
+            boolean subcommandResetTouchedArgsOnly = subcommand.interpreter.resetTouchedArgsOnly;
+            subcommand.interpreter.resetTouchedArgsOnly = resetTouchedArgsOnly;
+            try {
+                subcommand.interpreter.parse(parsedCommands, args, originalArgs, nowProcessing, inheritedRequired, inheritedInitialized);
+            } finally {
+                subcommand.interpreter.resetTouchedArgsOnly = subcommandResetTouchedArgsOnly;
+            }
             initialized.addAll(inheritedInitialized);
+            if (touchedArgs != null) { for (ArgSpec inherited : inheritedInitialized) { touch(inherited); } }
             builder.subcommand(subcommand.interpreter.parseResultBuilder.build());
         }
 
         private boolean isStandaloneOption(String arg) {
-            return commandSpec.optionsMap().containsKey(arg) || commandSpec.negatedOptionsMap().containsKey(arg);
+            OptionTrie trie = caseSensitiveOptionTrie();
+            if (trie != null) { return trie.name(arg, arg.length()) != null; }
+            return commandSpec.optionsByNameMap.containsKey(arg) || commandSpec.negatedOptionsByNameMap.containsKey(arg);
+        }
+
+        /** Returns the prefix tree of option names if option names are case-sensitive, otherwise {@code null}. */
+        private OptionTrie caseSensitiveOptionTrie() {
+            return commandSpec.optionsCaseInsensitive() ? null : commandSpec.optionTrie();
+        }
+
+        /** Returns the option name (or negated option name) formed by the first {@code length} characters of the
+         * specified argument, or {@code null} if these characters are not an option name. */
+        private String standaloneOptionName(String arg, int length, boolean abbreviatedOptionsAllowed) {
+            OptionTrie trie = caseSensitiveOptionTrie();
+            if (trie != null && !abbreviatedOptionsAllowed) { return trie.name(arg, length); }
+            String key = arg.substring(0, length);
+            if (abbreviatedOptionsAllowed) {
+                key = commandSpec.optionAbbreviations().match(key, CommandLine.this).getFullName(); //#1159, #1162
+            }
+            return isStandaloneOption(key) ? key : null;
         }
         private void handleUnmatchedArgument(Stack<String> args) throws Exception {
             if (!args.isEmpty()) {
@@ -13975,6 +15230,12 @@ public class CommandLine {
                 processPositionalParameter(required, initialized, false, args);
             }
         }
+        /** Returns {@code true} if applying the specified positional parameter can only inspect and consume the next argument,
+         * so it does not need a copy of the complete argument stack. Custom preprocessors and parameter consumers may inspect any argument. */
+        private boolean consumesAtMostNextArg(PositionalParamSpec positionalParam, Range arity) {
+            return arity.max <= 1 && !positionalParam.interactive() && positionalParam.parameterConsumer() == null
+                    && positionalParam.preprocessor() instanceof NoOpParameterPreprocessor;
+        }
         private void processPositionalParameter(Collection<ArgSpec> required, Set<ArgSpec> initialized, boolean alreadyUnquoted, Stack<String> args) throws Exception {
             final Tracer tracer = CommandLine.tracer();
             String arg = args.peek();
@@ -14014,8 +15275,8 @@ public class CommandLine {
                         continue;
                     }
                 }
-                Stack<String> argsCopy = copy(args);
                 Range arity = positionalParam.arity();
+                Stack<String> argsCopy = consumesAtMostNextArg(positionalParam, arity) ? copyTop(args, 1) : copy(args); // avoid copying large @-files for every positional
                 if (tracer.isDebug()) {
                     tracer.debug("Position %s is in index range %s. Trying to assign args to %s, arity=%s", positionDesc(positionalParam), indexRange.internalToString(), positionalParam, arity);}
                 if (!assertNoMissingParameters(positionalParam, arity, argsCopy)) { break; } // #389 collectErrors parsing
@@ -14079,9 +15340,9 @@ public class CommandLine {
                                              boolean alreadyUnquoted,
                                              Stack<String> args,
                                              LookBehind lookBehind) throws Exception {
-            ArgSpec argSpec = commandSpec.optionsMap().get(arg);
+            ArgSpec argSpec = commandSpec.optionsByNameMap.get(arg);
             boolean negated = argSpec == null;
-            if (negated) { argSpec = commandSpec.negatedOptionsMap().get(arg); }
+            if (negated) { argSpec = commandSpec.negatedOptionsByNameMap.get(arg); }
             required.remove(argSpec);
             Range arity = argSpec.arity();
             if (lookBehind.isAttached()) {
@@ -14105,8 +15366,8 @@ public class CommandLine {
             boolean first = true;
             Tracer tracer = CommandLine.tracer();
             do {
-                if (cluster.length() > 0 && commandSpec.posixOptionsMap().containsKey(cluster.charAt(0))) {
-                    ArgSpec argSpec = commandSpec.posixOptionsMap().get(cluster.charAt(0));
+                ArgSpec argSpec = cluster.length() > 0 ? commandSpec.posixOptionsByKeyMap.get(cluster.charAt(0)) : null;
+                if (argSpec != null) {
                     Range arity = argSpec.arity();
                     String argDescription = "option " + prefix + cluster.charAt(0);
                     if (tracer.isDebug()) {
@@ -14187,6 +15448,9 @@ public class CommandLine {
             updateHelpRequested(argSpec);
 
             parseResultBuilder.beforeMatchingGroupElement(argSpec); //#1004 ensure groups are initialized before calling parameter consumer
+            if (!arrayBuffers.isEmpty() && (argSpec.parameterConsumer() != null || !(argSpec.preprocessor() instanceof NoOpParameterPreprocessor))) {
+                applyArrayBuffers(); // custom preprocessors and parameter consumers may inspect the values of array options
+            }
 
             int originalSize = args.size();
             Map<String, Object> info = mapOf(
@@ -14235,7 +15499,11 @@ public class CommandLine {
             return result;
         }
 
+        private void touch(ArgSpec argSpec) {
+            if (touchedArgs != null) { touchedArgs.put(argSpec, Boolean.TRUE); }
+        }
         private void addToInitialized(ArgSpec argSpec, Set<ArgSpec> initialized) {
+            touch(argSpec);
             initialized.add(argSpec);
             ArgSpec rootArgSpec = argSpec.root();
             if (rootArgSpec != null) {
@@ -14354,7 +15622,7 @@ public class CommandLine {
                     if (interactiveValue != null) {
                         actualValue = new String(interactiveValue);
                     }
-                    ITypeConverter<?> converter = getTypeConverter(argSpec.auxiliaryTypes(), argSpec, 0);
+                    ITypeConverter<?> converter = getTypeConverter(argSpec, 0);
                     newValue = tryConvert(argSpec, -1, converter, actualValue, 0);
                 } else { // type is char[], no type conversion needed
                     if (interactiveValue == null) { // setting command line arg to char[] field
@@ -14403,7 +15671,7 @@ public class CommandLine {
             Tracer tracer = CommandLine.tracer();
             boolean shouldReset = argSpec.group() != null && !parseResultBuilder.isInitializingDefaultValues && argSpec.valueIsDefaultValue; // #2349 bugfix for ArgGroup / Set / default value
             if (map == null || !initialized.contains(argSpec) || shouldReset) {
-                tracer.debug("Initializing binding for %s on %s with empty %s", optionDescription("", argSpec, 0), argSpec.scopeString(), argSpec.type().getSimpleName());
+                if (tracer.isDebug()) { tracer.debug("Initializing binding for %s on %s with empty %s", optionDescription("", argSpec, 0), argSpec.scopeString(), argSpec.type().getSimpleName()); }
                 map = createMap(argSpec.type()); // map class
                 argSpec.setValue(map);
                 argSpec.valueIsDefaultValue = false;
@@ -14429,8 +15697,8 @@ public class CommandLine {
             int currentPosition = getPosition(argSpec);
 
             Class<?>[] classes = argSpec.auxiliaryTypes();
-            ITypeConverter<?> keyConverter   = getTypeConverter(classes, argSpec, 0);
-            ITypeConverter<?> valueConverter = getTypeConverter(classes, argSpec, 1);
+            ITypeConverter<?> keyConverter   = getTypeConverter(argSpec, 0);
+            ITypeConverter<?> valueConverter = getTypeConverter(argSpec, 1);
 
             // first do the arity.min mandatory parameters
             int initialSize = argSpec.stringValues().size();
@@ -14584,30 +15852,31 @@ public class CommandLine {
                                             Stack<String> args,
                                             Set<ArgSpec> initialized,
                                             String argDescription) throws Exception {
-            Object existing = argSpec.getValue();
-            int length = existing == null ? 0 : Array.getLength(existing);
+            boolean deferred = argSpec.group() == null && !parseResultBuilder.isInitializingDefaultValues; // group instances may change while parsing
+            ArrayBuffer buffer = deferred ? arrayBuffers.get(argSpec) : null;
+            Object existing = buffer == null ? argSpec.getValue() : null;
             int pos = getPosition(argSpec);
             List<Object> converted = consumeArguments(argSpec, negated, lookBehind, alreadyUnquoted, alreadyUnquoted, arity, args, argDescription);
-            List<Object> newValues = new ArrayList<Object>();
             boolean shouldReset = argSpec.group() != null && !parseResultBuilder.isInitializingDefaultValues && argSpec.valueIsDefaultValue; // #2349 bugfix for ArgGroup / Set / default value
-            if (initialized.contains(argSpec) || shouldReset) { // existing values are default values if initialized does NOT contain argsSpec
-                for (int i = 0; i < length; i++) {
-                    newValues.add(Array.get(existing, i)); // keep non-default values
+            if (buffer == null) {
+                buffer = new ArrayBuffer(argSpec.auxiliaryTypes()[0]);
+                if (existing != null && (initialized.contains(argSpec) || shouldReset)) { // existing values are default values if initialized does NOT contain argsSpec
+                    buffer.addAll(existing); // keep non-default values
                 }
             }
             addToInitialized(argSpec, initialized);
             for (Object obj : converted) {
                 if (obj instanceof Collection<?>) {
-                    newValues.addAll((Collection<?>) obj);
+                    for (Object element : (Collection<?>) obj) { buffer.add(element); }
                 } else {
-                    newValues.add(obj);
+                    buffer.add(obj);
                 }
             }
-            Object array = Array.newInstance(argSpec.auxiliaryTypes()[0], newValues.size());
-            for (int i = 0; i < newValues.size(); i++) {
-                Array.set(array, i, newValues.get(i));
+            if (deferred) {
+                if (arrayBuffers.put(argSpec, buffer) == null) { arrayBufferOrder.add(argSpec); } // assigned once by applyArrayBuffers
+            } else {
+                argSpec.setValue(buffer.toArray());
             }
-            argSpec.setValue(array);
             if (shouldReset) {
                 argSpec.valueIsDefaultValue = false;
             }
@@ -14615,6 +15884,29 @@ public class CommandLine {
             return converted.size(); // return how many args were consumed
         }
 
+        /** Assigns the values collected in the array buffers to their array options and positional parameters.
+         * Accumulating the values of repeated options in a buffer takes linear time, where creating a new array
+         * for each occurrence would take quadratic time.
+         * Values are assigned in the order in which the options and positional parameters were first matched.
+         * A buffer is only discarded once its value has been passed to the setter, so if a setter throws an exception,
+         * the values of the remaining options are still assigned by the next call. */
+        private void applyArrayBuffers() throws PicocliException {
+            if (arrayBufferOrder.isEmpty()) { return; }
+            int assigned = 0;
+            try {
+                for (ArgSpec argSpec : arrayBufferOrder) {
+                    try {
+                        argSpec.setValue(arrayBuffers.get(argSpec).toArray());
+                    } finally {
+                        arrayBuffers.remove(argSpec);
+                        assigned++;
+                    }
+                }
+            } finally {
+                arrayBufferOrder.subList(0, assigned).clear();
+            }
+        }
+
         private int applyValuesToCollectionField(ArgSpec argSpec,
                                                  boolean negated,
                                                  LookBehind lookBehind,
@@ -14628,7 +15920,7 @@ public class CommandLine {
             List<Object> converted = consumeArguments(argSpec, negated, lookBehind, alreadyUnquoted, alreadyUnquoted, arity, args, argDescription);
             boolean shouldReset = argSpec.group() != null && !parseResultBuilder.isInitializingDefaultValues && argSpec.valueIsDefaultValue; // #2349 bugfix for ArgGroup / Set / default value
             if (collection == null ||  !initialized.contains(argSpec) || shouldReset)  {
-                tracer().debug("Initializing binding for %s on %s with empty %s", optionDescription("", argSpec, 0), argSpec.scopeString(), argSpec.type().getSimpleName());
+                if (tracer().isDebug()) { tracer().debug("Initializing binding for %s on %s with empty %s", optionDescription("", argSpec, 0), argSpec.scopeString(), argSpec.type().getSimpleName()); }
                 collection = createCollection(argSpec.type(), argSpec.auxiliaryTypes()); // collection type, element type
                 argSpec.setValue(collection);
                 argSpec.valueIsDefaultValue = false;
@@ -14744,7 +16036,7 @@ public class CommandLine {
             parseResultBuilder.addStringValue(argSpec, maskedValue);
             parseResultBuilder.addOriginalStringValue(argSpec, maskedValue);
             if (!char[].class.equals(argSpec.auxiliaryTypes()[0]) && !char[].class.equals(argSpec.type())) {
-                Object value = tryConvert(argSpec, consumed, getTypeConverter(argSpec.auxiliaryTypes(), argSpec, 0), new String(input), 0);
+                Object value = tryConvert(argSpec, consumed, getTypeConverter(argSpec, 0), new String(input), 0);
                 result.add(value);
             } else {
                 result.add(input);
@@ -14765,7 +16057,7 @@ public class CommandLine {
                                        String argDescription) {
             if (!lookBehind.isAttached()) { parseResultBuilder.nowProcessing(argSpec, arg); }
             String[] values = unquoteAndSplit(argSpec, lookBehind, alreadyUnquoted, arity, consumed, arg);
-            ITypeConverter<?> converter = getTypeConverter(argSpec.auxiliaryTypes(), argSpec, 0);
+            ITypeConverter<?> converter = getTypeConverter(argSpec, 0);
             for (String value : values) {
                 Object stronglyTypedValue = tryConvert(argSpec, index, converter, value, 0);
                 result.add(stronglyTypedValue);
@@ -14780,7 +16072,7 @@ public class CommandLine {
         }
         private boolean canConsumeOneArgument(ArgSpec argSpec, LookBehind lookBehind, boolean alreadyUnquoted, Range arity, int consumed, String arg, String argDescription) {
             if (char[].class.equals(argSpec.auxiliaryTypes()[0]) || char[].class.equals(argSpec.type())) { return true; }
-            ITypeConverter<?> converter = getTypeConverter(argSpec.auxiliaryTypes(), argSpec, 0);
+            ITypeConverter<?> converter = getTypeConverter(argSpec, 0);
             try {
                 String[] values = unquoteAndSplit(argSpec, lookBehind, alreadyUnquoted, arity, consumed, arg);
 //                if (!argSpec.acceptsValues(values.length, commandSpec.parser())) {
@@ -14823,19 +16115,18 @@ public class CommandLine {
             if (isEndOfOptionsDelimiter(arg)) return true;
 
             // not just arg prefix: we may be in the middle of parsing -xrvfFILE
-            if (commandSpec.optionsMap().containsKey(arg)) { // -v or -f or --file (not attached to param or other option)
-                return true;
-            }
-            if (commandSpec.negatedOptionsByNameMap.containsKey(arg)) { // negated option like --no-verbose
+            if (isStandaloneOption(arg)) { // -v or -f or --file or --no-verbose (not attached to param or other option)
                 return true;
             }
             int separatorIndex = arg.indexOf(config().separator());
             if (separatorIndex > 0) { // -f=FILE or --file==FILE (attached to param via separator)
-                if (commandSpec.optionsMap().containsKey(arg.substring(0, separatorIndex))) {
+                OptionTrie trie = caseSensitiveOptionTrie();
+                String key = trie == null ? arg.substring(0, separatorIndex) : trie.name(arg, separatorIndex);
+                if (key != null && commandSpec.optionsByNameMap.containsKey(key)) {
                     return true;
                 }
             }
-            return (arg.length() > 2 && arg.startsWith("-") && commandSpec.posixOptionsMap().containsKey(arg.charAt(1)));
+            return (arg.length() > 2 && arg.startsWith("-") && commandSpec.posixOptionsByKeyMap.containsKey(arg.charAt(1)));
         }
 
         private boolean isCommand(String arg) {
@@ -14898,8 +16189,25 @@ public class CommandLine {
         @SuppressWarnings("unchecked") private Map<Object, Object> createMap(Class<?> mapClass) throws Exception {
             return (Map<Object, Object>) factory.create(mapClass);
         }
-        private ITypeConverter<?> getTypeConverter(Class<?>[] types, final ArgSpec argSpec, int index) {
-            if (argSpec.converters().length > index && !argSpec.converters()[index].getClass().equals(UseDefaultConverter.class)) { return argSpec.converters()[index]; } // use custom converters if defined
+        /** Returns the converter for the specified type index of the specified {@code ArgSpec}. The converter is resolved
+         * on first use and cached on the {@code ArgSpec} until the converter registry of this {@code CommandLine} changes. */
+        private ITypeConverter<?> getTypeConverter(ArgSpec argSpec, int index) {
+            ITypeConverter<?>[] resolved = argSpec.resolvedConverters;
+            if (resolved == null || argSpec.resolvedConvertersKey != converterRegistryKey) {
+                resolved = new ITypeConverter<?>[Math.max(2, argSpec.auxiliaryTypes().length)];
+                argSpec.resolvedConverters = resolved;
+                argSpec.resolvedConvertersKey = converterRegistryKey;
+            } else if (index < resolved.length && resolved[index] != null) {
+                return resolved[index];
+            }
+            ITypeConverter<?> result = resolveTypeConverter(argSpec.auxiliaryTypes(), argSpec, index);
+            if (index < resolved.length) { resolved[index] = result; }
+            return result;
+        }
+
+        private ITypeConverter<?> resolveTypeConverter(Class<?>[] types, final ArgSpec argSpec, int index) {
+            ITypeConverter<?>[] custom = argSpec.converters;
+            if (custom.length > index && !custom[index].getClass().equals(UseDefaultConverter.class)) { return custom[index]; } // use custom converters if defined
             Class<?> type = types[index];
             if (isOptional(type)) { // #1214 #1108
                 if (types.length <= index + 1) { throw new PicocliException("Cannot create converter for types " + Arrays.asList(types) + " for " + argSpec); }
@@ -14968,7 +16276,7 @@ public class CommandLine {
             }
             String stringValue = String.valueOf(value);
             if (empty(stringValue) || "null".equals(stringValue) || "Optional.empty".equals(value)) { return false; }
-            ITypeConverter<?> converter = getTypeConverter(argSpec.auxiliaryTypes(), argSpec, 0);
+            ITypeConverter<?> converter = getTypeConverter(argSpec, 0);
             return (Boolean) tryConvert(argSpec, -1, converter, stringValue, 0);
         }
 
@@ -15349,8 +16657,9 @@ public class CommandLine {
             }
             return false;
         }
-        static Set<String> traced = new HashSet<String>();
+        static Set<String> traced = Collections.synchronizedSet(new HashSet<String>());
         static class ReflectionConverter implements ITypeConverter<Object> {
+            private static final String[] NO_MORE = new String[0];
             private final Method method;
             private final Class<?>[] paramTypes;
 
@@ -15362,7 +16671,7 @@ public class CommandLine {
             public Object convert(String s) {
                 try {
                     if (paramTypes.length > 1) {
-                        return method.invoke(null, s, new String[0]);
+                        return method.invoke(null, s, NO_MORE);
                     } else {
                         return method.invoke(null, s);
                     }
@@ -15436,8 +16745,7 @@ public class CommandLine {
                 Map<String, CommandLine> parentSubcommands = parent.getCommandSpec().subcommands();
                 CommandLine subcommand = parentSubcommands.get(commands);
                 if (subcommand == null && parent.isAbbreviatedSubcommandsAllowed()) {
-                    subcommand = AbbreviationMatcher.match(parentSubcommands, commands,
-                        parent.isSubcommandsCaseInsensitive(), self).getValue();
+                    subcommand = parent.getCommandSpec().subcommandAbbreviations().match(commands, self).getValue();
                 }
                 if (subcommand != null) {
                     if (outWriter != null) {
@@ -15540,6 +16848,30 @@ public class CommandLine {
         String render(Help help);
     }
 
+    /**
+     * A help section renderer that can write its section directly into an {@code Appendable}, like a {@code Writer}
+     * or a {@code StringBuilder}, instead of returning it as a String.
+     * <p>
+     * When the usage help message is printed to a {@code PrintWriter} or {@code Appendable}, picocli calls the
+     * {@link #write(Help, Appendable)} method of renderers that implement this interface, so that large sections
+     * do not need to be assembled in memory first. The {@link #render(Help)} method is used when the usage help
+     * message is requested as a String.
+     * </p>
+     * @see CommandLine#usage(Appendable, Help.ColorScheme)
+     * @since 4.7.8
+     */
+    public interface IHelpSectionWriter extends IHelpSectionRenderer {
+        /**
+         * Writes a section of the usage help, like header heading, header, synopsis heading,
+         * synopsis, description heading, description, etc., to the specified {@code Appendable}.
+         * @param help the {@code Help} instance for which to render a section
+         * @param out the {@code Appendable} to write the text for this section to; the text may contain {@linkplain Help.Ansi ANSI} escape codes
+         * @throws IOException if an I/O error occurs while writing
+         * @since 4.7.8
+         */
+        void write(Help help, Appendable out) throws IOException;
+    }
+
     /**
      * A collection of methods and inner classes that provide fine-grained control over the contents and layout of
      * the usage help message to display to end users when help is requested or invalid input values were specified.
@@ -15603,6 +16935,7 @@ public class CommandLine {
         private final ColorScheme colorScheme;
         private final Map<String, Help> allCommands = new LinkedHashMap<String, Help>();
         private final Map<String, Help> visibleCommands = new LinkedHashMap<String, Help>();
+        private final List<Map<String, CommandLine>> pendingSubcommands = new ArrayList<Map<String, CommandLine>>(1);
         private List<String> aliases;
 
         private final IParamLabelRenderer parameterLabelRenderer;
@@ -15640,7 +16973,7 @@ public class CommandLine {
             this.colorScheme = new ColorScheme.Builder(colorScheme).applySystemProperties().build();
             this.parameterLabelRenderer = new DefaultParamLabelRenderer(commandSpec); // uses help separator
 
-            this.registerSubcommands(commandSpec.subcommands());
+            this.addAllSubcommands(commandSpec.subcommands());
             AT_FILE_POSITIONAL_PARAM.commandSpec = commandSpec; // for interpolation
         }
 
@@ -15659,14 +16992,16 @@ public class CommandLine {
         private IHelpFactory getHelpFactory() { return commandSpec.usageMessage().helpFactory(); }
 
         /** Returns the map of non-hidden subcommand {@code Help} instances for this command Help.
+         * The subcommand {@code Help} instances are created when this method or {@link #allSubcommands()} is first called.
          * @since 3.9
          * @see #allSubcommands() */
-        public Map<String, Help> subcommands() { return Collections.unmodifiableMap(visibleCommands); }
+        public Map<String, Help> subcommands() { registerPendingSubcommands(); return Collections.unmodifiableMap(visibleCommands); }
 
         /** Returns the map of all subcommand {@code Help} instances (including hidden commands) for this command Help.
+         * The subcommand {@code Help} instances are created when this method or {@link #subcommands()} is first called.
          * @since 4.4
          * @see #subcommands() */
-        public Map<String, Help> allSubcommands() { return Collections.unmodifiableMap(allCommands); }
+        public Map<String, Help> allSubcommands() { registerPendingSubcommands(); return Collections.unmodifiableMap(allCommands); }
 
         /** Returns the list of aliases for the command in this Help.
          * @since 3.9 */
@@ -15685,18 +17020,28 @@ public class CommandLine {
          * @see #allSubcommands()
          */
         public Help addAllSubcommands(Map<String, CommandLine> subcommands) {
-            if (subcommands != null) {
-                registerSubcommands(subcommands);
+            if (subcommands != null && !subcommands.isEmpty()) {
+                // creating the subcommand Help instances is deferred until they are needed:
+                // otherwise constructing a Help would create Help instances for the full subcommand hierarchy
+                pendingSubcommands.add(new LinkedHashMap<String, CommandLine>(subcommands));
             }
             return this;
         }
 
+        private void registerPendingSubcommands() {
+            if (pendingSubcommands.isEmpty()) { return; }
+            for (Map<String, CommandLine> subcommands : pendingSubcommands) {
+                registerSubcommands(subcommands);
+            }
+            pendingSubcommands.clear();
+        }
+
         private void registerSubcommands(Map<String, CommandLine> subcommands) {
             // first collect aliases
             Map<CommandLine, List<String>> done = new IdentityHashMap<CommandLine, List<String>>();
             for (CommandLine cmd : subcommands.values()) {
                 if (!done.containsKey(cmd)) {
-                    done.put(cmd, new ArrayList<String>(Arrays.asList(cmd.commandSpec.aliases())));
+                    done.put(cmd, new ArrayList<String>(Arrays.asList(cmd.getCommandSpec().aliases())));
                 }
             }
             // then loop over all names that the command was registered with and add this name to the front of the list (if it isn't already in the list)
@@ -15713,7 +17058,7 @@ public class CommandLine {
                 List<String> commandNames = done.remove(commandLine);
                 if (commandNames == null) { continue; }  // we already processed this command by another alias
                 String key = commandNames.toString().substring(1, commandNames.toString().length() - 1);
-                Help sub = getHelpFactory().create(commandLine.commandSpec, colorScheme).withCommandNames(commandNames);
+                Help sub = getHelpFactory().create(commandLine.getCommandSpec(), colorScheme).withCommandNames(commandNames);
                 allCommands.put(key, sub);
                 if (!sub.commandSpec().usageMessage().hidden()) {
                     visibleCommands.put(key, sub);
@@ -15731,6 +17076,7 @@ public class CommandLine {
          */
         @Deprecated public Help addSubcommand(String commandName, Object command) {
             Help sub = getHelpFactory().create(CommandSpec.forAnnotatedObject(command, commandSpec.commandLine().factory), defaultColorScheme(Ansi.AUTO));
+            registerPendingSubcommands();
             visibleCommands.put(commandName, sub);
             allCommands.put(commandName, sub);
             return this;
@@ -16136,13 +17482,23 @@ public class CommandLine {
          * @return the fully formatted portion of the option list for the specified options only (argument groups are not included)
          * @since 4.4 */
         public String optionListExcludingGroups(List<OptionSpec> optionList, Layout layout, Comparator<OptionSpec> optionSort, IParamLabelRenderer valueLabelRenderer) {
+            addAllOptions(optionList, layout, optionSort, valueLabelRenderer);
+            return layout.toString();
+        }
+        private static void addAllOptions(List<OptionSpec> optionList, Layout layout, Comparator<OptionSpec> optionSort, IParamLabelRenderer valueLabelRenderer) {
             List<OptionSpec> options = new ArrayList<OptionSpec>(optionList); // options are stored in order of declaration
             if (optionSort != null) {
                 Collections.sort(options, optionSort); // default: sort options ABC
             }
-
             layout.addAllOptions(options, valueLabelRenderer);
-            return layout.toString();
+        }
+        /** Writes the {@link #optionList()} section row by row; subclasses may override the String methods, so they are only bypassed for plain Help instances. */
+        void writeOptionList(Appendable out) throws IOException {
+            if (getClass() != Help.class) { out.append(optionList()); return; }
+            Layout layout = createDefaultLayout();
+            addAllOptions(excludeHiddenAndGroupOptions(options()), layout, createDefaultOptionSort(), parameterLabelRenderer());
+            layout.table.writeTo(out);
+            out.append(optionListGroupSections());
         }
 
         /**
@@ -16238,6 +17594,13 @@ public class CommandLine {
             layout.addAllPositionalParameters(positionalParams, paramLabelRenderer);
             return layout.toString();
         }
+        /** Writes the {@link #parameterList()} section row by row; subclasses may override the String methods, so they are only bypassed for plain Help instances. */
+        void writeParameterList(Appendable out) throws IOException {
+            if (getClass() != Help.class) { out.append(parameterList()); return; }
+            Layout layout = createDefaultLayout();
+            layout.addAllPositionalParameters(excludeHiddenAndGroupParams(positionalParameters()), parameterLabelRenderer());
+            layout.table.writeTo(out);
+        }
 
         /** Returns true if the usage help should show the at file parameter in the parameter list, otherwise false.
          * @since 4.3 */
@@ -16418,7 +17781,7 @@ public class CommandLine {
          * @param params the parameters to use to format the command list heading
          * @return the formatted command list heading */
         public String commandListHeading(Object... params) {
-            return visibleCommands.isEmpty() ? "" : createHeading(commandSpec.usageMessage().commandListHeading(), params);
+            return subcommands().isEmpty() ? "" : createHeading(commandSpec.usageMessage().commandListHeading(), params);
         }
 
         /** Returns the text displayed before the footer text; the result of {@code String.format(footerHeading, params)}.
@@ -16499,6 +17862,15 @@ public class CommandLine {
          * @since 4.4 */
         public String commandList(Map<String, Help> subcommands) {
             if (subcommands.isEmpty()) { return ""; }
+            return commandTable(subcommands).toString();
+        }
+        /** Writes the {@link #commandList()} section row by row; subclasses may override the String methods, so they are only bypassed for plain Help instances. */
+        void writeCommandList(Appendable out) throws IOException {
+            if (getClass() != Help.class) { out.append(commandList()); return; }
+            Map<String, Help> subcommands = subcommands();
+            if (!subcommands.isEmpty()) { commandTable(subcommands).writeTo(out); }
+        }
+        private TextTable commandTable(Map<String, Help> subcommands) {
             int maxCommandLength = width() / 2;
             int commandLength = Math.min(maxLength(subcommands.keySet()), maxCommandLength);
             Help.TextTable textTable = Help.TextTable.forColumns(colorScheme().ansi(),
@@ -16517,7 +17889,7 @@ public class CommandLine {
                     textTable.addRowValues(i == 0 ? help.commandNamesText(", ") : Ansi.EMPTY_TEXT, lines[i]);
                 }
             }
-            return textTable.toString();
+            return textTable;
         }
         private static int maxLength(Collection<?> any) {
             int result = 0;
@@ -17503,21 +18875,34 @@ public class CommandLine {
              * @param text the StringBuilder to write into
              * @return the specified StringBuilder object (to allow method chaining and a more fluid API) */
             public StringBuilder toString(StringBuilder text) {
+                try {
+                    writeTo(text);
+                    return text;
+                } catch (IOException ex) {
+                    throw new IllegalStateException(ex); // StringBuilder does not throw IOException
+                }
+            }
+            /** Writes the text representation that we built up from the options into the specified Appendable, one row at a time,
+             * without first building the complete table in memory.
+             * @param out the Appendable (for example, a Writer) to write into
+             * @throws IOException if an I/O error occurs while writing
+             * @since 4.7.8 */
+            public void writeTo(Appendable out) throws IOException {
                 int columnCount = this.columns.length;
+                String lineSeparator = System.getProperty("line.separator");
                 StringBuilder row = new StringBuilder(tableWidth);
                 for (int i = 0; i < columnValues.size(); i++) {
                     Text column = columnValues.get(i);
-                    row.append(column.toString());
-                    row.append(new String(spaces(columns[i % columnCount].width - column.length)));
+                    column.toString(row);
+                    for (int pad = columns[i % columnCount].width - column.length; pad > 0; pad--) { row.append(' '); }
                     if (i % columnCount == columnCount - 1) {
                         int lastChar = row.length() - 1;
                         while (lastChar >= 0 && row.charAt(lastChar) == ' ') {lastChar--;} // rtrim
                         row.setLength(lastChar + 1);
-                        text.append(row.toString()).append(System.getProperty("line.separator"));
+                        out.append(row).append(lineSeparator);
                         row.setLength(0);
                     }
                 }
-                return text;
             }
             public String toString() { return toString(new StringBuilder()).toString(); }
         }
@@ -17574,6 +18959,10 @@ public class CommandLine {
             private final List<IStyle> stackTraceStyles;
             private final Ansi ansi;
             private final Map<String, IStyle> markupMap;
+            private final Map<String, Ansi.CompiledMarkup> markupCache;
+
+            /** Compiled markup shared by all color schemes without a custom markup map. */
+            private static final Map<String, Ansi.CompiledMarkup> DEFAULT_MARKUP_CACHE = Ansi.CompiledMarkup.newCache();
 
             /** Constructs a new empty ColorScheme with the specified Ansi enabled mode.
              * @see Help#defaultColorScheme(Ansi)
@@ -17589,6 +18978,7 @@ public class CommandLine {
                 errorStyles       = Collections.unmodifiableList(new ArrayList<IStyle>(builder.errorStyles()));
                 stackTraceStyles  = Collections.unmodifiableList(new ArrayList<IStyle>(builder.stackTraceStyles()));
                 markupMap         = builder.markupMap == null ? null : Collections.unmodifiableMap(new HashMap<String, IStyle>(builder.markupMap));
+                markupCache       = markupMap == null ? DEFAULT_MARKUP_CACHE : Ansi.CompiledMarkup.newCache();
             }
             /** Returns a Text with all command styles applied to the specified command string.
              * @param command the command string to apply the registered command styles to
@@ -17680,6 +19070,16 @@ public class CommandLine {
                 return styles.toArray(new IStyle[0]);
             }
 
+            /** Returns the specified markup string parsed with this color scheme, compiling it on first use. */
+            Ansi.CompiledMarkup compiledMarkup(String markup) {
+                Ansi.CompiledMarkup result = markupCache.get(markup);
+                if (result == null) {
+                    result = new Ansi.CompiledMarkup(markup, this);
+                    markupCache.put(markup, result);
+                }
+                return result;
+            }
+
             /** Returns the style that "resets" the style state to neutral.
              * @return {@link Style#reset} if no {@linkplain #customMarkupMap()} is defined, otherwise either the style registered with the "reset" name or an empty {@code IStyle} if no such style is registered.
              * @since 4.2
@@ -17700,7 +19100,7 @@ public class CommandLine {
                         && optionParamStyles.equals(other.optionParamStyles)
                         && errorStyles.equals(other.errorStyles)
                         && stackTraceStyles.equals(other.stackTraceStyles)
-                        && markupMap == null ? other.markupMap == null : markupMap.equals(other.markupMap);
+                        && (markupMap == null ? other.markupMap == null : markupMap.equals(other.markupMap));
             }
             @Override public int hashCode() {
                 int result = 17;
@@ -18202,6 +19602,56 @@ public class CommandLine {
                     return new StyledSection(newStart, length, startStyles, endStyles);
                 }
             }
+            /** Markup string parsed into plain text and styled sections.
+             * Compiled once per distinct markup string and shared by all Text instances created from it. */
+            private static class CompiledMarkup {
+                private static final int MAX_CACHED = 1024;
+                final String plain;
+                final List<StyledSection> sections;
+                CompiledMarkup(String input, ColorScheme colorScheme) {
+                    StringBuilder plain = new StringBuilder(input.length());
+                    List<StyledSection> sections = new ArrayList<StyledSection>();
+                    int i = 0;
+                    while (true) {
+                        int j = input.indexOf("@|", i);
+                        if (j == -1) {
+                            plain.append(input, i, input.length());
+                            break;
+                        }
+                        plain.append(input, i, j);
+                        int k = input.indexOf("|@", j);
+                        if (k == -1) {
+                            plain.append(input);
+                            break;
+                        }
+
+                        j += 2;
+                        String spec = input.substring(j, k);
+                        String[] items = spec.split(" ", 2);
+                        if (items.length == 1) {
+                            plain.append(input);
+                            break;
+                        }
+
+                        IStyle[] styles = colorScheme.parse(items[0]);
+                        sections.add(new StyledSection(plain.length(), items[1].length(),
+                                Style.on(styles), Style.off(reverseArray(styles)) + colorScheme.resetStyle().off()));
+                        plain.append(items[1]);
+                        i = k + 2;
+                    }
+                    this.plain = plain.toString();
+                    this.sections = Collections.unmodifiableList(sections);
+                }
+                /** Returns a new thread-safe cache that evicts the least recently used markup when full. */
+                static Map<String, CompiledMarkup> newCache() {
+                    return Collections.synchronizedMap(new LinkedHashMap<String, CompiledMarkup>(16, 0.75f, true) {
+                        private static final long serialVersionUID = 1L;
+                        @Override protected boolean removeEldestEntry(Map.Entry<String, CompiledMarkup> eldest) {
+                            return size() > MAX_CACHED;
+                        }
+                    });
+                }
+            }
 
             /** @deprecated use {@link ColorScheme#apply(String, List)} instead */
             @Deprecated public Text apply(String plainText, List<IStyle> styles) {
@@ -18257,47 +19707,14 @@ public class CommandLine {
                 public Text(String input, ColorScheme colorScheme) {
                     this.colorScheme = colorScheme;
                     maxLength = -1;
-                    plain.setLength(0);
-                    int i = 0;
-
-                    while (true) {
-                        int j = input.indexOf("@|", i);
-                        if (j == -1) {
-                            if (i == 0) {
-                                plain.append(input);
-                                length = plain.length();
-                                return;
-                            }
-                            plain.append(input.substring(i));
-                            length = plain.length();
-                            return;
-                        }
-                        plain.append(input, i, j);
-                        int k = input.indexOf("|@", j);
-                        if (k == -1) {
-                            plain.append(input);
-                            length = plain.length();
-                            return;
-                        }
-
-                        j += 2;
-                        String spec = input.substring(j, k);
-                        String[] items = spec.split(" ", 2);
-                        if (items.length == 1) {
-                            plain.append(input);
-                            length = plain.length();
-                            return;
-                        }
-
-                        IStyle[] styles = colorScheme.parse(items[0]);
-                        addStyledSection(plain.length(), items[1].length(),
-                                Style.on(styles), Style.off(reverseArray(styles)) + colorScheme.resetStyle().off());
-                        plain.append(items[1]);
-                        i = k + 2;
+                    if (input.indexOf("@|") == -1) {
+                        plain.append(input);
+                    } else {
+                        CompiledMarkup markup = colorScheme.compiledMarkup(input);
+                        plain.append(markup.plain);
+                        sections.addAll(markup.sections);
                     }
-                }
-                private void addStyledSection(int start, int length, String startStyle, String endStyle) {
-                    sections.add(new StyledSection(start, length, startStyle, endStyle));
+                    length = plain.length();
                 }
                 public Object clone() { return new Text(this); }
 
@@ -18411,9 +19828,24 @@ public class CommandLine {
                         return plain.toString().substring(from, from + length);
                     }
                     if (length == 0) { return ""; }
-                    StringBuilder sb = new StringBuilder(plain.length() + 20 * sections.size());
-                    StyledSection current = null;
+                    return toString(new StringBuilder(plain.length() + 20 * sections.size())).toString();
+                }
+
+                /** Appends the String representation of this text to the specified StringBuilder, with ANSI escape codes
+                 * embedded, unless ANSI is {@linkplain Ansi#enabled()} not enabled}, in which case the plain text is appended.
+                 * This avoids creating an intermediate String for each Text when rendering many Text objects.
+                 * @param sb the StringBuilder to append to
+                 * @return the specified StringBuilder object (to allow method chaining and a more fluid API)
+                 * @since 4.7.8 */
+                public StringBuilder toString(StringBuilder sb) {
+                    if (!Ansi.this.enabled()) {
+                        return sb.append(plain, from, from + length);
+                    }
                     int end = Math.min(from + length, plain.length());
+                    if (sections.isEmpty()) {
+                        return end > from ? sb.append(plain, from, end) : sb;
+                    }
+                    StyledSection current = null;
                     for (int i = from; i < end; i++) {
                         StyledSection section = findSectionContaining(i);
                         if (section != current) {
@@ -18424,7 +19856,7 @@ public class CommandLine {
                         sb.append(plain.charAt(i));
                     }
                     if (current != null) { sb.append(current.endStyles); }
-                    return sb.toString();
+                    return sb;
                 }
 
                 private StyledSection findSectionContaining(int index) {
@@ -18511,18 +19943,43 @@ public class CommandLine {
         /** Returns whether messages at the specified {@code other} trace level would be printed for the current trace level. */
         public boolean isEnabled(TraceLevel other) { return ordinal() >= other.ordinal(); }
         private void print(Tracer tracer, String msg, Object... params) {
-            if (tracer.level.isEnabled(this)) { tracer.stream.printf(prefix(msg) + "%n", params); }
+            if (tracer.level.isEnabled(this)) {
+                ITraceSink sink = tracer.sink;
+                if (sink == null) {
+                    tracer.stream.printf(prefix(msg) + "%n", params);
+                } else {
+                    sink.trace(this, msg, params);
+                }
+            }
         }
         private String prefix(String msg) { return "[picocli " + this + "] " + msg; }
         static TraceLevel lookup(String key) { return key == null ? WARN : empty(key) || "true".equalsIgnoreCase(key) ? INFO : valueOf(key.toUpperCase(ENGLISH)); }
     }
 
+    /** Receives the internal tracing statements that are enabled for the current {@linkplain Tracer#getLevel() trace level},
+     * instead of these statements being printed to {@code System.err}.
+     * Implementations can forward trace statements to a logging framework like SLF4J or {@code java.util.logging},
+     * or keep them in memory. The message is not formatted by picocli, so sinks that discard or buffer statements
+     * do not pay the formatting cost.
+     * @see Tracer#setSink(ITraceSink)
+     * @since 4.7.8 */
+    public interface ITraceSink {
+        /** Receives a tracing statement.
+         * @param level the level of the statement: {@code WARN}, {@code INFO} or {@code DEBUG}
+         * @param msg the message; may use {@link String#format(String, Object...)} syntax
+         * @param params arguments referenced by the format specifiers in the message; may be empty
+         */
+        void trace(TraceLevel level, String msg, Object[] params);
+    }
+
     /** Utility class for printing internal debug statements.
      * @see CommandLine#tracer()
      * @since 4.7.8-SNAPSHOT */
     public static final class Tracer {
         private PrintStream stream = System.err;
-        private TraceLevel level = TraceLevel.lookup(System.getProperty("picocli.trace"));
+        private String levelProperty = System.getProperty("picocli.trace");
+        private TraceLevel level = TraceLevel.lookup(levelProperty);
+        private volatile ITraceSink sink;
         boolean modified;
         private Tracer() {}
         /** Returns the trace level that needs to be matched or exceeded for internal tracing statements to be printed.
@@ -18543,21 +20000,68 @@ public class CommandLine {
         public boolean isWarn()  { return level.isEnabled(TraceLevel.WARN); }
         /** Returns whether the current trace level is OFF (the lowest). */
         public boolean isOff()  { return level == TraceLevel.OFF; }
+        /** Returns the sink that receives tracing statements, or {@code null} if statements are printed to {@code System.err}.
+         * @since 4.7.8 */
+        public ITraceSink getSink() { return sink; }
+        /** Sets the sink that receives tracing statements that are enabled for the current trace level.
+         * If {@code null}, tracing statements are printed to {@code System.err}, which is the default.
+         * @param sink the sink that receives tracing statements, may be {@code null}
+         * @since 4.7.8 */
+        public void setSink(ITraceSink sink) { this.sink = sink; }
         /** Prints the specified message if the current trace level is WARN or higher.
          * @param msg the message to print; may use {@link String#format(String, Object...)} syntax
          * @param params Arguments referenced by the format specifiers in the format string. If there are more arguments than format specifiers, the extra arguments are ignored. The number of arguments is variable and may be zero.
          * @see Formatter */
         public void warn (String msg, Object... params) { TraceLevel.WARN.print(this, msg, params); }
+        /** Prints the specified message if the current trace level is WARN or higher.
+         * Unlike the varargs method, this method does not allocate an array if the message is not printed.
+         * @since 4.7.8 */
+        public void warn (String msg) { if (level.isEnabled(TraceLevel.WARN)) { TraceLevel.WARN.print(this, msg); } }
+        /** @see #warn(String)
+         * @since 4.7.8 */
+        public void warn (String msg, Object p1) { if (level.isEnabled(TraceLevel.WARN)) { TraceLevel.WARN.print(this, msg, p1); } }
+        /** @see #warn(String)
+         * @since 4.7.8 */
+        public void warn (String msg, Object p1, Object p2) { if (level.isEnabled(TraceLevel.WARN)) { TraceLevel.WARN.print(this, msg, p1, p2); } }
+        /** @see #warn(String)
+         * @since 4.7.8 */
+        public void warn (String msg, Object p1, Object p2, Object p3) { if (level.isEnabled(TraceLevel.WARN)) { TraceLevel.WARN.print(this, msg, p1, p2, p3); } }
         /** Prints the specified message if the current trace level is INFO or higher.
          * @param msg the message to print; may use {@link String#format(String, Object...)} syntax
          * @param params Arguments referenced by the format specifiers in the format string. If there are more arguments than format specifiers, the extra arguments are ignored. The number of arguments is variable and may be zero.
          * @see Formatter */
         public void info (String msg, Object... params) { TraceLevel.INFO.print(this, msg, params); }
+        /** Prints the specified message if the current trace level is INFO or higher.
+         * Unlike the varargs method, this method does not allocate an array if the message is not printed.
+         * @since 4.7.8 */
+        public void info (String msg) { if (level.isEnabled(TraceLevel.INFO)) { TraceLevel.INFO.print(this, msg); } }
+        /** @see #info(String)
+         * @since 4.7.8 */
+        public void info (String msg, Object p1) { if (level.isEnabled(TraceLevel.INFO)) { TraceLevel.INFO.print(this, msg, p1); } }
+        /** @see #info(String)
+         * @since 4.7.8 */
+        public void info (String msg, Object p1, Object p2) { if (level.isEnabled(TraceLevel.INFO)) { TraceLevel.INFO.print(this, msg, p1, p2); } }
+        /** @see #info(String)
+         * @since 4.7.8 */
+        public void info (String msg, Object p1, Object p2, Object p3) { if (level.isEnabled(TraceLevel.INFO)) { TraceLevel.INFO.print(this, msg, p1, p2, p3); } }
         /** Prints the specified message if the current trace level is DEBUG or higher.
          * @param msg the message to print; may use {@link String#format(String, Object...)} syntax
          * @param params Arguments referenced by the format specifiers in the format string. If there are more arguments than format specifiers, the extra arguments are ignored. The number of arguments is variable and may be zero.
          * @see Formatter */
         public void debug(String msg, Object... params) { TraceLevel.DEBUG.print(this, msg, params); }
+        /** Prints the specified message if the current trace level is DEBUG or higher.
+         * Unlike the varargs method, this method does not allocate an array if the message is not printed.
+         * @since 4.7.8 */
+        public void debug(String msg) { if (level.isEnabled(TraceLevel.DEBUG)) { TraceLevel.DEBUG.print(this, msg); } }
+        /** @see #debug(String)
+         * @since 4.7.8 */
+        public void debug(String msg, Object p1) { if (level.isEnabled(TraceLevel.DEBUG)) { TraceLevel.DEBUG.print(this, msg, p1); } }
+        /** @see #debug(String)
+         * @since 4.7.8 */
+        public void debug(String msg, Object p1, Object p2) { if (level.isEnabled(TraceLevel.DEBUG)) { TraceLevel.DEBUG.print(this, msg, p1, p2); } }
+        /** @see #debug(String)
+         * @since 4.7.8 */
+        public void debug(String msg, Object p1, Object p2, Object p3) { if (level.isEnabled(TraceLevel.DEBUG)) { TraceLevel.DEBUG.print(this, msg, p1, p2, p3); } }
         public String toString() { return "Tracer[" + level + "]"; }
     }
     /** Returns the {@code Tracer} used internally for printing internal debug statements.
@@ -18566,8 +20070,13 @@ public class CommandLine {
     public static Tracer tracer() {
         // TRACER is a static variable.
         // Refresh to pick up changes to the system property after the CommandLine class was loaded.
+        // The level is only parsed again when the property value changed.
         if (!TRACER.modified) {
-            TRACER.level = TraceLevel.lookup(System.getProperty("picocli.trace"));
+            String property = System.getProperty("picocli.trace");
+            if (property == null ? TRACER.levelProperty != null : !property.equals(TRACER.levelProperty)) {
+                TRACER.level = TraceLevel.lookup(property);
+                TRACER.levelProperty = property;
+            }
             TRACER.stream = System.err;
         }
         return TRACER;
@@ -19243,27 +20752,143 @@ public class CommandLine {
 
         /** Returns the non-abbreviated name if found, otherwise returns the specified original abbreviation name. */
         public static <T> MatchResult<T> match(Map<String, T> map, String abbreviation, boolean caseInsensitive, CommandLine source) {
-            MatchResult<T> result = new MatchResult<T>(abbreviation, map.get(abbreviation));
-            if (result.hasValue() || map.isEmpty()) {
-                return result;
+            T value = map.get(abbreviation);
+            if (value != null || map.isEmpty()) {
+                return new MatchResult<T>(abbreviation, value);
+            }
+            return new Index<T>(map, caseInsensitive).match(abbreviation, source);
+        }
+
+        /** Matches abbreviations against the keys of a map that does not change while the index is in use.
+         * The keys are split into chunks once, and the keys are indexed in a trie on their non-alphabetic prefix
+         * and their first alphabetic chunk, so that only keys whose first chunk starts with the first chunk of the
+         * abbreviation need to be checked. Exact matches are looked up without allocating. */
+        static final class Index<T> {
+            private final Map<String, T> map;
+            private final boolean caseInsensitive;
+            private final Map<String, MatchResult<T>> exactMatches = new HashMap<String, MatchResult<T>>();
+            private final List<MatchResult<T>> entries = new ArrayList<MatchResult<T>>();
+            private final List<List<String>> entryChunks = new ArrayList<List<String>>();
+            private final Map<String, TrieNode> prefixes = new HashMap<String, TrieNode>();
+
+            Index(Map<String, T> map, boolean caseInsensitive) {
+                this.map = map;
+                this.caseInsensitive = caseInsensitive;
+                for (Map.Entry<String, T> entry : map.entrySet()) {
+                    MatchResult<T> matchResult = new MatchResult<T>(entry.getKey(), entry.getValue());
+                    List<String> chunks = splitIntoChunks(entry.getKey(), caseInsensitive);
+                    exactMatches.put(entry.getKey(), matchResult);
+                    int first = firstAlphabeticChunk(chunks);
+                    if (first < chunks.size()) { // keys without alphabetic chunks can only be matched exactly
+                        String prefix = first == 0 ? "" : chunks.get(0);
+                        TrieNode root = prefixes.get(prefix);
+                        if (root == null) {
+                            root = new TrieNode();
+                            prefixes.put(prefix, root);
+                        }
+                        root.add(chunks.get(first), entries.size(), caseInsensitive);
+                    }
+                    entries.add(matchResult);
+                    entryChunks.add(chunks);
+                }
             }
-            List<String> abbreviatedKeyChunks = splitIntoChunks(abbreviation, caseInsensitive);
-            Map<String, T> candidates = new LinkedHashMap<String, T>();
-            for (Map.Entry<String, T> entry : map.entrySet()) {
-                List<String> keyChunks = splitIntoChunks(entry.getKey(), caseInsensitive);
-                if (matchKeyChunks(abbreviatedKeyChunks, keyChunks, caseInsensitive)) {
-                    if (!result.hasValue()) {
-                        result = new MatchResult<T>(entry.getKey(), entry.getValue());
+
+            boolean caseInsensitive() { return caseInsensitive; }
+
+            /** Returns the non-abbreviated name if found, otherwise returns the specified original abbreviation name. */
+            MatchResult<T> match(String abbreviation, CommandLine source) {
+                MatchResult<T> result = exactMatches.get(abbreviation);
+                if (result != null) {
+                    return result;
+                }
+                T value = map.get(abbreviation); // case-insensitive maps
+                if (value != null || entries.isEmpty()) {
+                    return new MatchResult<T>(abbreviation, value);
+                }
+                List<String> abbreviatedKeyChunks = splitIntoChunks(abbreviation, caseInsensitive);
+                int first = firstAlphabeticChunk(abbreviatedKeyChunks);
+                TrieNode node = first < abbreviatedKeyChunks.size()
+                        ? prefixes.get(first == 0 ? "" : abbreviatedKeyChunks.get(0))
+                        : null;
+                node = node == null ? null : node.find(abbreviatedKeyChunks.get(first), caseInsensitive);
+                if (node == null) {
+                    return new MatchResult<T>(abbreviation, null);
+                }
+                Map<String, T> candidates = null;
+                for (int i = 0; i < node.entries.size(); i++) {
+                    int entry = node.entries.get(i);
+                    if (matchKeyChunks(abbreviatedKeyChunks, entryChunks.get(entry), caseInsensitive)) {
+                        if (result == null) {
+                            result = entries.get(entry);
+                        } else if (candidates == null) {
+                            candidates = new LinkedHashMap<String, T>();
+                            candidates.put(result.getFullName(), result.getValue());
+                        }
+                        if (candidates != null) {
+                            candidates.put(entries.get(entry).getFullName(), entries.get(entry).getValue());
+                        }
+                    }
+                }
+                if (candidates != null && !isAllCandidatesSame(candidates.values())) {
+                    String str = candidates.keySet().toString();
+                    throw new ParameterException(source, "Error: '" + abbreviation + "' is not unique: it matches '" +
+                            str.substring(1, str.length() - 1).replace(", ", "', '") + "'");
+                }
+                return result == null ? new MatchResult<T>(abbreviation, null) : result; // return the original with null as value if no match found
+            }
+
+            private static int firstAlphabeticChunk(List<String> chunks) {
+                return !chunks.isEmpty() && isNonAlphabetic(chunks.get(0)) ? 1 : 0;
+            }
+        }
+
+        /** Trie node for the first alphabetic chunk of the indexed keys. */
+        private static final class TrieNode {
+            private char[] chars = new char[0];
+            private TrieNode[] children = new TrieNode[0];
+            /** Indexes of all keys whose first chunk starts with the path to this node, in map order. */
+            private final List<Integer> entries = new ArrayList<Integer>();
+
+            void add(String chunk, int entry, boolean caseInsensitive) {
+                TrieNode node = this;
+                node.entries.add(entry);
+                for (int i = 0; i < chunk.length(); i++) {
+                    char c = fold(chunk.charAt(i), caseInsensitive);
+                    TrieNode child = node.child(c);
+                    if (child == null) {
+                        child = new TrieNode();
+                        char[] newChars = new char[node.chars.length + 1];
+                        TrieNode[] newChildren = new TrieNode[node.children.length + 1];
+                        System.arraycopy(node.chars, 0, newChars, 0, node.chars.length);
+                        System.arraycopy(node.children, 0, newChildren, 0, node.children.length);
+                        newChars[node.chars.length] = c;
+                        newChildren[node.children.length] = child;
+                        node.chars = newChars;
+                        node.children = newChildren;
                     }
-                    candidates.put(entry.getKey(), entry.getValue());
+                    node = child;
+                    node.entries.add(entry);
                 }
             }
-            if (!isAllCandidatesSame(candidates.values())) {
-                String str = candidates.keySet().toString();
-                throw new ParameterException(source, "Error: '" + abbreviation + "' is not unique: it matches '" +
-                        str.substring(1, str.length() - 1).replace(", ", "', '") + "'");
+
+            TrieNode find(String prefix, boolean caseInsensitive) {
+                TrieNode node = this;
+                for (int i = 0; i < prefix.length() && node != null; i++) {
+                    node = node.child(fold(prefix.charAt(i), caseInsensitive));
+                }
+                return node;
+            }
+
+            private TrieNode child(char c) {
+                for (int i = 0; i < chars.length; i++) {
+                    if (chars[i] == c) { return children[i]; }
+                }
+                return null;
+            }
+
+            private static char fold(char c, boolean caseInsensitive) { // same as String.equalsIgnoreCase
+                return caseInsensitive ? Character.toLowerCase(Character.toUpperCase(c)) : c;
             }
-            return result; // return the original with null as value if no match found
         }
 
         private static boolean matchKeyChunks(List<String> abbreviatedKeyChunks, List<String> keyChunks, boolean caseInsensitive) {
@@ -19326,4 +20951,265 @@ public class CommandLine {
             return true;
         }
     }
+
+    /** Prefix tree of the option names and negated option names of a command. The parser uses it to recognize
+     * options, and options with an attached parameter, by scanning the characters of an argument,
+     * without creating substrings or probing several maps. Name lookups are only used for case-sensitive options. */
+    static final class OptionTrie {
+        private char[] chars = new char[0];
+        private OptionTrie[] children = new OptionTrie[0];
+        /** The option or negated option name that ends at this node, or {@code null}. */
+        private String name;
+        /** The number of option names (not negated option names) that start with the path to this node. */
+        private int optionNames;
+
+        OptionTrie(Map<String, OptionSpec> options, Map<String, OptionSpec> negatedOptions) {
+            for (String key : options.keySet())        { add(key, 1); }
+            for (String key : negatedOptions.keySet()) { add(key, 0); }
+        }
+        private OptionTrie() {}
+
+        private void add(String key, int optionName) {
+            OptionTrie node = this;
+            for (int i = 0; i < key.length(); i++) {
+                char c = key.charAt(i);
+                OptionTrie child = node.child(c);
+                if (child == null) {
+                    child = new OptionTrie();
+                    char[] newChars = new char[node.chars.length + 1];
+                    OptionTrie[] newChildren = new OptionTrie[node.children.length + 1];
+                    System.arraycopy(node.chars, 0, newChars, 0, node.chars.length);
+                    System.arraycopy(node.children, 0, newChildren, 0, node.children.length);
+                    newChars[node.chars.length] = c;
+                    newChildren[node.children.length] = child;
+                    node.chars = newChars;
+                    node.children = newChildren;
+                }
+                node = child;
+                node.optionNames += optionName;
+            }
+            node.name = key;
+        }
+
+        /** Returns the sum of the lengths of the common prefixes of the specified argument and each option name
+         * (not negated option names). */
+        int commonPrefixLength(String arg) {
+            int result = 0;
+            OptionTrie node = this;
+            for (int i = 0; i < arg.length() && (node = node.child(arg.charAt(i))) != null; i++) {
+                result += node.optionNames;
+            }
+            return result;
+        }
+
+        /** Returns the option name or negated option name that equals the first {@code length} characters of the
+         * specified argument, or {@code null} if these characters are not an option name. */
+        String name(String arg, int length) {
+            OptionTrie node = this;
+            for (int i = 0; i < length && node != null; i++) {
+                node = node.child(arg.charAt(i));
+            }
+            return node == null ? null : node.name;
+        }
+
+        private OptionTrie child(char c) {
+            for (int i = 0; i < chars.length; i++) {
+                if (chars[i] == c) { return children[i]; }
+            }
+            return null;
+        }
+    }
+
+    /** The future exit code of an {@linkplain CommandLine#executeAsync(Executor, String...) asynchronous execution}:
+     * a {@code CompletableFuture} on Java 8 and later, and a plain {@code Future} otherwise.
+     * The Java 8 types are accessed with reflection, so that picocli remains compatible with Java 5. */
+    static final class AsyncExitCode {
+        private static final Class<?> COMPLETABLE_FUTURE = loadClass("java.util.concurrent.CompletableFuture");
+        private static final Class<?> COMPLETION_STAGE = loadClass("java.util.concurrent.CompletionStage");
+        private static final Class<?> BI_CONSUMER = loadClass("java.util.function.BiConsumer");
+
+        /** Receives the value or the failure of an asynchronous execution result. */
+        interface Callback { void done(Object value, Throwable failure); }
+
+        final Future<Integer> future;
+        private final Runnable whenDone;
+        private final AtomicInteger completions = new AtomicInteger();
+
+        AsyncExitCode(Runnable whenDone) {
+            this.whenDone = whenDone;
+            this.future = COMPLETABLE_FUTURE == null ? new Settable() : newCompletableFuture();
+        }
+
+        /** Returns whether the specified execution result is a {@code CompletionStage} or a {@code Future}. */
+        static boolean isAsync(Object executionResult) {
+            return executionResult instanceof Future || (COMPLETION_STAGE != null && COMPLETION_STAGE.isInstance(executionResult));
+        }
+
+        /** Invokes the callback when the specified {@code CompletionStage} completes, or, if the specified result is a
+         * {@code Future} but not a {@code CompletionStage}, waits until it is done and then invokes the callback. */
+        static void whenDone(Object executionResult, final Callback callback) throws Exception {
+            if (COMPLETION_STAGE != null && COMPLETION_STAGE.isInstance(executionResult)) {
+                Object action = Proxy.newProxyInstance(CommandLine.class.getClassLoader(), new Class<?>[] {BI_CONSUMER}, new InvocationHandler() {
+                    public Object invoke(Object proxy, Method method, Object[] args) {
+                        if ("accept".equals(method.getName())) {
+                            callback.done(args[0], unwrap((Throwable) args[1]));
+                            return null;
+                        } else if ("equals".equals(method.getName())) {
+                            return proxy == args[0];
+                        } else if ("hashCode".equals(method.getName())) {
+                            return System.identityHashCode(proxy);
+                        }
+                        return "BiConsumer<" + callback + ">";
+                    }
+                });
+                COMPLETION_STAGE.getMethod("whenComplete", BI_CONSUMER).invoke(executionResult, action);
+                return;
+            }
+            Object value = null;
+            Throwable failure = null;
+            try {
+                value = ((Future<?>) executionResult).get();
+            } catch (java.util.concurrent.ExecutionException ex) {
+                failure = unwrap(ex);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                failure = ex;
+            } catch (Exception ex) { // CancellationException
+                failure = ex;
+            }
+            callback.done(value, failure);
+        }
+
+        /** Returns the cause of a {@code CompletionException} or a {@code java.util.concurrent.ExecutionException}. */
+        private static Throwable unwrap(Throwable failure) {
+            boolean wrapper = failure instanceof java.util.concurrent.ExecutionException
+                    || (failure != null && "java.util.concurrent.CompletionException".equals(failure.getClass().getName()));
+            return wrapper && failure.getCause() != null ? failure.getCause() : failure;
+        }
+
+        void complete(int exitCode) { finish("complete", Object.class, exitCode); }
+
+        void fail(Throwable failure) { finish("completeExceptionally", Throwable.class, failure); }
+
+        private void finish(String methodName, Class<?> parameterType, Object value) {
+            if (completions.getAndIncrement() > 0) { return; } // already done
+            if (whenDone != null) { whenDone.run(); }
+            if (future instanceof Settable) {
+                ((Settable) future).finish(value);
+                return;
+            }
+            try {
+                COMPLETABLE_FUTURE.getMethod(methodName, parameterType).invoke(future, value);
+            } catch (Exception ex) {
+                throw new IllegalStateException("Could not complete " + future + ": " + ex, ex);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Future<Integer> newCompletableFuture() {
+            try {
+                return (Future<Integer>) COMPLETABLE_FUTURE.getConstructor().newInstance();
+            } catch (Exception ex) {
+                throw new IllegalStateException("Could not create " + COMPLETABLE_FUTURE.getName() + ": " + ex, ex);
+            }
+        }
+
+        private static Class<?> loadClass(String name) {
+            try {
+                return Class.forName(name);
+            } catch (Exception ex) { // Java 7 and earlier
+                return null;
+            }
+        }
+
+        /** The future exit code on Java 7 and earlier: holds the exit code or the failure,
+         * and releases threads waiting in {@code get} when it is set. */
+        private static final class Settable implements Future<Integer> {
+            private final CountDownLatch done = new CountDownLatch(1);
+            private volatile Integer exitCode;
+            private volatile Throwable failure;
+
+            void finish(Object value) {
+                if (value instanceof Throwable) { failure = (Throwable) value; } else { exitCode = (Integer) value; }
+                done.countDown();
+            }
+            public boolean cancel(boolean mayInterruptIfRunning) { return false; } // the execution cannot be cancelled
+            public boolean isCancelled() { return false; }
+            public boolean isDone() { return done.getCount() == 0; }
+            public Integer get() throws InterruptedException, java.util.concurrent.ExecutionException {
+                done.await();
+                return result();
+            }
+            public Integer get(long timeout, TimeUnit unit) throws InterruptedException, java.util.concurrent.ExecutionException, java.util.concurrent.TimeoutException {
+                if (!done.await(timeout, unit)) { throw new java.util.concurrent.TimeoutException(); }
+                return result();
+            }
+            private Integer result() throws java.util.concurrent.ExecutionException {
+                if (failure != null) { throw new java.util.concurrent.ExecutionException(failure); }
+                return exitCode;
+            }
+        }
+    }
+
+    /** Growable array of a fixed component type, used to collect the values of repeated array options and
+     * positional parameters. Values of type {@code int}, {@code long}, {@code double}, {@code byte} and {@code char}
+     * are stored in a primitive array without reflection. */
+    static final class ArrayBuffer {
+        private final Class<?> componentType;
+        private Object values;
+        private int size;
+
+        ArrayBuffer(Class<?> componentType) {
+            this.componentType = componentType;
+            this.values = Array.newInstance(componentType, 8);
+        }
+
+        void add(Object value) {
+            ensureCapacity(size + 1);
+            if (values instanceof int[] && value instanceof Integer) {
+                ((int[]) values)[size] = ((Integer) value).intValue();
+            } else if (values instanceof long[] && value instanceof Long) {
+                ((long[]) values)[size] = ((Long) value).longValue();
+            } else if (values instanceof double[] && value instanceof Double) {
+                ((double[]) values)[size] = ((Double) value).doubleValue();
+            } else if (values instanceof byte[] && value instanceof Byte) {
+                ((byte[]) values)[size] = ((Byte) value).byteValue();
+            } else if (values instanceof char[] && value instanceof Character) {
+                ((char[]) values)[size] = ((Character) value).charValue();
+            } else if (values instanceof Object[] && componentType.isInstance(value)) {
+                ((Object[]) values)[size] = value;
+            } else {
+                Array.set(values, size, value); // widening conversion, or IllegalArgumentException
+            }
+            size++;
+        }
+
+        /** Appends the elements of the specified array. */
+        void addAll(Object array) {
+            int length = Array.getLength(array);
+            if (array.getClass() == values.getClass()) {
+                ensureCapacity(size + length);
+                System.arraycopy(array, 0, values, size, length);
+                size += length;
+            } else {
+                for (int i = 0; i < length; i++) { add(Array.get(array, i)); }
+            }
+        }
+
+        /** Returns an array of the component type with the values added to this buffer. */
+        Object toArray() {
+            Object result = Array.newInstance(componentType, size);
+            System.arraycopy(values, 0, result, 0, size);
+            return result;
+        }
+
+        private void ensureCapacity(int minCapacity) {
+            int capacity = Array.getLength(values);
+            if (minCapacity > capacity) {
+                Object grown = Array.newInstance(componentType, Math.max(minCapacity, capacity * 2));
+                System.arraycopy(values, 0, grown, 0, size);
+                values = grown;
+            }
+        }
+    }
 }
@@ -578,4 +578,52 @@ public class AbbreviationMatcherTest {
         assertEquals("chemical-files", result.subcommand().asCommandLineList().get(0).getCommandName());
     }
 
+
+    @Test
+    public void testIndexReturnsPrecomputedResultForExactMatch() {
+        CommandLine cmd = new CommandLine(Model.CommandSpec.create());
+        CommandLine.AbbreviationMatcher.Index<Integer> index = new CommandLine.AbbreviationMatcher.Index<Integer>(createMap(), false);
+        assertSame(index.match("kebab-case", cmd), index.match("kebab-case", cmd));
+        assertEquals(Integer.valueOf(5), index.match("v-l-k-c", cmd).getValue());
+        assertFalse(index.match("unknown", cmd).hasValue());
+        assertFalse(index.match("-", cmd).hasValue());
+    }
+
+    @Test
+    public void testIndexRebuiltWhenOptionsChange() {
+        @Command
+        class App {
+            @Option(names = "--verbose") boolean verbose;
+        }
+        CommandLine cmd = new CommandLine(new App());
+        cmd.setAbbreviatedOptionsAllowed(true);
+        assertTrue(cmd.parseArgs("--verb").hasMatchedOption("--verbose"));
+
+        cmd.getCommandSpec().addOption(Model.OptionSpec.builder("--verbatim").build());
+        try {
+            cmd.parseArgs("--verb");
+            fail("Expected exception");
+        } catch (ParameterException ex) {
+            assertEquals("Error: '--verb' is not unique: it matches '--verbose', '--verbatim'", ex.getMessage());
+        }
+        cmd.getCommandSpec().remove(cmd.getCommandSpec().findOption("--verbatim"));
+        assertTrue(cmd.parseArgs("--verb").hasMatchedOption("--verbose"));
+    }
+
+    @Test
+    public void testIndexRebuiltWhenSubcommandsChange() {
+        CommandLine cmd = new CommandLine(Model.CommandSpec.create());
+        cmd.setAbbreviatedSubcommandsAllowed(true);
+        cmd.addSubcommand("status", Model.CommandSpec.create());
+        assertEquals("status", cmd.parseArgs("st").subcommand().commandSpec().name());
+
+        cmd.addSubcommand("stash", Model.CommandSpec.create());
+        assertEquals("stash", cmd.parseArgs("stas").subcommand().commandSpec().name());
+        try {
+            cmd.parseArgs("st");
+            fail("Expected exception");
+        } catch (ParameterException ex) {
+            assertEquals("Error: 'st' is not unique: it matches 'status', 'stash'", ex.getMessage());
+        }
+    }
 }
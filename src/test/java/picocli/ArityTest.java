@@ -21,6 +21,11 @@ import org.junit.contrib.java.lang.system.RestoreSystemProperties;
 import org.junit.contrib.java.lang.system.SystemErrRule;
 import org.junit.rules.TestRule;
 import picocli.CommandLine.*;
+import picocli.CommandLine.Model.ArgSpec;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Model.IGetter;
+import picocli.CommandLine.Model.ISetter;
+import picocli.CommandLine.Model.OptionSpec;
 import picocli.CommandLine.Model.PositionalParamSpec;
 
 import java.io.File;
@@ -2029,4 +2034,125 @@ public class ArityTest {
         assertEquals(Arrays.asList("x", "y"), app.unmatchedList);
         assertArrayEquals(new String[]{"x", "y"}, app.unmatchedArray);
     }
+
+    @Test
+    public void testRepeatedArrayOptionsAccumulateAllValues() {
+        class App {
+            @Option(names = "-i") int[] ints;
+            @Option(names = "-l") long[] longs;
+            @Option(names = "-d") double[] doubles;
+            @Option(names = "-b") byte[] bytes;
+            @Option(names = "-s") short[] shorts;
+            @Option(names = "-t") String[] strings;
+            @Option(names = "-n", split = ",") Integer[] integers;
+        }
+        int count = 5000;
+        List<String> args = new ArrayList<String>();
+        for (int i = 0; i < count; i++) {
+            args.addAll(Arrays.asList("-i", "" + i, "-l", "" + i, "-d", "" + i, "-b", "" + (byte) i,
+                    "-s", "" + i, "-t", "" + i, "-n", i + "," + -i));
+        }
+        App app = CommandLine.populateCommand(new App(), args.toArray(new String[0]));
+        assertEquals(count, app.ints.length);
+        assertEquals(2 * count, app.integers.length);
+        for (int i = 0; i < count; i++) {
+            assertEquals(i, app.ints[i]);
+            assertEquals(i, app.longs[i]);
+            assertEquals(i, app.doubles[i], 0.0);
+            assertEquals((byte) i, app.bytes[i]);
+            assertEquals(i, app.shorts[i]);
+            assertEquals("" + i, app.strings[i]);
+            assertEquals(Integer.valueOf(i), app.integers[2 * i]);
+            assertEquals(Integer.valueOf(-i), app.integers[2 * i + 1]);
+        }
+    }
+
+    @Test
+    public void testRepeatedArrayOptionValuesAssignedBeforeSubcommandAndOnError() {
+        @Command(name = "app")
+        class App {
+            @Option(names = "-i", scope = ScopeType.INHERIT) int[] ints;
+            @Command public void sub() {}
+        }
+        App app = new App();
+        new CommandLine(app).parseArgs("-i", "1", "-i", "2", "sub");
+        assertArrayEquals(new int[] {1, 2}, app.ints);
+
+        app = new App();
+        try {
+            new CommandLine(app).parseArgs("-i", "1", "-i", "2", "-i", "x");
+            fail("Expected exception");
+        } catch (ParameterException ex) {
+            assertArrayEquals(new int[] {1, 2}, app.ints);
+        }
+    }
+
+    @Test
+    public void testParameterConsumerSeesPreviousArrayOptionValues() {
+        class App {
+            @Option(names = "-i") int[] ints;
+            List<Integer> seen = new ArrayList<Integer>();
+        }
+        final App app = new App();
+        CommandLine cmd = new CommandLine(app);
+        cmd.getCommandSpec().addOption(OptionSpec.builder("-x").arity("0").parameterConsumer(new IParameterConsumer() {
+            public void consumeParameters(Stack<String> args, ArgSpec argSpec, CommandSpec commandSpec) {
+                app.seen.add(app.ints.length);
+            }
+        }).build());
+        cmd.parseArgs("-i", "1", "-i", "2", "-x", "-i", "3", "-x");
+        assertArrayEquals(new int[] {1, 2, 3}, app.ints);
+        assertEquals(Arrays.asList(2, 3), app.seen);
+    }
+
+    @Test
+    public void testArrayOptionSettersCalledInCommandLineOrder() {
+        final List<String> setterCalls = new ArrayList<String>();
+        CommandSpec spec = CommandSpec.create();
+        int[] order = {11, 3, 7, 0, 15, 8, 1, 12, 5, 14, 2, 9, 6, 13, 4, 10};
+        for (int i = 0; i < order.length; i++) {
+            final String name = "-o" + i;
+            final Object[] holder = new Object[1];
+            spec.addOption(OptionSpec.builder(name).type(int[].class)
+                    .getter(new IGetter() {
+                        @SuppressWarnings("unchecked") public <T> T get() { return (T) holder[0]; }
+                    })
+                    .setter(new ISetter() {
+                        public <T> T set(T value) {
+                            if (value != null) { setterCalls.add(name); }
+                            holder[0] = value;
+                            return null;
+                        }
+                    }).build());
+        }
+        List<String> args = new ArrayList<String>();
+        List<String> expected = new ArrayList<String>();
+        for (int round = 0; round < 2; round++) {
+            for (int i : order) {
+                args.addAll(Arrays.asList("-o" + i, "" + round));
+                if (round == 0) { expected.add("-o" + i); }
+            }
+        }
+        new CommandLine(spec).parseArgs(args.toArray(new String[0]));
+        assertEquals(expected, setterCalls);
+    }
+
+    @Test
+    public void testArrayOptionValuesAssignedWhenEarlierSetterThrows() {
+        class App {
+            int[] b;
+            @Option(names = "-a") void setA(int[] a) {
+                if (a != null && a.length > 0) { throw new IllegalArgumentException("invalid -a"); }
+            }
+            @Option(names = "-b") void setB(int[] b) { this.b = b; }
+        }
+        App app = new App();
+        try {
+            new CommandLine(app).parseArgs("-a", "1", "-b", "2", "-a", "3", "-b", "4");
+            fail("Expected exception");
+        } catch (ParameterException ex) {
+            assertTrue(ex.getMessage(), ex.getMessage().contains("invalid -a"));
+        }
+        assertArrayEquals(new int[] {2, 4}, app.b);
+    }
 }
@@ -26,6 +26,7 @@ import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.net.URL;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
@@ -801,6 +802,95 @@ public class AtFileTest {
         assertEquals(Arrays.asList("1111", "-v", "2222", ";3333"), parseResult.expandedArgs());
     }
 
+    @Test
+    public void testAtFileCharset() throws IOException {
+        class App {
+            @Parameters
+            private List<String> words;
+        }
+        File file = File.createTempFile("picocli", "atfile");
+        file.deleteOnExit();
+        OutputStream out = new FileOutputStream(file);
+        out.write("caf\u00e9 \"na\u00efve r\u00e9sum\u00e9\"\n".getBytes("UTF-16"));
+        out.close();
+
+        App app = new App();
+        CommandLine cmd = new CommandLine(app).setAtFileCharset(Charset.forName("UTF-16"));
+        assertEquals(Charset.forName("UTF-16"), cmd.getAtFileCharset());
+        cmd.parseArgs("@" + file.getAbsolutePath());
+        assertEquals(Arrays.asList("caf\u00e9", "na\u00efve r\u00e9sum\u00e9"), app.words);
+    }
+
+    @Test
+    public void testAtFileCharsetPropagatedToSubcommands() {
+        @Command(name = "sub")
+        class Sub {}
+        @Command(name = "top")
+        class Top {}
+        CommandLine cmd = new CommandLine(new Top()).addSubcommand(new Sub());
+        assertNull(cmd.getAtFileCharset());
+        cmd.setAtFileCharset(Charset.forName("ISO-8859-1"));
+        assertEquals(Charset.forName("ISO-8859-1"), cmd.getSubcommands().get("sub").getAtFileCharset());
+    }
+
+    @Test
+    public void testLargeAtFileExpandedInOrder() throws IOException {
+        class App {
+            @Parameters
+            private List<String> files;
+        }
+        File file = File.createTempFile("picocli", "atfile");
+        file.deleteOnExit();
+        BufferedWriter writer = new BufferedWriter(new FileWriter(file));
+        int count = 100000;
+        for (int i = 0; i < count; i++) {
+            writer.write("/some/path/file" + i + ".txt");
+            writer.newLine();
+        }
+        writer.close();
+
+        App app = new App();
+        ParseResult parseResult = new CommandLine(app).parseArgs("first", "@" + file.getAbsolutePath(), "last");
+        assertEquals(count + 2, app.files.size());
+        assertEquals("first", app.files.get(0));
+        assertEquals("/some/path/file0.txt", app.files.get(1));
+        assertEquals("/some/path/file" + (count - 1) + ".txt", app.files.get(count));
+        assertEquals("last", app.files.get(count + 1));
+        assertEquals(app.files, parseResult.expandedArgs());
+    }
+
+    @Test
+    public void testAtFilePositionalsFollowedByUnmatchedOption() throws IOException {
+        class App {
+            @Parameters(index = "0", arity = "2") List<String> pair;
+            @Parameters(index = "1..*") List<String> files;
+        }
+        File file = File.createTempFile("picocli", "atfile");
+        file.deleteOnExit();
+        writeFile(file, String.format("a%nb%nc%nd%n-x%ne%n"));
+
+        App app = new App();
+        ParseResult parseResult = new CommandLine(app).setStopAtUnmatched(true).parseArgs("@" + file.getAbsolutePath());
+        assertEquals(Arrays.asList("a", "b"), app.pair);
+        assertEquals(Arrays.asList("c", "d"), app.files);
+        assertEquals(Arrays.asList("-x", "e"), parseResult.unmatched());
+    }
+
+    @Test
+    public void testAtFileSimplifiedWithoutCommentChar() throws IOException {
+        class App {
+            @Parameters
+            private List<String> lines;
+        }
+        File file = File.createTempFile("picocli", "atfile");
+        file.deleteOnExit();
+        writeFile(file, String.format("# not a comment%n  null is not a comment either%n"));
+
+        App app = new App();
+        new CommandLine(app).setUseSimplifiedAtFiles(true).setAtFileCommentChar(null).parseArgs("@" + file.getAbsolutePath());
+        assertEquals(Arrays.asList("# not a comment", "  null is not a comment either"), app.lines);
+    }
+
     @Ignore
     @Test
     public void testIssue1457() {
@@ -312,75 +312,130 @@ public class AutoCompleteTest {
 
         CommandSpec spec = hierarchy.getCommandSpec();
         spec.parser().collectErrors(true);
-        int cur = 500;
+        verifyCompletions(spec, null);
+    }
+
+    @Test
+    public void testIncrementalCompleterMatchesComplete() {
+        CommandLine hierarchy = new CommandLine(new TopLevel())
+                .addSubcommand("sub1", new Sub1())
+                .addSubcommand("sub2", new CommandLine(new Sub2())
+                        .addSubcommand("subsub1", new Sub2Child1())
+                        .addSubcommand("subsub2", new Sub2Child2())
+                );
+        CommandSpec spec = hierarchy.getCommandSpec();
+        verifyCompletions(spec, new AutoComplete.IncrementalCompleter(spec));
+        assertFalse("collectErrors restored", spec.parser().collectErrors());
+    }
+
+    @Command(name = "counting")
+    static class CountingCommand {
+        int setterInvocations;
+        @Option(names = "--count") void setCount(int count) { setterInvocations++; }
+        @Option(names = "--unit") TimeUnit unit;
+    }
 
-        test(spec, a(),                                       0, 0, cur, l("--help", "--version", "-V", "-h", "sub1", "sub1-alias", "sub2", "sub2-alias"));
-        test(spec, a("-"),                                    0, 0, cur, l("--help", "--version", "-V", "-h", "sub1", "sub1-alias", "sub2", "sub2-alias"));
-        test(spec, a("-"),                                    0, 1, cur, l("-help", "-version", "V", "h"));
-        test(spec, a("-h"),                                   0, 1, cur, l("-help", "-version", "V", "h"));
-        test(spec, a("-h"),                                   0, 2, cur, l(""));
-        test(spec, a("s"),                                    0, 1, cur, l("ub1", "ub1-alias", "ub2", "ub2-alias"));
-        test(spec, a("sub1"),                                 0, 0, cur, l("--help", "--version", "-V", "-h", "sub1", "sub1-alias", "sub2", "sub2-alias"));
-        test(spec, a("sub1"),                                 1, 0, cur, l("--candidates", "--num", "--str"));
-        test(spec, a("sub1", "-"),                            1, 0, cur, l("--candidates", "--num", "--str"));
-        test(spec, a("sub1", "-"),                            1, 1, cur, l("-candidates", "-num", "-str"));
-        test(spec, a("sub1", "--"),                           1, 1, cur, l("-candidates", "-num", "-str"));
-        test(spec, a("sub1", "--"),                           1, 2, cur, l("candidates", "num", "str"));
-        test(spec, a("sub1", "--c"),                          1, 2, cur, l("candidates", "num", "str"));
-        test(spec, a("sub1", "--c"),                          1, 3, cur, l("andidates"));
-        test(spec, a("sub1", "--candidates"),                 2, 0, cur, l("aaa", "bbb", "ccc"));
-        test(spec, a("sub1", "--candidates"),                 1, 12, cur, l(""));
-        test(spec, a("sub1", "--candidates="),                1, 11, cur, l("s")); // cursor before 's'
-        test(spec, a("sub1", "--candidates="),                1, 12, cur, l("=aaa", "=bbb", "=ccc"));
-        test(spec, a("sub1", "--candidates="),                1, 13, cur, l("aaa", "bbb", "ccc"));
-        test(spec, a("sub1", "--candidates=a"),               1, 13, cur, l("aaa", "bbb", "ccc"));
-        test(spec, a("sub1", "--candidates=a"),               1, 14, cur, l("aa"));
-        test(spec, a("sub1", "--candidates", "a"),            2, 1, cur, l("aa"));
-        test(spec, a("sub1", "--candidates", "a"),            3, 0, cur, l("--candidates", "--num", "--str"));
-        test(spec, a("sub1", "--candidates", "a", "-"),       3, 1, cur, l("-candidates", "-num", "-str"));
-        test(spec, a("sub1", "--candidates", "a", "--"),      3, 2, cur, l("candidates", "num", "str"));
-        test(spec, a("sub1", "--num"),                        2, 0, cur, l());
-        test(spec, a("sub1", "--str"),                        2, 0, cur, l());
-        test(spec, a("sub2"),                                 1, 0, cur, l("--<invalid-name>", "--directory", "--num2", "--thread-state", "-d", "Aaa", "Bbb", "Ccc", "sub2child1-alias", "sub2child2-alias", "subsub1", "subsub2"));
-        test(spec, a("sub2", "-"),                            1, 1, cur, l("-<invalid-name>", "-directory", "-num2", "-thread-state", "d"));
-        test(spec, a("sub2", "-d"),                           2, 0, cur, l());
-        test(spec, a("sub2", "-d", "/"),                      3, 0, cur, l("--<invalid-name>", "--directory", "--num2", "--thread-state", "-d", "Aaa", "Bbb", "Ccc", "sub2child1-alias", "sub2child2-alias", "subsub1", "subsub2"));
-        test(spec, a("sub2", "-d", "/", "-"),                 3, 1, cur, l("-<invalid-name>", "-directory", "-num2", "-thread-state", "d"));
-        test(spec, a("sub2", "-d", "/", "--"),                3, 2, cur, l("<invalid-name>", "directory", "thread-state", "num2"));
-        test(spec, a("sub2", "-d", "/", "--n"),               3, 3, cur, l("um2"));
-        test(spec, a("sub2", "-d", "/", "--num2"),            3, 6, cur, l(""));
-        test(spec, a("sub2", "-d", "/", "--num2"),            4, 0, cur, l());
-        test(spec, a("sub2", "-d", "/", "--num2", "0"),       4, 1, cur, l());
-        test(spec, a("sub2", "-d", "/", "--num2", "0"),       5, 0, cur, l("--<invalid-name>", "--directory", "--num2", "--thread-state", "-d", "Aaa", "Bbb", "Ccc", "sub2child1-alias", "sub2child2-alias", "subsub1", "subsub2"));
-        test(spec, a("sub2", "-d", "/", "--num2", "0", "s"),  5, 1, cur, l("ub2child1-alias", "ub2child2-alias", "ubsub1", "ubsub2"));
-        test(spec, a("sub2", "A"),                            1, 1, cur, l("aa"));
-        test(spec, a("sub2", "Aaa"),                          1, 3, cur, l(""));
-        test(spec, a("sub2", "Aaa"),                          2, 0, cur, l("--<invalid-name>", "--directory", "--num2", "--thread-state", "-d", "Aaa", "Bbb", "Ccc", "sub2child1-alias", "sub2child2-alias", "subsub1", "subsub2"));
-        test(spec, a("sub2", "Aaa", "s"),                     2, 1, cur, l("ub2child1-alias", "ub2child2-alias", "ubsub1", "ubsub2"));
-        test(spec, a("sub2", "Aaa", "subsub1"),               3, 0, cur, l("--host", "-h"));
-        test(spec, a("sub2", "subsub1"),                      2, 0, cur, l("--host", "-h"));
-        test(spec, a("sub2", "subsub2"),                      2, 0, cur, l("--timeUnit", "--timeout", "-t", "-u", "aaa", "bbb", "ccc"));
-        test(spec, a("sub2", "subsub2", "-"),                 2, 1, cur, l("-timeUnit", "-timeout", "t", "u"));
-        test(spec, a("sub2", "subsub2", "-t"),                2, 2, cur, l(""));
-        test(spec, a("sub2", "subsub2", "-t"),                3, 0, cur, l());
-        test(spec, a("sub2", "subsub2", "-t", "0"),           3, 1, cur, l());
-        test(spec, a("sub2", "subsub2", "-t", "0"),           4, 0, cur, l("--timeUnit", "--timeout", "-t", "-u", "aaa", "bbb", "ccc"));
-        test(spec, a("sub2", "subsub2", "-t", "0", "-"),      4, 1, cur, l("-timeUnit", "-timeout", "t", "u"));
-        test(spec, a("sub2", "subsub2", "-t", "0", "--"),     4, 2, cur, l("timeUnit", "timeout"));
-        test(spec, a("sub2", "subsub2", "-t", "0", "--t"),    4, 3, cur, l("imeUnit", "imeout"));
-        test(spec, a("sub2", "subsub2", "-t", "0", "-u"),     4, 2, cur, l(""));
-        test(spec, a("sub2", "subsub2", "-t", "0", "-u"),     5, 0, cur, timeUnitValues());
-        test(spec, a("sub2", "subsub2", "-t", "0", "-u", "S"),5, 1, cur, l("ECONDS"));
-        test(spec, a("sub2", "subsub2", "a"),                 2, 1, cur, l("aa"));
-        test(spec, a("sub2", "subsub2", "a"),                 3, 0, cur, l("--timeUnit", "--timeout", "-t", "-u", "aaa", "bbb", "ccc"));
+    @Test
+    public void testIncrementalCompleterReusesParserAndParseResult() {
+        CountingCommand command = new CountingCommand();
+        CommandSpec spec = new CommandLine(command).getCommandSpec();
+        AutoComplete.IncrementalCompleter completer = new AutoComplete.IncrementalCompleter(spec);
+
+        List<CharSequence> candidates = new ArrayList<CharSequence>();
+        assertEquals(5, completer.complete(a("--count", "1", "--"), 2, 2, 5, candidates));
+        CommandLine parser = spec.commandLine();
+        assertEquals(1, command.setterInvocations);
+
+        candidates.clear();
+        completer.complete(a("--count", "1", "--", "ignored"), 2, 1, 5, candidates);
+        assertEquals("same arguments up to the cursor: not parsed again", 1, command.setterInvocations);
+        Collections.sort(candidates, new CharSequenceSort());
+        assertEquals(l("-count", "-unit"), candidates);
+
+        candidates.clear();
+        completer.complete(a("--count", "1", "--unit", "S"), 3, 1, 5, candidates);
+        assertEquals(2, command.setterInvocations);
+        assertEquals(l("ECONDS"), candidates);
+        assertSame("parser is reused", parser, spec.commandLine());
+    }
+
+    private static void verifyCompletions(CommandSpec spec, AutoComplete.IncrementalCompleter incremental) {
+        int cur = 500;
+        test(spec, incremental, a(),                                       0, 0, cur, l("--help", "--version", "-V", "-h", "sub1", "sub1-alias", "sub2", "sub2-alias"));
+        test(spec, incremental, a("-"),                                    0, 0, cur, l("--help", "--version", "-V", "-h", "sub1", "sub1-alias", "sub2", "sub2-alias"));
+        test(spec, incremental, a("-"),                                    0, 1, cur, l("-help", "-version", "V", "h"));
+        test(spec, incremental, a("-h"),                                   0, 1, cur, l("-help", "-version", "V", "h"));
+        test(spec, incremental, a("-h"),                                   0, 2, cur, l(""));
+        test(spec, incremental, a("s"),                                    0, 1, cur, l("ub1", "ub1-alias", "ub2", "ub2-alias"));
+        test(spec, incremental, a("sub1"),                                 0, 0, cur, l("--help", "--version", "-V", "-h", "sub1", "sub1-alias", "sub2", "sub2-alias"));
+        test(spec, incremental, a("sub1"),                                 1, 0, cur, l("--candidates", "--num", "--str"));
+        test(spec, incremental, a("sub1", "-"),                            1, 0, cur, l("--candidates", "--num", "--str"));
+        test(spec, incremental, a("sub1", "-"),                            1, 1, cur, l("-candidates", "-num", "-str"));
+        test(spec, incremental, a("sub1", "--"),                           1, 1, cur, l("-candidates", "-num", "-str"));
+        test(spec, incremental, a("sub1", "--"),                           1, 2, cur, l("candidates", "num", "str"));
+        test(spec, incremental, a("sub1", "--c"),                          1, 2, cur, l("candidates", "num", "str"));
+        test(spec, incremental, a("sub1", "--c"),                          1, 3, cur, l("andidates"));
+        test(spec, incremental, a("sub1", "--candidates"),                 2, 0, cur, l("aaa", "bbb", "ccc"));
+        test(spec, incremental, a("sub1", "--candidates"),                 1, 12, cur, l(""));
+        test(spec, incremental, a("sub1", "--candidates="),                1, 11, cur, l("s")); // cursor before 's'
+        test(spec, incremental, a("sub1", "--candidates="),                1, 12, cur, l("=aaa", "=bbb", "=ccc"));
+        test(spec, incremental, a("sub1", "--candidates="),                1, 13, cur, l("aaa", "bbb", "ccc"));
+        test(spec, incremental, a("sub1", "--candidates=a"),               1, 13, cur, l("aaa", "bbb", "ccc"));
+        test(spec, incremental, a("sub1", "--candidates=a"),               1, 14, cur, l("aa"));
+        test(spec, incremental, a("sub1", "--candidates", "a"),            2, 1, cur, l("aa"));
+        test(spec, incremental, a("sub1", "--candidates", "a"),            3, 0, cur, l("--candidates", "--num", "--str"));
+        test(spec, incremental, a("sub1", "--candidates", "a", "-"),       3, 1, cur, l("-candidates", "-num", "-str"));
+        test(spec, incremental, a("sub1", "--candidates", "a", "--"),      3, 2, cur, l("candidates", "num", "str"));
+        test(spec, incremental, a("sub1", "--num"),                        2, 0, cur, l());
+        test(spec, incremental, a("sub1", "--str"),                        2, 0, cur, l());
+        test(spec, incremental, a("sub2"),                                 1, 0, cur, l("--<invalid-name>", "--directory", "--num2", "--thread-state", "-d", "Aaa", "Bbb", "Ccc", "sub2child1-alias", "sub2child2-alias", "subsub1", "subsub2"));
+        test(spec, incremental, a("sub2", "-"),                            1, 1, cur, l("-<invalid-name>", "-directory", "-num2", "-thread-state", "d"));
+        test(spec, incremental, a("sub2", "-d"),                           2, 0, cur, l());
+        test(spec, incremental, a("sub2", "-d", "/"),                      3, 0, cur, l("--<invalid-name>", "--directory", "--num2", "--thread-state", "-d", "Aaa", "Bbb", "Ccc", "sub2child1-alias", "sub2child2-alias", "subsub1", "subsub2"));
+        test(spec, incremental, a("sub2", "-d", "/", "-"),                 3, 1, cur, l("-<invalid-name>", "-directory", "-num2", "-thread-state", "d"));
+        test(spec, incremental, a("sub2", "-d", "/", "--"),                3, 2, cur, l("<invalid-name>", "directory", "thread-state", "num2"));
+        test(spec, incremental, a("sub2", "-d", "/", "--n"),               3, 3, cur, l("um2"));
+        test(spec, incremental, a("sub2", "-d", "/", "--num2"),            3, 6, cur, l(""));
+        test(spec, incremental, a("sub2", "-d", "/", "--num2"),            4, 0, cur, l());
+        test(spec, incremental, a("sub2", "-d", "/", "--num2", "0"),       4, 1, cur, l());
+        test(spec, incremental, a("sub2", "-d", "/", "--num2", "0"),       5, 0, cur, l("--<invalid-name>", "--directory", "--num2", "--thread-state", "-d", "Aaa", "Bbb", "Ccc", "sub2child1-alias", "sub2child2-alias", "subsub1", "subsub2"));
+        test(spec, incremental, a("sub2", "-d", "/", "--num2", "0", "s"),  5, 1, cur, l("ub2child1-alias", "ub2child2-alias", "ubsub1", "ubsub2"));
+        test(spec, incremental, a("sub2", "A"),                            1, 1, cur, l("aa"));
+        test(spec, incremental, a("sub2", "Aaa"),                          1, 3, cur, l(""));
+        test(spec, incremental, a("sub2", "Aaa"),                          2, 0, cur, l("--<invalid-name>", "--directory", "--num2", "--thread-state", "-d", "Aaa", "Bbb", "Ccc", "sub2child1-alias", "sub2child2-alias", "subsub1", "subsub2"));
+        test(spec, incremental, a("sub2", "Aaa", "s"),                     2, 1, cur, l("ub2child1-alias", "ub2child2-alias", "ubsub1", "ubsub2"));
+        test(spec, incremental, a("sub2", "Aaa", "subsub1"),               3, 0, cur, l("--host", "-h"));
+        test(spec, incremental, a("sub2", "subsub1"),                      2, 0, cur, l("--host", "-h"));
+        test(spec, incremental, a("sub2", "subsub2"),                      2, 0, cur, l("--timeUnit", "--timeout", "-t", "-u", "aaa", "bbb", "ccc"));
+        test(spec, incremental, a("sub2", "subsub2", "-"),                 2, 1, cur, l("-timeUnit", "-timeout", "t", "u"));
+        test(spec, incremental, a("sub2", "subsub2", "-t"),                2, 2, cur, l(""));
+        test(spec, incremental, a("sub2", "subsub2", "-t"),                3, 0, cur, l());
+        test(spec, incremental, a("sub2", "subsub2", "-t", "0"),           3, 1, cur, l());
+        test(spec, incremental, a("sub2", "subsub2", "-t", "0"),           4, 0, cur, l("--timeUnit", "--timeout", "-t", "-u", "aaa", "bbb", "ccc"));
+        test(spec, incremental, a("sub2", "subsub2", "-t", "0", "-"),      4, 1, cur, l("-timeUnit", "-timeout", "t", "u"));
+        test(spec, incremental, a("sub2", "subsub2", "-t", "0", "--"),     4, 2, cur, l("timeUnit", "timeout"));
+        test(spec, incremental, a("sub2", "subsub2", "-t", "0", "--t"),    4, 3, cur, l("imeUnit", "imeout"));
+        test(spec, incremental, a("sub2", "subsub2", "-t", "0", "-u"),     4, 2, cur, l(""));
+        test(spec, incremental, a("sub2", "subsub2", "-t", "0", "-u"),     5, 0, cur, timeUnitValues());
+        test(spec, incremental, a("sub2", "subsub2", "-t", "0", "-u", "S"),5, 1, cur, l("ECONDS"));
+        test(spec, incremental, a("sub2", "subsub2", "a"),                 2, 1, cur, l("aa"));
+        test(spec, incremental, a("sub2", "subsub2", "a"),                 3, 0, cur, l("--timeUnit", "--timeout", "-t", "-u", "aaa", "bbb", "ccc"));
     }
 
     private static void test(CommandSpec spec, String[] args, int argIndex, int positionInArg, int cursor, List<CharSequence> expected) {
+        test(spec, null, args, argIndex, positionInArg, cursor, expected);
+    }
+
+    private static void test(CommandSpec spec, AutoComplete.IncrementalCompleter incremental, String[] args, int argIndex, int positionInArg, int cursor, List<CharSequence> expected) {
         List<CharSequence> actual = new ArrayList<CharSequence>();
-        AutoComplete.complete(spec, args, argIndex, positionInArg, cursor, actual);
+        if (incremental == null) {
+            AutoComplete.complete(spec, args, argIndex, positionInArg, cursor, actual);
+        } else {
+            incremental.complete(args, argIndex, positionInArg, cursor, actual);
+        }
         Collections.sort(actual, new CharSequenceSort());
         Collections.sort(expected, new CharSequenceSort());
-        assertEquals(expected, actual);
+        assertEquals(Arrays.toString(args) + "@" + argIndex + ":" + positionInArg, expected, actual);
     }
 
     private static String[] a(String... args) {
@@ -521,29 +576,33 @@ public class AutoCompleteTest {
         assertTrue((Boolean) m.invoke(null, PositionalParamSpec.builder().build()));
     }
 
+    private static Class<?> completionCacheClass() throws ClassNotFoundException {
+        return Class.forName("picocli.AutoComplete$CompletionCache");
+    }
+
     @Test
     public void testAddCandidatesForArgsFollowingObject() throws Exception {
-        Method m = AutoComplete.class.getDeclaredMethod("addCandidatesForArgsFollowing", Object.class, List.class);
+        Method m = AutoComplete.class.getDeclaredMethod("addCandidatesForArgsFollowing", Object.class, List.class, completionCacheClass());
         m.setAccessible(true);
         List<String> candidates = new ArrayList<String>();
-        m.invoke(null, null, candidates);
+        m.invoke(null, null, candidates, null);
         assertTrue("null Object adds no candidates", candidates.isEmpty());
 
-        m.invoke(null, new Object(), candidates);
+        m.invoke(null, new Object(), candidates, null);
         assertTrue("non-PicocliModelObject Object adds no candidates", candidates.isEmpty());
 
         List<String> completions = Arrays.asList("x", "y", "z");
         PositionalParamSpec positional = PositionalParamSpec.builder().completionCandidates(completions).build();
-        m.invoke(null, positional, candidates);
+        m.invoke(null, positional, candidates, null);
         assertEquals("PositionalParamSpec adds completion candidates", completions, candidates);
     }
 
     @Test
     public void testAddCandidatesForArgsFollowingNullCommandAddsNoCandidates() throws Exception {
-        Method m = AutoComplete.class.getDeclaredMethod("addCandidatesForArgsFollowing", CommandSpec.class, List.class);
+        Method m = AutoComplete.class.getDeclaredMethod("addCandidatesForArgsFollowing", CommandSpec.class, List.class, completionCacheClass());
         m.setAccessible(true);
         List<String> candidates = new ArrayList<String>();
-        m.invoke(null, null, candidates);
+        m.invoke(null, null, candidates, null);
         assertTrue("null CommandSpec adds no candidates", candidates.isEmpty());
     }
 
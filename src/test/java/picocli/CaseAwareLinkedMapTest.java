@@ -233,4 +233,65 @@ public class CaseAwareLinkedMapTest {
             assertEquals("Unsupported case-conversion for key class java.lang.Object", ex.getMessage());
         }
     }
+
+    @Test
+    public void testCaseInsensitiveLookupConsistentWithToLowerCase() {
+        String[] probes = {"--VERBOSE", "-v", "sub-command", "SUB-COMMAND", "\uD801\uDC28BC", "i\u0307stanbul", "\u0130STANBUL", "istanbul",
+                "\u03BF\u03B4\u03BF\u03C2", "\u03BF\u03B4\u03BF\u03C3", "\u039F\u0394\u039F\u03A3", "title", "t\u0131tle", "--verbos", "unknown"};
+        // keys with characters whose lower case depends on the context
+        assertLookupsConsistentWithToLowerCase(probes,
+                "--verbose", "-V", "Sub-Command", "\uD801\uDC00bc", "\u0130stanbul", "\u039F\u0394\u039F\u03A3", "TITLE");
+        assertLookupsConsistentWithToLowerCase(probes,
+                "--verbose", "-V", "Sub-Command", "\uD801\uDC00bc", "i\u0307stanbul", "\u03BF\u03B4\u03BF\u03C2", "TITLE");
+    }
+
+    private static void assertLookupsConsistentWithToLowerCase(String[] probes, String... keys) {
+        for (Locale locale : new Locale[] {Locale.ENGLISH, Locale.ROOT, new Locale("tr"), new Locale("lt")}) {
+            CaseAwareLinkedMap<String, String> map = new CaseAwareLinkedMap<String, String>(locale);
+            map.setCaseInsensitive(true);
+            for (String key : keys) {
+                map.put(key, "value of " + key);
+            }
+            for (String probe : probes) {
+                String expected = null;
+                for (String key : keys) {
+                    if (key.toLowerCase(locale).equals(probe.toLowerCase(locale))) { expected = key; }
+                }
+                assertEquals(locale + ": " + probe, expected, map.getCaseSensitiveKey(probe));
+                assertEquals(locale + ": " + probe, expected != null, map.containsKey(probe));
+                assertEquals(locale + ": " + probe, expected == null ? null : "value of " + expected, map.get(probe));
+            }
+        }
+    }
+
+    @Test
+    public void testCaseInsensitiveLookupAfterModification() {
+        CaseAwareLinkedMap<String, String> map = new CaseAwareLinkedMap<String, String>();
+        map.setCaseInsensitive(true);
+        map.put("--file", "a");
+        assertEquals("a", map.get("--FILE"));
+        map.put("--Verbose", "b");
+        assertEquals("b", map.get("--VERBOSE"));
+        assertEquals("a", map.remove("--File"));
+        assertFalse(map.containsKey("--file"));
+        map.setCaseInsensitive(false);
+        assertFalse(map.containsKey("--verbose"));
+        map.setCaseInsensitive(true);
+        assertTrue(map.containsKey("--verbose"));
+        map.clear();
+        assertFalse(map.containsKey("--verbose"));
+    }
+
+    @Test
+    public void testCaseInsensitiveLookupWithManyKeys() {
+        CaseAwareLinkedMap<String, Integer> map = new CaseAwareLinkedMap<String, Integer>();
+        map.setCaseInsensitive(true);
+        for (int i = 0; i < 1000; i++) {
+            map.put("--Option-" + i, i);
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(Integer.valueOf(i), map.get("--OPTION-" + i));
+        }
+        assertNull(map.get("--option-1000"));
+    }
 }
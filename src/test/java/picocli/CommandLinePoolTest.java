@@ -0,0 +1,163 @@
+package picocli;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.contrib.java.lang.system.ProvideSystemProperty;
+import org.junit.contrib.java.lang.system.RestoreSystemProperties;
+import org.junit.rules.TestRule;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.InitializationException;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Parameters;
+import picocli.CommandLine.Pool;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link Pool}.
+ */
+public class CommandLinePoolTest {
+
+    // allows tests to set any kind of properties they like, without having to individually roll them back
+    @Rule
+    public final TestRule restoreSystemProperties = new RestoreSystemProperties();
+
+    @Rule
+    public final ProvideSystemProperty ansiOFF = new ProvideSystemProperty("picocli.ansi", "false");
+
+    @Command(name = "sum")
+    static class Sum implements Callable<Integer> {
+        @Option(names = "-x") int x;
+        @Parameters List<Integer> values;
+
+        public Integer call() throws InterruptedException {
+            int result = x;
+            if (values != null) {
+                for (int value : values) {
+                    result += value;
+                    Thread.yield(); // give other threads a chance to interfere
+                }
+            }
+            return result;
+        }
+    }
+
+    private static Pool sumPool() {
+        return sumPool(4);
+    }
+
+    private static Pool sumPool(int maxIdle) {
+        return new Pool(new Callable<CommandLine>() {
+            public CommandLine call() { return new CommandLine(new Sum()); }
+        }, maxIdle);
+    }
+
+    @Test
+    public void testInstancesReused() {
+        Pool pool = sumPool();
+        assertEquals(3, pool.execute("-x", "1", "2"));
+        assertEquals(2, pool.execute("2"));
+        assertEquals(1, pool.createdCount());
+
+        CommandLine first = pool.acquire();
+        CommandLine second = pool.acquire();
+        assertNotSame(first, second);
+        assertEquals(2, pool.createdCount());
+        pool.release(first);
+        assertSame(first, pool.acquire());
+    }
+
+    @Test
+    public void testConcurrentExecution() throws Exception {
+        int threads = 8;
+        final Pool pool = sumPool(threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+            for (int i = 0; i < 2000; i++) {
+                final int x = i;
+                results.add(executor.submit(new Callable<Boolean>() {
+                    public Boolean call() {
+                        return pool.execute("-x", String.valueOf(x), "1", "2", "3") == x + 6
+                                && pool.execute(String.valueOf(x)) == x;
+                    }
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertTrue(String.valueOf(pool.createdCount()), pool.createdCount() <= threads);
+    }
+
+    @Test
+    public void testIdleInstancesBounded() {
+        Pool pool = sumPool(2);
+        assertEquals(2, pool.maxIdle());
+        List<CommandLine> burst = new ArrayList<CommandLine>();
+        for (int i = 0; i < 5; i++) {
+            burst.add(pool.acquire());
+        }
+        assertEquals(5, pool.createdCount());
+        for (CommandLine commandLine : burst) {
+            pool.release(commandLine);
+        }
+        assertEquals(2, pool.idleCount());
+
+        assertSame(burst.get(0), pool.acquire());
+        assertSame(burst.get(1), pool.acquire());
+        assertEquals(0, pool.idleCount());
+        pool.acquire();
+        assertEquals("discarded instances are not reused", 6, pool.createdCount());
+    }
+
+    @Test
+    public void testMaxIdleZeroDiscardsAllInstances() {
+        Pool pool = sumPool(0);
+        assertEquals(3, pool.execute("1", "2"));
+        assertEquals(3, pool.execute("1", "2"));
+        assertEquals(0, pool.idleCount());
+        assertEquals(2, pool.createdCount());
+    }
+
+    @Test
+    public void testDefaultMaxIdleIsAvailableProcessors() {
+        Pool pool = new Pool(new Callable<CommandLine>() {
+            public CommandLine call() { return new CommandLine(new Sum()); }
+        });
+        assertEquals(Runtime.getRuntime().availableProcessors(), pool.maxIdle());
+    }
+
+    @Test
+    public void testNegativeMaxIdleRejected() {
+        try {
+            sumPool(-1);
+            fail("Expected exception");
+        } catch (IllegalArgumentException ex) {
+            assertEquals("maxIdle must not be negative, but was -1", ex.getMessage());
+        }
+    }
+
+    @Test
+    public void testFactoryExceptionWrapped() {
+        Pool pool = new Pool(new Callable<CommandLine>() {
+            public CommandLine call() throws Exception { throw new IllegalStateException("boom"); }
+        });
+        try {
+            pool.acquire();
+            fail("Expected exception");
+        } catch (InitializationException ex) {
+            assertEquals("Could not create CommandLine: java.lang.IllegalStateException: boom", ex.getMessage());
+        }
+    }
+}
@@ -1128,6 +1128,21 @@ public class CommandMethodTest {
         assertNull(decapitalize.invoke(null, (String) null));
     }
 
+    @Test
+    public void testCommandMethodParamValuesReflectEachInvocation() {
+        Method m = CommandLine.getCommandMethods(UnannotatedClassWithMixinAndOptionsAndPositionals.class, "sum").get(0);
+        CommandLine commandLine = new CommandLine(m);
+        commandLine.execute("-y foo -y bar -a 7 -b 11 13 42".split(" "));
+        assertEquals(Long.valueOf(22), commandLine.getExecutionResult());
+        commandLine.execute("-y foo -a 1 2 3 4".split(" "));
+        assertEquals(Long.valueOf(5), commandLine.getExecutionResult());
+
+        commandLine.getCommandSpec().addOption(Model.OptionSpec.builder("-z").type(int.class).build());
+        commandLine.execute("-z 9 -y foo -b 3 5".split(" "));
+        assertEquals(Long.valueOf(5), commandLine.getExecutionResult());
+        assertEquals(Integer.valueOf(9), commandLine.getCommandSpec().findOption("-z").getValue());
+    }
+
     @Command
     static class Issue905ParentCommand implements Runnable {
         public void run() {}
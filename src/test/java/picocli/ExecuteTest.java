@@ -40,11 +40,17 @@ import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.TimeUnit;
 
 import static java.lang.String.format;
@@ -1626,5 +1632,155 @@ public class ExecuteTest {
         }
         assertEquals(expected, lines);
     }
-}
 
+    @Command(name = "tool", subcommandsRepeatable = true, subcommands = ConcurrentFetch.class)
+    static class ConcurrentTool implements Runnable {
+        final List<String> log;
+        ConcurrentTool(List<String> log) { this.log = log; }
+        public void run() { log.add("tool"); }
+    }
+
+    @Command(name = "fetch")
+    static class ConcurrentFetch implements Callable<Integer>, IExitCodeGenerator {
+        final List<String> log;
+        final CyclicBarrier barrier;
+        @Parameters String name;
+        @Option(names = "--result") int result;
+        @Option(names = "--exit-code") int exitCode;
+        @Option(names = "--delay") long delayMillis;
+        String thread;
+
+        ConcurrentFetch(List<String> log, CyclicBarrier barrier) { this.log = log; this.barrier = barrier; }
+
+        public Integer call() throws Exception {
+            thread = Thread.currentThread().getName();
+            if (barrier != null) { barrier.await(5, TimeUnit.SECONDS); } // fails unless all siblings run concurrently
+            Thread.sleep(delayMillis);
+            log.add(name);
+            if (name.startsWith("fail")) { throw new IllegalStateException(name); }
+            return result;
+        }
+        public int getExitCode() { return exitCode; }
+    }
+
+    private static CommandLine concurrentTool(final List<String> log, final CyclicBarrier barrier) {
+        return new CommandLine(new ConcurrentTool(log), new IFactory() {
+            public <K> K create(Class<K> cls) throws Exception {
+                return cls == ConcurrentFetch.class ? cls.cast(new ConcurrentFetch(log, barrier)) : CommandLine.defaultFactory().create(cls);
+            }
+        });
+    }
+
+    @Test
+    public void testRunConcurrentlyExecutesSiblingSubcommandsInParallel() {
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            List<String> log = Collections.synchronizedList(new ArrayList<String>());
+            CommandLine cmd = concurrentTool(log, new CyclicBarrier(3));
+            ParseResult parseResult = cmd.parseArgs("fetch", "a", "--result=1", "fetch", "b", "--result=3", "fetch", "c", "--exit-code=2");
+
+            assertEquals(3, new RunConcurrently(executor).execute(parseResult));
+            assertEquals(3, log.size());
+            assertFalse(log.contains("tool"));
+            List<ParseResult> subcommands = parseResult.subcommands();
+            assertEquals(Arrays.<Object>asList(1, 3, 0), Arrays.asList(
+                    subcommands.get(0).commandSpec().commandLine().getExecutionResult(),
+                    subcommands.get(1).commandSpec().commandLine().getExecutionResult(),
+                    subcommands.get(2).commandSpec().commandLine().getExecutionResult()));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testRunConcurrentlyWithDefaultExecutor() {
+        List<String> log = Collections.synchronizedList(new ArrayList<String>());
+        CommandLine cmd = concurrentTool(log, null).setExecutionStrategy(new RunConcurrently());
+        assertEquals(5, cmd.execute("fetch", "a", "--exit-code=5", "fetch", "b", "--result=-1", "fetch", "c"));
+        assertEquals(new HashSet<String>(Arrays.asList("a", "b", "c")), new HashSet<String>(log));
+    }
+
+    @Test
+    public void testRunConcurrentlyRunAllExecutesParentFirst() {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<String> log = Collections.synchronizedList(new ArrayList<String>());
+            CommandLine cmd = concurrentTool(log, new CyclicBarrier(2));
+            cmd.setExecutionStrategy(new RunConcurrently(executor).runAll(true));
+            assertEquals(ExitCode.OK, cmd.execute("fetch", "a", "fetch", "b"));
+            assertEquals(Arrays.asList("tool"), log.subList(0, 1));
+            assertEquals(new HashSet<String>(Arrays.asList("a", "b")), new HashSet<String>(log.subList(1, 3)));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testRunConcurrentlyRethrowsExceptionOfFirstFailedCommand() {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<String> log = Collections.synchronizedList(new ArrayList<String>());
+            CommandLine cmd = concurrentTool(log, null);
+            ParseResult parseResult = cmd.parseArgs("fetch", "fail-slow", "--delay=200", "fetch", "fail-fast");
+            try {
+                new RunConcurrently(executor).execute(parseResult);
+                fail("Expected exception");
+            } catch (ExecutionException ex) {
+                assertSame(parseResult.subcommands().get(0).commandSpec().commandLine(), ex.getCommandLine());
+                assertEquals("fail-slow", ex.getCause().getMessage());
+            }
+            assertEquals(Arrays.asList("fail-fast", "fail-slow"), log);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testRunConcurrentlyExecutesSingleCommandInCallingThread() {
+        List<String> log = new ArrayList<String>();
+        CommandLine cmd = concurrentTool(log, null);
+        ParseResult parseResult = cmd.parseArgs("fetch", "a", "--result=7");
+        assertEquals(7, new RunConcurrently().execute(parseResult));
+        ConcurrentFetch fetch = parseResult.subcommands().get(0).commandSpec().commandLine().getCommand();
+        assertEquals(Thread.currentThread().getName(), fetch.thread);
+    }
+
+    @Command(name = "async")
+    static class AsyncMethods {
+        @Command
+        Future<Integer> blocking(@Parameters final int value) {
+            FutureTask<Integer> result = new FutureTask<Integer>(new Callable<Integer>() {
+                public Integer call() { return value; }
+            });
+            new Thread(result).start();
+            return result;
+        }
+    }
+
+    @Test
+    public void testExecuteAsyncAwaitsFutureReturnedByCommandMethod() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            CommandLine cmd = new CommandLine(new AsyncMethods());
+            Future<Integer> exitCode = cmd.executeAsync(executor, "blocking", "7");
+            assertEquals(7, (int) exitCode.get(5, TimeUnit.SECONDS));
+            assertEquals(Integer.valueOf(7), cmd.getSubcommands().get("blocking").getExecutionResult());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testExecuteAsyncHandlesInvalidInputLikeExecute() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            StringWriter err = new StringWriter();
+            CommandLine cmd = new CommandLine(new AsyncMethods()).setErr(new PrintWriter(err));
+            Future<Integer> exitCode = cmd.executeAsync(executor, "blocking", "not-a-number");
+            assertEquals(ExitCode.USAGE, (int) exitCode.get(5, TimeUnit.SECONDS));
+            assertThat(err.toString(), containsString("Invalid value for positional parameter"));
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
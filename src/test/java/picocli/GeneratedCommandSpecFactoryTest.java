@@ -0,0 +1,187 @@
+package picocli;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.contrib.java.lang.system.ProvideSystemProperty;
+import org.junit.contrib.java.lang.system.RestoreSystemProperties;
+import org.junit.rules.TestRule;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.InitializationException;
+import picocli.CommandLine.Model.ArgSpec;
+import picocli.CommandLine.Model.ICommandSpecFactory;
+import picocli.CommandLine.Model.IGetter;
+import picocli.CommandLine.Model.IScope;
+import picocli.CommandLine.Model.ISetter;
+import picocli.CommandLine.Model.OptionSpec;
+import picocli.CommandLine.Model.PositionalParamSpec;
+import picocli.CommandLine.Option;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link ICommandSpecFactory} implementations like the ones generated by the picocli-codegen annotation processor.
+ */
+public class GeneratedCommandSpecFactoryTest {
+
+    // allows tests to set any kind of properties they like, without having to individually roll them back
+    @Rule
+    public final TestRule restoreSystemProperties = new RestoreSystemProperties();
+
+    @Rule
+    public final ProvideSystemProperty ansiOFF = new ProvideSystemProperty("picocli.ansi", "false");
+
+    @Command(name = "gen", description = "Command with a generated factory.")
+    static class Gen {
+        int count = 1;
+        List<String> files;
+    }
+
+    /** Hand-written equivalent of the source file picocli-codegen would generate for {@link Gen}. */
+    public static final class Gen_CommandSpecFactory implements ICommandSpecFactory {
+        static final AtomicInteger invocations = new AtomicInteger();
+
+        public List<ArgSpec> createArgs(final IScope scope) {
+            invocations.incrementAndGet();
+            List<ArgSpec> result = new ArrayList<ArgSpec>();
+            result.add(OptionSpec.builder("-c", "--count")
+                    .paramLabel("<count>")
+                    .description("The count.")
+                    .type(int.class)
+                    .getter(new IGetter() {
+                        @SuppressWarnings("unchecked")
+                        public <T> T get() throws Exception { return (T) (Object) scope.<Gen>get().count; }
+                    })
+                    .setter(new ISetter() {
+                        @SuppressWarnings("unchecked")
+                        public <T> T set(T value) throws Exception {
+                            Gen obj = scope.<Gen>get();
+                            T old = (T) (Object) obj.count;
+                            obj.count = (Integer) (Object) value;
+                            return old;
+                        }
+                    })
+                    .scope(scope)
+                    .withToString("field int picocli.GeneratedCommandSpecFactoryTest$Gen.count")
+                    .build());
+            result.add(PositionalParamSpec.builder()
+                    .paramLabel("FILE")
+                    .arity("0..*")
+                    .type(List.class)
+                    .auxiliaryTypes(String.class)
+                    .getter(new IGetter() {
+                        @SuppressWarnings("unchecked")
+                        public <T> T get() throws Exception { return (T) scope.<Gen>get().files; }
+                    })
+                    .setter(new ISetter() {
+                        @SuppressWarnings("unchecked")
+                        public <T> T set(T value) throws Exception {
+                            Gen obj = scope.<Gen>get();
+                            T old = (T) obj.files;
+                            obj.files = (List<String>) value;
+                            return old;
+                        }
+                    })
+                    .scope(scope)
+                    .build());
+            return result;
+        }
+    }
+
+    @Test
+    public void testGeneratedFactoryUsedInsteadOfReflection() {
+        int before = Gen_CommandSpecFactory.invocations.get();
+        Gen gen = new Gen();
+        CommandLine cmd = new CommandLine(gen);
+        assertEquals(before + 1, Gen_CommandSpecFactory.invocations.get());
+
+        cmd.parseArgs("-c", "3", "a", "b");
+        assertEquals(3, gen.count);
+        assertEquals(Arrays.asList("a", "b"), gen.files);
+
+        String expected = String.format("" +
+                "Usage: gen [-c=<count>] [FILE...]%n" +
+                "Command with a generated factory.%n" +
+                "      [FILE...]%n" +
+                "  -c, --count=<count>   The count.%n");
+        assertEquals(expected, cmd.getUsageMessage());
+    }
+
+    @Test
+    public void testInitialValuesRestoredOnReuse() {
+        Gen gen = new Gen();
+        CommandLine cmd = new CommandLine(gen);
+        cmd.parseArgs("-c", "3", "a");
+        assertEquals(3, gen.count);
+
+        cmd.parseArgs();
+        assertEquals(1, gen.count);
+        assertNull(gen.files);
+    }
+
+    @Command(name = "sub")
+    static class GenSub extends Gen {
+        @Option(names = "-x") boolean x;
+    }
+
+    @Test
+    public void testReflectionStillUsedForClassesWithoutGeneratedFactory() {
+        GenSub sub = new GenSub();
+        CommandLine cmd = new CommandLine(sub);
+        assertNotNull(cmd.getCommandSpec().findOption("-c"));
+        assertNotNull(cmd.getCommandSpec().findOption("-x"));
+
+        cmd.parseArgs("-x", "-c", "2");
+        assertTrue(sub.x);
+        assertEquals(2, sub.count);
+    }
+
+    @Command
+    static class Broken { }
+
+    public static final class Broken_CommandSpecFactory implements ICommandSpecFactory {
+        public Broken_CommandSpecFactory() {
+            throw new IllegalStateException("boom");
+        }
+        public List<ArgSpec> createArgs(IScope scope) { return new ArrayList<ArgSpec>(); }
+    }
+
+    @Test
+    public void testFactoryInstantiationErrorsReported() {
+        try {
+            new CommandLine(new Broken());
+            fail("Expected exception");
+        } catch (InitializationException ex) {
+            assertEquals("Could not instantiate picocli.GeneratedCommandSpecFactoryTest$Broken_CommandSpecFactory: " +
+                    "java.lang.IllegalStateException: boom", ex.getMessage());
+            assertTrue(ex.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    @Command
+    static class CheckedBroken { }
+
+    public static final class CheckedBroken_CommandSpecFactory implements ICommandSpecFactory {
+        public CheckedBroken_CommandSpecFactory() throws IOException {
+            throw new IOException("checked boom");
+        }
+        public List<ArgSpec> createArgs(IScope scope) { return new ArrayList<ArgSpec>(); }
+    }
+
+    @Test
+    public void testFactoryCheckedConstructorExceptionWrapped() {
+        try {
+            new CommandLine(new CheckedBroken());
+            fail("Expected exception");
+        } catch (InitializationException ex) {
+            assertEquals("Could not instantiate picocli.GeneratedCommandSpecFactoryTest$CheckedBroken_CommandSpecFactory: " +
+                    "java.io.IOException: checked boom", ex.getMessage());
+            assertTrue(ex.getCause() instanceof IOException);
+        }
+    }
+}
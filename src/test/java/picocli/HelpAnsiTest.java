@@ -81,6 +81,36 @@ public class HelpAnsiTest {
         assertEquals("",                              Ansi.ON.new Text("@|italic |@").toString());
     }
 
+    @Test
+    public void testTextMarkupCompiledPerColorScheme() {
+        String markup = "@|bold abc|@ def @|italic ghi|@";
+        Ansi.Text first = Ansi.ON.new Text(markup);
+        Ansi.Text second = Ansi.ON.new Text(markup);
+        assertEquals("\u001B[1mabc\u001B[21m\u001B[0m def \u001B[3mghi\u001B[23m\u001B[0m", first.toString());
+        assertEquals(first.toString(), second.toString());
+        assertEquals("abc def ghi", Ansi.OFF.new Text(markup).toString());
+
+        java.util.Map<String, Ansi.IStyle> map = new java.util.HashMap<String, Ansi.IStyle>();
+        map.put("bold", new Ansi.IStyle() {
+            public String on() { return "<b>"; }
+            public String off() { return "</b>"; }
+        });
+        CommandLine.Help.ColorScheme custom = new CommandLine.Help.ColorScheme.Builder(Ansi.ON).customMarkupMap(map).build();
+        assertEquals("<b>abc</b> def ghi", Ansi.ON.new Text(markup, custom).toString());
+        assertEquals(first.toString(), Ansi.ON.new Text(markup).toString());
+    }
+
+    @Test
+    public void testTextToStringBuilder() {
+        Ansi.Text txt = Ansi.ON.new Text("@|bold 01234|@56789");
+        StringBuilder sb = new StringBuilder("> ");
+        assertSame(sb, txt.toString(sb));
+        assertEquals("> " + txt, sb.toString());
+        assertEquals("> \u001B[1m234\u001B[21m\u001B[0m56", txt.substring(2, 7).toString(new StringBuilder("> ")).toString());
+        assertEquals("> 789", txt.substring(7).toString(new StringBuilder("> ")).toString());
+        assertEquals("> 34567", Ansi.OFF.new Text("@|bold 01234|@56789").substring(3, 8).toString(new StringBuilder("> ")).toString());
+    }
+
     @Test
     public void testPalette236ColorForegroundIndex() {
         assertEquals("\u001B[38;5;45mabc\u001B[39m\u001B[0m", Ansi.ON.new Text("@|fg(45) abc|@").toString());
@@ -540,4 +540,43 @@ public class HelpSubCommandTest {
         @Command(name = "top", subcommands = {Issue2355.class, HelpCommand.class}) class Top { }
         int actual = new CommandLine(new Top()).execute("help", "issue2355");
         assertEquals(123, actual);
-    }}
+    }
+    @Test
+    public void testSubcommandHelpCreatedOnDemand() {
+        final List<String> created = new java.util.ArrayList<String>();
+        IHelpFactory countingFactory = new IHelpFactory() {
+            public Help create(CommandSpec commandSpec, Help.ColorScheme colorScheme) {
+                created.add(commandSpec.name());
+                return new Help(commandSpec, colorScheme);
+            }
+        };
+        CommandSpec top = CommandSpec.create().name("top");
+        for (int i = 0; i < 3; i++) {
+            CommandSpec child = CommandSpec.create().name("child" + i);
+            child.usageMessage().description("Child " + i + ".");
+            for (int j = 0; j < 3; j++) {
+                child.addSubcommand("grandchild" + i + j, CommandSpec.create());
+            }
+            top.addSubcommand("child" + i, child);
+        }
+        CommandLine cmd = new CommandLine(top).setHelpFactory(countingFactory);
+
+        Help help = new Help(cmd.getCommandSpec(), Help.defaultColorScheme(Help.Ansi.OFF));
+        assertTrue("no subcommand Help created by constructor", created.isEmpty());
+
+        String expected = String.format("" +
+                "Usage: top [COMMAND]%n" +
+                "Commands:%n" +
+                "  child0  Child 0.%n" +
+                "  child1  Child 1.%n" +
+                "  child2  Child 2.%n");
+        assertEquals(expected, cmd.getUsageMessage(Help.Ansi.OFF));
+        assertEquals("only direct children created", Arrays.asList("top", "child0", "child1", "child2"), created);
+
+        created.clear();
+        Help child0 = help.subcommands().get("child0");
+        assertEquals(Arrays.asList("child0", "child1", "child2"), created);
+        assertEquals(3, child0.subcommands().size());
+        assertEquals(Arrays.asList("child0", "child1", "child2", "grandchild00", "grandchild01", "grandchild02"), created);
+    }
+}
@@ -35,6 +35,8 @@ import picocli.CommandLine.Help.TextTable;
 import picocli.CommandLine.HelpCommand;
 import picocli.CommandLine.IHelpFactory;
 import picocli.CommandLine.IHelpSectionRenderer;
+import picocli.CommandLine.IHelpSectionWriter;
+import picocli.CommandLine.ITerminalWidthProvider;
 import picocli.CommandLine.InitializationException;
 import picocli.CommandLine.Model;
 import picocli.CommandLine.Model.ArgSpec;
@@ -71,6 +73,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -3709,6 +3712,74 @@ public class HelpTest {
         //assertEquals(-1, width);
     }
 
+    @Test
+    public void testTerminalWidthProviderUsedWhenAutoWidthEnabled() {
+        final AtomicInteger calls = new AtomicInteger();
+        UsageMessageSpec.setTerminalWidthProvider(new ITerminalWidthProvider() {
+            public int terminalWidth() { calls.incrementAndGet(); return 120; }
+        });
+        try {
+            CommandLine cmd = new CommandLine(new WideDescriptionApp());
+            assertEquals(80, cmd.getUsageHelpWidth());
+            assertEquals(0, calls.get());
+
+            cmd.setUsageHelpAutoWidth(true);
+            assertEquals(120, cmd.getUsageHelpWidth());
+            assertEquals(1, calls.get());
+            assertEquals(WideDescriptionApp.expected, usageString(cmd, Help.Ansi.OFF));
+        } finally {
+            UsageMessageSpec.setTerminalWidthProvider(null);
+        }
+    }
+
+    @Test
+    public void testTerminalWidthProviderUnknownWidthFallsBack() {
+        UsageMessageSpec.setTerminalWidthProvider(new ITerminalWidthProvider() {
+            public int terminalWidth() { return -1; }
+        });
+        try {
+            CommandLine cmd = new CommandLine(new WideDescriptionApp()).setUsageHelpAutoWidth(true);
+            assertEquals(80, cmd.getUsageHelpWidth()); // not a TTY
+        } finally {
+            UsageMessageSpec.setTerminalWidthProvider(null);
+        }
+    }
+
+    @Test
+    public void testTerminalWidthProviderWidthNeverLessThanMinimum() {
+        UsageMessageSpec.setTerminalWidthProvider(new ITerminalWidthProvider() {
+            public int terminalWidth() { return 20; }
+        });
+        try {
+            CommandLine cmd = new CommandLine(new WideDescriptionApp()).setUsageHelpAutoWidth(true);
+            assertEquals(55, cmd.getUsageHelpWidth());
+        } finally {
+            UsageMessageSpec.setTerminalWidthProvider(null);
+        }
+    }
+
+    @Test
+    public void testTerminalWidthDetectedOncePerJvm() {
+        UsageMessageSpec.TerminalWidthDetector detector = UsageMessageSpec.TerminalWidthDetector.start();
+        assertSame(detector, UsageMessageSpec.TerminalWidthDetector.start());
+        assertEquals(detector.awaitWidth(), detector.awaitWidth());
+    }
+
+    @Test
+    public void testTerminalWidthTimeoutViaSystemProperty() {
+        assertEquals(2000, UsageMessageSpec.TerminalWidthDetector.getTimeoutMillis());
+
+        System.setProperty("picocli.usage.width.timeout", "150");
+        assertEquals(150, UsageMessageSpec.TerminalWidthDetector.getTimeoutMillis());
+
+        System.setProperty("picocli.usage.width.timeout", "-1");
+        assertEquals(0, UsageMessageSpec.TerminalWidthDetector.getTimeoutMillis());
+
+        System.setProperty("picocli.usage.width.timeout", "abc");
+        assertEquals(2000, UsageMessageSpec.TerminalWidthDetector.getTimeoutMillis());
+        assertEquals(String.format("[picocli WARN] Invalid picocli.usage.width.timeout value 'abc'. Using timeout 2000.%n"), systemErrRule.getLog());
+    }
+
     @Test
     public void testAutoWidthDisabledBySystemProperty() {
         @Command(usageHelpAutoWidth = true)
@@ -3928,6 +3999,76 @@ public class HelpTest {
         assertEquals(expected, actual);
     }
 
+    @Command(name = "streamed", description = "Streamed usage help.", mixinStandardHelpOptions = true, subcommands = {StreamedSub.class, HelpCommand.class})
+    static class Streamed {
+        @Option(names = {"-v", "--verbose"}, description = "Verbose output.") boolean verbose;
+        @Option(names = "--count", description = "The count.") int count;
+        @Parameters(paramLabel = "FILE", description = "The files.") List<File> files;
+        @ArgGroup(heading = "Group options:%n", exclusive = false) StreamedGroup group;
+    }
+    static class StreamedGroup {
+        @Option(names = "--grouped", description = "Option in a group.") boolean grouped;
+    }
+    @Command(name = "sub", description = "The subcommand.")
+    static class StreamedSub { }
+
+    @Test
+    public void testUsageToAppendableWritesSectionsRowByRow() throws IOException {
+        CommandLine cmd = new CommandLine(new Streamed());
+        final StringBuilder sb = new StringBuilder();
+        final int[] maxAppend = {0};
+        Appendable out = new Appendable() {
+            public Appendable append(CharSequence csq) { maxAppend[0] = Math.max(maxAppend[0], csq.length()); sb.append(csq); return this; }
+            public Appendable append(CharSequence csq, int start, int end) { return append(csq.subSequence(start, end)); }
+            public Appendable append(char c) { return append(String.valueOf(c)); }
+        };
+        cmd.usage(out, Help.defaultColorScheme(Help.Ansi.ON));
+
+        String expected = cmd.getUsageMessage(Help.Ansi.ON);
+        assertEquals(expected, sb.toString());
+        assertTrue(expected, expected.contains("Group options:"));
+        String optionList = cmd.getHelpFactory().create(cmd.getCommandSpec(), Help.defaultColorScheme(Help.Ansi.ON)).optionList();
+        assertTrue(maxAppend[0] + " < " + optionList.length(), maxAppend[0] < optionList.length());
+
+        StringWriter sw = new StringWriter();
+        cmd.usage(new PrintWriter(sw), Help.Ansi.OFF);
+        assertEquals(cmd.getUsageMessage(Help.Ansi.OFF), sw.toString());
+    }
+
+    @Test
+    public void testUsageToAppendableUsesHelpSectionWriter() throws IOException {
+        CommandLine cmd = new CommandLine(new Streamed());
+        cmd.getHelpSectionMap().put(UsageMessageSpec.SECTION_KEY_HEADER, new IHelpSectionWriter() {
+            public String render(Help help) { return "rendered "; }
+            public void write(Help help, Appendable out) throws IOException { out.append("written "); }
+        });
+        assertTrue(cmd.getUsageMessage().startsWith("rendered Usage: streamed"));
+
+        StringWriter sw = new StringWriter();
+        cmd.usage(new PrintWriter(sw), Help.Ansi.OFF);
+        assertTrue(sw.toString(), sw.toString().startsWith("written Usage: streamed"));
+    }
+
+    @Test
+    public void testUsageToAppendableUsesOverriddenHelpMethods() throws IOException {
+        CommandLine cmd = new CommandLine(new Streamed());
+        cmd.setHelpFactory(new IHelpFactory() {
+            public Help create(CommandSpec commandSpec, ColorScheme colorScheme) {
+                return new Help(commandSpec, colorScheme) {
+                    @Override public String optionList() { return "<options>%n"; }
+                    @Override public String parameterList() { return "<parameters>%n"; }
+                    @Override public String commandList() { return "<commands>%n"; }
+                };
+            }
+        });
+        StringBuilder sb = new StringBuilder();
+        cmd.usage(sb, Help.defaultColorScheme(Help.Ansi.OFF));
+        assertEquals(cmd.getUsageMessage(), sb.toString());
+        assertTrue(sb.toString(), sb.toString().contains("<options>%n"));
+        assertTrue(sb.toString(), sb.toString().contains("<parameters>%n"));
+        assertTrue(sb.toString(), sb.toString().contains("<commands>%n"));
+    }
+
     @Test
     public void testBooleanOptionWithArity1() {
         @Command(mixinStandardHelpOptions = true)
@@ -0,0 +1,158 @@
+package picocli;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.contrib.java.lang.system.ProvideSystemProperty;
+import org.junit.contrib.java.lang.system.RestoreSystemProperties;
+import org.junit.rules.TestRule;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.DuplicateNameException;
+import picocli.CommandLine.InitializationException;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.ParentCommand;
+import picocli.CommandLine.ParseResult;
+import picocli.CommandLine.ScopeType;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests lazily initialized subcommands ({@code @Command(lazySubcommands = true)}).
+ */
+public class LazySubcommandTest {
+
+    // allows tests to set any kind of properties they like, without having to individually roll them back
+    @Rule
+    public final TestRule restoreSystemProperties = new RestoreSystemProperties();
+
+    @Rule
+    public final ProvideSystemProperty ansiOFF = new ProvideSystemProperty("picocli.ansi", "false");
+
+    enum Color { RED, GREEN }
+
+    @Command(name = "top", lazySubcommands = true, subcommands = {Sub1.class, Sub2.class})
+    static class Top {
+        @Option(names = "-v", scope = ScopeType.INHERIT) boolean verbose;
+    }
+
+    @Command(name = "sub1", aliases = {"s1", "first"}, description = "The first subcommand.", subcommands = Sub1Sub.class)
+    static class Sub1 {
+        static AtomicInteger count = new AtomicInteger();
+        @ParentCommand Top parent;
+        @Option(names = "-c") Color color;
+        Sub1() { count.incrementAndGet(); }
+    }
+
+    @Command(name = "sub1sub")
+    static class Sub1Sub {
+        @Option(names = "-c") Color color;
+    }
+
+    @Command(name = "sub2", description = "The second subcommand.")
+    static class Sub2 {
+        static AtomicInteger count = new AtomicInteger();
+        Sub2() { count.incrementAndGet(); }
+    }
+
+    @Test
+    public void testSubcommandsNotInstantiatedUntilMatched() {
+        Sub1.count.set(0);
+        Sub2.count.set(0);
+        CommandLine cmd = new CommandLine(new Top());
+        assertEquals(0, Sub1.count.get());
+        assertEquals(0, Sub2.count.get());
+
+        ParseResult parseResult = cmd.parseArgs("sub2");
+        assertTrue(parseResult.hasSubcommand());
+        assertEquals("sub2", parseResult.subcommand().commandSpec().name());
+        assertEquals(1, Sub2.count.get());
+    }
+
+    @Test
+    public void testAliasesRegisteredBeforeInitialization() {
+        CommandLine cmd = new CommandLine(new Top());
+        assertSame(cmd.getSubcommands().get("sub1"), cmd.getSubcommands().get("s1"));
+        assertSame(cmd.getSubcommands().get("sub1"), cmd.getSubcommands().get("first"));
+
+        ParseResult parseResult = cmd.parseArgs("first", "-c", "RED");
+        assertEquals("sub1", parseResult.subcommand().commandSpec().name());
+        assertEquals(Color.RED, ((Sub1) parseResult.subcommand().commandSpec().userObject()).color);
+    }
+
+    @Test
+    public void testParentCommandAndInheritedOptionsInjectedOnInitialization() {
+        Top top = new Top();
+        CommandLine cmd = new CommandLine(top);
+        ParseResult parseResult = cmd.parseArgs("sub1", "-v");
+        Sub1 sub1 = (Sub1) parseResult.subcommand().commandSpec().userObject();
+        assertSame(top, sub1.parent);
+        assertTrue(top.verbose);
+        assertSame(cmd.getCommandSpec(), parseResult.subcommand().commandSpec().parent());
+    }
+
+    @Test
+    public void testSettingsAppliedBeforeInitializationPropagateToNestedSubcommands() {
+        StringWriter sw = new StringWriter();
+        PrintWriter out = new PrintWriter(sw);
+        CommandLine cmd = new CommandLine(new Top())
+                .setCaseInsensitiveEnumValuesAllowed(true)
+                .setOut(out);
+
+        ParseResult parseResult = cmd.parseArgs("sub1", "sub1sub", "-c", "green");
+        CommandLine sub1sub = parseResult.subcommand().subcommand().commandSpec().commandLine();
+        assertEquals(Color.GREEN, ((Sub1Sub) sub1sub.getCommand()).color);
+        assertTrue(sub1sub.isCaseInsensitiveEnumValuesAllowed());
+        assertSame(out, sub1sub.getOut());
+    }
+
+    @Test
+    public void testUsageHelpListsLazySubcommands() {
+        String expected = String.format("" +
+                "Usage: top [-v] [COMMAND]%n" +
+                "  -v%n" +
+                "Commands:%n" +
+                "  sub1, s1, first  The first subcommand.%n" +
+                "  sub2             The second subcommand.%n");
+        assertEquals(expected, new CommandLine(new Top()).getUsageMessage());
+    }
+
+    @Command(name = "broken")
+    static class Broken {
+        @Option(names = "-x") int x;
+        @Option(names = "-x") int y;
+    }
+
+    @Command(name = "app", lazySubcommands = true, subcommands = {Broken.class, Sub2.class})
+    static class App { }
+
+    @Test
+    public void testInvalidSubcommandOnlyFailsWhenInitialized() {
+        CommandLine cmd = new CommandLine(new App());
+        assertTrue(cmd.parseArgs("sub2").hasSubcommand());
+        try {
+            cmd.parseArgs("broken");
+            fail("Expected exception");
+        } catch (InitializationException ex) {
+            assertTrue(ex.getMessage(), ex.getMessage().startsWith("Option name '-x' is used by both field int"));
+        }
+    }
+
+    @Command(name = "sub2")
+    static class OtherSub2 { }
+
+    @Command(name = "dup", lazySubcommands = true, subcommands = {Sub2.class, OtherSub2.class})
+    static class Dup { }
+
+    @Test
+    public void testDuplicateNamesDetectedUpFront() {
+        try {
+            new CommandLine(new Dup());
+            fail("Expected exception");
+        } catch (DuplicateNameException ex) {
+            assertEquals("Another subcommand named 'sub2' already exists for command 'dup'", ex.getMessage());
+        }
+    }
+}
@@ -1492,4 +1492,71 @@ public class ModelCommandSpecTest {
                 "  -x=PARAM%n");
         assertEquals(expected, actual);
     }
+
+    @Test
+    public void testOptionNamesRecognizedAfterModelChanges() {
+        CommandSpec spec = CommandSpec.create();
+        spec.addOption(OptionSpec.builder("--file").type(String.class).build());
+        CommandLine cmd = new CommandLine(spec).setUnmatchedArgumentsAllowed(true);
+
+        ParseResult parseResult = cmd.parseArgs("--file=a", "--verbose");
+        assertEquals("a", parseResult.matchedOptionValue("--file", null));
+        assertEquals(Arrays.asList("--verbose"), parseResult.unmatched());
+
+        spec.addOption(OptionSpec.builder("--verbose").negatable(true).type(boolean.class).build());
+        cmd.setOverwrittenOptionsAllowed(true);
+        parseResult = cmd.parseArgs("--verbose", "--no-verbose", "--file", "b");
+        assertTrue(parseResult.hasMatchedOption("--verbose"));
+        assertEquals("b", parseResult.matchedOptionValue("--file", null));
+        assertFalse((Boolean) spec.findOption("--verbose").getValue());
+
+        spec.negatableOptionTransformer(new CommandLine.RegexTransformer.Builder()
+                .addPattern("^--(\\w(-|\\w)*)$", "--without-$1", "--[without-]$1").build());
+        parseResult = cmd.parseArgs("--without-verbose", "--no-verbose");
+        assertTrue(parseResult.hasMatchedOption("--verbose"));
+        assertEquals(Arrays.asList("--no-verbose"), parseResult.unmatched());
+
+        spec.remove(spec.findOption("--file"));
+        parseResult = cmd.parseArgs("--file=c");
+        assertFalse(parseResult.hasMatchedOption("--verbose"));
+        assertEquals(Arrays.asList("--file=c"), parseResult.unmatched());
+    }
+
+    @Test
+    public void testAttachedOptionParameterLookupIsCaseAware() {
+        CommandSpec spec = CommandSpec.create();
+        spec.addOption(OptionSpec.builder("--file").type(String.class).build());
+        spec.addOption(OptionSpec.builder("--file=x").arity("0").build());
+        CommandLine cmd = new CommandLine(spec);
+
+        ParseResult parseResult = cmd.parseArgs("--file=x"); // be greedy
+        assertTrue(parseResult.hasMatchedOption("--file=x"));
+        assertFalse(parseResult.hasMatchedOption("--file"));
+
+        parseResult = cmd.parseArgs("--file=y");
+        assertEquals("y", parseResult.matchedOptionValue("--file", null));
+
+        cmd.setOptionsCaseInsensitive(true);
+        parseResult = cmd.parseArgs("--FILE=z");
+        assertEquals("z", parseResult.matchedOptionValue("--file", null));
+
+        cmd.setOptionsCaseInsensitive(false);
+        cmd.setUnmatchedArgumentsAllowed(true);
+        parseResult = cmd.parseArgs("--FILE=z");
+        assertEquals(Arrays.asList("--FILE=z"), parseResult.unmatched());
+    }
+
+    @Test
+    public void testNumbersDoNotResembleOptions() {
+        CommandSpec spec = CommandSpec.create();
+        spec.addOption(OptionSpec.builder("--alpha").build());
+        spec.addOption(OptionSpec.builder("--beta").build());
+        spec.addPositional(PositionalParamSpec.builder().type(String[].class).build());
+
+        String[] args = {"-1.5", "-0x1F", "#10", "-Infinity", "NaN", " -2"};
+        ParseResult parseResult = new CommandLine(spec).parseArgs(args);
+        assertArrayEquals(args, parseResult.matchedPositionalValue(0, new String[0]));
+        assertTrue(spec.resemblesOption("--gamma"));
+        assertFalse(spec.resemblesOption("gamma"));
+    }
 }
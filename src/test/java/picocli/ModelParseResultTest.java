@@ -720,4 +720,48 @@ public class ModelParseResultTest {
         assertTrue(matched.contains(pr.commandSpec().findOption("--help")));
         assertTrue(matched.contains(pr.commandSpec().findOption("--version")));
     }
+
+    @Test
+    public void testMatchedOption_FirstMatchedOptionWinsIfNamesDifferOnlyInPrefix() {
+        class App {
+            @Option(names = "-v") boolean single;
+            @Option(names = "--v") boolean dashes;
+            @Option(names = "/x") boolean slash;
+        }
+        CommandLine cmd = new CommandLine(new App());
+        CommandSpec spec = cmd.getCommandSpec();
+        ParseResult parseResult = cmd.parseArgs("--v", "-v", "/x");
+        assertSame(spec.findOption("--v"), parseResult.matchedOption("v"));
+        assertSame(spec.findOption("-v"), parseResult.matchedOption("-v"));
+        assertSame(spec.findOption("-v"), parseResult.matchedOption('v'));
+        assertSame(spec.findOption("/x"), parseResult.matchedOption("x"));
+        assertNull("only -x or x are short names", parseResult.matchedOption('x'));
+
+        parseResult = cmd.parseArgs("-v", "--v");
+        assertSame(spec.findOption("-v"), parseResult.matchedOption("v"));
+    }
+
+    @Test
+    public void testMatchedOptionLookupsWithManyOptions() {
+        CommandSpec spec = CommandSpec.create();
+        String[] args = new String[500];
+        for (int i = 0; i < 1000; i++) {
+            spec.addOption(OptionSpec.builder("--option-" + i, "-" + i).arity("0").build());
+            if (i % 2 == 0) { args[i / 2] = "--option-" + i; }
+        }
+        spec.addPositional(PositionalParamSpec.builder().index("0").build());
+        PositionalParamSpec unmatchedPositional = PositionalParamSpec.builder().index("1").build();
+        spec.addPositional(unmatchedPositional);
+        ParseResult parseResult = new CommandLine(spec).parseArgs(args);
+        for (int i = 0; i < 1000; i++) {
+            OptionSpec option = spec.findOption("--option-" + i);
+            OptionSpec expected = i % 2 == 0 ? option : null;
+            assertSame(expected, parseResult.matchedOption("option-" + i));
+            assertSame(expected, parseResult.matchedOption("-" + i));
+            assertEquals(i % 2 == 0, parseResult.hasMatchedOption(option));
+        }
+        assertEquals(500, parseResult.matchedOptions().size());
+        assertFalse(parseResult.hasMatchedPositional(spec.positionalParameters().get(0)));
+        assertFalse(parseResult.hasMatchedPositional(unmatchedPositional));
+    }
 }
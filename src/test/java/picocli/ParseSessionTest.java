@@ -0,0 +1,126 @@
+package picocli;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.contrib.java.lang.system.ProvideSystemProperty;
+import org.junit.contrib.java.lang.system.RestoreSystemProperties;
+import org.junit.rules.TestRule;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.ParseResult;
+import picocli.CommandLine.ParseSession;
+import picocli.CommandLine.Parameters;
+import picocli.CommandLine.ScopeType;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link ParseSession}.
+ */
+public class ParseSessionTest {
+
+    // allows tests to set any kind of properties they like, without having to individually roll them back
+    @Rule
+    public final TestRule restoreSystemProperties = new RestoreSystemProperties();
+
+    @Rule
+    public final ProvideSystemProperty ansiOFF = new ProvideSystemProperty("picocli.ansi", "false");
+
+    @Command(name = "app", subcommands = Sub.class)
+    static class App {
+        @Option(names = "-v", scope = ScopeType.INHERIT) boolean verbose;
+        @Option(names = "-n", defaultValue = "5") int number;
+        @Option(names = "-x") String x = "initial";
+        @Option(names = "-l") List<String> list;
+        @Parameters List<String> positional;
+        @Option(names = "-y") int y = 3;
+    }
+
+    @Command(name = "sub")
+    static class Sub {
+        @Option(names = "-s") String s;
+        @Option(names = "-t") int t = 3;
+    }
+
+    @Test
+    public void testValuesResetBetweenParses() {
+        App app = new App();
+        ParseSession session = new CommandLine(app).newParseSession();
+
+        session.parseArgs("-v", "-n", "7", "-x", "changed", "-l", "a", "-l", "b", "p1");
+        assertTrue(app.verbose);
+        assertEquals(7, app.number);
+        assertEquals("changed", app.x);
+        assertEquals(Arrays.asList("a", "b"), app.list);
+        assertEquals(Arrays.asList("p1"), app.positional);
+
+        ParseResult parseResult = session.parseArgs("-l", "c");
+        assertFalse(app.verbose);
+        assertEquals(5, app.number);
+        assertEquals("initial", app.x);
+        assertEquals(Arrays.asList("c"), app.list);
+        assertNull(app.positional);
+        assertTrue(parseResult.hasMatchedOption("-l"));
+        assertFalse(parseResult.hasMatchedOption("-x"));
+    }
+
+    @Test
+    public void testOnlyTouchedArgsResetAfterFirstParse() {
+        App app = new App();
+        ParseSession session = new CommandLine(app).newParseSession();
+        session.parseArgs("-x", "a");
+        app.y = 99; // modified by the application: not detected by the session
+
+        session.parseArgs("-x", "b");
+        session.parseArgs("-n", "1");
+        assertEquals("untouched option is not reset", 99, app.y);
+
+        session.parseArgs("-y", "1");
+        session.parseArgs();
+        assertEquals("touched option is reset", 3, app.y);
+
+        app.y = 99;
+        session.commandLine().parseArgs("-x", "c");
+        assertEquals("regular parse resets all options", 3, app.y);
+    }
+
+    @Test
+    public void testSubcommandAndInheritedOptionsReset() {
+        App app = new App();
+        CommandLine cmd = new CommandLine(app);
+        ParseSession session = cmd.newParseSession();
+
+        ParseResult parseResult = session.parseArgs("sub", "-v", "-s", "abc");
+        Sub sub = (Sub) parseResult.subcommand().commandSpec().userObject();
+        assertTrue(app.verbose);
+        assertEquals("abc", sub.s);
+
+        parseResult = session.parseArgs("sub");
+        assertFalse(app.verbose);
+        assertNull(sub.s);
+        assertSame(sub, parseResult.subcommand().commandSpec().userObject());
+
+        session.parseArgs("-v");
+        assertTrue(app.verbose);
+        session.parseArgs();
+        assertFalse(app.verbose);
+    }
+
+    @Test
+    public void testDirectSubcommandParseResetsAllOptionsAfterSession() {
+        CommandLine cmd = new CommandLine(new App());
+        ParseSession session = cmd.newParseSession();
+        session.parseArgs("sub", "-s", "a");
+        session.parseArgs("sub", "-s", "b");
+
+        CommandLine subCommandLine = cmd.getSubcommands().get("sub");
+        Sub sub = subCommandLine.getCommand();
+        sub.t = 99; // modified by the application: only a regular parse resets it
+        subCommandLine.parseArgs("-s", "c");
+        assertEquals("regular parse of the subcommand resets all options", 3, sub.t);
+        assertEquals("c", sub.s);
+    }
+}
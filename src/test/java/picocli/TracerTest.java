@@ -11,8 +11,10 @@ import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.PrintStream;
 import java.lang.reflect.Field;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
 import static java.lang.String.format;
@@ -63,7 +65,7 @@ public class TracerTest {
                         "[picocli DEBUG] Creating CommandSpec for picocli.CommandLineTest$CompactFields@20f5239f with factory picocli.CommandLine$DefaultFactory%n" +
                         "[picocli INFO] Picocli version: %3$s%n" +
                         "[picocli INFO] Parsing 6 command line args [-oout, --, -r, -v, p1, p2]%n" +
-                        "[picocli DEBUG] Parser configuration: optionsCaseInsensitive=false, subcommandsCaseInsensitive=false, abbreviatedOptionsAllowed=false, abbreviatedSubcommandsAllowed=false, allowOptionsAsOptionParameters=false, allowSubcommandsAsOptionParameters=false, aritySatisfiedByAttachedOptionParam=false, atFileCommentChar=#, caseInsensitiveEnumValuesAllowed=false, collectErrors=false, endOfOptionsDelimiter=--, expandAtFiles=true, limitSplit=false, overwrittenOptionsAllowed=false, posixClusteredShortOptionsAllowed=true, separator=null, splitQuotedStrings=false, stopAtPositional=false, stopAtUnmatched=false, toggleBooleanFlags=false, trimQuotes=false, unmatchedArgumentsAllowed=false, unmatchedOptionsAllowedAsOptionParameters=true, unmatchedOptionsArePositionalParams=false, useSimplifiedAtFiles=false%n" +
+                        "[picocli DEBUG] Parser configuration: optionsCaseInsensitive=false, subcommandsCaseInsensitive=false, abbreviatedOptionsAllowed=false, abbreviatedSubcommandsAllowed=false, allowOptionsAsOptionParameters=false, allowSubcommandsAsOptionParameters=false, aritySatisfiedByAttachedOptionParam=false, atFileCharset=null, atFileCommentChar=#, caseInsensitiveEnumValuesAllowed=false, collectErrors=false, endOfOptionsDelimiter=--, expandAtFiles=true, limitSplit=false, overwrittenOptionsAllowed=false, posixClusteredShortOptionsAllowed=true, separator=null, splitQuotedStrings=false, stopAtPositional=false, stopAtUnmatched=false, toggleBooleanFlags=false, trimQuotes=false, unmatchedArgumentsAllowed=false, unmatchedOptionsAllowedAsOptionParameters=true, unmatchedOptionsArePositionalParams=false, useSimplifiedAtFiles=false%n" +
                         "[picocli DEBUG] (ANSI is disabled by default: ...)%n" +
                         "[picocli DEBUG] Initializing command 'null' (user object: picocli.CommandLineTest$CompactFields@20f5239f): 3 options, 1 positional parameters, 0 required, 0 groups, 0 subcommands.%n" +
                         "[picocli DEBUG] Set initial value for field boolean picocli.CommandLineTest$CompactFields.verbose of type boolean to false.%n" +
@@ -293,7 +295,7 @@ public class TracerTest {
                         "[picocli DEBUG] Adding subcommand 'tag' to 'git'%n" +
                         "[picocli INFO] Picocli version: %3$s%n" +
                         "[picocli INFO] Parsing 8 command line args [--git-dir=/home/rpopma/picocli, commit, -m, \"Fixed typos\", --, src1.java, src2.java, src3.java]%n" +
-                        "[picocli DEBUG] Parser configuration: optionsCaseInsensitive=false, subcommandsCaseInsensitive=false, abbreviatedOptionsAllowed=false, abbreviatedSubcommandsAllowed=false, allowOptionsAsOptionParameters=false, allowSubcommandsAsOptionParameters=false, aritySatisfiedByAttachedOptionParam=false, atFileCommentChar=#, caseInsensitiveEnumValuesAllowed=false, collectErrors=false, endOfOptionsDelimiter=--, expandAtFiles=true, limitSplit=false, overwrittenOptionsAllowed=false, posixClusteredShortOptionsAllowed=true, separator=null, splitQuotedStrings=false, stopAtPositional=false, stopAtUnmatched=false, toggleBooleanFlags=false, trimQuotes=false, unmatchedArgumentsAllowed=false, unmatchedOptionsAllowedAsOptionParameters=true, unmatchedOptionsArePositionalParams=false, useSimplifiedAtFiles=false%n" +
+                        "[picocli DEBUG] Parser configuration: optionsCaseInsensitive=false, subcommandsCaseInsensitive=false, abbreviatedOptionsAllowed=false, abbreviatedSubcommandsAllowed=false, allowOptionsAsOptionParameters=false, allowSubcommandsAsOptionParameters=false, aritySatisfiedByAttachedOptionParam=false, atFileCharset=null, atFileCommentChar=#, caseInsensitiveEnumValuesAllowed=false, collectErrors=false, endOfOptionsDelimiter=--, expandAtFiles=true, limitSplit=false, overwrittenOptionsAllowed=false, posixClusteredShortOptionsAllowed=true, separator=null, splitQuotedStrings=false, stopAtPositional=false, stopAtUnmatched=false, toggleBooleanFlags=false, trimQuotes=false, unmatchedArgumentsAllowed=false, unmatchedOptionsAllowedAsOptionParameters=true, unmatchedOptionsArePositionalParams=false, useSimplifiedAtFiles=false%n" +
                         "[picocli DEBUG] (ANSI is disabled by default: ...)%n" +
                         "[picocli DEBUG] Initializing command 'git' (user object: picocli.Demo$Git@75d4a5c2): 3 options, 0 positional parameters, 0 required, 0 groups, 12 subcommands.%n" +
                         "[picocli DEBUG] Set initial value for field java.io.File picocli.Demo$Git.gitDir of type class java.io.File to null.%n" +
@@ -455,4 +457,60 @@ public class TracerTest {
         assertEquals(stripAnsiTrace(expected), stripAnsiTrace(actual));
         setTraceLevel(CommandLine.TraceLevel.WARN);
     }
+
+    static class Recording implements CommandLine.ITraceSink {
+        final List<String> statements = new ArrayList<String>();
+        public void trace(CommandLine.TraceLevel level, String msg, Object[] params) {
+            statements.add(level + " " + msg + " " + Arrays.asList(params));
+        }
+    }
+
+    @Test
+    public void testSinkReceivesUnformattedStatements() {
+        CommandLine.Tracer tracer = CommandLine.tracer();
+        Recording sink = new Recording();
+        tracer.setSink(sink);
+        try {
+            setTraceLevel(CommandLine.TraceLevel.INFO);
+            assertSame(sink, CommandLine.tracer().getSink());
+            tracer.warn("w %s", 1);
+            tracer.info("i %s %s", "a", "b");
+            tracer.info("i");
+            tracer.debug("d %s", "not recorded");
+            tracer.info("%s %s %s %s", 1, 2, 3, 4);
+        } finally {
+            tracer.setSink(null);
+        }
+        assertEquals(Arrays.asList("WARN w %s [1]", "INFO i %s %s [a, b]", "INFO i []", "INFO %s %s %s %s [1, 2, 3, 4]"), sink.statements);
+        assertEquals("", systemErrRule.getLog());
+    }
+
+    @Test
+    public void testDisabledStatementsNotFormatted() {
+        final int[] toStringCalls = {0};
+        Object param = new Object() {
+            public String toString() { toStringCalls[0]++; return "param"; }
+        };
+        setTraceLevel(CommandLine.TraceLevel.WARN);
+        CommandLine.Tracer tracer = CommandLine.tracer();
+        tracer.info("%s", param);
+        tracer.debug("%s %s", param, param);
+        tracer.debug("%s %s %s", param, param, param);
+        assertEquals(0, toStringCalls[0]);
+        assertEquals("", systemErrRule.getLog());
+
+        tracer.warn("%s", param);
+        assertEquals(1, toStringCalls[0]);
+        assertEquals(format("[picocli WARN] param%n"), systemErrRule.getLog());
+    }
+
+    @Test
+    public void testLevelRefreshedWhenSystemPropertyChanges() {
+        setTraceLevel(CommandLine.TraceLevel.DEBUG);
+        assertEquals(CommandLine.TraceLevel.DEBUG, CommandLine.tracer().getLevel());
+        System.setProperty("picocli.trace", "");
+        assertEquals(CommandLine.TraceLevel.INFO, CommandLine.tracer().getLevel());
+        System.clearProperty("picocli.trace");
+        assertEquals(CommandLine.TraceLevel.WARN, CommandLine.tracer().getLevel());
+    }
 }
@@ -1342,4 +1342,40 @@ public class TypeConversionTest {
         assertEquals("ABC", app.address.toString());
         assertTrue(app.address instanceof StringBuilder);
     }
+
+    @Test
+    public void testResolvedConvertersCachedPerArgSpec() {
+        class App {
+            @Option(names = "-u") TimeUnit[] units;
+            @Option(names = "-m") Map<String, TimeUnit> map;
+        }
+        App app = new App();
+        CommandLine cmd = new CommandLine(app);
+        cmd.parseArgs("-u", "SECONDS", "-u", "DAYS", "-m", "a=HOURS");
+        assertArrayEquals(new TimeUnit[] {SECONDS, TimeUnit.DAYS}, app.units);
+        assertEquals(TimeUnit.HOURS, app.map.get("a"));
+
+        CommandLine.Model.ArgSpec units = cmd.getCommandSpec().findOption("-u");
+        ITypeConverter<?> cached = units.resolvedConverters[0];
+        assertNotNull(cached);
+        cmd.parseArgs("-u", "MINUTES");
+        assertSame(cached, units.resolvedConverters[0]);
+        assertNotNull(cmd.getCommandSpec().findOption("-m").resolvedConverters[1]);
+    }
+    @Test
+    public void testResolvedConvertersInvalidatedWhenConverterRegistered() {
+        class App {
+            @Option(names = "-u") TimeUnit unit;
+        }
+        App app = new App();
+        CommandLine cmd = new CommandLine(app);
+        cmd.parseArgs("-u", "SECONDS");
+        assertEquals(SECONDS, app.unit);
+
+        cmd.registerConverter(TimeUnit.class, new ITypeConverter<TimeUnit>() {
+            public TimeUnit convert(String value) { return TimeUnit.valueOf(value.toUpperCase()); }
+        });
+        cmd.parseArgs("-u", "milliseconds");
+        assertEquals(MILLISECONDS, app.unit);
+    }
 }
@@ -0,0 +1,113 @@
+package picocli;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.contrib.java.lang.system.ProvideSystemProperty;
+import org.junit.contrib.java.lang.system.RestoreSystemProperties;
+import org.junit.rules.TestRule;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Help;
+import picocli.CommandLine.Model.OptionSpec;
+import picocli.CommandLine.Option;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link CommandLine#setUsageHelpCacheEnabled(boolean)}.
+ */
+public class UsageHelpCacheTest {
+
+    // allows tests to set any kind of properties they like, without having to individually roll them back
+    @Rule
+    public final TestRule restoreSystemProperties = new RestoreSystemProperties();
+
+    @Rule
+    public final ProvideSystemProperty ansiOFF = new ProvideSystemProperty("picocli.ansi", "false");
+
+    @Command(name = "app", description = "The app.", subcommands = Sub.class)
+    static class App {
+        @Option(names = "-x", description = "The x.") int x;
+    }
+
+    @Command(name = "sub", description = "The sub.")
+    static class Sub { }
+
+    @Test
+    public void testCacheDisabledByDefault() {
+        CommandLine cmd = new CommandLine(new App());
+        assertFalse(cmd.isUsageHelpCacheEnabled());
+        assertEquals(cmd.getUsageMessage(), cmd.getUsageMessage());
+        assertEquals(0, cmd.getUsageHelpCacheHits());
+        assertEquals(0, cmd.getUsageHelpCacheMisses());
+    }
+
+    @Test
+    public void testCachedPerColorScheme() {
+        CommandLine cmd = new CommandLine(new App()).setUsageHelpCacheEnabled(true);
+        assertTrue(cmd.isUsageHelpCacheEnabled());
+        assertTrue(cmd.getSubcommands().get("sub").isUsageHelpCacheEnabled());
+
+        String expected = String.format("" +
+                "Usage: app [-x=<x>] [COMMAND]%n" +
+                "The app.%n" +
+                "  -x=<x>    The x.%n" +
+                "Commands:%n" +
+                "  sub  The sub.%n");
+        assertEquals(expected, cmd.getUsageMessage(Help.Ansi.OFF));
+        assertEquals(expected, cmd.getUsageMessage(Help.Ansi.OFF));
+        assertEquals(1, cmd.getUsageHelpCacheMisses());
+        assertEquals(1, cmd.getUsageHelpCacheHits());
+
+        String ansi = cmd.getUsageMessage(Help.Ansi.ON);
+        assertNotEquals(expected, ansi);
+        assertEquals(2, cmd.getUsageHelpCacheMisses());
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        cmd.usage(new PrintStream(baos), Help.Ansi.ON);
+        assertEquals(ansi, baos.toString());
+        assertEquals(2, cmd.getUsageHelpCacheHits());
+    }
+
+    @Test
+    public void testCacheInvalidatedWhenModelModified() {
+        CommandLine cmd = new CommandLine(new App()).setUsageHelpCacheEnabled(true);
+        String original = cmd.getUsageMessage(Help.Ansi.OFF);
+
+        cmd.getCommandSpec().usageMessage().description("Changed.");
+        String changedDescription = cmd.getUsageMessage(Help.Ansi.OFF);
+        assertTrue(changedDescription, changedDescription.contains("Changed."));
+        assertEquals(2, cmd.getUsageHelpCacheMisses());
+
+        cmd.getCommandSpec().addOption(OptionSpec.builder("-y").description("The y.").build());
+        assertTrue(cmd.getUsageMessage(Help.Ansi.OFF).contains("The y."));
+        assertEquals(3, cmd.getUsageHelpCacheMisses());
+
+        cmd.getSubcommands().get("sub").getCommandSpec().usageMessage().description("The changed sub.");
+        assertTrue(cmd.getUsageMessage(Help.Ansi.OFF).contains("sub  The changed sub."));
+        assertEquals(4, cmd.getUsageHelpCacheMisses());
+
+        cmd.setUsageHelpWidth(100);
+        cmd.getUsageMessage(Help.Ansi.OFF);
+        assertEquals(5, cmd.getUsageHelpCacheMisses());
+        assertEquals(0, cmd.getUsageHelpCacheHits());
+        assertNotEquals(original, cmd.getUsageMessage(Help.Ansi.OFF));
+        assertEquals(1, cmd.getUsageHelpCacheHits());
+    }
+
+    @Test
+    public void testDisableCache() {
+        CommandLine cmd = new CommandLine(new App()).setUsageHelpCacheEnabled(true);
+        cmd.getUsageMessage();
+        cmd.getUsageMessage();
+        assertEquals(1, cmd.getUsageHelpCacheHits());
+
+        cmd.setUsageHelpCacheEnabled(false);
+        assertFalse(cmd.getSubcommands().get("sub").isUsageHelpCacheEnabled());
+        cmd.getUsageMessage();
+        assertEquals(0, cmd.getUsageHelpCacheHits());
+        assertEquals(0, cmd.getUsageHelpCacheMisses());
+    }
+}